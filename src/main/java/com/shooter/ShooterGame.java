@@ -2,9 +2,37 @@ package com.shooter;
 
 import com.badlogic.gdx.Game;
 import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.utils.Array;
+import com.shooter.config.GameConfig;
+import com.shooter.debug.GlResourceTracker;
+import com.shooter.input.InputBindings;
+import com.shooter.managers.AssetManager;
+import com.shooter.managers.AudioManager;
+import com.shooter.managers.FontManager;
+import com.shooter.managers.TextureCache;
+import com.shooter.performance.FrameEvent;
+import com.shooter.performance.FrameStats;
+import com.shooter.performance.GameMetrics;
+import com.shooter.performance.GameEvents;
+import com.shooter.performance.InputLatency;
+import com.shooter.persistence.ScoreStore;
+import com.shooter.rendering.LowResRenderer;
+import com.shooter.performance.LoadGovernor;
+import com.shooter.performance.ScreenTransitionEvent;
+import com.shooter.performance.StartupTimeline;
+import com.shooter.screens.GameScreen;
 import com.shooter.screens.MenuScreen;
+import com.shooter.utils.Constants;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main game class for the 2D Sidescrolling Shooter Game.
@@ -18,22 +46,99 @@ public class ShooterGame extends Game {
     private int width;
     private int height;
 
+    // Low resolution frame buffer, scaled up to the window
+    private LowResRenderer lowResRenderer;
+    private boolean appliedLowRes;
+    private boolean lowResWanted;
+
+    // Frame time monitoring
+    private FrameStats frameStats;
+    private LoadGovernor loadGovernor;
+    private int appliedTargetFps;
+    private InputLatency inputLatency;
+    private long frameCount;
+
+    // Live metrics for JMX tools
+    private GameMetrics metrics;
+
+    // High scores and session statistics
+    private ScoreStore scoreStore;
+
+    // Key bindings shared by all game sessions
+    private InputBindings inputBindings;
+
+    // Screens replaced during the current frame, disposed once it has been drawn
+    private final Array<Screen> retiredScreens = new Array<Screen>();
+
+    // Startup
+    private boolean startupReported;
+    private boolean trainingRun;
+
+    // Frames shown by a training run: the menu, then a short game
+    private static final int TRAINING_MENU_FRAMES = 60;
+    private static final int TRAINING_FRAMES = 600;
+
     /**
      * Called when the game is created.
      * Initializes the SpriteBatch, configures rendering for pixel art, and sets the initial screen.
      */
     @Override
     public void create() {
+        StartupTimeline.mark(StartupTimeline.CREATE);
+
         // Configure OpenGL for pixel art rendering
         Gdx.gl.glHint(GL20.GL_GENERATE_MIPMAP_HINT, GL20.GL_NEAREST);
 
-        batch = new SpriteBatch();
+        // Track GL resources from the first one on, if asked to
+        GlResourceTracker.getInstance().setEnabled(GameConfig.get().isTrackResources());
+
+        batch = GlResourceTracker.getInstance().track(new SpriteBatch(), this);
         width = Gdx.graphics.getWidth();
         height = Gdx.graphics.getHeight();
 
         // Configure SpriteBatch for pixel-perfect rendering
         batch.setBlendFunction(GL20.GL_SRC_ALPHA, GL20.GL_ONE_MINUS_SRC_ALPHA);
 
+        // Draw at the game's resolution and scale up to the window
+        lowResRenderer = new LowResRenderer(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT);
+        appliedLowRes = GameConfig.get().isLowResRendering();
+        lowResWanted = appliedLowRes;
+        lowResRenderer.setEnabled(lowResWanted);
+        lowResRenderer.resize();
+
+        // Set up frame time monitoring
+        appliedTargetFps = GameConfig.get().getTargetFps();
+        frameStats = new FrameStats(120);
+        loadGovernor = new LoadGovernor(1f / appliedTargetFps);
+        inputLatency = new InputLatency();
+
+        // Let jconsole watch the session
+        metrics = new GameMetrics(this);
+        if (GameConfig.get().isJmxMetrics()) {
+            metrics.register();
+        }
+
+        // Open the score store (reads only the small top-N index)
+        GameConfig config = GameConfig.get();
+        try {
+            scoreStore = new ScoreStore(Paths.get(config.getDataDirectory()),
+                config.getHighScoreTableSize());
+        } catch (IOException e) {
+            Gdx.app.error("ShooterGame", "High scores are not available", e);
+        }
+
+        // Set up the default key bindings
+        inputBindings = new InputBindings();
+
+        // Load all sound effects up front so the first shot does not stall
+        AudioManager.getInstance().preload();
+
+        // Create the textures up front so starting a game does not stall
+        AssetManager.getInstance();
+
+        // Bake or read the fonts of all screens once
+        FontManager.getInstance().preload();
+
         // Set the initial screen to the menu screen
         setScreen(new MenuScreen(this));
     }
@@ -44,12 +149,167 @@ public class ShooterGame extends Game {
      */
     @Override
     public void render() {
-        // Clear the screen
+        FrameEvent frameEvent = GameEvents.beginFrame();
+
+        // The previous frame has been swapped to the screen by now
+        inputLatency.frameStarted(System.nanoTime());
+
+        // Apply a reloaded frame rate target
+        int targetFps = GameConfig.get().getTargetFps();
+        if (targetFps != appliedTargetFps) {
+            appliedTargetFps = targetFps;
+            Gdx.graphics.setForegroundFPS(targetFps);
+            loadGovernor.setTargetFrameTime(1f / targetFps);
+        }
+
+        // Apply a reloaded texture budget
+        TextureCache textureCache = AssetManager.getInstance().getTextureCache();
+        long textureBudget = GameConfig.get().getTextureBudgetBytes();
+        if (textureBudget != textureCache.getBudgetBytes()) {
+            textureCache.setBudgetBytes(textureBudget);
+        }
+
+        // Apply a reloaded low resolution setting
+        boolean lowRes = GameConfig.get().isLowResRendering();
+        if (lowRes != appliedLowRes) {
+            appliedLowRes = lowRes;
+            lowResWanted = lowRes;
+        }
+
+        // Switch the frame buffer between frames, so the viewports can follow
+        if (lowResWanted != lowResRenderer.isEnabled()) {
+            lowResRenderer.setEnabled(lowResWanted);
+            resize(Gdx.graphics.getWidth(), Gdx.graphics.getHeight());
+        }
+
+        // Track frame times and adjust the load level
+        float delta = Gdx.graphics.getDeltaTime();
+        frameStats.record(delta);
+        loadGovernor.update(frameStats, delta);
+        metrics.frame(delta, loadGovernor.getTargetFrameTime());
+
+        // Clear the screen (or the frame buffer)
+        lowResRenderer.begin();
         Gdx.gl.glClearColor(0, 0, 0, 1);
         Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
 
-        // Let the screen render itself
+        // Let the screen render itself, then scale the frame buffer up to the window
         super.render();
+        lowResRenderer.end(batch);
+
+        // Dispose the screens this frame left behind; their render may have been running
+        disposeRetiredScreens();
+
+        // Start the sounds triggered this frame
+        AudioManager.getInstance().update();
+
+        GameEvents.endFrame(frameEvent, frameCount++, delta, getScreen());
+
+        if (!startupReported) {
+            startupReported = true;
+            StartupTimeline.mark(StartupTimeline.FIRST_FRAME);
+            reportStartup();
+        }
+        if (trainingRun) {
+            advanceTrainingRun();
+        }
+    }
+
+    /**
+     * Logs the startup timeline and appends it to startup.csv in the data directory.
+     */
+    private void reportStartup() {
+        Gdx.app.log("ShooterGame", StartupTimeline.report());
+        Path file = Paths.get(GameConfig.get().getDataDirectory(), "startup.csv");
+        try {
+            StartupTimeline.appendCsv(file);
+        } catch (IOException e) {
+            Gdx.app.error("ShooterGame", "Failed to write " + file, e);
+        }
+    }
+
+    /**
+     * Plays the scripted training run: shows the menu, starts a game, then exits, so the
+     * JVM sees the classes of a normal session when it writes the class archive.
+     */
+    private void advanceTrainingRun() {
+        if (frameCount == TRAINING_MENU_FRAMES) {
+            setScreen(new GameScreen(this));
+        } else if (frameCount == TRAINING_FRAMES) {
+            Gdx.app.exit();
+        }
+    }
+
+    /**
+     * Replaces the current screen, recording the change for the flight recorder. The
+     * previous screen is hidden at once and disposed at the end of the frame, since the
+     * change is usually made from inside its render().
+     * @param screen The new screen
+     */
+    @Override
+    public void setScreen(Screen screen) {
+        ScreenTransitionEvent event = GameEvents.beginScreenTransition();
+        Screen previous = getScreen();
+        super.setScreen(screen);
+        if (previous != null && previous != screen) {
+            retiredScreens.add(previous);
+        }
+        retiredScreens.removeValue(screen, true);
+
+        // The new screen applied its viewport to the window while the frame buffer may be bound
+        lowResRenderer.restoreViewport();
+        GameEvents.endScreenTransition(event, previous, screen);
+    }
+
+    /**
+     * Called when the window is resized. Fits the frame buffer and the screen to the new size.
+     * @param width The new width
+     * @param height The new height
+     */
+    @Override
+    public void resize(int width, int height) {
+        super.resize(width, height);
+        lowResRenderer.resize();
+    }
+
+    /**
+     * Switches between drawing through the low resolution frame buffer and drawing
+     * directly, from the next frame on, e.g. to compare their cost.
+     */
+    public void toggleLowResRendering() {
+        lowResWanted = !lowResWanted;
+    }
+
+    /**
+     * Shows or hides the debug overlay of the running game, if a game is running.
+     */
+    public void toggleDebugOverlay() {
+        if (getScreen() instanceof GameScreen gameScreen) {
+            gameScreen.toggleDebugOverlay();
+        }
+    }
+
+    /**
+     * Asks the running game for a copy of its world state.
+     * @return Completes with the state as written by World.save(), or null if no game is running
+     */
+    public CompletableFuture<byte[]> requestWorldDump() {
+        if (getScreen() instanceof GameScreen gameScreen) {
+            return gameScreen.requestWorldDump();
+        }
+        return null;
+    }
+
+    /**
+     * Disposes the screens replaced since the last call and reports the resources they left behind.
+     */
+    private void disposeRetiredScreens() {
+        for (int i = 0; i < retiredScreens.size; i++) {
+            Screen screen = retiredScreens.get(i);
+            screen.dispose();
+            GlResourceTracker.getInstance().reportLeaks(screen);
+        }
+        retiredScreens.clear();
     }
 
     /**
@@ -58,11 +318,54 @@ public class ShooterGame extends Game {
      */
     @Override
     public void dispose() {
-        batch.dispose();
+        metrics.unregister();
+        GlResourceTracker.getInstance().dispose(batch);
+        lowResRenderer.dispose();
+        disposeRetiredScreens();
         getScreen().dispose();
+        GlResourceTracker.getInstance().reportLeaks(getScreen());
+
+        // Export the input latency measurements
+        exportInputLatency();
 
-        // Dispose of the asset manager
-        com.shooter.managers.AssetManager.getInstance().dispose();
+        // Flush pending scores
+        if (scoreStore != null) {
+            scoreStore.close();
+        }
+
+        // Dispose of audio
+        AudioManager.getInstance().dispose();
+
+        // Dispose of the shared fonts and the asset manager
+        FontManager.getInstance().dispose();
+        AssetManager.getInstance().dispose();
+
+        // Everything should be gone by now
+        GlResourceTracker.getInstance().reportLive("shutdown");
+    }
+
+    /**
+     * Writes the input latency histograms to the data directory, if anything was measured.
+     */
+    private void exportInputLatency() {
+        if (inputLatency.getToDraw().getCount() == 0) {
+            return;
+        }
+        Path file = Paths.get(GameConfig.get().getDataDirectory(), "input-latency.csv");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, inputLatency.toCsv().getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            Gdx.app.error("ShooterGame", "Failed to write " + file, e);
+        }
+    }
+
+    /**
+     * Makes the game play a short scripted session and exit, e.g. to train the class archive.
+     * @param trainingRun Whether this is a training run
+     */
+    public void setTrainingRun(boolean trainingRun) {
+        this.trainingRun = trainingRun;
     }
 
     /**
@@ -73,6 +376,62 @@ public class ShooterGame extends Game {
         return batch;
     }
 
+    /**
+     * Returns the low resolution renderer.
+     * @return The low resolution renderer
+     */
+    public LowResRenderer getLowResRenderer() {
+        return lowResRenderer;
+    }
+
+    /**
+     * Returns the rolling frame time statistics.
+     * @return The frame statistics
+     */
+    public FrameStats getFrameStats() {
+        return frameStats;
+    }
+
+    /**
+     * Returns the load governor.
+     * @return The load governor
+     */
+    public LoadGovernor getLoadGovernor() {
+        return loadGovernor;
+    }
+
+    /**
+     * Returns the live metrics published over JMX.
+     * @return The game metrics
+     */
+    public GameMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns the input latency statistics.
+     * @return The input latency statistics
+     */
+    public InputLatency getInputLatency() {
+        return inputLatency;
+    }
+
+    /**
+     * Returns the score store.
+     * @return The score store, or null if it could not be opened
+     */
+    public ScoreStore getScoreStore() {
+        return scoreStore;
+    }
+
+    /**
+     * Returns the key bindings.
+     * @return The key bindings
+     */
+    public InputBindings getInputBindings() {
+        return inputBindings;
+    }
+
     /**
      * Returns the width of the game window.
      * @return The width
@@ -0,0 +1,49 @@
+package com.shooter.audio;
+
+/**
+ * Interface for audio backends.
+ * Separates the audio manager's voice management from the actual playback, so the
+ * manager can run without an audio device (e.g. headless or in automated checks).
+ */
+public interface AudioBackend {
+    /**
+     * Loads a sound effect into memory.
+     * @param path The internal path of the sound file
+     * @return A handle for the sound, or -1 if it could not be loaded
+     */
+    int loadSound(String path);
+
+    /**
+     * Starts a new voice of a loaded sound.
+     * @param sound The sound handle
+     * @param volume The volume (0-1)
+     * @return The voice id, or -1 if the sound could not be played
+     */
+    long play(int sound, float volume);
+
+    /**
+     * Stops a voice.
+     * @param sound The sound handle
+     * @param voice The voice id returned by play
+     */
+    void stop(int sound, long voice);
+
+    /**
+     * Starts streaming music, replacing any music that is playing.
+     * @param path The internal path of the music file
+     * @param looping Whether the music should loop
+     * @param volume The volume (0-1)
+     * @return True if the music started, false otherwise
+     */
+    boolean playMusic(String path, boolean looping, float volume);
+
+    /**
+     * Stops the music.
+     */
+    void stopMusic();
+
+    /**
+     * Releases all loaded sounds and music.
+     */
+    void dispose();
+}
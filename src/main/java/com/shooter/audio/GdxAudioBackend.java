@@ -0,0 +1,78 @@
+package com.shooter.audio;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.audio.Music;
+import com.badlogic.gdx.audio.Sound;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Audio backend using libGDX.
+ * Sound effects are decoded into memory when loaded; music is streamed from disk.
+ * Must only be used on the rendering thread.
+ */
+public class GdxAudioBackend implements AudioBackend {
+    private final Array<Sound> sounds;
+    private Music music;
+
+    /**
+     * Constructor for the libGDX audio backend.
+     */
+    public GdxAudioBackend() {
+        this.sounds = new Array<Sound>();
+    }
+
+    @Override
+    public int loadSound(String path) {
+        FileHandle file = Gdx.files.internal(path);
+        if (!file.exists()) {
+            Gdx.app.log("Audio", "Sound not found: " + path);
+            return -1;
+        }
+        sounds.add(Gdx.audio.newSound(file));
+        return sounds.size - 1;
+    }
+
+    @Override
+    public long play(int sound, float volume) {
+        return sounds.get(sound).play(volume);
+    }
+
+    @Override
+    public void stop(int sound, long voice) {
+        sounds.get(sound).stop(voice);
+    }
+
+    @Override
+    public boolean playMusic(String path, boolean looping, float volume) {
+        stopMusic();
+        FileHandle file = Gdx.files.internal(path);
+        if (!file.exists()) {
+            Gdx.app.log("Audio", "Music not found: " + path);
+            return false;
+        }
+        music = Gdx.audio.newMusic(file);
+        music.setLooping(looping);
+        music.setVolume(volume);
+        music.play();
+        return true;
+    }
+
+    @Override
+    public void stopMusic() {
+        if (music != null) {
+            music.stop();
+            music.dispose();
+            music = null;
+        }
+    }
+
+    @Override
+    public void dispose() {
+        stopMusic();
+        for (Sound sound : sounds) {
+            sound.dispose();
+        }
+        sounds.clear();
+    }
+}
@@ -0,0 +1,41 @@
+package com.shooter.audio;
+
+/**
+ * Audio backend that plays nothing.
+ * Every sound loads and every play succeeds, so voice limiting behaves exactly as with
+ * a real device. Used when no audio device is available.
+ */
+public class NullAudioBackend implements AudioBackend {
+    private int nextSound;
+    private long nextVoice;
+
+    @Override
+    public int loadSound(String path) {
+        return nextSound++;
+    }
+
+    @Override
+    public long play(int sound, float volume) {
+        return nextVoice++;
+    }
+
+    @Override
+    public void stop(int sound, long voice) {
+        // Nothing is playing
+    }
+
+    @Override
+    public boolean playMusic(String path, boolean looping, float volume) {
+        return true;
+    }
+
+    @Override
+    public void stopMusic() {
+        // Nothing is playing
+    }
+
+    @Override
+    public void dispose() {
+        // Nothing was loaded
+    }
+}
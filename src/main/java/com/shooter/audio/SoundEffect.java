@@ -0,0 +1,46 @@
+package com.shooter.audio;
+
+import com.shooter.utils.Constants;
+
+/**
+ * Sound effects used by the game, with their voice limits.
+ */
+public enum SoundEffect {
+    SHOT("shot.wav", 3, 0.3f, 0.5f),
+    EXPLOSION("explosion.wav", 4, 0.8f, 0.8f);
+
+    private final String path;
+    private final int maxVoices;
+    private final float duration;
+    private final float volume;
+
+    /**
+     * Constructor for a sound effect.
+     * @param file The file name inside the audio directory
+     * @param maxVoices The maximum number of voices of this effect playing at once
+     * @param duration The length of the effect in seconds, used to expire voices
+     * @param volume The playback volume (0-1)
+     */
+    SoundEffect(String file, int maxVoices, float duration, float volume) {
+        this.path = Constants.AUDIO_PATH + file;
+        this.maxVoices = maxVoices;
+        this.duration = duration;
+        this.volume = volume;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getMaxVoices() {
+        return maxVoices;
+    }
+
+    public float getDuration() {
+        return duration;
+    }
+
+    public float getVolume() {
+        return volume;
+    }
+}
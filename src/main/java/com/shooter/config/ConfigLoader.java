@@ -0,0 +1,87 @@
+package com.shooter.config;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Properties;
+
+/**
+ * Configuration loader class.
+ * Builds a GameConfig from a properties file and command line overrides of the form
+ * {@code --key=value}. Overrides always win over the file, also after a reload.
+ */
+public class ConfigLoader {
+    // Default configuration file, relative to the working directory
+    public static final String DEFAULT_CONFIG_FILE = "shooter.properties";
+
+    // Prefix of command line overrides
+    private static final String OVERRIDE_PREFIX = "--";
+
+    // Override that selects the configuration file itself
+    private static final String CONFIG_FILE_KEY = "config";
+
+    private final Path configFile;
+    private final Properties overrides;
+
+    /**
+     * Constructor for the configuration loader.
+     * @param args The command line arguments
+     */
+    public ConfigLoader(String[] args) {
+        this.overrides = parseOverrides(args);
+        String file = overrides.getProperty(CONFIG_FILE_KEY, DEFAULT_CONFIG_FILE);
+        overrides.remove(CONFIG_FILE_KEY);
+        this.configFile = Paths.get(file).toAbsolutePath();
+    }
+
+    /**
+     * Loads the configuration from the file (if it exists) and applies the overrides.
+     * @return The loaded configuration
+     * @throws IOException If the file exists but cannot be read
+     * @throws IllegalArgumentException If a value is invalid
+     */
+    public GameConfig load() throws IOException {
+        Properties properties = new Properties();
+        if (Files.isRegularFile(configFile)) {
+            try (Reader reader = Files.newBufferedReader(configFile, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+        }
+        properties.putAll(overrides);
+        return new GameConfig(properties);
+    }
+
+    /**
+     * Parses the {@code --key=value} arguments. Other arguments are ignored.
+     * @param args The command line arguments
+     * @return The overrides
+     */
+    private static Properties parseOverrides(String[] args) {
+        Properties result = new Properties();
+        if (args == null) {
+            return result;
+        }
+        for (String arg : args) {
+            if (!arg.startsWith(OVERRIDE_PREFIX)) {
+                continue;
+            }
+            int separator = arg.indexOf('=');
+            if (separator > OVERRIDE_PREFIX.length()) {
+                result.setProperty(arg.substring(OVERRIDE_PREFIX.length(), separator),
+                                   arg.substring(separator + 1));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Gets the configuration file path.
+     * @return The absolute path of the configuration file
+     */
+    public Path getConfigFile() {
+        return configFile;
+    }
+}
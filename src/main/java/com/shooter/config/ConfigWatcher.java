@@ -0,0 +1,113 @@
+package com.shooter.config;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+
+/**
+ * Configuration watcher class.
+ * Watches the configuration file with a WatchService on a daemon thread and replaces the
+ * active GameConfig whenever the file changes. An invalid file is reported and ignored,
+ * so the game keeps running with the last valid configuration. During a network game
+ * the gameplay keys keep their values (see GameConfig.freezeGameplay()).
+ */
+public class ConfigWatcher {
+    private final ConfigLoader loader;
+    private WatchService watchService;
+    private Thread thread;
+
+    /**
+     * Constructor for the configuration watcher.
+     * @param loader The loader used to reload the configuration
+     */
+    public ConfigWatcher(ConfigLoader loader) {
+        this.loader = loader;
+    }
+
+    /**
+     * Starts watching the configuration file's directory.
+     * @throws IOException If the directory cannot be watched
+     */
+    public void start() throws IOException {
+        if (thread != null) {
+            return;
+        }
+        Path directory = loader.getConfigFile().getParent();
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService,
+            StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+
+        thread = new Thread(this::run, "config-watcher");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops watching.
+     */
+    public void stop() {
+        if (thread == null) {
+            return;
+        }
+        try {
+            watchService.close();
+        } catch (IOException e) {
+            // Closing only fails if the service is already broken; nothing left to do
+        }
+        thread = null;
+    }
+
+    /**
+     * Main loop of the watcher thread.
+     */
+    private void run() {
+        Path fileName = loader.getConfigFile().getFileName();
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    if (fileName.equals(event.context())) {
+                        changed = true;
+                    }
+                }
+                key.reset();
+                if (changed) {
+                    reload();
+                }
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // Watcher stopped
+        }
+    }
+
+    /**
+     * Reloads the configuration and makes it active. The application logger only writes
+     * to the console, so it is safe to call from the watcher thread; before the
+     * application has started there is no logger and the result is not reported.
+     */
+    private void reload() {
+        try {
+            GameConfig config = loader.load();
+            boolean gameplayHeld = GameConfig.isGameplayFrozen()
+                && config.getGameplayHash() != GameConfig.get().getGameplayHash();
+            GameConfig.set(config);
+            if (Gdx.app != null) {
+                Gdx.app.log("ConfigWatcher", "Reloaded " + loader.getConfigFile() + (gameplayHeld
+                    ? "; gameplay changes wait until the network game ends" : ""));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            if (Gdx.app != null) {
+                Gdx.app.error("ConfigWatcher",
+                    "Keeping the previous configuration, reload failed", e);
+            }
+        }
+    }
+}
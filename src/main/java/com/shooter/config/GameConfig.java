@@ -0,0 +1,592 @@
+package com.shooter.config;
+
+import com.shooter.weapons.BulletPattern;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Properties;
+import java.util.zip.CRC32;
+
+/**
+ * Game configuration class.
+ * Immutable, typed set of tuning values. The active configuration is held in a single
+ * volatile reference and replaced as a whole when the configuration is reloaded, so a
+ * hot-path read is one reference load plus a final field load, and a reader never sees
+ * a half-applied change.
+ * Gameplay keys (player, weapon, enemy, spawner and world settings) decide how the
+ * simulation plays out. During a network game both peers must keep the same gameplay
+ * values, so the session freezes them: reloads still apply every other key, while the
+ * gameplay keys keep their values until the last session releases them.
+ */
+public final class GameConfig {
+    // Keys that change how the simulation plays out
+    private static final String[] GAMEPLAY_PREFIXES = {
+        "player.", "weapon.", "enemy.", "spawner.", "world."
+    };
+
+    // Active configuration
+    private static volatile GameConfig current = new GameConfig(new Properties());
+
+    // Configuration whose gameplay values are frozen, the sessions holding it, and the
+    // newest configuration set meanwhile (applied in full once released)
+    private static GameConfig frozenGameplay;
+    private static int gameplayHolders;
+    private static GameConfig latest;
+
+    // The values this configuration was read from, and a hash of its gameplay values
+    private final Properties properties;
+    private final int gameplayHash;
+
+    // Display settings
+    private final int targetFps;
+    private final boolean lowResRendering;
+
+    // Player settings
+    private final float playerSpeed;
+    private final int playerInitialLives;
+    private final float playerInvulnerabilityTime;
+
+    // Weapon settings
+    private final float basicWeaponCooldown;
+    private final float projectileSpeed;
+    private final BulletPattern playerPattern;
+    private final float patternWeaponCooldown;
+
+    // Enemy settings
+    private final float basicEnemySpeed;
+    private final int basicEnemyHealth;
+    private final int basicEnemyScore;
+    private final int heavyEnemyInterval;
+    private final int heavyEnemyHealth;
+    private final int heavyEnemyScore;
+    private final int heavyEnemyPodHealth;
+    private final BulletPattern enemyPattern;
+
+    // Spawner settings
+    private final float spawnInterval;
+    private final float difficultyInterval;
+    private final float minSpawnInterval;
+
+    // Game world settings
+    private final float worldScrollSpeed;
+
+    // Simulation settings
+    private final boolean pipelinedSimulation;
+    private final int rewindSeconds;
+
+    // Asset settings
+    private final int textureBudget;
+    private final String fontFile;
+
+    // Storage settings
+    private final String dataDirectory;
+    private final int highScoreTableSize;
+
+    // Profiling settings
+    private final String flightRecording;
+    private final boolean trackResources;
+    private final boolean jmxMetrics;
+
+    // Network settings
+    private final String netMode;
+    private final int netLocalPort;
+    private final String netRemoteHost;
+    private final int netRemotePort;
+    private final int netInputDelay;
+    private final int netSeed;
+    private final int loopbackLatency;
+    private final int loopbackJitter;
+    private final float loopbackLoss;
+
+    /**
+     * Constructor for the game configuration.
+     * Missing keys fall back to their defaults.
+     * @param properties The configuration values
+     * @throws IllegalArgumentException If a value cannot be parsed or is out of range
+     */
+    public GameConfig(Properties properties) {
+        this.properties = new Properties();
+        this.properties.putAll(properties);
+
+        targetFps = readInt(properties, "display.targetFps", 60, 1);
+        lowResRendering = readBoolean(properties, "display.lowRes", true);
+
+        playerSpeed = readFloat(properties, "player.speed", 200f);
+        playerInitialLives = readInt(properties, "player.initialLives", 3, 1);
+        playerInvulnerabilityTime = readFloat(properties, "player.invulnerabilityTime", 3f);
+
+        basicWeaponCooldown = readFloat(properties, "weapon.basic.cooldown", 0.25f);
+        projectileSpeed = readFloat(properties, "weapon.projectileSpeed", 400f);
+        playerPattern = readPattern(properties, "weapon.player.pattern", "basic");
+        patternWeaponCooldown = readFloat(properties, "weapon.pattern.cooldown", 0.4f);
+
+        basicEnemySpeed = readFloat(properties, "enemy.basic.speed", 100f);
+        basicEnemyHealth = readInt(properties, "enemy.basic.health", 1, 1);
+        basicEnemyScore = readInt(properties, "enemy.basic.score", 100, 0);
+        heavyEnemyInterval = readInt(properties, "enemy.heavy.interval", 8, 0);
+        heavyEnemyHealth = readInt(properties, "enemy.heavy.health", 3, 1);
+        heavyEnemyScore = readInt(properties, "enemy.heavy.score", 500, 0);
+        heavyEnemyPodHealth = readInt(properties, "enemy.heavy.podHealth", 2, 1);
+        enemyPattern = readPattern(properties, "enemy.pattern", "none");
+
+        spawnInterval = readFloat(properties, "spawner.interval", 2.0f);
+        difficultyInterval = readFloat(properties, "spawner.difficultyInterval", 10.0f);
+        minSpawnInterval = readFloat(properties, "spawner.minInterval", 0.5f);
+
+        worldScrollSpeed = readFloat(properties, "world.scrollSpeed", 60f);
+
+        pipelinedSimulation = readBoolean(properties, "simulation.pipelined", true);
+        rewindSeconds = readInt(properties, "simulation.rewindSeconds", 5, 0);
+
+        textureBudget = readInt(properties, "assets.textureBudgetMB", 256, 1);
+        fontFile = properties.getProperty("assets.font", "fonts/game.ttf").trim();
+
+        dataDirectory = properties.getProperty("storage.directory",
+            System.getProperty("user.home") + "/.shooter-game").trim();
+        highScoreTableSize = readInt(properties, "storage.highScores", 10, 1);
+
+        flightRecording = properties.getProperty("profiling.recording", "").trim();
+        trackResources = readBoolean(properties, "profiling.trackResources", false);
+        jmxMetrics = readBoolean(properties, "profiling.jmx", true);
+
+        netMode = properties.getProperty("net.mode", "off").trim();
+        if (!netMode.equals("off") && !netMode.equals("host") && !netMode.equals("join")
+            && !netMode.equals("loopback")) {
+            throw new IllegalArgumentException("Invalid value for net.mode: " + netMode);
+        }
+        netLocalPort = readInt(properties, "net.localPort", 7777, 1);
+        netRemoteHost = properties.getProperty("net.remoteHost", "127.0.0.1").trim();
+        netRemotePort = readInt(properties, "net.remotePort", 7778, 1);
+        netInputDelay = readInt(properties, "net.inputDelay", 2, 0);
+        netSeed = readInt(properties, "net.seed", 1, 0);
+        loopbackLatency = readInt(properties, "net.loopback.latency", 50, 0);
+        loopbackJitter = readInt(properties, "net.loopback.jitter", 20, 0);
+        loopbackLoss = readFloat(properties, "net.loopback.loss", 0.05f);
+
+        gameplayHash = hashGameplay(properties);
+    }
+
+    /**
+     * Hashes the parsed gameplay values, so peers that spell a value differently (e.g.
+     * 200 and 200.0) still agree.
+     * @param properties The configuration values
+     * @return The hash
+     */
+    private int hashGameplay(Properties properties) {
+        ByteBuffer values = ByteBuffer.allocate(96);
+        values.putFloat(playerSpeed).putInt(playerInitialLives).putFloat(playerInvulnerabilityTime);
+        values.putFloat(basicWeaponCooldown).putFloat(projectileSpeed)
+            .putFloat(patternWeaponCooldown);
+        values.putFloat(basicEnemySpeed).putInt(basicEnemyHealth).putInt(basicEnemyScore);
+        values.putInt(heavyEnemyInterval).putInt(heavyEnemyHealth).putInt(heavyEnemyScore);
+        values.putInt(heavyEnemyPodHealth);
+        values.putFloat(spawnInterval).putFloat(difficultyInterval).putFloat(minSpawnInterval);
+        values.putFloat(worldScrollSpeed);
+        CRC32 crc = new CRC32();
+        crc.update(values.array(), 0, values.position());
+        crc.update(properties.getProperty("weapon.player.pattern", "basic").trim()
+            .toLowerCase(Locale.ROOT).getBytes(StandardCharsets.UTF_8));
+        crc.update(0);
+        crc.update(properties.getProperty("enemy.pattern", "none").trim().toLowerCase(Locale.ROOT)
+            .getBytes(StandardCharsets.UTF_8));
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Creates a copy of this configuration with the gameplay values of another.
+     * @param gameplay The configuration to take the gameplay values from
+     * @return The combined configuration
+     */
+    private GameConfig withGameplayOf(GameConfig gameplay) {
+        Properties combined = new Properties();
+        for (String key : properties.stringPropertyNames()) {
+            if (!isGameplayKey(key)) {
+                combined.setProperty(key, properties.getProperty(key));
+            }
+        }
+        for (String key : gameplay.properties.stringPropertyNames()) {
+            if (isGameplayKey(key)) {
+                combined.setProperty(key, gameplay.properties.getProperty(key));
+            }
+        }
+        return new GameConfig(combined);
+    }
+
+    /**
+     * Checks if a key changes how the simulation plays out.
+     * @param key The key
+     * @return True for gameplay keys
+     */
+    private static boolean isGameplayKey(String key) {
+        for (String prefix : GAMEPLAY_PREFIXES) {
+            if (key.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets the active configuration.
+     * @return The active configuration
+     */
+    public static GameConfig get() {
+        return current;
+    }
+
+    /**
+     * Replaces the active configuration. While the gameplay values are frozen, the new
+     * configuration is applied with the frozen gameplay values, and applied in full once
+     * they are released.
+     * @param config The new configuration
+     */
+    public static synchronized void set(GameConfig config) {
+        if (config == null) {
+            throw new IllegalArgumentException("Config must not be null");
+        }
+        if (frozenGameplay != null) {
+            latest = config;
+            current = config.withGameplayOf(frozenGameplay);
+        } else {
+            current = config;
+        }
+    }
+
+    /**
+     * Freezes the gameplay values of the active configuration, e.g. for a network game.
+     * Every call must be paired with releaseGameplay(); nested calls share the values
+     * frozen by the first.
+     * @return The configuration holding the frozen gameplay values
+     */
+    public static synchronized GameConfig freezeGameplay() {
+        if (gameplayHolders++ == 0) {
+            frozenGameplay = current;
+        }
+        return frozenGameplay;
+    }
+
+    /**
+     * Releases frozen gameplay values. When the last holder releases them, the newest
+     * configuration set meanwhile becomes active in full.
+     */
+    public static synchronized void releaseGameplay() {
+        if (gameplayHolders == 0) {
+            return;
+        }
+        gameplayHolders--;
+        if (gameplayHolders == 0) {
+            frozenGameplay = null;
+            if (latest != null) {
+                current = latest;
+                latest = null;
+            }
+        }
+    }
+
+    /**
+     * Checks if the gameplay values are frozen.
+     * @return True while a network game holds them
+     */
+    public static synchronized boolean isGameplayFrozen() {
+        return frozenGameplay != null;
+    }
+
+    /**
+     * Reads a float value.
+     * @param properties The configuration values
+     * @param key The key
+     * @param defaultValue The value used when the key is missing
+     * @return The value
+     */
+    private static float readFloat(Properties properties, String key, float defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            float result = Float.parseFloat(value.trim());
+            if (result < 0 || Float.isNaN(result) || Float.isInfinite(result)) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Reads an integer value.
+     * @param properties The configuration values
+     * @param key The key
+     * @param defaultValue The value used when the key is missing
+     * @param minValue The smallest allowed value
+     * @return The value
+     */
+    private static int readInt(Properties properties, String key, int defaultValue, int minValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            int result = Integer.parseInt(value.trim());
+            if (result < minValue) {
+                throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+            }
+            return result;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    /**
+     * Reads a boolean value.
+     * @param properties The configuration values
+     * @param key The key
+     * @param defaultValue The value used when the key is missing
+     * @return The value
+     */
+    private static boolean readBoolean(Properties properties, String key, boolean defaultValue) {
+        String value = properties.getProperty(key);
+        if (value == null) {
+            return defaultValue;
+        }
+        value = value.trim();
+        if (value.equalsIgnoreCase("true")) {
+            return true;
+        }
+        if (value.equalsIgnoreCase("false")) {
+            return false;
+        }
+        throw new IllegalArgumentException("Invalid value for " + key + ": " + value);
+    }
+
+    /**
+     * Reads a bullet pattern value.
+     * @param properties The configuration values
+     * @param key The key
+     * @param noPattern The value (also the default) that means no pattern
+     * @return The pattern, or null for noPattern
+     */
+    private static BulletPattern readPattern(Properties properties, String key, String noPattern) {
+        String value = properties.getProperty(key, noPattern).trim();
+        if (value.equalsIgnoreCase(noPattern)) {
+            return null;
+        }
+        try {
+            return BulletPattern.parse(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid value for " + key + ": " + value, e);
+        }
+    }
+
+    // Getters
+
+    /**
+     * Gets a hash of the gameplay values, which peers of a network game compare.
+     * @return The hash
+     */
+    public int getGameplayHash() {
+        return gameplayHash;
+    }
+
+    public int getTargetFps() {
+        return targetFps;
+    }
+
+    /**
+     * Checks if frames are drawn at the game's resolution and scaled up to the window.
+     * @return True to draw through the low resolution frame buffer, false to draw directly
+     */
+    public boolean isLowResRendering() {
+        return lowResRendering;
+    }
+
+    public float getPlayerSpeed() {
+        return playerSpeed;
+    }
+
+    public int getPlayerInitialLives() {
+        return playerInitialLives;
+    }
+
+    public float getPlayerInvulnerabilityTime() {
+        return playerInvulnerabilityTime;
+    }
+
+    public float getBasicWeaponCooldown() {
+        return basicWeaponCooldown;
+    }
+
+    public float getProjectileSpeed() {
+        return projectileSpeed;
+    }
+
+    /**
+     * Gets the bullet pattern of the player weapon.
+     * @return The pattern, or null for the basic weapon
+     */
+    public BulletPattern getPlayerPattern() {
+        return playerPattern;
+    }
+
+    public float getPatternWeaponCooldown() {
+        return patternWeaponCooldown;
+    }
+
+    public float getBasicEnemySpeed() {
+        return basicEnemySpeed;
+    }
+
+    public int getBasicEnemyHealth() {
+        return basicEnemyHealth;
+    }
+
+    public int getBasicEnemyScore() {
+        return basicEnemyScore;
+    }
+
+    /**
+     * Gets how often a heavy enemy spawns.
+     * @return Every how many spawns a heavy enemy spawns, or 0 for never
+     */
+    public int getHeavyEnemyInterval() {
+        return heavyEnemyInterval;
+    }
+
+    public int getHeavyEnemyHealth() {
+        return heavyEnemyHealth;
+    }
+
+    public int getHeavyEnemyScore() {
+        return heavyEnemyScore;
+    }
+
+    public int getHeavyEnemyPodHealth() {
+        return heavyEnemyPodHealth;
+    }
+
+    /**
+     * Gets the bullet pattern enemies shoot.
+     * @return The pattern, or null if enemies do not shoot
+     */
+    public BulletPattern getEnemyPattern() {
+        return enemyPattern;
+    }
+
+    public float getSpawnInterval() {
+        return spawnInterval;
+    }
+
+    public float getDifficultyInterval() {
+        return difficultyInterval;
+    }
+
+    public float getMinSpawnInterval() {
+        return minSpawnInterval;
+    }
+
+    public float getWorldScrollSpeed() {
+        return worldScrollSpeed;
+    }
+
+    public boolean isPipelinedSimulation() {
+        return pipelinedSimulation;
+    }
+
+    /**
+     * Gets how much history is kept for rewinding.
+     * @return The history in seconds (0 disables rewinding)
+     */
+    public int getRewindSeconds() {
+        return rewindSeconds;
+    }
+
+    /**
+     * Gets the video memory budget of the texture cache.
+     * @return The budget in bytes
+     */
+    public long getTextureBudgetBytes() {
+        return textureBudget * 1024L * 1024L;
+    }
+
+    /**
+     * Gets the TrueType font the text is baked from.
+     * @return The internal path of the font, or an empty string for the built-in font
+     */
+    public String getFontFile() {
+        return fontFile;
+    }
+
+    public String getDataDirectory() {
+        return dataDirectory;
+    }
+
+    public int getHighScoreTableSize() {
+        return highScoreTableSize;
+    }
+
+    /**
+     * Gets the file a flight recording of the session is written to.
+     * @return The file, or an empty string to not record
+     */
+    public String getFlightRecording() {
+        return flightRecording;
+    }
+
+    /**
+     * Checks if textures, fonts, pixmaps and sprite batches are tracked to find leaks.
+     * @return True to track GL resources and report the undisposed ones
+     */
+    public boolean isTrackResources() {
+        return trackResources;
+    }
+
+    /**
+     * Checks if live game metrics are published as a JMX MBean.
+     * @return True to register com.shooter:type=GameMetrics
+     */
+    public boolean isJmxMetrics() {
+        return jmxMetrics;
+    }
+
+    /**
+     * Gets the network mode.
+     * @return "off", "host" (player 1), "join" (player 2) or "loopback" (against a local test peer)
+     */
+    public String getNetMode() {
+        return netMode;
+    }
+
+    public int getNetLocalPort() {
+        return netLocalPort;
+    }
+
+    public String getNetRemoteHost() {
+        return netRemoteHost;
+    }
+
+    public int getNetRemotePort() {
+        return netRemotePort;
+    }
+
+    public int getNetInputDelay() {
+        return netInputDelay;
+    }
+
+    public int getNetSeed() {
+        return netSeed;
+    }
+
+    public int getLoopbackLatency() {
+        return loopbackLatency;
+    }
+
+    public int getLoopbackJitter() {
+        return loopbackJitter;
+    }
+
+    public float getLoopbackLoss() {
+        return loopbackLoss;
+    }
+}
@@ -0,0 +1,103 @@
+package com.shooter.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.shooter.utils.Constants;
+
+/**
+ * Debug overlay class.
+ * Collects labelled values during a frame and draws them as a block of text.
+ * The text is built in a reused StringBuilder so the overlay does not allocate per frame.
+ */
+public class DebugOverlay {
+    private final BitmapFont font;
+    private final StringBuilder text;
+    private boolean visible;
+
+    /**
+     * Constructor for the debug overlay.
+     * @param font The font to draw with (not owned by the overlay)
+     */
+    public DebugOverlay(BitmapFont font) {
+        this.font = font;
+        this.text = new StringBuilder(256);
+        this.visible = Constants.DEBUG_MODE;
+    }
+
+    /**
+     * Starts collecting the values for a new frame.
+     */
+    public void begin() {
+        text.setLength(0);
+        if (Constants.SHOW_FPS) {
+            line("FPS", Gdx.graphics.getFramesPerSecond());
+        }
+    }
+
+    /**
+     * Adds an integer value.
+     * @param label The label of the value
+     * @param value The value
+     * @return This overlay for chaining
+     */
+    public DebugOverlay line(String label, long value) {
+        text.append(label).append(": ").append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds a decimal value, rounded to two decimals.
+     * @param label The label of the value
+     * @param value The value
+     * @return This overlay for chaining
+     */
+    public DebugOverlay line(String label, float value) {
+        long hundredths = Math.round(value * 100.0);
+        text.append(label).append(": ").append(hundredths / 100).append('.');
+        long fraction = Math.abs(hundredths % 100);
+        if (fraction < 10) {
+            text.append('0');
+        }
+        text.append(fraction).append('\n');
+        return this;
+    }
+
+    /**
+     * Adds a text value.
+     * @param label The label of the value
+     * @param value The value
+     * @return This overlay for chaining
+     */
+    public DebugOverlay line(String label, String value) {
+        text.append(label).append(": ").append(value).append('\n');
+        return this;
+    }
+
+    /**
+     * Draws the collected values. The batch must already be begun.
+     * @param batch The sprite batch to draw with
+     * @param x The x position of the top left corner
+     * @param y The y position of the top left corner
+     */
+    public void render(SpriteBatch batch, float x, float y) {
+        if (visible) {
+            font.draw(batch, text, x, y);
+        }
+    }
+
+    /**
+     * Toggles the visibility of the overlay.
+     */
+    public void toggle() {
+        visible = !visible;
+    }
+
+    public boolean isVisible() {
+        return visible;
+    }
+
+    public void setVisible(boolean visible) {
+        this.visible = visible;
+    }
+}
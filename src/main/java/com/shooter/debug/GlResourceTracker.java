@@ -0,0 +1,306 @@
+package com.shooter.debug;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.GLFrameBuffer;
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.Disposable;
+import com.shooter.managers.TextureCache;
+
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * GL resource tracker class.
+ * A debug registry of the native and GL objects the game creates: textures, fonts,
+ * pixmaps, sprite batches and frame buffers. Each tracked resource is recorded with its owner (e.g.
+ * the screen that created it), where it was created and an estimate of its size, and
+ * is forgotten when it is disposed through the tracker. After a screen is disposed,
+ * anything it still owns is reported as leaked; at shutdown everything still alive is.
+ * Disabled by default (profiling.trackResources); while disabled, tracking costs
+ * nothing and dispose() only disposes. Must only be used on the rendering thread.
+ */
+public class GlResourceTracker {
+    private static final String TAG = "GlResourceTracker";
+
+    // Stack frames recorded per allocation site
+    private static final int SITE_DEPTH = 3;
+
+    // Estimated buffers of a SpriteBatch of the default size (1000 sprites):
+    // 4 vertices of 5 floats per sprite, and 6 short indices per sprite
+    private static final long SPRITE_BATCH_BYTES = 1000L * 4 * 5 * 4 + 1000L * 6 * 2;
+
+    // Singleton instance
+    private static GlResourceTracker instance;
+
+    // Live resources by identity
+    private final Map<Disposable, Resource> resources;
+
+    private boolean enabled;
+    private long liveBytes;
+    private long peakBytes;
+
+    // Statistics
+    private long created;
+    private long disposed;
+    private long leaked;
+
+    /**
+     * A tracked resource.
+     */
+    private static final class Resource {
+        final String kind;
+        final Object owner;
+        final String site;
+        final long bytes;
+        final long sequence;
+        boolean reported;
+
+        Resource(String kind, Object owner, String site, long bytes, long sequence) {
+            this.kind = kind;
+            this.owner = owner;
+            this.site = site;
+            this.bytes = bytes;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Private constructor for the GL resource tracker.
+     */
+    private GlResourceTracker() {
+        resources = new IdentityHashMap<Disposable, Resource>();
+    }
+
+    /**
+     * Gets the singleton instance of the GL resource tracker.
+     * @return The tracker instance
+     */
+    public static GlResourceTracker getInstance() {
+        if (instance == null) {
+            instance = new GlResourceTracker();
+        }
+        return instance;
+    }
+
+    /**
+     * Records a new resource, if tracking is enabled.
+     * @param resource The resource, just created
+     * @param owner The object responsible for disposing it
+     * @param <T> The type of the resource
+     * @return The resource, for use in assignments
+     */
+    public <T extends Disposable> T track(T resource, Object owner) {
+        if (!enabled || resource == null || resources.containsKey(resource)) {
+            return resource;
+        }
+        long bytes = estimateBytes(resource);
+        resources.put(resource, new Resource(resource.getClass().getSimpleName(), owner,
+            allocationSite(), bytes, created++));
+        liveBytes += bytes;
+        peakBytes = Math.max(peakBytes, liveBytes);
+        return resource;
+    }
+
+    /**
+     * Disposes a resource and forgets it. Resources created while tracking was disabled
+     * are only disposed.
+     * @param resource The resource, or null
+     */
+    public void dispose(Disposable resource) {
+        if (resource == null) {
+            return;
+        }
+        resource.dispose();
+        Resource record = resources.remove(resource);
+        if (record != null) {
+            liveBytes -= record.bytes;
+            disposed++;
+        }
+    }
+
+    /**
+     * Reports the resources an owner still holds after it was disposed. Each leak is
+     * reported once, but stays alive and is reported again at shutdown.
+     * @param owner The disposed owner, e.g. a screen
+     * @return The number of newly reported leaks
+     */
+    public int reportLeaks(Object owner) {
+        List<Resource> leaks = new ArrayList<Resource>();
+        for (Resource resource : resources.values()) {
+            if (resource.owner == owner && !resource.reported) {
+                resource.reported = true;
+                leaks.add(resource);
+            }
+        }
+        if (!leaks.isEmpty()) {
+            leaked += leaks.size();
+            log("Leaked by " + ownerName(owner) + " after it was disposed", leaks);
+        }
+        return leaks.size();
+    }
+
+    /**
+     * Reports every resource still alive, e.g. at shutdown after everything was disposed.
+     * @param context When the report is made, for the log
+     * @return The number of live resources
+     */
+    public int reportLive(String context) {
+        if (!resources.isEmpty()) {
+            log("Not disposed at " + context, new ArrayList<Resource>(resources.values()));
+        } else if (enabled) {
+            Gdx.app.log(TAG, "All " + created + " tracked resources disposed at " + context);
+        }
+        return resources.size();
+    }
+
+    /**
+     * Logs a list of resources with a summary per kind.
+     * @param heading The heading of the report
+     * @param list The resources
+     */
+    private void log(String heading, List<Resource> list) {
+        list.sort((a, b) -> Long.compare(a.sequence, b.sequence));
+        Map<String, long[]> perKind = new TreeMap<String, long[]>();
+        long bytes = 0;
+        for (Resource resource : list) {
+            long[] totals = perKind.computeIfAbsent(resource.kind, kind -> new long[2]);
+            totals[0]++;
+            totals[1] += resource.bytes;
+            bytes += resource.bytes;
+        }
+
+        StringBuilder text = new StringBuilder(heading).append(": ")
+            .append(list.size()).append(" resources, ").append(bytes / 1024).append(" KB (")
+            .append(perKind.entrySet().stream()
+                .map(entry -> entry.getValue()[0] + " " + entry.getKey() + " "
+                    + entry.getValue()[1] / 1024 + " KB")
+                .collect(Collectors.joining(", ")))
+            .append(')');
+        for (Resource resource : list) {
+            text.append("\n  ").append(resource.kind).append(", ")
+                .append(resource.bytes / 1024).append(" KB, owner ")
+                .append(ownerName(resource.owner)).append(", created at ").append(resource.site);
+        }
+        Gdx.app.error(TAG, text.toString());
+    }
+
+    /**
+     * Describes the code that created a resource.
+     * @return The first frames outside the tracker, innermost first
+     */
+    private static String allocationSite() {
+        return StackWalker.getInstance().walk(frames -> frames
+            .filter(frame -> !frame.getClassName().equals(GlResourceTracker.class.getName()))
+            .limit(SITE_DEPTH)
+            .map(frame -> frame.toStackTraceElement().toString())
+            .collect(Collectors.joining(" <- ")));
+    }
+
+    /**
+     * Names an owner for the log.
+     * @param owner The owner
+     * @return The class name and identity of the owner
+     */
+    private static String ownerName(Object owner) {
+        if (owner == null) {
+            return "none";
+        }
+        return owner.getClass().getSimpleName() + "@"
+            + Integer.toHexString(System.identityHashCode(owner));
+    }
+
+    /**
+     * Estimates the native and video memory held by a resource.
+     * @param resource The resource
+     * @return The estimated size in bytes, 0 for unknown kinds
+     */
+    public static long estimateBytes(Disposable resource) {
+        if (resource instanceof Texture) {
+            return TextureCache.estimateSize((Texture) resource);
+        }
+        if (resource instanceof Pixmap) {
+            return ((Pixmap) resource).getPixels().capacity();
+        }
+        if (resource instanceof BitmapFont) {
+            // Only the pages the font owns; shared pages belong to whoever created them
+            BitmapFont font = (BitmapFont) resource;
+            if (!font.ownsTexture()) {
+                return 0;
+            }
+            long bytes = 0;
+            Array<TextureRegion> regions = font.getRegions();
+            for (int i = 0; i < regions.size; i++) {
+                bytes += TextureCache.estimateSize(regions.get(i).getTexture());
+            }
+            return bytes;
+        }
+        if (resource instanceof GLFrameBuffer) {
+            // A four byte color buffer; a depth or stencil buffer would add to it
+            GLFrameBuffer<?> frameBuffer = (GLFrameBuffer<?>) resource;
+            return (long) frameBuffer.getWidth() * frameBuffer.getHeight() * 4;
+        }
+        if (resource instanceof SpriteBatch) {
+            return SPRITE_BATCH_BYTES;
+        }
+        return 0;
+    }
+
+    // Getters and setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns tracking on or off. Resources created while tracking was off are never reported.
+     * @param enabled Whether to track new resources
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets the number of tracked resources that have not been disposed.
+     * @return The number of live resources
+     */
+    public int getLiveCount() {
+        return resources.size();
+    }
+
+    /**
+     * Gets the estimated memory of the live resources.
+     * @return The size in bytes
+     */
+    public long getLiveBytes() {
+        return liveBytes;
+    }
+
+    public long getPeakBytes() {
+        return peakBytes;
+    }
+
+    public long getCreatedCount() {
+        return created;
+    }
+
+    public long getDisposedCount() {
+        return disposed;
+    }
+
+    /**
+     * Gets how many resources were reported as leaked by their disposed owner.
+     * @return The number of leaks
+     */
+    public long getLeakCount() {
+        return leaked;
+    }
+}
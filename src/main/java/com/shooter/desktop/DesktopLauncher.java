@@ -5,8 +5,16 @@ import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
 import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
 import com.badlogic.gdx.graphics.GL20;
 import com.shooter.ShooterGame;
+import com.shooter.config.ConfigLoader;
+import com.shooter.config.ConfigWatcher;
+import com.shooter.config.GameConfig;
+import com.shooter.performance.FlightRecording;
+import com.shooter.performance.StartupTimeline;
 import com.shooter.utils.Constants;
 
+import java.io.IOException;
+import java.nio.file.Paths;
+
 /**
  * Desktop launcher for the 2D Sidescrolling Shooter Game.
  * This class configures and launches the game on desktop platforms.
@@ -14,17 +22,55 @@ import com.shooter.utils.Constants;
 public class DesktopLauncher {
     /**
      * Main method that serves as the entry point for the desktop application.
-     * @param args Command line arguments (not used)
+     * @param args Command line arguments: {@code --config=file} selects the configuration
+     *             file, {@code --key=value} overrides single configuration values,
+     *             {@code --fast-start} starts the game with its class archive and
+     *             {@code --training-run} plays briefly and exits (used to build the archive)
+     * @throws IOException If the configuration file cannot be read
+     * @throws InterruptedException If interrupted while waiting for a fast start game
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException, InterruptedException {
+        StartupTimeline.mark(StartupTimeline.MAIN);
+
+        // Relaunch with the class archive if asked to
+        if (FastStart.isRequested(args)) {
+            int exitCode = FastStart.relaunch(args);
+            if (exitCode >= 0) {
+                System.exit(exitCode);
+            }
+            // Not running from a jar; start normally
+        }
+        if (FastStart.isRelaunched()) {
+            StartupTimeline.setMode("fast-start");
+        }
+
+        // Load the configuration and watch it for changes
+        ConfigLoader configLoader = new ConfigLoader(args);
+        GameConfig.set(configLoader.load());
+        ConfigWatcher configWatcher = new ConfigWatcher(configLoader);
+        configWatcher.start();
+
+        // Record the session for JDK Mission Control if asked to
+        FlightRecording recording = null;
+        if (!GameConfig.get().getFlightRecording().isEmpty()) {
+            recording = new FlightRecording(Paths.get(GameConfig.get().getFlightRecording()));
+        }
+
         // Configure the application
         Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
         config.setTitle(Constants.GAME_TITLE);
         config.setWindowedMode(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT);
-        config.setForegroundFPS(60);
+        config.setForegroundFPS(GameConfig.get().getTargetFps());
         config.setResizable(true);
 
         // Create and start the application
-        new Lwjgl3Application(new ShooterGame(), config);
+        ShooterGame game = new ShooterGame();
+        game.setTrainingRun(FastStart.hasArgument(args, FastStart.TRAINING_RUN_ARGUMENT));
+        new Lwjgl3Application(game, config);
+
+        configWatcher.stop();
+        if (recording != null) {
+            recording.stop();
+        }
     }
 }
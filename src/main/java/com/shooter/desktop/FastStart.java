@@ -0,0 +1,139 @@
+package com.shooter.desktop;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.net.URISyntaxException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fast start class.
+ * Relaunches the game jar in a JVM that maps an AppCDS archive of the game's classes, so
+ * libGDX, LWJGL and the game are loaded from a memory-mapped, pre-parsed archive instead
+ * of being read, verified and parsed from the jar on every start. The archive lives next
+ * to the jar ({@code shooter-game-<version>.jsa}); it is built by the appcds Maven profile
+ * from a training run, and if it is missing or was made for another jar the JVM writes a
+ * new one when the game exits, so the next start is fast.
+ */
+public final class FastStart {
+    // Command line switches
+    public static final String FAST_START_ARGUMENT = "--fast-start";
+    public static final String TRAINING_RUN_ARGUMENT = "--training-run";
+
+    // Set in the relaunched JVM, so it does not relaunch again
+    public static final String RELAUNCHED_PROPERTY = "shooter.fastStart";
+
+    private FastStart() {
+    }
+
+    /**
+     * Checks if the game should relaunch itself with the archive.
+     * @param args The command line arguments
+     * @return True if fast start was asked for and this is not the relaunched JVM
+     */
+    public static boolean isRequested(String[] args) {
+        return hasArgument(args, FAST_START_ARGUMENT)
+            && System.getProperty(RELAUNCHED_PROPERTY) == null;
+    }
+
+    /**
+     * Checks if this JVM was relaunched by fast start.
+     * @return True in the relaunched JVM
+     */
+    public static boolean isRelaunched() {
+        return System.getProperty(RELAUNCHED_PROPERTY) != null;
+    }
+
+    /**
+     * Checks if a switch is on the command line.
+     * @param args The command line arguments
+     * @param argument The switch
+     * @return True if the switch is present
+     */
+    public static boolean hasArgument(String[] args, String argument) {
+        for (String arg : args) {
+            if (arg.equals(argument)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Runs the game in a new JVM that uses the archive and waits for it to exit. The JVM
+     * options of this JVM (heap size, --add-modules, system properties, ...) are passed on,
+     * except for its own class archive options.
+     * @param args The command line arguments, passed on unchanged
+     * @return The exit code of the game, or -1 if the game is not running from a jar
+     * @throws IOException If the JVM cannot be started
+     * @throws InterruptedException If interrupted while waiting for the game
+     */
+    public static int relaunch(String[] args) throws IOException, InterruptedException {
+        Path jar = findJar();
+        if (jar == null) {
+            return -1;
+        }
+
+        List<String> command = new ArrayList<String>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        for (String option : ManagementFactory.getRuntimeMXBean().getInputArguments()) {
+            if (!isArchiveOption(option) && !option.startsWith("-D" + RELAUNCHED_PROPERTY + "=")) {
+                command.add(option);
+            }
+        }
+        command.add("-XX:SharedArchiveFile=" + archiveFor(jar));
+        command.add("-XX:+AutoCreateSharedArchive");
+        command.add("-D" + RELAUNCHED_PROPERTY + "=true");
+        command.add("-jar");
+        command.add(jar.toString());
+        for (String arg : args) {
+            command.add(arg);
+        }
+
+        Process process = new ProcessBuilder(command).inheritIO().start();
+        return process.waitFor();
+    }
+
+    /**
+     * Checks if a JVM option selects or writes a class archive, which the relaunched JVM
+     * sets itself.
+     * @param option The JVM option
+     * @return True for class archive options
+     */
+    static boolean isArchiveOption(String option) {
+        return option.startsWith("-XX:SharedArchiveFile=")
+            || option.startsWith("-XX:ArchiveClassesAtExit=")
+            || option.equals("-XX:+AutoCreateSharedArchive")
+            || option.equals("-XX:-AutoCreateSharedArchive");
+    }
+
+    /**
+     * Gets the archive that belongs to a jar.
+     * @param jar The game jar
+     * @return The archive next to the jar
+     */
+    public static Path archiveFor(Path jar) {
+        String name = jar.getFileName().toString();
+        if (name.endsWith(".jar")) {
+            name = name.substring(0, name.length() - ".jar".length());
+        }
+        return jar.resolveSibling(name + ".jsa");
+    }
+
+    /**
+     * Finds the jar the game is running from.
+     * @return The jar, or null when running from a class directory (e.g. in an IDE)
+     */
+    private static Path findJar() {
+        try {
+            Path location = Paths.get(
+                FastStart.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+            return Files.isRegularFile(location) ? location : null;
+        } catch (URISyntaxException | SecurityException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.shooter.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.shooter.ShooterGame;
+import com.shooter.config.ConfigLoader;
+import com.shooter.config.GameConfig;
+import com.shooter.screens.GameScreen;
+import com.shooter.utils.Constants;
+
+import java.io.IOException;
+
+/**
+ * Render benchmark.
+ * Plays the game in a large window with vsync off and compares the frame time of
+ * drawing directly at window resolution with drawing through the low resolution frame
+ * buffer. The modes take turns for several rounds, so warming up and thermal changes
+ * affect both alike, and every frame waits for the GPU to finish, so fill rate counts.
+ * Needs a display. Run with:
+ *
+ * <pre>java -cp ... com.shooter.desktop.RenderBenchmark \
+ *     [width] [height] [seconds per round] [--key=value ...]</pre>
+ */
+public final class RenderBenchmark {
+    private static final int DEFAULT_WIDTH = 3840;
+    private static final int DEFAULT_HEIGHT = 2160;
+    private static final float DEFAULT_SECONDS = 5;
+
+    // Rounds per mode, after one warm-up round that is not counted
+    private static final int ROUNDS = 3;
+
+    private RenderBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args The window size and the length of a round (all optional), and
+     *             configuration overrides of the form {@code --key=value}
+     * @throws IOException If the configuration cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        int width = args.length > 0 && !args[0].startsWith("--")
+            ? Integer.parseInt(args[0]) : DEFAULT_WIDTH;
+        int height = args.length > 1 && !args[1].startsWith("--")
+            ? Integer.parseInt(args[1]) : DEFAULT_HEIGHT;
+        float seconds = args.length > 2 && !args[2].startsWith("--")
+            ? Float.parseFloat(args[2]) : DEFAULT_SECONDS;
+
+        // The player must survive the whole run, and the first mode is drawing directly
+        String[] configArgs = new String[args.length + 2];
+        configArgs[0] = "--player.initialLives=100000";
+        configArgs[1] = "--display.lowRes=false";
+        System.arraycopy(args, 0, configArgs, 2, args.length);
+        GameConfig.set(new ConfigLoader(configArgs).load());
+
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle(Constants.GAME_TITLE + " (render benchmark)");
+        config.setWindowedMode(width, height);
+        config.useVsync(false);
+        config.setForegroundFPS(0);
+        config.setIdleFPS(0);
+        Benchmark benchmark = new Benchmark((long) (seconds * 1e9));
+        new Lwjgl3Application(benchmark, config);
+        System.out.print(benchmark.report());
+    }
+
+    /**
+     * The game, switching the drawing mode every round and timing the frames.
+     */
+    private static final class Benchmark extends ShooterGame {
+        private final long roundNanos;
+
+        // Counted frames and their total time per mode: 0 direct, 1 low resolution
+        private final long[] frames = new long[2];
+        private final long[] nanos = new long[2];
+
+        private int round;
+        private long roundEnd;
+        private long lastFrame;
+        private int windowWidth;
+        private int windowHeight;
+        private int scale;
+
+        /**
+         * Constructor for the benchmark.
+         * @param roundNanos How long each round lasts
+         */
+        Benchmark(long roundNanos) {
+            this.roundNanos = roundNanos;
+        }
+
+        @Override
+        public void create() {
+            super.create();
+            setScreen(new GameScreen(this));
+            roundEnd = System.nanoTime() + roundNanos;
+        }
+
+        @Override
+        public void render() {
+            int mode = getLowResRenderer().isEnabled() ? 1 : 0;
+            super.render();
+
+            // Wait for the GPU, so the time covers filling the pixels
+            Gdx.gl.glFinish();
+            long now = System.nanoTime();
+            if (round >= 2 && lastFrame != 0) {
+                frames[mode]++;
+                nanos[mode] += now - lastFrame;
+            }
+            lastFrame = now;
+
+            if (now < roundEnd) {
+                return;
+            }
+            round++;
+            roundEnd = now + roundNanos;
+            lastFrame = 0;
+            if (round >= 2 + 2 * ROUNDS) {
+                windowWidth = Gdx.graphics.getBackBufferWidth();
+                windowHeight = Gdx.graphics.getBackBufferHeight();
+                scale = getLowResRenderer().getScale();
+                Gdx.app.exit();
+            } else {
+                toggleLowResRendering();
+            }
+        }
+
+        /**
+         * Builds the result.
+         * @return The frame times of both modes
+         */
+        String report() {
+            StringBuilder text = new StringBuilder();
+            text.append(String.format("Window %dx%d, frame buffer %dx%d at scale %d%n",
+                windowWidth, windowHeight, Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT,
+                scale));
+            String[] names = {"direct", "low res"};
+            double[] average = new double[2];
+            for (int mode = 0; mode < 2; mode++) {
+                average[mode] = frames[mode] > 0 ? nanos[mode] / 1e6 / frames[mode] : 0;
+                text.append(String.format("  %-8s %8.3f ms/frame  %7.0f fps  (%d frames)%n",
+                    names[mode], average[mode], average[mode] > 0 ? 1000 / average[mode] : 0,
+                    frames[mode]));
+            }
+            if (average[1] > 0) {
+                text.append(String.format("  low res is %.2fx as fast%n", average[0] / average[1]));
+            }
+            return text.toString();
+        }
+    }
+}
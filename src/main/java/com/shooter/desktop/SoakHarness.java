@@ -0,0 +1,248 @@
+package com.shooter.desktop;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3Application;
+import com.badlogic.gdx.backends.lwjgl3.Lwjgl3ApplicationConfiguration;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.ShaderProgram;
+import com.shooter.ShooterGame;
+import com.shooter.config.ConfigLoader;
+import com.shooter.config.GameConfig;
+import com.shooter.debug.GlResourceTracker;
+import com.shooter.input.InputAction;
+import com.shooter.performance.SoakMonitor;
+import com.shooter.screens.GameOverScreen;
+import com.shooter.screens.GameScreen;
+import com.shooter.screens.MenuScreen;
+import com.shooter.simulation.RenderSnapshot;
+import com.shooter.simulation.World;
+import com.shooter.utils.Constants;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+
+/**
+ * Soak harness.
+ * Runs the game for a long time and fails if memory or GL objects leak. Two phases share
+ * the time:
+ * <ul>
+ *   <li>sessions: plays one simulated game after another on headless worlds (no window,
+ *       textures or sound), with a bot holding fire and sweeping up and down;</li>
+ *   <li>screens: cycles menu, game and game over screens in a hidden window, the way a
+ *       player going through many games does. Needs a display; on a build server run the
+ *       harness under xvfb-run. Skipped in "all" mode when there is no display.</li>
+ * </ul>
+ * Samples go to soak-sessions.csv and soak-screens.csv in the data directory, one file
+ * per phase. Run by the soak Maven profile, or:
+ *
+ * <pre>java -cp ... com.shooter.desktop.SoakHarness \
+ *     [minutes] [all|sessions|screens] [--key=value ...]</pre>
+ *
+ * Exits with status 1 if a leak is found.
+ */
+public final class SoakHarness {
+    private static final double DEFAULT_MINUTES = 60;
+
+    // Post-GC heap or native memory growth over a phase that counts as a leak
+    private static final long TOLERANCE_BYTES = 4L * 1024 * 1024;
+
+    // Samples per phase; each one runs the garbage collector
+    private static final int SAMPLES_PER_PHASE = 60;
+
+    // Longest simulated session (ten minutes of game time)
+    private static final int SESSION_TICKS = 36000;
+
+    // Frames each screen is shown for in the screens phase
+    private static final int FRAMES_PER_SCREEN = 90;
+
+    private SoakHarness() {
+    }
+
+    /**
+     * Runs the harness.
+     * @param args The run time in minutes and the phases to run (both optional), and
+     *             configuration overrides of the form {@code --key=value}
+     * @throws IOException If the configuration cannot be read
+     */
+    public static void main(String[] args) throws IOException {
+        double minutes = args.length > 0 && !args[0].startsWith("--")
+            ? Double.parseDouble(args[0]) : DEFAULT_MINUTES;
+        String mode = args.length > 1 && !args[1].startsWith("--") ? args[1] : "all";
+        if (!mode.equals("all") && !mode.equals("sessions") && !mode.equals("screens")) {
+            throw new IllegalArgumentException("Unknown mode: " + mode);
+        }
+        // Track GL resources, so the screens phase counts them and logs leaks with their origin
+        String[] configArgs = new String[args.length + 1];
+        configArgs[0] = "--profiling.trackResources=true";
+        System.arraycopy(args, 0, configArgs, 1, args.length);
+        GameConfig.set(new ConfigLoader(configArgs).load());
+
+        boolean screens = mode.equals("screens") || (mode.equals("all") && hasDisplay());
+        boolean sessions = !mode.equals("screens");
+        if (mode.equals("all") && !screens) {
+            System.out.println("No display: skipping the screens phase");
+        }
+        long phaseNanos = (long) (minutes * 60e9 / ((sessions ? 1 : 0) + (screens ? 1 : 0)));
+
+        boolean passed = true;
+        if (sessions) {
+            passed &= report("sessions", runSessions(phaseNanos), "soak-sessions.csv");
+        }
+        if (screens) {
+            passed &= report("screens", runScreens(phaseNanos), "soak-screens.csv");
+        }
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Plays simulated sessions on headless worlds, sampling in between ticks.
+     * @param phaseNanos How long to play
+     * @return The samples
+     */
+    private static SoakMonitor runSessions(long phaseNanos) {
+        SoakMonitor monitor = new SoakMonitor(TOLERANCE_BYTES);
+        RenderSnapshot snapshot = new RenderSnapshot();
+        long sampleInterval = phaseNanos / SAMPLES_PER_PHASE;
+        long end = System.nanoTime() + phaseNanos;
+        long nextSample = System.nanoTime();
+        long sessions = 0;
+
+        while (System.nanoTime() < end) {
+            World world = new World(null, null, null, new TextureRegion[3]);
+            world.setSeed(sessions++);
+            world.setEffectsEnabled(false);
+            for (int tick = 0; tick < SESSION_TICKS && !world.isGameOver()
+                && System.nanoTime() < end; tick++) {
+                // Hold fire and sweep up and down, two seconds each way
+                boolean up = (tick / 120) % 2 == 0;
+                int move = up ? InputAction.MOVE_UP.bit() : InputAction.MOVE_DOWN.bit();
+                int mask = InputAction.FIRE.bit() | move;
+                world.getInput(world.getLocalPlayer()).setMask(mask, 0);
+                world.step(Constants.SIMULATION_TICK);
+                snapshot.clear();
+                world.writeSnapshot(snapshot);
+
+                if (System.nanoTime() >= nextSample) {
+                    monitor.sample(world.getEntityCount(), -1);
+                    nextSample += sampleInterval;
+                }
+            }
+        }
+        System.out.println("Played " + sessions + " sessions");
+        return monitor;
+    }
+
+    /**
+     * Cycles the screens in a hidden window.
+     * @param phaseNanos How long to cycle
+     * @return The samples
+     */
+    private static SoakMonitor runScreens(long phaseNanos) {
+        SoakMonitor monitor = new SoakMonitor(TOLERANCE_BYTES);
+        Lwjgl3ApplicationConfiguration config = new Lwjgl3ApplicationConfiguration();
+        config.setTitle(Constants.GAME_TITLE + " (soak)");
+        config.setWindowedMode(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT);
+        config.setInitialVisible(false);
+        config.useVsync(false);
+        config.setForegroundFPS(0);
+        config.setIdleFPS(0);
+        new Lwjgl3Application(new ScreenCycler(monitor, phaseNanos), config);
+        return monitor;
+    }
+
+    /**
+     * Prints the result of a phase and writes its samples.
+     * @param phase The name of the phase
+     * @param monitor The samples of the phase
+     * @param fileName The CSV file in the data directory
+     * @return True if no leak was found
+     */
+    private static boolean report(String phase, SoakMonitor monitor, String fileName) {
+        System.out.print(monitor.report());
+        Path file = Paths.get(GameConfig.get().getDataDirectory(), fileName);
+        try {
+            monitor.writeCsv(file);
+        } catch (IOException e) {
+            System.out.println("Failed to write " + file + ": " + e);
+        }
+
+        List<String> problems = monitor.check();
+        for (String problem : problems) {
+            System.out.println("FAIL: " + phase + ": " + problem);
+        }
+        if (problems.isEmpty()) {
+            System.out.println("PASS: " + phase);
+        }
+        return problems.isEmpty();
+    }
+
+    /**
+     * Checks if windows can be opened.
+     * @return True if an X11 or Wayland display is set, or not on Linux
+     */
+    private static boolean hasDisplay() {
+        if (!System.getProperty("os.name", "").toLowerCase().contains("linux")) {
+            return true;
+        }
+        return System.getenv("DISPLAY") != null || System.getenv("WAYLAND_DISPLAY") != null;
+    }
+
+    /**
+     * The game, switching screens on its own: menu, game, game over, and again.
+     */
+    private static final class ScreenCycler extends ShooterGame {
+        private final SoakMonitor monitor;
+        private final long phaseNanos;
+        private long end;
+        private long sampleInterval;
+        private long nextSample;
+        private long frames;
+
+        /**
+         * Constructor for the screen cycler.
+         * @param monitor The monitor to sample into
+         * @param phaseNanos How long to cycle
+         */
+        ScreenCycler(SoakMonitor monitor, long phaseNanos) {
+            this.monitor = monitor;
+            this.phaseNanos = phaseNanos;
+        }
+
+        @Override
+        public void create() {
+            super.create();
+            end = System.nanoTime() + phaseNanos;
+            sampleInterval = phaseNanos / SAMPLES_PER_PHASE;
+            nextSample = System.nanoTime();
+        }
+
+        @Override
+        public void render() {
+            super.render();
+            frames++;
+            if (frames % FRAMES_PER_SCREEN != 0) {
+                return;
+            }
+
+            // Sample on the menu, when a whole cycle is behind and its screens disposed
+            if (getScreen() instanceof MenuScreen && System.nanoTime() >= nextSample) {
+                monitor.sample(-1, GlResourceTracker.getInstance().getLiveCount()
+                    + ShaderProgram.getNumManagedShaderPrograms());
+                nextSample += sampleInterval;
+            }
+            if (System.nanoTime() >= end) {
+                Gdx.app.exit();
+            } else if (getScreen() instanceof MenuScreen) {
+                setScreen(new GameScreen(this));
+            } else if (getScreen() instanceof GameScreen) {
+                setScreen(new GameOverScreen(this, 0));
+            } else {
+                setScreen(new MenuScreen(this));
+            }
+        }
+    }
+}
@@ -2,8 +2,12 @@ package com.shooter.entities;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.config.GameConfig;
+import com.shooter.rendering.RenderQueue;
 import com.shooter.utils.Constants;
 
+import java.nio.ByteBuffer;
+
 /**
  * Background class for managing scrolling background layers.
  * Implements parallax scrolling effect with multiple layers.
@@ -12,6 +16,9 @@ public class Background {
     // Background layers
     private BackgroundLayer[] layers;
     
+    // Number of layers drawn (from back to front)
+    private int visibleLayers;
+    
     /**
      * Constructor for the background.
      * @param textures The texture regions for each layer (from back to front)
@@ -26,6 +33,7 @@ public class Background {
         for (int i = 0; i < textures.length; i++) {
             layers[i] = new BackgroundLayer(textures[i], parallaxFactors[i]);
         }
+        visibleLayers = layers.length;
     }
     
     /**
@@ -43,11 +51,60 @@ public class Background {
      * @param batch The sprite batch to render with
      */
     public void render(SpriteBatch batch) {
+        for (int i = 0; i < visibleLayers; i++) {
+            layers[i].render(batch);
+        }
+    }
+    
+    /**
+     * Submits the background layers to a render queue.
+     * Each layer gets its own draw layer so the parallax order is preserved.
+     * @param queue The render queue to submit to
+     */
+    public void submit(RenderQueue queue) {
+        for (int i = 0; i < visibleLayers; i++) {
+            layers[i].submit(queue, RenderQueue.LAYER_BACKGROUND + i);
+        }
+    }
+    
+    /**
+     * Writes the scroll positions of all layers.
+     * @param buffer The buffer to write to
+     */
+    public void save(ByteBuffer buffer) {
+        for (BackgroundLayer layer : layers) {
+            buffer.putFloat(layer.x1).putFloat(layer.x2);
+        }
+    }
+    
+    /**
+     * Reads scroll positions written by save().
+     * @param buffer The buffer to read from
+     */
+    public void restore(ByteBuffer buffer) {
         for (BackgroundLayer layer : layers) {
-            layer.render(batch);
+            layer.x1 = buffer.getFloat();
+            layer.x2 = buffer.getFloat();
         }
     }
     
+    /**
+     * Limits the number of layers that are drawn. Front layers are dropped first;
+     * hidden layers keep scrolling so they reappear in the right place.
+     * @param count The maximum number of layers to draw
+     */
+    public void setVisibleLayers(int count) {
+        visibleLayers = Math.max(1, Math.min(count, layers.length));
+    }
+    
+    /**
+     * Gets the number of layers that are drawn.
+     * @return The number of visible layers
+     */
+    public int getVisibleLayers() {
+        return visibleLayers;
+    }
+    
     /**
      * Inner class representing a single background layer.
      */
@@ -78,7 +135,7 @@ public class Background {
          */
         public void update(float delta) {
             // Move the layer based on the scroll speed and parallax factor
-            float scrollAmount = Constants.WORLD_SCROLL_SPEED * delta * parallaxFactor;
+            float scrollAmount = GameConfig.get().getWorldScrollSpeed() * delta * parallaxFactor;
             
             x1 -= scrollAmount;
             x2 -= scrollAmount;
@@ -100,5 +157,15 @@ public class Background {
             batch.draw(texture, x1, 0, width, height);
             batch.draw(texture, x2, 0, width, height);
         }
+        
+        /**
+         * Submits the layer to a render queue.
+         * @param queue The render queue to submit to
+         * @param layer The draw layer
+         */
+        public void submit(RenderQueue queue, int layer) {
+            queue.submit(texture, x1, 0, width, height, 0, layer);
+            queue.submit(texture, x2, 0, width, height, 0, layer);
+        }
     }
 }
\ No newline at end of file
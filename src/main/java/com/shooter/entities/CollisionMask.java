@@ -0,0 +1,232 @@
+package com.shooter.entities;
+
+import com.badlogic.gdx.graphics.Pixmap;
+
+/**
+ * Collision mask class.
+ * A 1-bit alpha mask of a sprite for pixel-accurate collisions: one bit per pixel, set
+ * where the sprite is not transparent, packed into 64-bit words per row. Row 0 is the
+ * bottom row and bit 0 of a row's first word its leftmost pixel, matching world
+ * coordinates. Masks are built once when the art is loaded. Two masks are tested by
+ * ANDing each overlapping row of one with the shifted row of the other, so after a
+ * bounding box hit a typical sprite pair costs a few word operations per row.
+ * Masks are immutable and can be shared by all entities using the same art.
+ */
+public final class CollisionMask {
+    // Alpha (0-255) from which a pixel counts as solid
+    public static final int DEFAULT_ALPHA_THRESHOLD = 128;
+
+    private final int width;
+    private final int height;
+    private final int wordsPerRow;
+
+    // Rows from bottom to top, wordsPerRow words each; bits past the width are clear
+    private final long[] bits;
+
+    /**
+     * Constructor for the collision mask.
+     * @param width The width in pixels
+     * @param height The height in pixels
+     * @param bits The rows, as described in the class comment
+     */
+    private CollisionMask(int width, int height, long[] bits) {
+        this.width = width;
+        this.height = height;
+        this.wordsPerRow = (width + 63) >>> 6;
+        this.bits = bits;
+    }
+
+    /**
+     * Builds a mask from the alpha channel of a pixmap.
+     * @param pixmap The pixmap (top row first, as pixmaps are stored)
+     * @param alphaThreshold The alpha (0-255) from which a pixel counts as solid
+     * @return The mask
+     */
+    public static CollisionMask fromPixmap(Pixmap pixmap, int alphaThreshold) {
+        int width = pixmap.getWidth();
+        int height = pixmap.getHeight();
+        int wordsPerRow = (width + 63) >>> 6;
+        long[] bits = new long[wordsPerRow * height];
+        for (int row = 0; row < height; row++) {
+            // World rows grow upwards, pixmap rows downwards
+            int pixmapY = height - 1 - row;
+            for (int x = 0; x < width; x++) {
+                if ((pixmap.getPixel(x, pixmapY) & 0xFF) >= alphaThreshold) {
+                    bits[row * wordsPerRow + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return new CollisionMask(width, height, bits);
+    }
+
+    /**
+     * Builds a mask from the alpha channel of a pixmap with the default threshold.
+     * @param pixmap The pixmap
+     * @return The mask
+     */
+    public static CollisionMask fromPixmap(Pixmap pixmap) {
+        return fromPixmap(pixmap, DEFAULT_ALPHA_THRESHOLD);
+    }
+
+    /**
+     * Builds a mask from solid flags, for shapes that do not come from a pixmap.
+     * @param solid The flags per pixel, solid[y][x] with row 0 the bottom row; all rows
+     *              have the same length
+     * @return The mask
+     */
+    static CollisionMask fromSolid(boolean[][] solid) {
+        int width = solid[0].length;
+        int height = solid.length;
+        int wordsPerRow = (width + 63) >>> 6;
+        long[] bits = new long[wordsPerRow * height];
+        for (int row = 0; row < height; row++) {
+            for (int x = 0; x < width; x++) {
+                if (solid[row][x]) {
+                    bits[row * wordsPerRow + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return new CollisionMask(width, height, bits);
+    }
+
+    /**
+     * Gets this mask at another size, e.g. for art drawn larger or smaller than the
+     * texture. Pixels are sampled nearest neighbour.
+     * @param newWidth The width in pixels
+     * @param newHeight The height in pixels
+     * @return This mask if the size already matches, a new mask otherwise
+     */
+    public CollisionMask scaledTo(int newWidth, int newHeight) {
+        if (newWidth == width && newHeight == height) {
+            return this;
+        }
+        if (newWidth <= 0 || newHeight <= 0) {
+            throw new IllegalArgumentException("Mask size must be positive");
+        }
+        int newWordsPerRow = (newWidth + 63) >>> 6;
+        long[] newBits = new long[newWordsPerRow * newHeight];
+        for (int row = 0; row < newHeight; row++) {
+            int sourceRow = row * height / newHeight;
+            for (int x = 0; x < newWidth; x++) {
+                if (isSolid(x * width / newWidth, sourceRow)) {
+                    newBits[row * newWordsPerRow + (x >>> 6)] |= 1L << x;
+                }
+            }
+        }
+        return new CollisionMask(newWidth, newHeight, newBits);
+    }
+
+    /**
+     * Checks a single pixel.
+     * @param x The x position in the mask
+     * @param y The y position in the mask, from the bottom
+     * @return True if the pixel is solid
+     */
+    public boolean isSolid(int x, int y) {
+        if (x < 0 || x >= width || y < 0 || y >= height) {
+            return false;
+        }
+        return (bits[y * wordsPerRow + (x >>> 6)] & (1L << x)) != 0;
+    }
+
+    /**
+     * Checks if two boxes, each with an optional mask, overlap on solid pixels. A box
+     * without a mask is solid everywhere. The boxes are placed on whole pixels.
+     * @param a The mask of the first box, or null
+     * @param ax The x position of the first box
+     * @param ay The y position of the first box
+     * @param aWidth The width of the first box (the mask width if it has a mask)
+     * @param aHeight The height of the first box (the mask height if it has a mask)
+     * @param b The mask of the second box, or null
+     * @param bx The x position of the second box
+     * @param by The y position of the second box
+     * @param bWidth The width of the second box (the mask width if it has a mask)
+     * @param bHeight The height of the second box (the mask height if it has a mask)
+     * @return True if a solid pixel of one box covers a solid pixel of the other
+     */
+    public static boolean overlaps(CollisionMask a, int ax, int ay, int aWidth, int aHeight,
+                                   CollisionMask b, int bx, int by, int bWidth, int bHeight) {
+        // Rows of the first box covered by the second
+        int dx = bx - ax;
+        int dy = by - ay;
+        int fromRow = Math.max(0, dy);
+        int toRow = Math.min(aHeight, dy + bHeight);
+        int fromX = Math.max(0, dx);
+        int toX = Math.min(aWidth, dx + bWidth);
+        if (fromRow >= toRow || fromX >= toX) {
+            return false;
+        }
+        if (a == null && b == null) {
+            return true;
+        }
+
+        // Walk the words of the first box's rows that the second box covers
+        int fromWord = fromX >>> 6;
+        int toWord = (toX - 1) >>> 6;
+        for (int row = fromRow; row < toRow; row++) {
+            for (int word = fromWord; word <= toWord; word++) {
+                long aBits = rowBits(a, aWidth, row, word << 6);
+                long bBits = rowBits(b, bWidth, row - dy, (word << 6) - dx);
+                if ((aBits & bBits) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets 64 pixels of a row as bits, starting at any x (bit 0 is the pixel at the start).
+     * Pixels outside the box are clear.
+     * @param mask The mask, or null for a solid box
+     * @param width The width of the box
+     * @param row The row
+     * @param start The x of the first pixel, may be negative
+     * @return The bits
+     */
+    private static long rowBits(CollisionMask mask, int width, int row, int start) {
+        if (start >= width || start <= -64) {
+            return 0;
+        }
+        if (mask == null) {
+            // Solid from max(start, 0) to width
+            long bits = start >= 0 ? -1L : -1L << -start;
+            int end = width - start;
+            return end >= 64 ? bits : bits & ((1L << end) - 1);
+        }
+        long[] words = mask.bits;
+        int base = row * mask.wordsPerRow;
+        if (start < 0) {
+            return words[base] << -start;
+        }
+        int word = start >>> 6;
+        int shift = start & 63;
+        long bits = words[base + word] >>> shift;
+        if (shift != 0 && word + 1 < mask.wordsPerRow) {
+            bits |= words[base + word + 1] << (64 - shift);
+        }
+        return bits;
+    }
+
+    // Getters
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Counts the solid pixels.
+     * @return The number of solid pixels
+     */
+    public int getSolidPixelCount() {
+        int count = 0;
+        for (long word : bits) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+}
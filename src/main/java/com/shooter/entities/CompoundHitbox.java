@@ -0,0 +1,265 @@
+package com.shooter.entities;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+
+/**
+ * Compound hitbox class.
+ * Replaces the single collision box of a large entity (e.g. a multi-part boss) with a
+ * set of part boxes, placed relative to the entity's position and lying within its
+ * width and height. A hit is tested hierarchically: the entity's bounds reject most
+ * projectiles, the box around the parts still standing rejects most of the rest, and
+ * only then are the parts themselves tested. Parts can have their own health: a
+ * destroyed part no longer collides, and the box around the remaining parts shrinks.
+ * Damage to a vital part is also dealt to the entity, so a boss can be killed by
+ * destroying its core while armor parts soak up shots.
+ */
+public class CompoundHitbox {
+    // Health of a part that cannot be destroyed (armor)
+    public static final int INDESTRUCTIBLE = -1;
+
+    // Part returned by hitTest() when nothing was hit
+    public static final int MISS = -1;
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Parts: box relative to the entity position, health and whether damage reaches the entity
+    private float[] offsetX;
+    private float[] offsetY;
+    private float[] width;
+    private float[] height;
+    private int[] health;
+    private int[] maxHealth;
+    private boolean[] vital;
+    private int count;
+
+    // Box around the parts still standing, relative to the entity position
+    private float liveMinX;
+    private float liveMinY;
+    private float liveMaxX;
+    private float liveMaxY;
+    private int liveCount;
+
+    /**
+     * Constructor for an empty compound hitbox.
+     */
+    public CompoundHitbox() {
+        offsetX = new float[INITIAL_CAPACITY];
+        offsetY = new float[INITIAL_CAPACITY];
+        width = new float[INITIAL_CAPACITY];
+        height = new float[INITIAL_CAPACITY];
+        health = new int[INITIAL_CAPACITY];
+        maxHealth = new int[INITIAL_CAPACITY];
+        vital = new boolean[INITIAL_CAPACITY];
+    }
+
+    /**
+     * Adds a part.
+     * @param x The x offset of the part from the entity position
+     * @param y The y offset of the part from the entity position
+     * @param width The width of the part
+     * @param height The height of the part
+     * @param health The health of the part, or INDESTRUCTIBLE
+     * @param vital Whether damage to the part is also dealt to the entity
+     * @return The index of the part
+     */
+    public int addPart(float x, float y, float width, float height, int health, boolean vital) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("Part size must be positive");
+        }
+        if (health <= 0 && health != INDESTRUCTIBLE) {
+            throw new IllegalArgumentException("Part health must be positive or INDESTRUCTIBLE");
+        }
+        if (count == offsetX.length) {
+            grow(count * 2);
+        }
+        offsetX[count] = x;
+        offsetY[count] = y;
+        this.width[count] = width;
+        this.height[count] = height;
+        this.health[count] = health;
+        maxHealth[count] = health;
+        this.vital[count] = vital;
+        count++;
+        updateLiveBox();
+        return count - 1;
+    }
+
+    /**
+     * Finds the part hit by a box. The caller has already checked the box against the
+     * entity's bounds.
+     * @param entityX The x position of the entity
+     * @param entityY The y position of the entity
+     * @param x The x position of the box
+     * @param y The y position of the box
+     * @param boxWidth The width of the box
+     * @param boxHeight The height of the box
+     * @return The index of the first part hit that is still standing, or MISS
+     */
+    public int hitTest(float entityX, float entityY, float x, float y, float boxWidth,
+                       float boxHeight) {
+        // Work relative to the entity, then reject against the remaining parts as a whole
+        float left = x - entityX;
+        float bottom = y - entityY;
+        if (liveCount == 0 || left >= liveMaxX || left + boxWidth <= liveMinX
+            || bottom >= liveMaxY || bottom + boxHeight <= liveMinY) {
+            return MISS;
+        }
+        for (int i = 0; i < count; i++) {
+            if (health[i] != 0
+                && left < offsetX[i] + width[i] && left + boxWidth > offsetX[i]
+                && bottom < offsetY[i] + height[i] && bottom + boxHeight > offsetY[i]) {
+                return i;
+            }
+        }
+        return MISS;
+    }
+
+    /**
+     * Damages a part.
+     * @param part The index of the part
+     * @param amount The amount of damage
+     * @return The damage to deal to the entity: the amount for vital parts, 0 otherwise
+     */
+    public int damagePart(int part, int amount) {
+        if (health[part] > 0) {
+            health[part] = Math.max(0, health[part] - amount);
+            if (health[part] == 0) {
+                updateLiveBox();
+            }
+        }
+        return vital[part] ? amount : 0;
+    }
+
+    /**
+     * Removes every part, keeping the storage for the next ones.
+     */
+    public void clear() {
+        count = 0;
+        updateLiveBox();
+    }
+
+    /**
+     * Restores every part to full health.
+     */
+    public void reset() {
+        System.arraycopy(maxHealth, 0, health, 0, count);
+        updateLiveBox();
+    }
+
+    /**
+     * Recomputes the box around the parts still standing.
+     */
+    private void updateLiveBox() {
+        liveMinX = Float.MAX_VALUE;
+        liveMinY = Float.MAX_VALUE;
+        liveMaxX = -Float.MAX_VALUE;
+        liveMaxY = -Float.MAX_VALUE;
+        liveCount = 0;
+        for (int i = 0; i < count; i++) {
+            if (health[i] != 0) {
+                liveMinX = Math.min(liveMinX, offsetX[i]);
+                liveMinY = Math.min(liveMinY, offsetY[i]);
+                liveMaxX = Math.max(liveMaxX, offsetX[i] + width[i]);
+                liveMaxY = Math.max(liveMaxY, offsetY[i] + height[i]);
+                liveCount++;
+            }
+        }
+    }
+
+    /**
+     * Grows the part storage.
+     * @param capacity The new capacity
+     */
+    private void grow(int capacity) {
+        offsetX = Arrays.copyOf(offsetX, capacity);
+        offsetY = Arrays.copyOf(offsetY, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        health = Arrays.copyOf(health, capacity);
+        maxHealth = Arrays.copyOf(maxHealth, capacity);
+        vital = Arrays.copyOf(vital, capacity);
+    }
+
+    /**
+     * Writes the parts and their health.
+     * @param buffer The buffer to write to
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putFloat(offsetX[i]).putFloat(offsetY[i])
+                .putFloat(width[i]).putFloat(height[i])
+                .putInt(health[i]).putInt(maxHealth[i])
+                .put((byte) (vital[i] ? 1 : 0));
+        }
+    }
+
+    /**
+     * Reads parts written by save(), replacing the current ones.
+     * @param buffer The buffer to read from
+     */
+    public void restore(ByteBuffer buffer) {
+        count = buffer.getInt();
+        if (count > offsetX.length) {
+            grow(count);
+        }
+        for (int i = 0; i < count; i++) {
+            offsetX[i] = buffer.getFloat();
+            offsetY[i] = buffer.getFloat();
+            width[i] = buffer.getFloat();
+            height[i] = buffer.getFloat();
+            health[i] = buffer.getInt();
+            maxHealth[i] = buffer.getInt();
+            vital[i] = buffer.get() != 0;
+        }
+        updateLiveBox();
+    }
+
+    // Getters
+
+    public int getPartCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of parts that have not been destroyed.
+     * @return The number of standing parts
+     */
+    public int getLivePartCount() {
+        return liveCount;
+    }
+
+    /**
+     * Gets the health of a part.
+     * @param part The index of the part
+     * @return The health, 0 if destroyed, or INDESTRUCTIBLE
+     */
+    public int getPartHealth(int part) {
+        return health[part];
+    }
+
+    public boolean isPartDestroyed(int part) {
+        return health[part] == 0;
+    }
+
+    public boolean isPartVital(int part) {
+        return vital[part];
+    }
+
+    public float getPartX(int part) {
+        return offsetX[part];
+    }
+
+    public float getPartY(int part) {
+        return offsetY[part];
+    }
+
+    public float getPartWidth(int part) {
+        return width[part];
+    }
+
+    public float getPartHeight(int part) {
+        return height[part];
+    }
+}
@@ -2,7 +2,9 @@ package com.shooter.entities;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
-import com.shooter.utils.Constants;
+import com.shooter.config.GameConfig;
+
+import java.nio.ByteBuffer;
 
 /**
  * Enemy entity class.
@@ -15,6 +17,9 @@ public class Enemy extends Entity {
     private float shootTimer;
     private float shootInterval;
     
+    // Time skipped while updated at reduced rate
+    private float deferredDelta;
+    
     /**
      * Constructor for the enemy.
      * @param x The x position
@@ -26,13 +31,54 @@ public class Enemy extends Entity {
      */
     public Enemy(float x, float y, float width, float height, int health, int scoreValue) {
         super(x, y, width, height);
+        reset(x, y, health, scoreValue);
+    }
+    
+    /**
+     * Resets the enemy to a freshly spawned state, so a pooled enemy can be reused.
+     * @param x The x position
+     * @param y The y position
+     * @param health The health of the enemy
+     * @param scoreValue The score value of the enemy
+     */
+    public void reset(float x, float y, int health, int scoreValue) {
+        setPosition(x, y);
+        rotation = 0;
+        active = true;
         this.health = health;
         this.scoreValue = scoreValue;
         this.shootTimer = 0;
         this.shootInterval = 2.0f; // Default shoot interval
+        this.deferredDelta = 0;
+        setHitbox(null);
         
         // Set default velocity
-        velocity.x = -Constants.BASIC_ENEMY_SPEED;
+        velocity.set(-GameConfig.get().getBasicEnemySpeed(), 0);
+    }
+    
+    /**
+     * Turns the enemy, after reset(), into a heavy enemy: pods on its top and bottom can
+     * be shot off but do not hurt it, and only shots through the middle reach its core
+     * and deal damage to the enemy itself.
+     * @param podHealth The health of each pod
+     */
+    public void makeHeavy(int podHealth) {
+        CompoundHitbox parts = obtainHitbox();
+        parts.clear();
+        float podHeight = height * 0.3f;
+        parts.addPart(0, height - podHeight, width, podHeight, podHealth, false);
+        parts.addPart(0, 0, width, podHeight, podHealth, false);
+        parts.addPart(0, podHeight, width, height - 2 * podHeight,
+            CompoundHitbox.INDESTRUCTIBLE, true);
+        setHitbox(parts);
+    }
+    
+    /**
+     * Checks if the enemy is a heavy enemy.
+     * @return True if the enemy has a compound hitbox, false otherwise
+     */
+    public boolean isHeavy() {
+        return hitbox != null;
     }
     
     /**
@@ -54,6 +100,24 @@ public class Enemy extends Entity {
         }
     }
     
+    /**
+     * Skips an update, remembering the time so a later update can catch up.
+     * @param delta The time in seconds of the skipped update
+     */
+    public void deferUpdate(float delta) {
+        deferredDelta += delta;
+    }
+    
+    /**
+     * Updates the enemy including any time skipped with deferUpdate.
+     * @param delta The time in seconds since the last update
+     */
+    public void catchUp(float delta) {
+        float total = delta + deferredDelta;
+        deferredDelta = 0;
+        update(total);
+    }
+    
     /**
      * Renders the enemy.
      * @param batch The sprite batch to render with
@@ -64,11 +128,44 @@ public class Enemy extends Entity {
     }
     
     /**
-     * Damages the enemy.
+     * Writes the state of the enemy.
+     * @param buffer The buffer to write to
+     */
+    @Override
+    public void save(ByteBuffer buffer) {
+        super.save(buffer);
+        buffer.putInt(health).putInt(scoreValue)
+            .putFloat(shootTimer).putFloat(shootInterval)
+            .putFloat(deferredDelta);
+    }
+    
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    @Override
+    public void restore(ByteBuffer buffer) {
+        super.restore(buffer);
+        health = buffer.getInt();
+        scoreValue = buffer.getInt();
+        shootTimer = buffer.getFloat();
+        shootInterval = buffer.getFloat();
+        deferredDelta = buffer.getFloat();
+    }
+    
+    /**
+     * Damages the enemy. With a compound hitbox, the damage goes to the part hit by the
+     * last hit test, and only reaches the enemy if that part is vital.
      * @param amount The amount of damage to deal
      * @return True if the enemy died, false otherwise
      */
     public boolean damage(int amount) {
+        if (hitbox != null && hitPart != CompoundHitbox.MISS) {
+            amount = hitbox.damagePart(hitPart, amount);
+            if (amount == 0) {
+                return false;
+            }
+        }
         health -= amount;
         if (health <= 0) {
             active = false;
@@ -2,9 +2,13 @@ package com.shooter.entities;
 
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
+import com.shooter.config.GameConfig;
+import com.shooter.performance.GameEvents;
+import com.shooter.rendering.RenderQueue;
 import com.shooter.utils.Constants;
+import com.shooter.utils.GameRandom;
 
-import java.util.Random;
+import java.nio.ByteBuffer;
 
 /**
  * Enemy spawner class.
@@ -18,16 +22,28 @@ public class EnemySpawner {
     private float difficultyInterval;
     private float minSpawnInterval;
     
+    // Load shedding
+    private float spawnRateScale;
+    private int offscreenUpdateStride;
+    private long tickCount;
+    
+    // Spawns so far, every heavyEnemyInterval-th of them is a heavy enemy
+    private long spawnCount;
+    
     // Enemy properties
     private TextureRegion enemyTexture;
+    private CollisionMask enemyMask;
     private float enemyWidth;
     private float enemyHeight;
     
     // Active enemies
     private Array<Enemy> enemies;
     
-    // Random number generator
-    private Random random;
+    // Enemies that left play, reused for new spawns so spawning does not allocate
+    private Array<Enemy> freeEnemies;
+    
+    // Random number generator (part of the saved state, so spawns replay exactly)
+    private GameRandom random;
     
     /**
      * Constructor for the enemy spawner.
@@ -49,7 +65,10 @@ public class EnemySpawner {
         this.enemyWidth = enemyWidth;
         this.enemyHeight = enemyHeight;
         this.enemies = new Array<Enemy>();
-        this.random = new Random();
+        this.freeEnemies = new Array<Enemy>();
+        this.random = new GameRandom(System.nanoTime());
+        this.spawnRateScale = 1.0f;
+        this.offscreenUpdateStride = 1;
     }
     
     /**
@@ -61,7 +80,7 @@ public class EnemySpawner {
         spawnTimer -= delta;
         if (spawnTimer <= 0) {
             spawnEnemy();
-            spawnTimer = spawnInterval;
+            spawnTimer = spawnInterval / spawnRateScale;
         }
         
         // Update difficulty timer
@@ -71,14 +90,20 @@ public class EnemySpawner {
             difficultyTimer = 0;
         }
         
-        // Update enemies
+        // Update enemies; off-screen enemies may be updated at a reduced rate
+        tickCount++;
         for (int i = 0; i < enemies.size; i++) {
             Enemy enemy = enemies.get(i);
-            enemy.update(delta);
+            if (offscreenUpdateStride > 1 && enemy.getPosition().x >= Constants.DEFAULT_WIDTH
+                && (tickCount + i) % offscreenUpdateStride != 0) {
+                enemy.deferUpdate(delta);
+                continue;
+            }
+            enemy.catchUp(delta);
             
             // Remove inactive enemies
             if (!enemy.isActive()) {
-                enemies.removeIndex(i);
+                freeEnemies.add(enemies.removeIndex(i));
                 i--;
             }
         }
@@ -89,38 +114,180 @@ public class EnemySpawner {
      * @param batch The sprite batch to render with
      */
     public void render(com.badlogic.gdx.graphics.g2d.SpriteBatch batch) {
-        for (Enemy enemy : enemies) {
-            enemy.render(batch);
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).render(batch);
+        }
+    }
+    
+    /**
+     * Submits all active enemies to a render queue.
+     * @param queue The render queue to submit to
+     */
+    public void submit(RenderQueue queue) {
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).submit(queue, RenderQueue.LAYER_ENEMIES);
+        }
+    }
+    
+    /**
+     * Writes the state of the spawner and all active enemies.
+     * @param buffer The buffer to write to
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putFloat(spawnTimer).putFloat(spawnInterval)
+            .putFloat(difficultyTimer)
+            .putLong(tickCount)
+            .putLong(spawnCount)
+            .putLong(random.getState())
+            .putInt(enemies.size);
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).save(buffer);
+        }
+    }
+    
+    /**
+     * Reads a state written by save(). Existing enemy objects are reused.
+     * @param buffer The buffer to read from
+     */
+    public void restore(ByteBuffer buffer) {
+        spawnTimer = buffer.getFloat();
+        spawnInterval = buffer.getFloat();
+        difficultyTimer = buffer.getFloat();
+        tickCount = buffer.getLong();
+        spawnCount = buffer.getLong();
+        random.setState(buffer.getLong());
+        int count = buffer.getInt();
+        
+        while (enemies.size > count) {
+            freeEnemies.add(enemies.pop());
         }
+        for (int i = 0; i < count; i++) {
+            if (i == enemies.size) {
+                enemies.add(createEnemy(0));
+            }
+            enemies.get(i).restore(buffer);
+        }
+    }
+    
+    /**
+     * Seeds the random number generator, e.g. so network peers spawn the same enemies.
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        random.setSeed(seed);
     }
     
     /**
-     * Spawns a new enemy.
+     * Spawns a new enemy, a heavy one every enemy.heavy.interval spawns.
      */
     private void spawnEnemy() {
         // Calculate random y position
         float y = random.nextFloat() * (Constants.DEFAULT_HEIGHT - enemyHeight);
         
-        // Create a new enemy
+        // Add a new enemy to the active enemies
+        Enemy enemy = createEnemy(y);
+        GameConfig config = GameConfig.get();
+        int heavyInterval = config.getHeavyEnemyInterval();
+        spawnCount++;
+        if (heavyInterval > 0 && spawnCount % heavyInterval == 0) {
+            enemy.setHealth(config.getHeavyEnemyHealth());
+            enemy.setScoreValue(config.getHeavyEnemyScore());
+            enemy.makeHeavy(config.getHeavyEnemyPodHealth());
+        }
+        enemies.add(enemy);
+        GameEvents.spawn(y, enemies.size, spawnInterval);
+    }
+    
+    /**
+     * Creates an enemy at the right edge of the screen, reusing an enemy that left play
+     * if there is one.
+     * @param y The y position
+     * @return The new enemy
+     */
+    private Enemy createEnemy(float y) {
+        GameConfig config = GameConfig.get();
+        if (freeEnemies.size > 0) {
+            Enemy enemy = freeEnemies.pop();
+            enemy.reset(Constants.DEFAULT_WIDTH, y, config.getBasicEnemyHealth(),
+                config.getBasicEnemyScore());
+            return enemy;
+        }
         Enemy enemy = new Enemy(
             Constants.DEFAULT_WIDTH, y,
             enemyWidth, enemyHeight,
-            Constants.BASIC_ENEMY_HEALTH,
-            Constants.BASIC_ENEMY_SCORE
+            config.getBasicEnemyHealth(),
+            config.getBasicEnemyScore()
         );
         
-        // Set the enemy texture
+        // Set the enemy texture and its solid pixels
         enemy.setTextureRegion(enemyTexture);
-        
-        // Add the enemy to the active enemies
-        enemies.add(enemy);
+        enemy.setCollisionMask(enemyMask);
+        return enemy;
     }
     
     /**
      * Increases the difficulty by decreasing the spawn interval.
      */
     private void increaseDifficulty() {
+        float previousInterval = spawnInterval;
         spawnInterval = Math.max(spawnInterval * 0.9f, minSpawnInterval);
+        GameEvents.difficulty(previousInterval, spawnInterval);
+    }
+    
+    /**
+     * Sets the minimum spawn interval difficulty can reach.
+     * @param minSpawnInterval The minimum spawn interval in seconds
+     */
+    public void setMinSpawnInterval(float minSpawnInterval) {
+        this.minSpawnInterval = minSpawnInterval;
+        spawnInterval = Math.max(spawnInterval, minSpawnInterval);
+    }
+    
+    /**
+     * Sets the interval at which difficulty increases.
+     * @param difficultyInterval The interval in seconds
+     */
+    public void setDifficultyInterval(float difficultyInterval) {
+        this.difficultyInterval = difficultyInterval;
+    }
+    
+    /**
+     * Sets the solid pixels of the enemy art, for pixel-accurate collisions.
+     * @param enemyMask The mask, or null to collide anywhere within the enemy bounds
+     */
+    public void setEnemyMask(CollisionMask enemyMask) {
+        this.enemyMask = enemyMask != null
+            ? enemyMask.scaledTo((int) enemyWidth, (int) enemyHeight) : null;
+        for (int i = 0; i < enemies.size; i++) {
+            enemies.get(i).setCollisionMask(this.enemyMask);
+        }
+        for (int i = 0; i < freeEnemies.size; i++) {
+            freeEnemies.get(i).setCollisionMask(this.enemyMask);
+        }
+    }
+    
+    /**
+     * Scales the spawn rate, e.g. to shed load on slow machines.
+     * @param scale The spawn rate multiplier (1 = normal, lower spawns less often)
+     */
+    public void setSpawnRateScale(float scale) {
+        this.spawnRateScale = Math.max(0.1f, scale);
+    }
+    
+    /**
+     * Sets how often enemies that are still off-screen are updated.
+     * @param stride Update off-screen enemies every stride ticks (1 = every tick)
+     */
+    public void setOffscreenUpdateStride(int stride) {
+        this.offscreenUpdateStride = Math.max(1, stride);
+    }
+    
+    /**
+     * Gets the current spawn interval.
+     * @return The spawn interval in seconds
+     */
+    public float getSpawnInterval() {
+        return spawnInterval;
     }
     
     /**
@@ -138,4 +305,12 @@ public class EnemySpawner {
     public int getActiveEnemyCount() {
         return enemies.size;
     }
+    
+    /**
+     * Gets the number of enemies kept for reuse.
+     * @return The number of pooled enemies
+     */
+    public int getPooledEnemyCount() {
+        return freeEnemies.size;
+    }
 }
\ No newline at end of file
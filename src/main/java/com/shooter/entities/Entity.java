@@ -2,8 +2,12 @@ package com.shooter.entities;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
 import com.badlogic.gdx.math.Rectangle;
 import com.badlogic.gdx.math.Vector2;
+import com.shooter.rendering.RenderQueue;
+
+import java.nio.ByteBuffer;
 
 /**
  * Base class for all game entities.
@@ -25,8 +29,15 @@ public abstract class Entity {
     // Rendering
     protected TextureRegion textureRegion;
     
-    // Collision
+    // Collision: the bounds, plus parts inside them for large entities and the solid
+    // pixels of the art (both null if not used)
     protected Rectangle bounds;
+    protected CompoundHitbox hitbox;
+    protected int hitPart;
+    
+    // Compound hitbox kept while detached, so attaching one again does not allocate
+    private CompoundHitbox spareHitbox;
+    protected CollisionMask collisionMask;
     
     /**
      * Constructor for the entity.
@@ -43,6 +54,7 @@ public abstract class Entity {
         this.height = height;
         this.active = true;
         this.bounds = new Rectangle(x, y, width, height);
+        this.hitPart = CompoundHitbox.MISS;
     }
     
     /**
@@ -62,7 +74,7 @@ public abstract class Entity {
      * @param batch The sprite batch to render with
      */
     public void render(SpriteBatch batch) {
-        if (active && textureRegion != null) {
+        if (active && textureRegion != null && isVisible()) {
             batch.draw(
                 textureRegion,
                 position.x, position.y,
@@ -74,13 +86,136 @@ public abstract class Entity {
         }
     }
     
+    /**
+     * Submits the entity to a render queue instead of drawing it immediately.
+     * @param queue The render queue to submit to
+     * @param layer The draw layer of the entity
+     */
+    public void submit(RenderQueue queue, int layer) {
+        if (active && textureRegion != null && isVisible()) {
+            queue.submit(textureRegion, position.x, position.y, width, height, rotation, layer);
+        }
+    }
+
+    /**
+     * Checks if the entity should be drawn this frame.
+     * Subclasses can override this to hide the entity temporarily (e.g. when flashing).
+     * @return True if the entity is visible, false otherwise
+     */
+    protected boolean isVisible() {
+        return true;
+    }
+
+    /**
+     * Writes the state of the entity, e.g. for rollback or rewinding.
+     * Subclasses that add state must extend this and restore().
+     * @param buffer The buffer to write to
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putFloat(position.x).putFloat(position.y)
+            .putFloat(velocity.x).putFloat(velocity.y)
+            .putFloat(rotation)
+            .put((byte) (active ? 1 : 0))
+            .put((byte) (hitbox != null ? 1 : 0));
+        if (hitbox != null) {
+            hitbox.save(buffer);
+        }
+    }
+
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    public void restore(ByteBuffer buffer) {
+        position.set(buffer.getFloat(), buffer.getFloat());
+        velocity.set(buffer.getFloat(), buffer.getFloat());
+        rotation = buffer.getFloat();
+        active = buffer.get() != 0;
+        bounds.setPosition(position);
+        hitPart = CompoundHitbox.MISS;
+        if (buffer.get() != 0) {
+            hitbox = obtainHitbox();
+            hitbox.restore(buffer);
+        } else if (hitbox != null) {
+            spareHitbox = hitbox;
+            hitbox = null;
+        }
+    }
+
+    /**
+     * Gets a compound hitbox to fill with parts: the attached one, the last one detached,
+     * or a new one if the entity never had one.
+     * @return The compound hitbox, not yet attached
+     */
+    protected CompoundHitbox obtainHitbox() {
+        if (hitbox != null) {
+            return hitbox;
+        }
+        if (spareHitbox != null) {
+            return spareHitbox;
+        }
+        return new CompoundHitbox();
+    }
+
     /**
      * Checks if this entity collides with another entity.
      * @param other The other entity
      * @return True if the entities collide, false otherwise
      */
     public boolean collidesWith(Entity other) {
-        return this.bounds.overlaps(other.bounds);
+        return other.isHitBy(bounds.x, bounds.y, bounds.width, bounds.height, collisionMask);
+    }
+
+    /**
+     * Checks if a box hits this entity. The box is tested against the bounds first, and
+     * only if it overlaps them against the parts of the compound hitbox. The part hit is
+     * remembered until the next test (see getHitPart()).
+     * @param x The x position of the box
+     * @param y The y position of the box
+     * @param boxWidth The width of the box
+     * @param boxHeight The height of the box
+     * @return True if the box hits the entity, false otherwise
+     */
+    public boolean isHitBy(float x, float y, float boxWidth, float boxHeight) {
+        return isHitBy(x, y, boxWidth, boxHeight, null);
+    }
+
+    /**
+     * Checks if a box with a collision mask hits this entity. After the bounds and the
+     * compound hitbox, the solid pixels of both masks are compared if either has one.
+     * @param x The x position of the box
+     * @param y The y position of the box
+     * @param boxWidth The width of the box
+     * @param boxHeight The height of the box
+     * @param boxMask The mask of the box, the size of the box, or null if the box is solid
+     * @return True if the box hits the entity, false otherwise
+     */
+    public boolean isHitBy(float x, float y, float boxWidth, float boxHeight,
+                           CollisionMask boxMask) {
+        hitPart = CompoundHitbox.MISS;
+        if (x >= bounds.x + bounds.width || x + boxWidth <= bounds.x
+            || y >= bounds.y + bounds.height || y + boxHeight <= bounds.y) {
+            return false;
+        }
+        if (hitbox != null) {
+            hitPart = hitbox.hitTest(position.x, position.y, x, y, boxWidth, boxHeight);
+            if (hitPart == CompoundHitbox.MISS) {
+                return false;
+            }
+        }
+        if (collisionMask == null && boxMask == null) {
+            return true;
+        }
+
+        // Narrow phase on whole pixels
+        if (!CollisionMask.overlaps(
+                collisionMask, MathUtils.floor(position.x), MathUtils.floor(position.y),
+                (int) width, (int) height,
+                boxMask, MathUtils.floor(x), MathUtils.floor(y), (int) boxWidth, (int) boxHeight)) {
+            hitPart = CompoundHitbox.MISS;
+            return false;
+        }
+        return true;
     }
     
     // Getters and setters
@@ -137,4 +272,44 @@ public abstract class Entity {
     public Rectangle getBounds() {
         return bounds;
     }
+
+    public CompoundHitbox getHitbox() {
+        return hitbox;
+    }
+
+    /**
+     * Sets the parts the entity can be hit on. The parts must lie within the entity's
+     * width and height, since the bounds are tested first.
+     * @param hitbox The compound hitbox, or null to be hit anywhere within the bounds
+     */
+    public void setHitbox(CompoundHitbox hitbox) {
+        if (this.hitbox != null && hitbox == null) {
+            spareHitbox = this.hitbox;
+        }
+        this.hitbox = hitbox;
+        this.hitPart = CompoundHitbox.MISS;
+    }
+
+    public CollisionMask getCollisionMask() {
+        return collisionMask;
+    }
+
+    /**
+     * Sets the solid pixels of the entity's art, for pixel-accurate collisions.
+     * @param collisionMask The mask, scaled to the entity's size if needed, or null to
+     *                      collide anywhere within the bounds
+     */
+    public void setCollisionMask(CollisionMask collisionMask) {
+        this.collisionMask = collisionMask != null
+            ? collisionMask.scaledTo((int) width, (int) height) : null;
+    }
+
+    /**
+     * Gets the part of the compound hitbox hit by the last successful hit test.
+     * @return The index of the part, or CompoundHitbox.MISS if the entity has no compound
+     *         hitbox or the last test missed
+     */
+    public int getHitPart() {
+        return hitPart;
+    }
 }
\ No newline at end of file
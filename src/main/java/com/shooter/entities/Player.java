@@ -1,9 +1,11 @@
 package com.shooter.entities;
 
-import com.badlogic.gdx.Gdx;
-import com.badlogic.gdx.Input;
-import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.config.GameConfig;
+import com.shooter.input.InputAction;
+import com.shooter.input.InputState;
+
+import java.nio.ByteBuffer;
 import com.shooter.utils.Constants;
 
 /**
@@ -21,6 +23,9 @@ public class Player extends Entity {
     private float shootCooldown;
     private float shootTimer;
 
+    // Input for the current tick (null means no input)
+    private InputState input;
+
     /**
      * Constructor for the player.
      * @param x The x position
@@ -30,11 +35,11 @@ public class Player extends Entity {
      */
     public Player(float x, float y, float width, float height) {
         super(x, y, width, height);
-        this.lives = Constants.PLAYER_INITIAL_LIVES;
+        this.lives = GameConfig.get().getPlayerInitialLives();
         this.score = 0;
         this.invulnerable = false;
         this.invulnerabilityTimer = 0;
-        this.shootCooldown = Constants.BASIC_WEAPON_COOLDOWN;
+        this.shootCooldown = GameConfig.get().getBasicWeaponCooldown();
         this.shootTimer = 0;
     }
 
@@ -68,19 +73,16 @@ public class Player extends Entity {
     }
 
     /**
-     * Renders the player.
-     * @param batch The sprite batch to render with
+     * Checks if the player should be drawn this frame.
+     * @return True if the player is visible, false otherwise
      */
     @Override
-    public void render(SpriteBatch batch) {
+    protected boolean isVisible() {
         // If invulnerable, flash the player
         if (invulnerable) {
-            if ((int)(invulnerabilityTimer * 10) % 2 == 0) {
-                super.render(batch);
-            }
-        } else {
-            super.render(batch);
+            return (int)(invulnerabilityTimer * 10) % 2 == 0;
         }
+        return true;
     }
 
     /**
@@ -90,23 +92,27 @@ public class Player extends Entity {
     private void handleInput(float delta) {
         // Reset velocity
         velocity.set(0, 0);
+        if (input == null) {
+            return;
+        }
+        float speed = GameConfig.get().getPlayerSpeed();
 
         // Movement
-        if (Gdx.input.isKeyPressed(Input.Keys.LEFT) || Gdx.input.isKeyPressed(Input.Keys.A)) {
-            velocity.x = -Constants.PLAYER_SPEED;
+        if (input.isActive(InputAction.MOVE_LEFT)) {
+            velocity.x = -speed;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.RIGHT) || Gdx.input.isKeyPressed(Input.Keys.D)) {
-            velocity.x = Constants.PLAYER_SPEED;
+        if (input.isActive(InputAction.MOVE_RIGHT)) {
+            velocity.x = speed;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.UP) || Gdx.input.isKeyPressed(Input.Keys.W)) {
-            velocity.y = Constants.PLAYER_SPEED;
+        if (input.isActive(InputAction.MOVE_UP)) {
+            velocity.y = speed;
         }
-        if (Gdx.input.isKeyPressed(Input.Keys.DOWN) || Gdx.input.isKeyPressed(Input.Keys.S)) {
-            velocity.y = -Constants.PLAYER_SPEED;
+        if (input.isActive(InputAction.MOVE_DOWN)) {
+            velocity.y = -speed;
         }
 
         // Shooting
-        if (Gdx.input.isKeyPressed(Input.Keys.SPACE) && shootTimer <= 0) {
+        if (input.isActive(InputAction.FIRE) && shootTimer <= 0) {
             shoot();
             shootTimer = shootCooldown;
         }
@@ -144,6 +150,33 @@ public class Player extends Entity {
         // when the player shoots (e.g., playing a sound, showing a muzzle flash, etc.)
     }
 
+    /**
+     * Writes the state of the player.
+     * @param buffer The buffer to write to
+     */
+    @Override
+    public void save(ByteBuffer buffer) {
+        super.save(buffer);
+        buffer.putInt(lives).putInt(score)
+            .put((byte) (invulnerable ? 1 : 0))
+            .putFloat(invulnerabilityTimer)
+            .putFloat(shootTimer);
+    }
+
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    @Override
+    public void restore(ByteBuffer buffer) {
+        super.restore(buffer);
+        lives = buffer.getInt();
+        score = buffer.getInt();
+        invulnerable = buffer.get() != 0;
+        invulnerabilityTimer = buffer.getFloat();
+        shootTimer = buffer.getFloat();
+    }
+
     /**
      * Damages the player.
      * @return True if the player died, false otherwise
@@ -156,7 +189,7 @@ public class Player extends Entity {
                 return true;
             } else {
                 invulnerable = true;
-                invulnerabilityTimer = Constants.PLAYER_INVULNERABILITY_TIME;
+                invulnerabilityTimer = GameConfig.get().getPlayerInvulnerabilityTime();
             }
         }
         return false;
@@ -172,6 +205,14 @@ public class Player extends Entity {
 
     // Getters and setters
 
+    /**
+     * Sets the input the player reacts to on each update.
+     * @param input The input state, or null for no input
+     */
+    public void setInput(InputState input) {
+        this.input = input;
+    }
+
     public int getLives() {
         return lives;
     }
@@ -2,8 +2,11 @@ package com.shooter.entities;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.config.GameConfig;
 import com.shooter.utils.Constants;
 
+import java.nio.ByteBuffer;
+
 /**
  * Projectile entity class.
  * Represents projectiles fired by weapons.
@@ -26,13 +29,22 @@ public class Projectile extends Entity {
         super(x, y, width, height);
         this.damage = damage;
         this.playerOwned = playerOwned;
+        reset(x, y);
+    }
+    
+    /**
+     * Resets the projectile to a freshly fired state, so a pooled projectile can be reused.
+     * @param x The x position
+     * @param y The y position
+     */
+    public void reset(float x, float y) {
+        setPosition(x, y);
+        rotation = 0;
+        active = true;
         
         // Set default velocity based on ownership
-        if (playerOwned) {
-            velocity.x = Constants.PROJECTILE_SPEED;
-        } else {
-            velocity.x = -Constants.PROJECTILE_SPEED;
-        }
+        float speed = GameConfig.get().getProjectileSpeed();
+        velocity.set(playerOwned ? speed : -speed, 0);
     }
     
     /**
@@ -59,6 +71,27 @@ public class Projectile extends Entity {
         super.render(batch);
     }
     
+    /**
+     * Writes the state of the projectile.
+     * @param buffer The buffer to write to
+     */
+    @Override
+    public void save(ByteBuffer buffer) {
+        super.save(buffer);
+        buffer.putInt(damage).put((byte) (playerOwned ? 1 : 0));
+    }
+    
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    @Override
+    public void restore(ByteBuffer buffer) {
+        super.restore(buffer);
+        damage = buffer.getInt();
+        playerOwned = buffer.get() != 0;
+    }
+    
     /**
      * Handles collision with another entity.
      * @param other The other entity
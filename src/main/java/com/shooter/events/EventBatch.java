@@ -0,0 +1,96 @@
+package com.shooter.events;
+
+/**
+ * Event batch class.
+ * A read-only view of the events of one dispatch, addressed by index from 0 to size() - 1
+ * in the order they were published. The view is reused by every dispatch and is only
+ * valid while the listener is being called.
+ */
+public final class EventBatch {
+    private final GameEventBus bus;
+
+    // Sequence number of the first event, number of events and whether they are replayed
+    private long first;
+    private int size;
+    private boolean replay;
+
+    /**
+     * Constructor for the event batch.
+     * @param bus The bus holding the events
+     */
+    EventBatch(GameEventBus bus) {
+        this.bus = bus;
+    }
+
+    /**
+     * Points the view at a range of events.
+     * @param first The sequence number of the first event
+     * @param size The number of events
+     * @param replay Whether the events belong to a replayed tick
+     */
+    void set(long first, int size, boolean replay) {
+        this.first = first;
+        this.size = size;
+        this.replay = replay;
+    }
+
+    /**
+     * Gets the number of events in the batch.
+     * @return The number of events
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the events belong to a tick that is simulated again (e.g. after a rollback).
+     * Listeners that play sounds or effects should skip replayed events; listeners that
+     * change gameplay state must not.
+     * @return True if the events are replayed
+     */
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public GameEventType getType(int index) {
+        return bus.getType(sequence(index));
+    }
+
+    /**
+     * Gets the player an event belongs to.
+     * @param index The event index
+     * @return The player index, or -1
+     */
+    public int getSource(int index) {
+        return bus.getSource(sequence(index));
+    }
+
+    public float getX(int index) {
+        return bus.getX(sequence(index));
+    }
+
+    public float getY(int index) {
+        return bus.getY(sequence(index));
+    }
+
+    /**
+     * Gets the value of an event (damage, score or lives left, depending on its type).
+     * @param index The event index
+     * @return The value
+     */
+    public int getValue(int index) {
+        return bus.getValue(sequence(index));
+    }
+
+    /**
+     * Gets the sequence number of an event.
+     * @param index The event index
+     * @return The sequence number
+     */
+    private long sequence(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Event " + index + " of " + size);
+        }
+        return first + index;
+    }
+}
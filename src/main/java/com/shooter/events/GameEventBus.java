@@ -0,0 +1,199 @@
+package com.shooter.events;
+
+import com.badlogic.gdx.utils.Array;
+
+/**
+ * Game event bus class.
+ * Collects the gameplay events of a tick (shots, hits, kills) in a preallocated ring of
+ * primitive records and hands them to the listeners in one batch per tick. Publishing
+ * only writes a few array slots, so the collision loop stays free of allocations and of
+ * calls into the listeners, however many subscribe; each listener is called once per
+ * dispatch and walks the batch itself. Events published while a batch is dispatched go
+ * into the next batch. The owner marks each tick as new or replayed with beginTick(), and
+ * every batch of the tick carries that flag, including batches dispatched early because
+ * the ring filled up. Not thread-safe; publish and dispatch on the simulation thread.
+ */
+public class GameEventBus {
+    // Event records, one slot per event, indexed by sequence number & mask
+    private final int[] types;
+    private final int[] sources;
+    private final float[] xs;
+    private final float[] ys;
+    private final int[] values;
+    private final int mask;
+
+    // Sequence numbers of the oldest undispatched event and of the next event
+    private long head;
+    private long tail;
+
+    // Listeners and the batch handed to them
+    private final Array<GameEventListener> listeners;
+    private final EventBatch batch;
+    private boolean dispatching;
+
+    // Whether the current tick is simulated again (e.g. after a rollback)
+    private boolean replay;
+
+    // Statistics
+    private long published;
+    private long earlyDispatches;
+
+    /**
+     * Constructor for the event bus.
+     * @param capacity The number of events a batch can hold, rounded up to a power of two
+     */
+    public GameEventBus(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be positive");
+        }
+        int size = Integer.highestOneBit(capacity);
+        if (size < capacity) {
+            size <<= 1;
+        }
+        types = new int[size];
+        sources = new int[size];
+        xs = new float[size];
+        ys = new float[size];
+        values = new int[size];
+        mask = size - 1;
+
+        listeners = new Array<GameEventListener>();
+        batch = new EventBatch(this);
+    }
+
+    // Listeners
+
+    /**
+     * Adds a listener. Takes effect from the next dispatch.
+     * @param listener The listener
+     */
+    public void addListener(GameEventListener listener) {
+        if (!listeners.contains(listener, true)) {
+            listeners.add(listener);
+        }
+    }
+
+    /**
+     * Removes a listener.
+     * @param listener The listener
+     */
+    public void removeListener(GameEventListener listener) {
+        listeners.removeValue(listener, true);
+    }
+
+    // Publishing and dispatching
+
+    /**
+     * Starts a tick. Events published until the next call belong to it.
+     * @param replay True if the tick is simulated again (e.g. after a rollback), so
+     *               listeners can skip effects that were already played
+     */
+    public void beginTick(boolean replay) {
+        this.replay = replay;
+    }
+
+    /**
+     * Publishes an event. If the ring is full, the pending events are dispatched first, so
+     * no event is ever dropped.
+     * @param type The event type
+     * @param source The index of the player the event belongs to, or -1
+     * @param x The x position of the event
+     * @param y The y position of the event
+     * @param value The value of the event (see GameEventType)
+     */
+    public void publish(GameEventType type, int source, float x, float y, int value) {
+        if (tail - head > mask) {
+            earlyDispatches++;
+            dispatch();
+        }
+        int slot = (int) (tail & mask);
+        types[slot] = type.ordinal();
+        sources[slot] = source;
+        xs[slot] = x;
+        ys[slot] = y;
+        values[slot] = value;
+        tail++;
+        published++;
+    }
+
+    /**
+     * Hands the events published since the previous dispatch to every listener, then
+     * frees their slots. The batch is marked as replayed if the current tick is (see
+     * beginTick()).
+     */
+    public void dispatch() {
+        if (dispatching) {
+            throw new IllegalStateException("Dispatch from inside a listener");
+        }
+        long end = tail;
+        if (end == head) {
+            return;
+        }
+
+        dispatching = true;
+        try {
+            batch.set(head, (int) (end - head), replay);
+            for (int i = 0; i < listeners.size; i++) {
+                listeners.get(i).onEvents(batch);
+            }
+        } finally {
+            head = end;
+            dispatching = false;
+        }
+    }
+
+    /**
+     * Drops the events that were not dispatched yet, e.g. before restoring a saved state.
+     */
+    public void clear() {
+        head = tail;
+    }
+
+    // Record access for EventBatch
+
+    GameEventType getType(long sequence) {
+        return GameEventType.of(types[(int) (sequence & mask)]);
+    }
+
+    int getSource(long sequence) {
+        return sources[(int) (sequence & mask)];
+    }
+
+    float getX(long sequence) {
+        return xs[(int) (sequence & mask)];
+    }
+
+    float getY(long sequence) {
+        return ys[(int) (sequence & mask)];
+    }
+
+    int getValue(long sequence) {
+        return values[(int) (sequence & mask)];
+    }
+
+    // Getters
+
+    public int getCapacity() {
+        return mask + 1;
+    }
+
+    /**
+     * Gets the number of events waiting for the next dispatch.
+     * @return The number of pending events
+     */
+    public int getPendingCount() {
+        return (int) (tail - head);
+    }
+
+    public long getPublishedCount() {
+        return published;
+    }
+
+    /**
+     * Gets how often the ring filled up within a tick and had to be dispatched early.
+     * @return The number of early dispatches
+     */
+    public long getEarlyDispatchCount() {
+        return earlyDispatches;
+    }
+}
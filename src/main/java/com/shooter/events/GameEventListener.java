@@ -0,0 +1,13 @@
+package com.shooter.events;
+
+/**
+ * Receives the gameplay events of a tick, all at once.
+ */
+@FunctionalInterface
+public interface GameEventListener {
+    /**
+     * Called once per tick with the events published during the tick.
+     * @param events The events, valid only during the call
+     */
+    void onEvents(EventBatch events);
+}
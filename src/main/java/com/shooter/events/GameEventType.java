@@ -0,0 +1,29 @@
+package com.shooter.events;
+
+/**
+ * Gameplay event types.
+ */
+public enum GameEventType {
+    // A player fired (source: player, value: unused)
+    SHOT,
+    // A player projectile hit an enemy (source: player, value: damage)
+    HIT,
+    // A player destroyed an enemy (source: player, value: score)
+    KILL,
+    // A player destroyed a part of an enemy's compound hitbox (source: player, value: part index)
+    PART_DESTROYED,
+    // An enemy bullet hit a player (source: player hit, value: lives left)
+    PLAYER_HIT;
+
+    // Cached values, so looking a type up by ordinal does not copy the array
+    private static final GameEventType[] VALUES = values();
+
+    /**
+     * Gets a type by its ordinal.
+     * @param ordinal The ordinal
+     * @return The type
+     */
+    static GameEventType of(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,82 @@
+package com.shooter.input;
+
+import com.badlogic.gdx.InputAdapter;
+
+/**
+ * Game input processor class.
+ * Receives key events from the window as they arrive, translates them to actions through
+ * the bindings and queues them with their receive time for the simulation. Keys that are
+ * not bound are left to other handlers.
+ */
+public class GameInputProcessor extends InputAdapter {
+    private final InputBindings bindings;
+    private final InputQueue queue;
+
+    // Number of keys held per action, so two keys bound to one action behave as one
+    private final int[] heldKeys;
+    private int heldMask;
+
+    /**
+     * Constructor for the game input processor.
+     * @param bindings The key bindings
+     * @param queue The queue the simulation reads from
+     */
+    public GameInputProcessor(InputBindings bindings, InputQueue queue) {
+        this.bindings = bindings;
+        this.queue = queue;
+        this.heldKeys = new int[InputAction.VALUES.length];
+    }
+
+    /**
+     * Called when a key was pressed.
+     * @param keycode The keycode
+     * @return True if the key is bound, false otherwise
+     */
+    @Override
+    public boolean keyDown(int keycode) {
+        long time = System.nanoTime();
+        InputAction action = bindings.getAction(keycode);
+        if (action == null) {
+            return false;
+        }
+        if (heldKeys[action.ordinal()]++ == 0) {
+            heldMask |= action.bit();
+            queue.offer(action, true, time, heldMask);
+        }
+        return true;
+    }
+
+    /**
+     * Called when a key was released.
+     * @param keycode The keycode
+     * @return True if the key is bound, false otherwise
+     */
+    @Override
+    public boolean keyUp(int keycode) {
+        long time = System.nanoTime();
+        InputAction action = bindings.getAction(keycode);
+        if (action == null) {
+            return false;
+        }
+        int index = action.ordinal();
+        if (heldKeys[index] > 0 && --heldKeys[index] == 0) {
+            heldMask &= ~action.bit();
+            queue.offer(action, false, time, heldMask);
+        }
+        return true;
+    }
+
+    /**
+     * Releases all held actions, e.g. when the processor is removed while keys are down.
+     */
+    public void releaseAll() {
+        long time = System.nanoTime();
+        for (int i = 0; i < heldKeys.length; i++) {
+            if (heldKeys[i] > 0) {
+                heldKeys[i] = 0;
+                heldMask &= ~InputAction.VALUES[i].bit();
+                queue.offer(InputAction.VALUES[i], false, time, heldMask);
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.shooter.input;
+
+/**
+ * Gameplay actions that keys can be bound to.
+ * Each action owns one bit in an action mask.
+ */
+public enum InputAction {
+    MOVE_LEFT,
+    MOVE_RIGHT,
+    MOVE_UP,
+    MOVE_DOWN,
+    FIRE;
+
+    // Cached values, so looking up actions per key event does not copy the array
+    static final InputAction[] VALUES = values();
+
+    /**
+     * Gets the bit of this action in an action mask.
+     * @return The action bit
+     */
+    public int bit() {
+        return 1 << ordinal();
+    }
+}
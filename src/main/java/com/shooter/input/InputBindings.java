@@ -0,0 +1,104 @@
+package com.shooter.input;
+
+import com.badlogic.gdx.Input;
+
+import java.util.BitSet;
+
+/**
+ * Input bindings class.
+ * Maps keys to gameplay actions. Each action holds the set of keycodes bound to it, so
+ * several keys can trigger the same action and bindings can be changed at runtime.
+ */
+public class InputBindings {
+    // Keycodes bound to each action, indexed by action ordinal
+    private final BitSet[] keys;
+
+    /**
+     * Constructor for the input bindings with the default layout
+     * (arrow keys or WASD to move, space to fire).
+     */
+    public InputBindings() {
+        keys = new BitSet[InputAction.VALUES.length];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = new BitSet(Input.Keys.MAX_KEYCODE + 1);
+        }
+
+        bind(Input.Keys.LEFT, InputAction.MOVE_LEFT);
+        bind(Input.Keys.A, InputAction.MOVE_LEFT);
+        bind(Input.Keys.RIGHT, InputAction.MOVE_RIGHT);
+        bind(Input.Keys.D, InputAction.MOVE_RIGHT);
+        bind(Input.Keys.UP, InputAction.MOVE_UP);
+        bind(Input.Keys.W, InputAction.MOVE_UP);
+        bind(Input.Keys.DOWN, InputAction.MOVE_DOWN);
+        bind(Input.Keys.S, InputAction.MOVE_DOWN);
+        bind(Input.Keys.SPACE, InputAction.FIRE);
+    }
+
+    /**
+     * Binds a key to an action, replacing any previous binding of that key.
+     * @param keycode The keycode (see Input.Keys)
+     * @param action The action
+     */
+    public void bind(int keycode, InputAction action) {
+        checkKeycode(keycode);
+        unbind(keycode);
+        keys[action.ordinal()].set(keycode);
+    }
+
+    /**
+     * Removes the binding of a key.
+     * @param keycode The keycode (see Input.Keys)
+     */
+    public void unbind(int keycode) {
+        checkKeycode(keycode);
+        for (BitSet actionKeys : keys) {
+            actionKeys.clear(keycode);
+        }
+    }
+
+    /**
+     * Removes all keys bound to an action.
+     * @param action The action
+     */
+    public void clear(InputAction action) {
+        keys[action.ordinal()].clear();
+    }
+
+    /**
+     * Gets the action a key is bound to.
+     * @param keycode The keycode (see Input.Keys)
+     * @return The action, or null if the key is not bound
+     */
+    public InputAction getAction(int keycode) {
+        if (keycode < 0 || keycode > Input.Keys.MAX_KEYCODE) {
+            return null;
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i].get(keycode)) {
+                return InputAction.VALUES[i];
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Checks if a key is bound to an action.
+     * @param keycode The keycode (see Input.Keys)
+     * @param action The action
+     * @return True if the key triggers the action, false otherwise
+     */
+    public boolean isBound(int keycode, InputAction action) {
+        return keycode >= 0 && keycode <= Input.Keys.MAX_KEYCODE
+            && keys[action.ordinal()].get(keycode);
+    }
+
+    /**
+     * Validates a keycode.
+     * @param keycode The keycode
+     */
+    private static void checkKeycode(int keycode) {
+        if (keycode < 0 || keycode > Input.Keys.MAX_KEYCODE) {
+            throw new IllegalArgumentException("Invalid keycode: " + keycode);
+        }
+    }
+}
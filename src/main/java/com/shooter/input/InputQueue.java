@@ -0,0 +1,89 @@
+package com.shooter.input;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Input queue class.
+ * Lock-free single-producer, single-consumer ring of timestamped action events. The
+ * render thread adds events as the window delivers them and the simulation drains
+ * them once per tick. Events are stored in parallel primitive arrays, so queueing an
+ * event allocates nothing.
+ */
+public class InputQueue {
+    // Capacity of the ring (a power of two)
+    private static final int CAPACITY = 256;
+    private static final int MASK = CAPACITY - 1;
+
+    // Event data
+    private final int[] actionBits;
+    private final boolean[] pressed;
+    private final long[] times;
+
+    // Next slot to write (advanced by the producer) and to read (advanced by the consumer)
+    private final AtomicLong head;
+    private final AtomicLong tail;
+
+    // Action mask as the producer currently sees it, used to recover from overflow
+    private volatile int heldMask;
+
+    // Number of events dropped because the ring was full
+    private volatile long dropped;
+
+    /**
+     * Constructor for the input queue.
+     */
+    public InputQueue() {
+        actionBits = new int[CAPACITY];
+        pressed = new boolean[CAPACITY];
+        times = new long[CAPACITY];
+        head = new AtomicLong();
+        tail = new AtomicLong();
+    }
+
+    /**
+     * Adds an event. Must only be called by the producer thread.
+     * @param action The action that changed
+     * @param down True if the action started, false if it ended
+     * @param time The time the event was received, from System.nanoTime()
+     * @param held The mask of all actions held after this event
+     */
+    public void offer(InputAction action, boolean down, long time, int held) {
+        heldMask = held;
+        long h = head.get();
+        if (h - tail.get() >= CAPACITY) {
+            dropped++;
+            return;
+        }
+        int slot = (int) (h & MASK);
+        actionBits[slot] = action.bit();
+        pressed[slot] = down;
+        times[slot] = time;
+        head.lazySet(h + 1);
+    }
+
+    /**
+     * Applies all queued events to an input state. Must only be called by the consumer thread.
+     * @param state The state to update
+     */
+    public void drainTo(InputState state) {
+        long h = head.get();
+        long t = tail.get();
+        for (; t < h; t++) {
+            int slot = (int) (t & MASK);
+            state.apply(actionBits[slot], pressed[slot], times[slot]);
+        }
+        tail.lazySet(t);
+
+        long lost = dropped;
+        if (lost != state.getDroppedSeen()) {
+            // Some releases may have been lost; take the held keys from the producer instead
+            state.resync(heldMask, lost);
+        }
+    }
+
+    // Getters
+
+    public long getDroppedCount() {
+        return dropped;
+    }
+}
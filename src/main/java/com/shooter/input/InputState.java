@@ -0,0 +1,131 @@
+package com.shooter.input;
+
+/**
+ * Input state class.
+ * The actions seen by one simulation tick. Besides the actions currently held it keeps
+ * every action that was pressed since the previous tick, so a key that was pressed and
+ * released between two ticks still counts for the next tick.
+ */
+public class InputState {
+    // Actions held at the end of the drained events
+    private int held;
+
+    // Actions pressed since the previous tick
+    private int pressed;
+
+    // Receive time of the oldest press applied this tick, or 0 if none
+    private long oldestPressTime;
+
+    // Dropped event count already accounted for
+    private long droppedSeen;
+
+    /**
+     * Starts a new tick by forgetting the presses of the previous one.
+     */
+    public void beginTick() {
+        pressed = 0;
+        oldestPressTime = 0;
+    }
+
+    /**
+     * Applies one event.
+     * @param actionBit The bit of the action that changed
+     * @param down True if the action started, false if it ended
+     * @param time The time the event was received, from System.nanoTime()
+     */
+    void apply(int actionBit, boolean down, long time) {
+        if (down) {
+            held |= actionBit;
+            pressed |= actionBit;
+            if (oldestPressTime == 0) {
+                oldestPressTime = time;
+            }
+        } else {
+            held &= ~actionBit;
+        }
+    }
+
+    /**
+     * Replaces the held actions after events were lost.
+     * @param heldMask The actions held according to the producer
+     * @param dropped The producer's dropped event count
+     */
+    void resync(int heldMask, long dropped) {
+        held = heldMask;
+        droppedSeen = dropped;
+    }
+
+    /**
+     * Replaces the state with a recorded or received input, e.g. in a network game.
+     * The mask is treated as held for the whole tick.
+     * @param mask The actions active for the tick
+     * @param pressTime The receive time of the press this input reflects, or 0 if unknown
+     */
+    public void setMask(int mask, long pressTime) {
+        held = mask;
+        pressed = 0;
+        oldestPressTime = pressTime;
+    }
+
+    /**
+     * Resets the state, e.g. when the game loses keyboard focus.
+     */
+    public void reset() {
+        held = 0;
+        pressed = 0;
+        oldestPressTime = 0;
+    }
+
+    /**
+     * Checks if an action is held.
+     * @param action The action
+     * @return True if the action is held, false otherwise
+     */
+    public boolean isHeld(InputAction action) {
+        return (held & action.bit()) != 0;
+    }
+
+    /**
+     * Checks if an action was pressed since the previous tick, even if it has been released.
+     * @param action The action
+     * @return True if the action was pressed, false otherwise
+     */
+    public boolean wasPressed(InputAction action) {
+        return (pressed & action.bit()) != 0;
+    }
+
+    /**
+     * Checks if an action is held or was pressed since the previous tick.
+     * @param action The action
+     * @return True if the action is active this tick, false otherwise
+     */
+    public boolean isActive(InputAction action) {
+        return ((held | pressed) & action.bit()) != 0;
+    }
+
+    // Getters
+
+    public int getHeldMask() {
+        return held;
+    }
+
+    public int getPressedMask() {
+        return pressed;
+    }
+
+    /**
+     * Gets the actions held or pressed since the previous tick.
+     * @return The action mask
+     */
+    public int getActiveMask() {
+        return held | pressed;
+    }
+
+    public long getOldestPressTime() {
+        return oldestPressTime;
+    }
+
+    long getDroppedSeen() {
+        return droppedSeen;
+    }
+}
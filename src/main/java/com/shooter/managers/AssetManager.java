@@ -5,6 +5,10 @@ import com.badlogic.gdx.graphics.Pixmap;
 import com.badlogic.gdx.graphics.Texture;
 import com.badlogic.gdx.graphics.Texture.TextureFilter;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.config.GameConfig;
+import com.shooter.debug.GlResourceTracker;
+import com.shooter.entities.CollisionMask;
+import com.shooter.performance.StartupTimeline;
 import com.shooter.utils.Constants;
 
 /**
@@ -19,8 +23,18 @@ interface PixmapDrawer {
 /**
  * Asset manager class.
  * Handles loading and managing game assets.
+ * All textures live in a texture cache with a video memory budget: the built-in
+ * textures are held for the whole session, while level art acquired through
+ * acquireTexture() can be evicted once released and is reloaded when used again.
+ * The sprites also get collision masks of their solid pixels, built from the same art.
  */
 public class AssetManager {
+    // Key prefix of textures drawn in code
+    private static final String GENERATED_PREFIX = "generated:";
+
+    // All textures
+    private final TextureCache textureCache;
+
     // Textures
     private Texture playerTexture;
     private Texture enemyTexture;
@@ -33,6 +47,11 @@ public class AssetManager {
     private TextureRegion projectileRegion;
     private TextureRegion[] backgroundRegions;
 
+    // Solid pixels of the sprites, for pixel-accurate collisions
+    private CollisionMask playerMask;
+    private CollisionMask enemyMask;
+    private CollisionMask projectileMask;
+
     // Singleton instance
     private static AssetManager instance;
 
@@ -40,8 +59,11 @@ public class AssetManager {
      * Private constructor for the asset manager.
      */
     private AssetManager() {
+        textureCache = new TextureCache(GameConfig.get().getTextureBudgetBytes());
+
         // Initialize with placeholder textures
         createPlaceholderTextures();
+        StartupTimeline.mark(StartupTimeline.ASSETS);
     }
 
     /**
@@ -60,7 +82,7 @@ public class AssetManager {
      */
     private void createPlaceholderTextures() {
         // Create pixel art style player texture (spaceship)
-        playerTexture = createPixelArtTexture(32, 32, pixmap -> {
+        PixmapDrawer playerArt = pixmap -> {
             // Main body (blue)
             pixmap.setColor(0.2f, 0.4f, 1.0f, 1.0f);
             pixmap.fillRectangle(8, 8, 16, 16);
@@ -77,10 +99,12 @@ public class AssetManager {
             // Engine flames (orange/yellow)
             pixmap.setColor(1.0f, 0.6f, 0.2f, 1.0f);
             pixmap.fillRectangle(2, 12, 6, 8);
-        });
+        };
+        playerTexture = createGeneratedTexture("player", 32, 32, playerArt);
+        playerMask = createCollisionMask(32, 32, playerArt);
 
         // Create pixel art style enemy texture (alien ship)
-        enemyTexture = createPixelArtTexture(32, 32, pixmap -> {
+        PixmapDrawer enemyArt = pixmap -> {
             // Main body (red)
             pixmap.setColor(0.9f, 0.2f, 0.2f, 1.0f);
             pixmap.fillRectangle(8, 8, 16, 16);
@@ -96,10 +120,12 @@ public class AssetManager {
             // Engine flames (green - alien tech)
             pixmap.setColor(0.2f, 0.9f, 0.4f, 1.0f);
             pixmap.fillRectangle(24, 12, 6, 8);
-        });
+        };
+        enemyTexture = createGeneratedTexture("enemy", 32, 32, enemyArt);
+        enemyMask = createCollisionMask(32, 32, enemyArt);
 
         // Create pixel art style projectile texture (energy bolt)
-        projectileTexture = createPixelArtTexture(16, 16, pixmap -> {
+        PixmapDrawer projectileArt = pixmap -> {
             // Core (bright yellow)
             pixmap.setColor(1.0f, 1.0f, 0.2f, 1.0f);
             pixmap.fillRectangle(4, 6, 8, 4);
@@ -111,13 +137,16 @@ public class AssetManager {
             // Trail (fading yellow)
             pixmap.setColor(1.0f, 1.0f, 0.5f, 0.5f);
             pixmap.fillRectangle(0, 7, 4, 2);
-        });
+        };
+        projectileTexture = createGeneratedTexture("projectile", 16, 16, projectileArt);
+        projectileMask = createCollisionMask(16, 16, projectileArt);
 
         // Create pixel art style background textures
         backgroundTextures = new Texture[3];
 
         // Deep space background (dark blue with stars)
-        backgroundTextures[0] = createPixelArtTexture(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
+        backgroundTextures[0] = createGeneratedTexture("background-space",
+            Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
             // Deep space (dark blue)
             pixmap.setColor(0.05f, 0.05f, 0.15f, 1.0f);
             pixmap.fill();
@@ -133,7 +162,8 @@ public class AssetManager {
         });
 
         // Nebula layer (purple/blue clouds)
-        backgroundTextures[1] = createPixelArtTexture(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
+        backgroundTextures[1] = createGeneratedTexture("background-nebula",
+            Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
             // Transparent base
             pixmap.setColor(0, 0, 0, 0);
             pixmap.fill();
@@ -157,7 +187,8 @@ public class AssetManager {
         });
 
         // Foreground dust/particles (small bright particles)
-        backgroundTextures[2] = createPixelArtTexture(Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
+        backgroundTextures[2] = createGeneratedTexture("background-dust",
+            Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, pixmap -> {
             // Transparent base
             pixmap.setColor(0, 0, 0, 0);
             pixmap.fill();
@@ -202,21 +233,46 @@ public class AssetManager {
      */
     private Texture createColorTexture(int width, int height, float r, float g, float b, float a) {
         // Create a pixmap
-        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        Pixmap pixmap = GlResourceTracker.getInstance()
+            .track(new Pixmap(width, height, Pixmap.Format.RGBA8888), this);
 
         // Fill with color
         pixmap.setColor(r, g, b, a);
         pixmap.fill();
 
         // Create texture from pixmap
-        Texture texture = new Texture(pixmap);
+        Texture texture = GlResourceTracker.getInstance().track(new Texture(pixmap), this);
 
         // Dispose pixmap
-        pixmap.dispose();
+        GlResourceTracker.getInstance().dispose(pixmap);
 
         return texture;
     }
 
+    /**
+     * Creates a pixel art texture in the texture cache and holds it for the session.
+     * @param name The name of the texture
+     * @param width The width of the texture
+     * @param height The height of the texture
+     * @param drawer The drawer to use for creating the pixel art
+     * @return The created texture
+     */
+    private Texture createGeneratedTexture(String name, int width, int height,
+                                           PixmapDrawer drawer) {
+        return textureCache.acquire(GENERATED_PREFIX + name,
+            () -> createPixelArtTexture(width, height, drawer)).getTexture();
+    }
+
+    /**
+     * Acquires a texture file, e.g. the art of a level. The texture counts against the video
+     * memory budget and may be evicted after it is released.
+     * @param path The internal path of the texture
+     * @return The handle; release it when the level is done with the texture
+     */
+    public TextureHandle acquireTexture(String path) {
+        return textureCache.acquire(path);
+    }
+
     /**
      * Creates a pixel art texture using the provided drawer.
      * @param width The width of the texture
@@ -226,7 +282,8 @@ public class AssetManager {
      */
     private Texture createPixelArtTexture(int width, int height, PixmapDrawer drawer) {
         // Create a pixmap
-        Pixmap pixmap = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+        Pixmap pixmap = GlResourceTracker.getInstance()
+            .track(new Pixmap(width, height, Pixmap.Format.RGBA8888), this);
 
         // Let the drawer draw on the pixmap
         drawer.draw(pixmap);
@@ -238,22 +295,43 @@ public class AssetManager {
         texture.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
 
         // Dispose pixmap
-        pixmap.dispose();
+        GlResourceTracker.getInstance().dispose(pixmap);
 
         return texture;
     }
 
+    /**
+     * Creates the collision mask of pixel art by drawing it once more on a pixmap, so
+     * the mask does not depend on the texture being loaded.
+     * @param width The width of the art
+     * @param height The height of the art
+     * @param drawer The drawer of the art
+     * @return The collision mask
+     */
+    private CollisionMask createCollisionMask(int width, int height, PixmapDrawer drawer) {
+        Pixmap pixmap = GlResourceTracker.getInstance()
+            .track(new Pixmap(width, height, Pixmap.Format.RGBA8888), this);
+        try {
+            drawer.draw(pixmap);
+            return CollisionMask.fromPixmap(pixmap);
+        } finally {
+            GlResourceTracker.getInstance().dispose(pixmap);
+        }
+    }
+
     /**
      * Disposes all assets.
      */
     public void dispose() {
-        playerTexture.dispose();
-        enemyTexture.dispose();
-        projectileTexture.dispose();
+        textureCache.dispose();
+    }
 
-        for (Texture texture : backgroundTextures) {
-            texture.dispose();
-        }
+    /**
+     * Gets the texture cache, e.g. for its budget metrics.
+     * @return The texture cache
+     */
+    public TextureCache getTextureCache() {
+        return textureCache;
     }
 
     // Getters for texture regions
@@ -273,4 +351,18 @@ public class AssetManager {
     public TextureRegion[] getBackgroundRegions() {
         return backgroundRegions;
     }
+
+    // Getters for collision masks
+
+    public CollisionMask getPlayerMask() {
+        return playerMask;
+    }
+
+    public CollisionMask getEnemyMask() {
+        return enemyMask;
+    }
+
+    public CollisionMask getProjectileMask() {
+        return projectileMask;
+    }
 }
@@ -0,0 +1,246 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.Gdx;
+import com.shooter.audio.AudioBackend;
+import com.shooter.audio.GdxAudioBackend;
+import com.shooter.audio.NullAudioBackend;
+import com.shooter.audio.SoundEffect;
+import com.shooter.utils.Constants;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Audio manager class.
+ * Plays sound effects with a fixed voice budget. Effects are preloaded at startup.
+ * Triggers from any thread are coalesced, so an effect starts at most once per frame,
+ * and when an effect or the global budget is full the oldest voice is stolen. Music
+ * is streamed by the backend.
+ */
+public class AudioManager {
+    // Maximum number of effect voices playing at once
+    private static final int MAX_VOICES = 12;
+
+    // Cached effects, so the per-frame loops do not copy the array values() returns
+    private static final SoundEffect[] EFFECTS = SoundEffect.values();
+
+    // Singleton instance
+    private static AudioManager instance;
+
+    private final AudioBackend backend;
+
+    // Loaded sound handles per effect (-1 if not available)
+    private final int[] sounds;
+
+    // Triggers since the last update, per effect (written from any thread)
+    private final AtomicIntegerArray pending;
+
+    // Playing voices (owned by the rendering thread)
+    private final int[] voiceEffect;
+    private final long[] voiceId;
+    private final long[] voiceStart;
+    private int voiceCount;
+
+    // Statistics
+    private long played;
+    private long stolen;
+    private long coalesced;
+
+    /**
+     * Private constructor for the audio manager.
+     * @param backend The backend used for playback
+     */
+    private AudioManager(AudioBackend backend) {
+        this.backend = backend;
+        this.sounds = new int[EFFECTS.length];
+        this.pending = new AtomicIntegerArray(EFFECTS.length);
+        this.voiceEffect = new int[MAX_VOICES];
+        this.voiceId = new long[MAX_VOICES];
+        this.voiceStart = new long[MAX_VOICES];
+        Arrays.fill(sounds, -1);
+    }
+
+    /**
+     * Gets the singleton instance of the audio manager.
+     * Uses the libGDX backend when an audio device is available, otherwise a silent one.
+     * @return The audio manager instance
+     */
+    public static AudioManager getInstance() {
+        if (instance == null) {
+            AudioBackend backend = Gdx.audio != null
+                ? new GdxAudioBackend() : new NullAudioBackend();
+            instance = new AudioManager(backend);
+        }
+        return instance;
+    }
+
+    /**
+     * Creates the singleton instance with a specific backend.
+     * Must be called before the first call to getInstance().
+     * @param backend The backend used for playback
+     * @return The audio manager instance
+     */
+    public static AudioManager initialize(AudioBackend backend) {
+        if (instance != null) {
+            throw new IllegalStateException("Audio manager is already initialized");
+        }
+        instance = new AudioManager(backend);
+        return instance;
+    }
+
+    /**
+     * Loads all sound effects. Missing effects are skipped and stay silent.
+     */
+    public void preload() {
+        for (int i = 0; i < EFFECTS.length; i++) {
+            if (sounds[i] < 0) {
+                sounds[i] = backend.loadSound(EFFECTS[i].getPath());
+            }
+        }
+    }
+
+    /**
+     * Requests an effect to be played on the next update. Safe to call from any thread.
+     * Repeated triggers before the next update start only one voice.
+     * @param effect The effect to play
+     */
+    public void trigger(SoundEffect effect) {
+        pending.incrementAndGet(effect.ordinal());
+    }
+
+    /**
+     * Starts the voices for this frame's triggers. Must be called once per frame on the
+     * rendering thread.
+     */
+    public void update() {
+        long now = System.nanoTime();
+        expireVoices(now);
+
+        for (int i = 0; i < EFFECTS.length; i++) {
+            int count = pending.getAndSet(i, 0);
+            if (count == 0 || sounds[i] < 0) {
+                continue;
+            }
+            coalesced += count - 1;
+            play(i, EFFECTS[i], now);
+        }
+    }
+
+    /**
+     * Starts one voice of an effect, stealing the oldest voice if a budget is full.
+     * @param effectIndex The effect index
+     * @param effect The effect
+     * @param now The current time in nanoseconds
+     */
+    private void play(int effectIndex, SoundEffect effect, long now) {
+        // Find the oldest voice of this effect and the oldest voice overall
+        int effectVoices = 0;
+        int oldestOfEffect = -1;
+        int oldest = -1;
+        for (int v = 0; v < voiceCount; v++) {
+            if (voiceEffect[v] == effectIndex) {
+                effectVoices++;
+                if (oldestOfEffect < 0 || voiceStart[v] < voiceStart[oldestOfEffect]) {
+                    oldestOfEffect = v;
+                }
+            }
+            if (oldest < 0 || voiceStart[v] < voiceStart[oldest]) {
+                oldest = v;
+            }
+        }
+
+        if (effectVoices >= effect.getMaxVoices()) {
+            stopVoice(oldestOfEffect);
+            stolen++;
+        } else if (voiceCount >= MAX_VOICES) {
+            stopVoice(oldest);
+            stolen++;
+        }
+
+        long id = backend.play(sounds[effectIndex], effect.getVolume());
+        if (id < 0) {
+            return;
+        }
+        voiceEffect[voiceCount] = effectIndex;
+        voiceId[voiceCount] = id;
+        voiceStart[voiceCount] = now;
+        voiceCount++;
+        played++;
+    }
+
+    /**
+     * Forgets voices that have finished playing.
+     * @param now The current time in nanoseconds
+     */
+    private void expireVoices(long now) {
+        for (int v = voiceCount - 1; v >= 0; v--) {
+            long length = (long) (EFFECTS[voiceEffect[v]].getDuration() * 1_000_000_000L);
+            if (now - voiceStart[v] >= length) {
+                removeVoice(v);
+            }
+        }
+    }
+
+    /**
+     * Stops a voice and removes it.
+     * @param v The voice slot
+     */
+    private void stopVoice(int v) {
+        backend.stop(sounds[voiceEffect[v]], voiceId[v]);
+        removeVoice(v);
+    }
+
+    /**
+     * Removes a voice by moving the last voice into its slot.
+     * @param v The voice slot
+     */
+    private void removeVoice(int v) {
+        voiceCount--;
+        voiceEffect[v] = voiceEffect[voiceCount];
+        voiceId[v] = voiceId[voiceCount];
+        voiceStart[v] = voiceStart[voiceCount];
+    }
+
+    /**
+     * Starts streaming looping music.
+     * @param file The file name inside the audio directory
+     * @param volume The volume (0-1)
+     */
+    public void playMusic(String file, float volume) {
+        backend.playMusic(Constants.AUDIO_PATH + file, true, volume);
+    }
+
+    /**
+     * Stops the music.
+     */
+    public void stopMusic() {
+        backend.stopMusic();
+    }
+
+    /**
+     * Disposes all audio.
+     */
+    public void dispose() {
+        backend.dispose();
+        voiceCount = 0;
+        Arrays.fill(sounds, -1);
+    }
+
+    // Statistics
+
+    public int getActiveVoices() {
+        return voiceCount;
+    }
+
+    public long getPlayedCount() {
+        return played;
+    }
+
+    public long getStolenCount() {
+        return stolen;
+    }
+
+    public long getCoalescedCount() {
+        return coalesced;
+    }
+}
@@ -0,0 +1,272 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.files.FileHandle;
+import com.badlogic.gdx.graphics.Color;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.BitmapFont;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.PixmapPacker;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator;
+import com.badlogic.gdx.graphics.g2d.freetype.FreeTypeFontGenerator.FreeTypeFontParameter;
+import com.badlogic.gdx.math.MathUtils;
+import com.badlogic.gdx.utils.Array;
+import com.shooter.config.GameConfig;
+import com.shooter.debug.GlResourceTracker;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Font manager class.
+ * Hands out one shared font per size. With a TrueType font configured (assets.font),
+ * each size is rasterized once with FreeType at its real pixel height, so text is sharp
+ * instead of a scaled-up bitmap font. The baked atlases and glyph metrics are written to
+ * a glyph cache in the data directory, and later launches read them from there without
+ * starting FreeType at all. Without the font file, the built-in bitmap font is used,
+ * scaled per size and sharing one texture. Screens must not change the scale of the
+ * shared fonts. Must only be used on the rendering thread.
+ */
+public class FontManager {
+    // Built-in bitmap font of libGDX, used when there is no TrueType font
+    private static final String FALLBACK_FONT = "com/badlogic/gdx/utils/lsans-15.fnt";
+    private static final String FALLBACK_PAGE = "com/badlogic/gdx/utils/lsans-15.png";
+
+    // Characters baked into every size
+    private static final String CHARACTERS = FreeTypeFontGenerator.DEFAULT_CHARS;
+
+    // Largest atlas page
+    private static final int MAX_PAGE_SIZE = 1024;
+
+    // Singleton instance
+    private static FontManager instance;
+
+    // Fonts by size, created when first used
+    private final BitmapFont[] fonts;
+
+    // Atlas pages of all fonts
+    private final Array<Texture> pages;
+
+    // TrueType font file and its bytes, null when using the fallback
+    private FileHandle fontFile;
+    private byte[] fontBytes;
+
+    // Statistics
+    private int baked;
+    private int cached;
+
+    /**
+     * Private constructor for the font manager.
+     */
+    private FontManager() {
+        fonts = new BitmapFont[FontSize.values().length];
+        pages = new Array<Texture>();
+
+        String path = GameConfig.get().getFontFile();
+        if (!path.isEmpty()) {
+            FileHandle file = Gdx.files.internal(path);
+            if (file.exists()) {
+                fontFile = file;
+                fontBytes = file.readBytes();
+            } else {
+                Gdx.app.log("FontManager", "Font not found, using the built-in font: " + path);
+            }
+        }
+    }
+
+    /**
+     * Gets the singleton instance of the font manager.
+     * @return The font manager instance
+     */
+    public static FontManager getInstance() {
+        if (instance == null) {
+            instance = new FontManager();
+        }
+        return instance;
+    }
+
+    /**
+     * Creates every size up front, so the first screen using one does not stall.
+     */
+    public void preload() {
+        for (FontSize size : FontSize.values()) {
+            get(size);
+        }
+        Gdx.app.log("FontManager", fontFile == null ? "Using the built-in font"
+            : "Fonts: " + cached + " read from the glyph cache, " + baked + " baked with FreeType");
+    }
+
+    /**
+     * Gets the shared font of a size.
+     * @param size The size
+     * @return The font; do not dispose it or change its scale
+     */
+    public BitmapFont get(FontSize size) {
+        BitmapFont font = fonts[size.ordinal()];
+        if (font == null) {
+            font = fontFile != null ? loadTrueType(size) : loadFallback(size);
+            fonts[size.ordinal()] = font;
+        }
+        return font;
+    }
+
+    /**
+     * Creates a size of the TrueType font, from the glyph cache if it holds this bake.
+     * @param size The size
+     * @return The font
+     */
+    private BitmapFont loadTrueType(FontSize size) {
+        Path file = Paths.get(GameConfig.get().getDataDirectory(), "glyph-cache",
+            size.name().toLowerCase() + "-" + size.getPixels() + ".glyphs");
+        long key = GlyphCache.key(fontBytes, size.getPixels(), CHARACTERS);
+        Array<Pixmap> atlas = new Array<Pixmap>();
+
+        BitmapFontData data = null;
+        try {
+            data = GlyphCache.read(file, key, atlas);
+        } catch (IOException e) {
+            Gdx.app.error("FontManager", "Baking again, the glyph cache is unreadable: " + file, e);
+        }
+        if (data != null) {
+            cached++;
+            try {
+                return createFont(data, atlas);
+            } finally {
+                for (int i = 0; i < atlas.size; i++) {
+                    atlas.get(i).dispose();
+                }
+            }
+        }
+
+        // The packer owns the pages
+        PixmapPacker packer = createPacker(size);
+        try {
+            data = bake(size, packer);
+            for (PixmapPacker.Page page : packer.getPages()) {
+                atlas.add(page.getPixmap());
+            }
+            try {
+                GlyphCache.write(file, key, data, atlas);
+            } catch (IOException e) {
+                Gdx.app.error("FontManager", "Failed to write " + file, e);
+            }
+            baked++;
+            return createFont(data, atlas);
+        } finally {
+            packer.dispose();
+        }
+    }
+
+    /**
+     * Creates the packer for the atlas of a size: one page that fits every glyph, like
+     * FreeType picks for its own atlases.
+     * @param size The size
+     * @return The packer
+     */
+    private static PixmapPacker createPacker(FontSize size) {
+        int pageSize = MathUtils.nextPowerOfTwo((int) Math.ceil(Math.sqrt(
+            (double) size.getPixels() * size.getPixels() * CHARACTERS.length())));
+        pageSize = Math.min(pageSize, MAX_PAGE_SIZE);
+        PixmapPacker packer = new PixmapPacker(pageSize, pageSize, Pixmap.Format.RGBA8888,
+            1, false);
+        packer.setTransparentColor(Color.WHITE);
+        packer.getTransparentColor().a = 0;
+        return packer;
+    }
+
+    /**
+     * Rasterizes a size of the TrueType font with FreeType.
+     * @param size The size
+     * @param packer Receives the glyph images
+     * @return The metrics and glyphs
+     */
+    private BitmapFontData bake(FontSize size, PixmapPacker packer) {
+        FreeTypeFontGenerator generator = new FreeTypeFontGenerator(fontFile);
+        try {
+            FreeTypeFontParameter parameter = new FreeTypeFontParameter();
+            parameter.size = size.getPixels();
+            parameter.characters = CHARACTERS;
+            parameter.packer = packer;
+            return generator.generateData(parameter);
+        } finally {
+            generator.dispose();
+        }
+    }
+
+    /**
+     * Creates a font from baked metrics and atlas pages.
+     * @param data The metrics and glyphs
+     * @param atlas The atlas pages, uploaded to textures
+     * @return The font
+     */
+    private BitmapFont createFont(BitmapFontData data, Array<Pixmap> atlas) {
+        Array<TextureRegion> regions = new Array<TextureRegion>(atlas.size);
+        for (int i = 0; i < atlas.size; i++) {
+            Texture page = GlResourceTracker.getInstance().track(new Texture(atlas.get(i)), this);
+            page.setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+            pages.add(page);
+            regions.add(new TextureRegion(page));
+        }
+        return GlResourceTracker.getInstance().track(new BitmapFont(data, regions, true), this);
+    }
+
+    /**
+     * Creates a size of the built-in bitmap font. All sizes share its texture.
+     * @param size The size
+     * @return The font, scaled to the size
+     */
+    private BitmapFont loadFallback(FontSize size) {
+        if (pages.isEmpty()) {
+            pages.add(GlResourceTracker.getInstance()
+                .track(new Texture(Gdx.files.classpath(FALLBACK_PAGE)), this));
+        }
+        BitmapFontData data = new BitmapFontData(Gdx.files.classpath(FALLBACK_FONT), false);
+        data.setScale(size.getFallbackScale());
+        return GlResourceTracker.getInstance()
+            .track(new BitmapFont(data, new TextureRegion(pages.first()), true), this);
+    }
+
+    /**
+     * Disposes all fonts and their atlas pages.
+     */
+    public void dispose() {
+        for (int i = 0; i < fonts.length; i++) {
+            GlResourceTracker.getInstance().dispose(fonts[i]);
+            fonts[i] = null;
+        }
+        for (int i = 0; i < pages.size; i++) {
+            GlResourceTracker.getInstance().dispose(pages.get(i));
+        }
+        pages.clear();
+    }
+
+    // Getters
+
+    /**
+     * Checks if the fonts come from a TrueType font.
+     * @return True for FreeType-baked fonts, false for the built-in bitmap font
+     */
+    public boolean isTrueType() {
+        return fontFile != null;
+    }
+
+    /**
+     * Gets how many sizes were rasterized with FreeType this session.
+     * @return The number of bakes
+     */
+    public int getBakedCount() {
+        return baked;
+    }
+
+    /**
+     * Gets how many sizes were read from the glyph cache this session.
+     * @return The number of cache hits
+     */
+    public int getCachedCount() {
+        return cached;
+    }
+}
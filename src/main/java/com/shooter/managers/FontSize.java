@@ -0,0 +1,30 @@
+package com.shooter.managers;
+
+/**
+ * Font sizes used by the screens.
+ * Each size is baked once and shared by every screen that draws text in it.
+ */
+public enum FontSize {
+    SMALL(15, 1f),
+    MEDIUM(22, 1.5f),
+    LARGE(30, 2f);
+
+    // Height of the baked font in pixels
+    private final int pixels;
+
+    // Scale of the built-in 15 pixel font when no TrueType font is available
+    private final float fallbackScale;
+
+    FontSize(int pixels, float fallbackScale) {
+        this.pixels = pixels;
+        this.fallbackScale = fallbackScale;
+    }
+
+    public int getPixels() {
+        return pixels;
+    }
+
+    public float getFallbackScale() {
+        return fallbackScale;
+    }
+}
@@ -0,0 +1,247 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.BitmapFontData;
+import com.badlogic.gdx.graphics.g2d.BitmapFont.Glyph;
+import com.badlogic.gdx.utils.Array;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.zip.CRC32;
+
+/**
+ * Glyph cache class.
+ * Stores a baked font on disk: its metrics, every glyph with its place in the atlas,
+ * the kerning pairs, and the atlas pages as raw RGBA pixels. Reading it back needs
+ * neither FreeType nor an image decoder, only a copy of the pixels into pixmaps. Each
+ * file records the key of what it was baked from (font file, size and characters), so
+ * a changed font is baked again instead of read.
+ */
+public final class GlyphCache {
+    // File header
+    private static final int MAGIC = 0x53474C59; // "SGLY"
+    private static final int VERSION = 1;
+
+    private GlyphCache() {
+    }
+
+    /**
+     * Computes the key of a bake.
+     * @param font The bytes of the font file
+     * @param pixels The size in pixels
+     * @param characters The baked characters
+     * @return The key
+     */
+    public static long key(byte[] font, int pixels, String characters) {
+        CRC32 crc = new CRC32();
+        crc.update(font);
+        crc.update(characters.getBytes(StandardCharsets.UTF_8));
+        return (crc.getValue() << 32) ^ ((long) pixels << 16) ^ VERSION;
+    }
+
+    /**
+     * Writes a baked font. The file is replaced in one step, so a crash leaves either
+     * the old file or the new one.
+     * @param file The cache file
+     * @param key The key of the bake
+     * @param data The metrics and glyphs
+     * @param pages The atlas pages (RGBA8888)
+     * @throws IOException If the file cannot be written
+     */
+    public static void write(Path file, long key, BitmapFontData data, Array<Pixmap> pages)
+            throws IOException {
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(temp)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(key);
+
+            // Metrics
+            out.writeBoolean(data.flipped);
+            out.writeFloat(data.lineHeight);
+            out.writeFloat(data.capHeight);
+            out.writeFloat(data.ascent);
+            out.writeFloat(data.descent);
+            out.writeFloat(data.down);
+            out.writeFloat(data.padTop);
+            out.writeFloat(data.padRight);
+            out.writeFloat(data.padBottom);
+            out.writeFloat(data.padLeft);
+            out.writeFloat(data.spaceXadvance);
+            out.writeFloat(data.xHeight);
+
+            // Glyphs
+            Array<Glyph> glyphs = collectGlyphs(data);
+            out.writeInt(glyphs.size);
+            for (int i = 0; i < glyphs.size; i++) {
+                Glyph glyph = glyphs.get(i);
+                out.writeInt(glyph.id);
+                out.writeInt(glyph.srcX);
+                out.writeInt(glyph.srcY);
+                out.writeInt(glyph.width);
+                out.writeInt(glyph.height);
+                out.writeInt(glyph.xoffset);
+                out.writeInt(glyph.yoffset);
+                out.writeInt(glyph.xadvance);
+                out.writeInt(glyph.page);
+            }
+            out.writeInt(data.missingGlyph != null ? data.missingGlyph.id : -1);
+
+            // Kerning, only between baked glyphs
+            int pairs = 0;
+            for (int i = 0; i < glyphs.size; i++) {
+                for (int j = 0; j < glyphs.size; j++) {
+                    if (glyphs.get(i).getKerning((char) glyphs.get(j).id) != 0) {
+                        pairs++;
+                    }
+                }
+            }
+            out.writeInt(pairs);
+            for (int i = 0; i < glyphs.size; i++) {
+                Glyph glyph = glyphs.get(i);
+                for (int j = 0; j < glyphs.size; j++) {
+                    int amount = glyph.getKerning((char) glyphs.get(j).id);
+                    if (amount != 0) {
+                        out.writeInt(glyph.id);
+                        out.writeInt(glyphs.get(j).id);
+                        out.writeInt(amount);
+                    }
+                }
+            }
+
+            // Atlas pages
+            out.writeInt(pages.size);
+            for (int i = 0; i < pages.size; i++) {
+                Pixmap page = pages.get(i);
+                if (page.getFormat() != Pixmap.Format.RGBA8888) {
+                    throw new IOException("Atlas page is not RGBA8888: " + page.getFormat());
+                }
+                byte[] pixels = new byte[page.getWidth() * page.getHeight() * 4];
+                ByteBuffer buffer = page.getPixels().duplicate();
+                buffer.position(0);
+                buffer.get(pixels);
+                out.writeInt(page.getWidth());
+                out.writeInt(page.getHeight());
+                out.write(pixels);
+            }
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Reads a baked font.
+     * @param file The cache file
+     * @param key The key of the wanted bake
+     * @param pages Receives the atlas pages; the caller disposes them
+     * @return The metrics and glyphs, or null if the file is missing or holds another bake
+     * @throws IOException If the file cannot be read or is damaged
+     */
+    public static BitmapFontData read(Path file, long key, Array<Pixmap> pages) throws IOException {
+        if (!Files.isRegularFile(file)) {
+            return null;
+        }
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION || in.readLong() != key) {
+                return null;
+            }
+
+            // Metrics
+            BitmapFontData data = new BitmapFontData();
+            data.flipped = in.readBoolean();
+            data.lineHeight = in.readFloat();
+            data.capHeight = in.readFloat();
+            data.ascent = in.readFloat();
+            data.descent = in.readFloat();
+            data.down = in.readFloat();
+            data.padTop = in.readFloat();
+            data.padRight = in.readFloat();
+            data.padBottom = in.readFloat();
+            data.padLeft = in.readFloat();
+            data.spaceXadvance = in.readFloat();
+            data.xHeight = in.readFloat();
+
+            // Glyphs
+            int glyphCount = in.readInt();
+            for (int i = 0; i < glyphCount; i++) {
+                Glyph glyph = new Glyph();
+                glyph.id = in.readInt();
+                glyph.srcX = in.readInt();
+                glyph.srcY = in.readInt();
+                glyph.width = in.readInt();
+                glyph.height = in.readInt();
+                glyph.xoffset = in.readInt();
+                glyph.yoffset = in.readInt();
+                glyph.xadvance = in.readInt();
+                glyph.page = in.readInt();
+                data.setGlyph(glyph.id, glyph);
+            }
+            int missing = in.readInt();
+            if (missing >= 0) {
+                data.missingGlyph = data.getGlyph((char) missing);
+            }
+
+            // Kerning
+            int pairs = in.readInt();
+            for (int i = 0; i < pairs; i++) {
+                Glyph glyph = data.getGlyph((char) in.readInt());
+                int second = in.readInt();
+                int amount = in.readInt();
+                if (glyph == null) {
+                    throw new IOException("Kerning of a glyph that is not in " + file);
+                }
+                glyph.setKerning(second, amount);
+            }
+
+            // Atlas pages
+            int pageCount = in.readInt();
+            for (int i = 0; i < pageCount; i++) {
+                int width = in.readInt();
+                int height = in.readInt();
+                byte[] pixels = new byte[width * height * 4];
+                in.readFully(pixels);
+                Pixmap page = new Pixmap(width, height, Pixmap.Format.RGBA8888);
+                page.getPixels().put(pixels).position(0);
+                pages.add(page);
+            }
+            return data;
+        } catch (IOException | RuntimeException e) {
+            for (int i = 0; i < pages.size; i++) {
+                pages.get(i).dispose();
+            }
+            pages.clear();
+            throw e instanceof IOException
+                ? (IOException) e : new IOException("Damaged glyph cache " + file, e);
+        }
+    }
+
+    /**
+     * Collects the glyphs of a font in character order.
+     * @param data The font data
+     * @return The glyphs
+     */
+    private static Array<Glyph> collectGlyphs(BitmapFontData data) {
+        Array<Glyph> result = new Array<Glyph>();
+        for (Glyph[] page : data.glyphs) {
+            if (page == null) {
+                continue;
+            }
+            for (Glyph glyph : page) {
+                if (glyph != null) {
+                    result.add(glyph);
+                }
+            }
+        }
+        return result;
+    }
+}
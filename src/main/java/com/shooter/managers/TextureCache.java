@@ -0,0 +1,262 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.TextureData;
+import com.shooter.debug.GlResourceTracker;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Texture cache class.
+ * Hands out reference-counted texture handles and keeps the estimated video memory of
+ * the loaded textures within a budget. Textures nobody holds stay loaded while there is
+ * room, so going back to a level does not reload its art; when a load goes over the
+ * budget, the least recently used unheld textures are disposed until it fits again.
+ * Held textures are never evicted, so the budget can be exceeded if everything loaded is
+ * in use. Must only be used on the rendering thread.
+ */
+public class TextureCache {
+    /**
+     * Loads a texture. Called again after the texture was evicted.
+     */
+    @FunctionalInterface
+    public interface Loader {
+        Texture load();
+    }
+
+    // All handles, least recently used first
+    private final LinkedHashMap<String, TextureHandle> handles;
+
+    // Budget and usage of video memory
+    private long budgetBytes;
+    private long usedBytes;
+    private long peakBytes;
+    private int loadedCount;
+
+    // Statistics
+    private long hits;
+    private long loads;
+    private long reloads;
+    private long evictions;
+
+    /**
+     * Constructor for the texture cache.
+     * @param budgetBytes The video memory budget in bytes
+     */
+    public TextureCache(long budgetBytes) {
+        this.handles = new LinkedHashMap<String, TextureHandle>(16, 0.75f, true);
+        setBudgetBytes(budgetBytes);
+    }
+
+    /**
+     * Acquires the texture of an internal file, loading it if needed.
+     * @param path The internal path of the texture
+     * @return The handle; release it when the texture is no longer needed
+     */
+    public TextureHandle acquire(String path) {
+        return acquire(path, () -> new Texture(Gdx.files.internal(path)));
+    }
+
+    /**
+     * Acquires a texture, loading it if needed. The reference is only taken once the
+     * texture is loaded; if the load fails, a handle created by this call is removed again,
+     * so the next acquire of the key tries its own loader.
+     * @param key The key of the texture
+     * @param loader Loads the texture when it is not loaded (only used on the first acquire
+     *               of the key)
+     * @return The handle; release it when the texture is no longer needed
+     */
+    public TextureHandle acquire(String key, Loader loader) {
+        TextureHandle handle = handles.get(key);
+        boolean created = handle == null;
+        if (created) {
+            handle = new TextureHandle(this, key, loader);
+            handles.put(key, handle);
+        } else if (handle.texture != null) {
+            hits++;
+        }
+        try {
+            touch(handle);
+        } catch (RuntimeException e) {
+            if (created) {
+                handles.remove(key);
+            }
+            throw e;
+        }
+        handle.references++;
+        return handle;
+    }
+
+    /**
+     * Releases a reference to a texture. The texture stays loaded until it is evicted.
+     * @param handle The handle
+     */
+    void release(TextureHandle handle) {
+        if (handle.references <= 0) {
+            throw new IllegalStateException(
+                "Texture released more often than acquired: " + handle.getKey());
+        }
+        handle.references--;
+    }
+
+    /**
+     * Marks a texture as used and loads it if it was evicted.
+     * @param handle The handle
+     */
+    void touch(TextureHandle handle) {
+        // Moves the handle to the most recently used end
+        handles.get(handle.getKey());
+        if (handle.texture != null) {
+            return;
+        }
+
+        Texture texture = handle.load();
+        if (handle.sizeBytes > 0) {
+            reloads++;
+        }
+        loads++;
+        handle.texture = GlResourceTracker.getInstance().track(texture, this);
+        handle.sizeBytes = estimateSize(handle.texture);
+        usedBytes += handle.sizeBytes;
+        peakBytes = Math.max(peakBytes, usedBytes);
+        loadedCount++;
+        evictToBudget(handle);
+    }
+
+    /**
+     * Disposes unheld textures, least recently used first, until the usage fits the budget.
+     * @param keep A texture that must stay loaded (the one just loaded), or null
+     */
+    private void evictToBudget(TextureHandle keep) {
+        Iterator<TextureHandle> iterator = handles.values().iterator();
+        while (usedBytes > budgetBytes && iterator.hasNext()) {
+            TextureHandle handle = iterator.next();
+            if (handle.references == 0 && handle.texture != null && handle != keep) {
+                GlResourceTracker.getInstance().dispose(handle.texture);
+                handle.texture = null;
+                usedBytes -= handle.sizeBytes;
+                loadedCount--;
+                evictions++;
+            }
+        }
+    }
+
+    /**
+     * Estimates the video memory used by a texture from its size and pixel format.
+     * @param texture The texture
+     * @return The estimated size in bytes
+     */
+    public static long estimateSize(Texture texture) {
+        TextureData data = texture.getTextureData();
+        long pixels = (long) texture.getWidth() * texture.getHeight();
+        long bytes = pixels * bytesPerPixel(data.getFormat());
+        if (data.useMipMaps()) {
+            // The mipmap chain adds a third
+            bytes += bytes / 3;
+        }
+        return bytes;
+    }
+
+    /**
+     * Gets the size of a pixel in video memory.
+     * @param format The pixel format
+     * @return The bytes per pixel
+     */
+    private static int bytesPerPixel(Pixmap.Format format) {
+        if (format == null) {
+            return 4;
+        }
+        switch (format) {
+            case Alpha:
+            case Intensity:
+                return 1;
+            case LuminanceAlpha:
+            case RGB565:
+            case RGBA4444:
+                return 2;
+            default:
+                // RGB888 is usually padded to four bytes by the driver
+                return 4;
+        }
+    }
+
+    /**
+     * Disposes all textures, held or not.
+     */
+    public void dispose() {
+        for (TextureHandle handle : handles.values()) {
+            if (handle.texture != null) {
+                GlResourceTracker.getInstance().dispose(handle.texture);
+                handle.texture = null;
+            }
+        }
+        handles.clear();
+        usedBytes = 0;
+        loadedCount = 0;
+    }
+
+    // Getters and setters
+
+    public long getBudgetBytes() {
+        return budgetBytes;
+    }
+
+    /**
+     * Changes the budget, evicting textures if the usage no longer fits.
+     * @param budgetBytes The video memory budget in bytes
+     */
+    public void setBudgetBytes(long budgetBytes) {
+        if (budgetBytes <= 0) {
+            throw new IllegalArgumentException("Budget must be positive");
+        }
+        this.budgetBytes = budgetBytes;
+        evictToBudget(null);
+    }
+
+    /**
+     * Gets the estimated video memory used by the loaded textures.
+     * @return The usage in bytes
+     */
+    public long getUsedBytes() {
+        return usedBytes;
+    }
+
+    public long getPeakBytes() {
+        return peakBytes;
+    }
+
+    /**
+     * Gets the number of loaded textures.
+     * @return The number of textures in video memory
+     */
+    public int getLoadedCount() {
+        return loadedCount;
+    }
+
+    /**
+     * Gets how often an acquire found its texture already loaded.
+     * @return The number of cache hits
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    public long getLoadCount() {
+        return loads;
+    }
+
+    /**
+     * Gets how often an evicted texture had to be loaded again.
+     * @return The number of reloads
+     */
+    public long getReloadCount() {
+        return reloads;
+    }
+
+    public long getEvictionCount() {
+        return evictions;
+    }
+}
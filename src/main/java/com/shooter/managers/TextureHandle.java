@@ -0,0 +1,81 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.graphics.Texture;
+
+/**
+ * Texture handle class.
+ * A reference-counted handle to a texture of the TextureCache. While a handle is
+ * acquired its texture stays loaded; once every holder has released it, the texture may
+ * be evicted to stay within the VRAM budget and is loaded again when it is next used.
+ * Handles are only valid on the rendering thread.
+ */
+public class TextureHandle {
+    private final TextureCache cache;
+    private final String key;
+    private final TextureCache.Loader loader;
+
+    // Loaded texture (null while evicted) and its estimated size in video memory
+    Texture texture;
+    long sizeBytes;
+
+    // Number of holders
+    int references;
+
+    /**
+     * Constructor for the texture handle.
+     * @param cache The cache the handle belongs to
+     * @param key The key of the texture
+     * @param loader Loads the texture
+     */
+    TextureHandle(TextureCache cache, String key, TextureCache.Loader loader) {
+        this.cache = cache;
+        this.key = key;
+        this.loader = loader;
+    }
+
+    /**
+     * Gets the texture, loading it again if it was evicted.
+     * @return The texture
+     */
+    public Texture getTexture() {
+        cache.touch(this);
+        return texture;
+    }
+
+    /**
+     * Releases this holder's reference. The handle must not be used by that holder afterwards.
+     */
+    public void release() {
+        cache.release(this);
+    }
+
+    /**
+     * Loads the texture.
+     * @return The new texture
+     */
+    Texture load() {
+        return loader.load();
+    }
+
+    // Getters
+
+    public String getKey() {
+        return key;
+    }
+
+    public boolean isLoaded() {
+        return texture != null;
+    }
+
+    public int getReferenceCount() {
+        return references;
+    }
+
+    /**
+     * Gets the estimated video memory used by the texture.
+     * @return The size in bytes, or 0 while evicted
+     */
+    public long getSizeBytes() {
+        return texture != null ? sizeBytes : 0;
+    }
+}
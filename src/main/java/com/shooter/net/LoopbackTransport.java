@@ -0,0 +1,151 @@
+package com.shooter.net;
+
+import com.shooter.utils.GameRandom;
+
+import java.nio.ByteBuffer;
+import java.util.PriorityQueue;
+
+/**
+ * Loopback transport class.
+ * In-memory transport between two sessions in the same process, with simulated latency,
+ * jitter and packet loss, so network play can be tested on a single machine. Jitter
+ * also reorders packets, just like a real network.
+ */
+public class LoopbackTransport implements Transport {
+    private final long latencyNanos;
+    private final long jitterNanos;
+    private final float lossRate;
+    private final GameRandom random;
+
+    // Packets on their way to this end, ordered by delivery time
+    private final PriorityQueue<Packet> inbox;
+
+    // The other end
+    private LoopbackTransport peer;
+
+    // Statistics
+    private long sent;
+    private long lost;
+
+    /**
+     * Creates two connected ends.
+     * @param latencyMillis The one-way delay in milliseconds
+     * @param jitterMillis The maximum random extra delay in milliseconds
+     * @param lossRate The fraction of packets dropped (0-1)
+     * @param seed The seed for the loss and jitter decisions
+     * @return Both ends of the connection
+     */
+    public static LoopbackTransport[] createPair(long latencyMillis, long jitterMillis,
+                                                 float lossRate, long seed) {
+        LoopbackTransport a = new LoopbackTransport(latencyMillis, jitterMillis, lossRate, seed);
+        LoopbackTransport b = new LoopbackTransport(latencyMillis, jitterMillis, lossRate,
+            seed + 1);
+        a.peer = b;
+        b.peer = a;
+        return new LoopbackTransport[] {a, b};
+    }
+
+    /**
+     * Constructor for one end of a loopback connection.
+     * @param latencyMillis The one-way delay in milliseconds
+     * @param jitterMillis The maximum random extra delay in milliseconds
+     * @param lossRate The fraction of packets dropped (0-1)
+     * @param seed The seed for the loss and jitter decisions
+     */
+    private LoopbackTransport(long latencyMillis, long jitterMillis, float lossRate, long seed) {
+        this.latencyNanos = latencyMillis * 1_000_000L;
+        this.jitterNanos = jitterMillis * 1_000_000L;
+        this.lossRate = lossRate;
+        this.random = new GameRandom(seed);
+        this.inbox = new PriorityQueue<Packet>();
+    }
+
+    /**
+     * Sends a packet to the other end, unless the simulated network drops it.
+     * @param packet The packet
+     */
+    @Override
+    public void send(ByteBuffer packet) {
+        byte[] data = new byte[packet.remaining()];
+        packet.get(data);
+
+        long delay;
+        synchronized (this) {
+            sent++;
+            if (random.nextFloat() < lossRate) {
+                lost++;
+                return;
+            }
+            delay = latencyNanos
+                + (jitterNanos > 0 ? (long) (random.nextFloat() * jitterNanos) : 0);
+        }
+        peer.deliver(data, System.nanoTime() + delay);
+    }
+
+    /**
+     * Queues a packet for this end.
+     * @param data The packet data
+     * @param deliverAt The time the packet arrives, from System.nanoTime()
+     */
+    private synchronized void deliver(byte[] data, long deliverAt) {
+        inbox.add(new Packet(data, deliverAt));
+    }
+
+    /**
+     * Receives the next packet whose delivery time has passed.
+     * @param packet The buffer to receive into
+     * @return True if a packet was received, false if none is waiting
+     */
+    @Override
+    public synchronized boolean receive(ByteBuffer packet) {
+        Packet next = inbox.peek();
+        if (next == null || next.deliverAt - System.nanoTime() > 0) {
+            return false;
+        }
+        inbox.poll();
+        packet.put(next.data, 0, Math.min(next.data.length, packet.remaining()));
+        packet.flip();
+        return true;
+    }
+
+    /**
+     * Drops all packets still on their way.
+     */
+    @Override
+    public synchronized void close() {
+        inbox.clear();
+    }
+
+    // Statistics
+
+    public synchronized long getSentCount() {
+        return sent;
+    }
+
+    public synchronized long getLostCount() {
+        return lost;
+    }
+
+    /**
+     * A packet on its way.
+     */
+    private static final class Packet implements Comparable<Packet> {
+        private final byte[] data;
+        private final long deliverAt;
+
+        /**
+         * Constructor for a packet.
+         * @param data The packet data
+         * @param deliverAt The time the packet arrives
+         */
+        Packet(byte[] data, long deliverAt) {
+            this.data = data;
+            this.deliverAt = deliverAt;
+        }
+
+        @Override
+        public int compareTo(Packet other) {
+            return Long.compare(deliverAt, other.deliverAt);
+        }
+    }
+}
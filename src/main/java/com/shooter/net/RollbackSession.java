@@ -0,0 +1,514 @@
+package com.shooter.net;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.shooter.config.GameConfig;
+import com.shooter.input.InputAction;
+import com.shooter.input.InputState;
+import com.shooter.simulation.World;
+
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+/**
+ * Rollback session class.
+ * Runs a two-player world in lockstep with a remote peer without waiting for the
+ * network. Local input is scheduled a few ticks ahead (input delay) and sent to the peer
+ * together with all inputs it has not acknowledged yet, run-length encoded since inputs
+ * rarely change between ticks. The remote input of ticks that have not arrived is
+ * predicted to repeat; when the real input differs, the world is restored to the state
+ * saved before that tick and the ticks since then are simulated again. Both peers
+ * periodically exchange CRC32 checksums of fully confirmed states to detect desyncs.
+ * The session freezes the gameplay configuration while it is open, and every packet
+ * carries a hash of it; no tick runs until the peer's hash has arrived and matches.
+ */
+public class RollbackSession {
+    // Ticks of input history kept (a power of two)
+    private static final int INPUT_RING = 128;
+
+    // How many ticks the local peer may run ahead of the confirmed remote input
+    public static final int MAX_ROLLBACK = 10;
+
+    // Saved world states, one per tick that may still be rolled back
+    private static final int STATE_RING = MAX_ROLLBACK + 2;
+    private static final int STATE_CAPACITY = 64 * 1024;
+
+    // Ticks between state checksums and number of checksums remembered
+    private static final int CHECKSUM_INTERVAL = 30;
+    private static final int CHECKSUM_RING = 8;
+
+    // Largest input delay allowed, so unacknowledged input always fits in a packet
+    public static final int MAX_INPUT_DELAY = 8;
+    private static final int MAX_PACKET_FRAMES = 64;
+
+    // Packet format
+    private static final short MAGIC = 0x5348; // "SH"
+    private static final byte TYPE_INPUT = 1;
+    private static final int MAX_PACKET_SIZE = 512;
+
+    private final World world;
+    private final Transport transport;
+    private final int localPlayer;
+    private final int remotePlayer;
+    private final int inputDelay;
+    private final float tickSeconds;
+
+    // Hash of the gameplay configuration frozen for the session, and whether the peer's matched
+    private final int gameplayHash;
+    private boolean peerVerified;
+    private boolean closed;
+
+    // Input history, indexed by tick modulo INPUT_RING
+    private final byte[] localInputs;
+    private final long[] localPressTimes;
+    private final byte[] remoteInputs;
+    private final byte[] usedRemoteInputs;
+
+    // Saved states, indexed by tick modulo STATE_RING
+    private final ByteBuffer[] states;
+    private final int[] stateTicks;
+
+    // Checksums of confirmed states, indexed by checksum number modulo CHECKSUM_RING
+    private final int[] localChecksumTicks;
+    private final int[] localChecksums;
+    private final int[] remoteChecksumTicks;
+    private final int[] remoteChecksums;
+    private final CRC32 crc;
+
+    // Input sampled from the local keyboard
+    private final InputState localState;
+
+    // Packet buffers
+    private final ByteBuffer sendBuffer;
+    private final ByteBuffer receiveBuffer;
+
+    // Next tick to simulate
+    private int currentTick;
+
+    // Last tick whose remote input is known and last tick of local input the peer has
+    private int remoteConfirmed;
+    private int remoteAck;
+
+    // Earliest tick whose prediction turned out wrong (MAX_VALUE if none)
+    private int rollbackFrom;
+
+    // Newest checksum that has been sent and newest one compared with the peer's
+    private int lastChecksumSent;
+    private int lastChecksumCompared;
+
+    // Scripted input instead of the keyboard (for a loopback test peer)
+    private boolean botInput;
+
+    // Statistics
+    private long rollbacks;
+    private long resimulatedTicks;
+    private long stalls;
+    private long verifiedChecksums;
+    private long desyncs;
+    private int lastDesyncTick;
+
+    /**
+     * Constructor for the rollback session.
+     * Both peers must create their worlds with two players, the same seed and the same
+     * gameplay configuration, and must not attach a load governor. The gameplay
+     * configuration is frozen until the session is closed.
+     * @param world The world to run
+     * @param transport The connection to the remote peer
+     * @param localPlayer The player controlled from this machine (0 or 1)
+     * @param inputDelay The number of ticks local input is delayed by
+     * @param seed The seed shared by both peers
+     * @param tickSeconds The length of a tick in seconds
+     */
+    public RollbackSession(World world, Transport transport, int localPlayer, int inputDelay,
+                           long seed, float tickSeconds) {
+        if (world.getPlayerCount() != 2) {
+            throw new IllegalArgumentException("A rollback session needs a two player world");
+        }
+        if (localPlayer < 0 || localPlayer > 1) {
+            throw new IllegalArgumentException("Invalid player: " + localPlayer);
+        }
+        if (inputDelay < 0 || inputDelay > MAX_INPUT_DELAY) {
+            throw new IllegalArgumentException(
+                "Input delay must be between 0 and " + MAX_INPUT_DELAY);
+        }
+        this.world = world;
+        this.transport = transport;
+        this.localPlayer = localPlayer;
+        this.remotePlayer = 1 - localPlayer;
+        this.inputDelay = inputDelay;
+        this.tickSeconds = tickSeconds;
+        this.gameplayHash = GameConfig.freezeGameplay().getGameplayHash();
+
+        localInputs = new byte[INPUT_RING];
+        localPressTimes = new long[INPUT_RING];
+        remoteInputs = new byte[INPUT_RING];
+        usedRemoteInputs = new byte[INPUT_RING];
+
+        states = new ByteBuffer[STATE_RING];
+        stateTicks = new int[STATE_RING];
+        for (int i = 0; i < STATE_RING; i++) {
+            states[i] = ByteBuffer.allocateDirect(STATE_CAPACITY);
+            stateTicks[i] = -1;
+        }
+
+        localChecksumTicks = new int[CHECKSUM_RING];
+        localChecksums = new int[CHECKSUM_RING];
+        remoteChecksumTicks = new int[CHECKSUM_RING];
+        remoteChecksums = new int[CHECKSUM_RING];
+        Arrays.fill(localChecksumTicks, -1);
+        Arrays.fill(remoteChecksumTicks, -1);
+        crc = new CRC32();
+
+        localState = new InputState();
+        sendBuffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+        receiveBuffer = ByteBuffer.allocate(MAX_PACKET_SIZE);
+
+        remoteConfirmed = -1;
+        remoteAck = -1;
+        rollbackFrom = Integer.MAX_VALUE;
+        lastChecksumSent = -1;
+        lastChecksumCompared = -1;
+        lastDesyncTick = -1;
+
+        world.setLocalPlayer(localPlayer);
+        world.setLoadGovernor(null);
+        world.setSeed(seed);
+    }
+
+    /**
+     * Runs one tick: receives remote input, rolls back if a prediction was wrong, samples
+     * and sends local input and advances the world. If the remote peer is too far behind
+     * the world is not advanced, so neither peer can run away from the other.
+     * @return True if the world advanced, false if it stalled waiting for the peer
+     */
+    public boolean tick() {
+        try {
+            receive();
+            if (!peerVerified) {
+                // Keep saying hello until the peer has shown the same configuration
+                stalls++;
+                send();
+                return false;
+            }
+            if (rollbackFrom < currentTick) {
+                rollback();
+            }
+
+            if (currentTick - remoteConfirmed > MAX_ROLLBACK) {
+                stalls++;
+                send();
+                return false;
+            }
+
+            // Schedule the local input inputDelay ticks ahead
+            int target = currentTick + inputDelay;
+            int slot = target & (INPUT_RING - 1);
+            if (botInput) {
+                localInputs[slot] = (byte) botMask(target);
+                localPressTimes[slot] = 0;
+            } else {
+                localState.beginTick();
+                world.getInputQueue().drainTo(localState);
+                localInputs[slot] = (byte) localState.getActiveMask();
+                localPressTimes[slot] = localState.getOldestPressTime();
+            }
+            send();
+
+            simulate(currentTick, true);
+            currentTick++;
+            return true;
+        } catch (IOException e) {
+            throw new GdxRuntimeException("Network error", e);
+        }
+    }
+
+    /**
+     * Restores the state before the first mispredicted tick and simulates up to the
+     * current tick again with the corrected input.
+     */
+    private void rollback() {
+        int from = rollbackFrom;
+        rollbackFrom = Integer.MAX_VALUE;
+
+        ByteBuffer state = states[from % STATE_RING];
+        if (stateTicks[from % STATE_RING] != from) {
+            throw new GdxRuntimeException("No saved state for tick " + from);
+        }
+        state.flip();
+        world.restore(state);
+
+        for (int tick = from; tick < currentTick; tick++) {
+            simulate(tick, false);
+        }
+        rollbacks++;
+        resimulatedTicks += currentTick - from;
+    }
+
+    /**
+     * Saves the state before a tick and simulates the tick.
+     * @param tick The tick
+     * @param live True the first time the tick is simulated, false when it is replayed
+     */
+    private void simulate(int tick, boolean live) {
+        saveState(tick);
+
+        int slot = tick & (INPUT_RING - 1);
+        int remoteMask;
+        if (tick <= remoteConfirmed) {
+            remoteMask = remoteInputs[slot];
+        } else if (remoteConfirmed >= 0) {
+            // Predict that the remote player keeps doing what they did last
+            remoteMask = remoteInputs[remoteConfirmed & (INPUT_RING - 1)];
+        } else {
+            remoteMask = 0;
+        }
+        usedRemoteInputs[slot] = (byte) remoteMask;
+
+        world.getInput(localPlayer).setMask(localInputs[slot], live ? localPressTimes[slot] : 0);
+        world.getInput(remotePlayer).setMask(remoteMask, 0);
+        // Replayed ticks are silent; a world without effects (e.g. a bot peer's) stays silent
+        boolean effects = world.isEffectsEnabled();
+        world.setEffectsEnabled(live && effects);
+        world.step(tickSeconds);
+        world.setEffectsEnabled(effects);
+    }
+
+    /**
+     * Saves the world state before a tick and records its checksum if one is due.
+     * @param tick The tick
+     */
+    private void saveState(int tick) {
+        int index = tick % STATE_RING;
+        ByteBuffer state = states[index];
+        state.clear();
+        try {
+            world.save(state);
+        } catch (BufferOverflowException e) {
+            throw new GdxRuntimeException("World state exceeds " + STATE_CAPACITY + " bytes", e);
+        }
+        stateTicks[index] = tick;
+
+        if (tick % CHECKSUM_INTERVAL == 0) {
+            state.flip();
+            crc.reset();
+            crc.update(state);
+            int c = (tick / CHECKSUM_INTERVAL) % CHECKSUM_RING;
+            localChecksumTicks[c] = tick;
+            localChecksums[c] = (int) crc.getValue();
+            state.limit(state.capacity());
+        }
+    }
+
+    /**
+     * Sends all local input the peer has not acknowledged, plus the newest confirmed checksum.
+     * @throws IOException If the packet cannot be sent
+     */
+    private void send() throws IOException {
+        int last = currentTick + inputDelay - 1;
+        if (peerVerified && currentTick - remoteConfirmed <= MAX_ROLLBACK) {
+            // The input for the tick being started is part of the packet
+            last++;
+        }
+        int first = Math.max(remoteAck + 1, last - MAX_PACKET_FRAMES + 1);
+        int count = last - first + 1;
+
+        ByteBuffer packet = sendBuffer;
+        packet.clear();
+        packet.putShort(MAGIC).put(TYPE_INPUT).putInt(gameplayHash)
+            .putInt(remoteConfirmed).putInt(first).put((byte) Math.max(0, count));
+
+        // Run-length encode the inputs
+        int tick = first;
+        while (tick <= last) {
+            byte mask = localInputs[tick & (INPUT_RING - 1)];
+            int run = 1;
+            while (tick + run <= last && run < 255
+                && localInputs[(tick + run) & (INPUT_RING - 1)] == mask) {
+                run++;
+            }
+            packet.put((byte) run).put(mask);
+            tick += run;
+        }
+
+        // Checksum of the newest state that depends on confirmed input only
+        int checksumTick = -1;
+        int checksum = 0;
+        int newest = (remoteConfirmed + 1) / CHECKSUM_INTERVAL * CHECKSUM_INTERVAL;
+        int c = (newest / CHECKSUM_INTERVAL) % CHECKSUM_RING;
+        if (newest < currentTick && localChecksumTicks[c] == newest) {
+            checksumTick = newest;
+            checksum = localChecksums[c];
+            if (newest > lastChecksumSent) {
+                lastChecksumSent = newest;
+                compareChecksum(c);
+            }
+        }
+        packet.putInt(checksumTick).putInt(checksum);
+
+        packet.flip();
+        transport.send(packet);
+    }
+
+    /**
+     * Handles all packets that have arrived.
+     * @throws IOException If receiving fails
+     */
+    private void receive() throws IOException {
+        ByteBuffer packet = receiveBuffer;
+        while (true) {
+            packet.clear();
+            if (!transport.receive(packet)) {
+                return;
+            }
+            if (packet.remaining() < 16 || packet.getShort() != MAGIC
+                || packet.get() != TYPE_INPUT) {
+                continue;
+            }
+            int remoteHash = packet.getInt();
+            if (remoteHash != gameplayHash) {
+                throw new GdxRuntimeException(
+                    "The peer plays with another gameplay configuration (hash "
+                    + Integer.toHexString(remoteHash) + ", local "
+                    + Integer.toHexString(gameplayHash) + ")");
+            }
+            peerVerified = true;
+            readInputPacket(packet);
+        }
+    }
+
+    /**
+     * Reads an input packet.
+     * @param packet The packet, positioned after the type
+     */
+    private void readInputPacket(ByteBuffer packet) {
+        remoteAck = Math.max(remoteAck, packet.getInt());
+        int tick = packet.getInt();
+        int remaining = packet.get() & 0xFF;
+
+        while (remaining > 0 && packet.remaining() >= 2) {
+            int run = packet.get() & 0xFF;
+            byte mask = packet.get();
+            for (int i = 0; i < run && remaining > 0; i++, tick++, remaining--) {
+                if (tick != remoteConfirmed + 1) {
+                    // Already known, or a gap left by a reordered packet
+                    continue;
+                }
+                int slot = tick & (INPUT_RING - 1);
+                if (tick < currentTick && usedRemoteInputs[slot] != mask) {
+                    rollbackFrom = Math.min(rollbackFrom, tick);
+                }
+                remoteInputs[slot] = mask;
+                remoteConfirmed = tick;
+            }
+        }
+
+        if (packet.remaining() >= 8) {
+            int checksumTick = packet.getInt();
+            int checksum = packet.getInt();
+            if (checksumTick >= 0 && checksumTick % CHECKSUM_INTERVAL == 0) {
+                int c = (checksumTick / CHECKSUM_INTERVAL) % CHECKSUM_RING;
+                if (remoteChecksumTicks[c] != checksumTick) {
+                    remoteChecksumTicks[c] = checksumTick;
+                    remoteChecksums[c] = checksum;
+                    if (checksumTick <= lastChecksumSent) {
+                        compareChecksum(c);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Compares the local and remote checksum in a slot, if both are there for the same tick.
+     * @param c The checksum slot
+     */
+    private void compareChecksum(int c) {
+        int tick = localChecksumTicks[c];
+        if (tick <= lastChecksumCompared || tick != remoteChecksumTicks[c]) {
+            return;
+        }
+        lastChecksumCompared = tick;
+        if (localChecksums[c] == remoteChecksums[c]) {
+            verifiedChecksums++;
+        } else {
+            desyncs++;
+            lastDesyncTick = tick;
+            Gdx.app.error("RollbackSession", "State differs from peer at tick " + tick);
+        }
+    }
+
+    /**
+     * Scripted input for a test peer: moves up and down and fires in bursts.
+     * @param tick The tick the input is for
+     * @return The action mask
+     */
+    private static int botMask(int tick) {
+        int phase = (tick / 45) % 4;
+        int mask = phase < 2 ? InputAction.MOVE_UP.bit() : InputAction.MOVE_DOWN.bit();
+        if (phase % 2 == 0) {
+            mask |= InputAction.FIRE.bit();
+        }
+        return mask;
+    }
+
+    /**
+     * Closes the connection and releases the gameplay configuration.
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        transport.close();
+        GameConfig.releaseGameplay();
+    }
+
+    // Getters and setters
+
+    /**
+     * Makes this peer play scripted input instead of reading the keyboard.
+     * @param botInput Whether to use scripted input
+     */
+    public void setBotInput(boolean botInput) {
+        this.botInput = botInput;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public int getCurrentTick() {
+        return currentTick;
+    }
+
+    public int getRemoteConfirmedTick() {
+        return remoteConfirmed;
+    }
+
+    public long getRollbackCount() {
+        return rollbacks;
+    }
+
+    public long getResimulatedTicks() {
+        return resimulatedTicks;
+    }
+
+    public long getStallCount() {
+        return stalls;
+    }
+
+    public long getVerifiedChecksums() {
+        return verifiedChecksums;
+    }
+
+    public long getDesyncCount() {
+        return desyncs;
+    }
+
+    public int getLastDesyncTick() {
+        return lastDesyncTick;
+    }
+}
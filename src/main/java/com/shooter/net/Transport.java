@@ -0,0 +1,31 @@
+package com.shooter.net;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Unreliable, unordered datagram transport between two peers.
+ * Packets may be lost, duplicated or reordered; the rollback session copes with all three.
+ */
+public interface Transport {
+    /**
+     * Sends a packet. Never blocks.
+     * @param packet The packet, from its position to its limit
+     * @throws IOException If the packet cannot be sent
+     */
+    void send(ByteBuffer packet) throws IOException;
+
+    /**
+     * Receives the next packet if one has arrived. Never blocks.
+     * @param packet The buffer to receive into (cleared by the caller); flipped when a packet
+     *               is returned
+     * @return True if a packet was received, false if none is waiting
+     * @throws IOException If receiving fails
+     */
+    boolean receive(ByteBuffer packet) throws IOException;
+
+    /**
+     * Closes the transport.
+     */
+    void close();
+}
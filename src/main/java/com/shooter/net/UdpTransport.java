@@ -0,0 +1,81 @@
+package com.shooter.net;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.PortUnreachableException;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
+
+/**
+ * UDP transport class.
+ * Exchanges packets with one remote peer over a non-blocking datagram channel.
+ */
+public class UdpTransport implements Transport {
+    private final DatagramChannel channel;
+
+    /**
+     * Constructor for the UDP transport.
+     * @param localPort The local port to bind
+     * @param remote The address of the remote peer
+     * @throws IOException If the socket cannot be opened
+     */
+    public UdpTransport(int localPort, InetSocketAddress remote) throws IOException {
+        channel = DatagramChannel.open();
+        try {
+            channel.bind(new InetSocketAddress(localPort));
+            channel.connect(remote);
+            channel.configureBlocking(false);
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Sends a packet to the remote peer.
+     * @param packet The packet
+     * @throws IOException If the packet cannot be sent
+     */
+    @Override
+    public void send(ByteBuffer packet) throws IOException {
+        try {
+            channel.write(packet);
+        } catch (PortUnreachableException e) {
+            // The peer is not listening (yet); the packet is simply lost
+        }
+    }
+
+    /**
+     * Receives the next packet from the remote peer.
+     * @param packet The buffer to receive into
+     * @return True if a packet was received, false if none is waiting
+     * @throws IOException If receiving fails
+     */
+    @Override
+    public boolean receive(ByteBuffer packet) throws IOException {
+        try {
+            if (channel.read(packet) <= 0) {
+                return false;
+            }
+        } catch (PortUnreachableException e) {
+            // An earlier packet did not reach the peer
+            return false;
+        }
+        packet.flip();
+        return true;
+    }
+
+    /**
+     * Closes the socket.
+     */
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            Gdx.app.error("UdpTransport", "Failed to close socket", e);
+        }
+    }
+}
@@ -0,0 +1,121 @@
+package com.shooter.performance;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.config.GameConfig;
+import com.shooter.input.InputAction;
+import com.shooter.simulation.RenderSnapshot;
+import com.shooter.simulation.World;
+import com.shooter.utils.Constants;
+
+import java.util.Properties;
+
+/**
+ * Allocation gate.
+ * Runs the gameplay loop headless (no window, textures or sound) and fails if steady-state
+ * ticks allocate more than a threshold on average. Each scenario first runs long enough
+ * for the entity pools and render queue to reach their working size and for the JIT to
+ * compile the hot code, then measures the ticks that follow with the fire button held and
+ * the player moving. A measured tick covers the simulation step and writing the render
+ * snapshot. Drawing is not gated: culling, sorting and drawing the render queue, the HUD
+ * and the debug overlay need a GL context, so their allocations are only shown per frame
+ * in the debug overlay. Runs in the test phase of the Maven build (skipped with
+ * -Dallocation.skip=true), or directly:
+ *
+ * <pre>java -cp target/classes:... com.shooter.performance.AllocationGate [maxBytes] [ticks]</pre>
+ *
+ * Exits with status 1 if a scenario is over the threshold.
+ */
+public final class AllocationGate {
+    // Defaults: measured over one minute of game time; the allowance covers the entity pools,
+    // which still grow now and then as difficulty raises the number of enemies on screen
+    private static final long DEFAULT_MAX_BYTES_PER_TICK = 8;
+    private static final int DEFAULT_TICKS = 3600;
+    private static final int WARMUP_TICKS = 3600;
+
+    // Headless ticks are fast, so warm up for a while too: code still running in the
+    // interpreter or the first JIT tier (the Vector API kernels in particular) allocates
+    private static final long WARMUP_MILLIS = 3000;
+
+    private AllocationGate() {
+    }
+
+    /**
+     * Runs the gate.
+     * @param args The threshold in bytes per tick and the number of measured ticks (both optional)
+     */
+    public static void main(String[] args) {
+        long maxBytesPerTick = args.length > 0
+            ? Long.parseLong(args[0]) : DEFAULT_MAX_BYTES_PER_TICK;
+        int ticks = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICKS;
+        if (!AllocationTracker.isSupported()) {
+            System.out.println("Allocation gate skipped: this JVM cannot count allocations");
+            return;
+        }
+
+        boolean passed = true;
+        passed &= run("basic weapon", new Properties(), maxBytesPerTick, ticks);
+
+        Properties patterns = new Properties();
+        patterns.setProperty("weapon.player.pattern", "spread");
+        patterns.setProperty("enemy.pattern", "aimed");
+        patterns.setProperty("player.initialLives", "1000000");
+        passed &= run("bullet patterns", patterns, maxBytesPerTick, ticks);
+
+        if (!passed) {
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Runs one scenario.
+     * @param name The name of the scenario
+     * @param properties The configuration of the scenario
+     * @param maxBytesPerTick The threshold
+     * @param ticks The number of measured ticks
+     * @return True if the scenario stayed within the threshold
+     */
+    private static boolean run(String name, Properties properties, long maxBytesPerTick,
+                               int ticks) {
+        GameConfig.set(new GameConfig(properties));
+        World world = new World(null, null, null, new TextureRegion[3]);
+        world.setSeed(1);
+        world.setEffectsEnabled(false);
+        RenderSnapshot snapshot = new RenderSnapshot();
+        AllocationTracker tracker = new AllocationTracker(ticks);
+
+        int warmupTicks = 0;
+        long warmupEnd = System.nanoTime() + WARMUP_MILLIS * 1_000_000L;
+        while (warmupTicks < WARMUP_TICKS || System.nanoTime() < warmupEnd) {
+            tick(world, snapshot, warmupTicks++);
+        }
+        for (int i = 0; i < ticks; i++) {
+            tracker.begin();
+            tick(world, snapshot, warmupTicks + i);
+            tracker.end();
+        }
+
+        double perTick = (double) tracker.getTotal() / ticks;
+        boolean passed = perTick <= maxBytesPerTick;
+        System.out.printf("%s: %s, %.2f bytes per tick (max %d in one tick, limit %d)%n",
+            passed ? "PASS" : "FAIL", name, perTick, tracker.getMax(), maxBytesPerTick);
+        return passed;
+    }
+
+    /**
+     * Runs one tick the way the simulation does and records its snapshot.
+     * @param world The world
+     * @param snapshot The snapshot to write
+     * @param tick The tick number
+     */
+    private static void tick(World world, RenderSnapshot snapshot, int tick) {
+        // Hold fire and sweep up and down, two seconds each way
+        boolean up = (tick / 120) % 2 == 0;
+        int move = up ? InputAction.MOVE_UP.bit() : InputAction.MOVE_DOWN.bit();
+        int mask = InputAction.FIRE.bit() | move;
+        world.getInput(world.getLocalPlayer()).setMask(mask, 0);
+        world.step(Constants.SIMULATION_TICK);
+
+        snapshot.clear();
+        world.writeSnapshot(snapshot);
+    }
+}
@@ -0,0 +1,158 @@
+package com.shooter.performance;
+
+import com.sun.management.ThreadMXBean;
+
+import java.lang.management.ManagementFactory;
+
+/**
+ * Allocation tracker class.
+ * Measures how many bytes the current thread allocates between begin() and end(), using
+ * the per-thread allocation counter of the JVM, and keeps a rolling window of the
+ * results. Reading the counter does not allocate, so the tracker does not disturb what
+ * it measures. On JVMs without the counter every measurement is 0.
+ */
+public class AllocationTracker {
+    // Allocation counter of the JVM (null if not available)
+    private static final ThreadMXBean THREADS = findThreadBean();
+
+    private final long[] samples;
+    private int count;
+    private int next;
+    private long sum;
+
+    // Counter value at begin()
+    private long start;
+
+    // Results, read by other threads for display
+    private volatile long last;
+    private volatile long max;
+    private volatile long total;
+
+    /**
+     * Constructor for the allocation tracker.
+     * @param windowSize The number of measurements in the rolling window
+     */
+    public AllocationTracker(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.samples = new long[windowSize];
+    }
+
+    /**
+     * Looks up the thread bean with allocation counting and makes sure counting is on.
+     * @return The thread bean, or null if the JVM cannot count allocations
+     */
+    private static ThreadMXBean findThreadBean() {
+        try {
+            if (ManagementFactory.getThreadMXBean() instanceof ThreadMXBean bean
+                && bean.isThreadAllocatedMemorySupported()) {
+                if (!bean.isThreadAllocatedMemoryEnabled()) {
+                    bean.setThreadAllocatedMemoryEnabled(true);
+                }
+                return bean;
+            }
+        } catch (UnsupportedOperationException | SecurityException | LinkageError e) {
+            // Fall through; allocations are reported as 0
+        }
+        return null;
+    }
+
+    /**
+     * Checks if the JVM can count allocations.
+     * @return True if measurements are real, false if they are always 0
+     */
+    public static boolean isSupported() {
+        return THREADS != null;
+    }
+
+    /**
+     * Gets the number of bytes the current thread has allocated so far.
+     * @return The allocated bytes, or 0 if not supported
+     */
+    public static long currentThreadAllocatedBytes() {
+        return THREADS != null ? THREADS.getCurrentThreadAllocatedBytes() : 0;
+    }
+
+    /**
+     * Starts a measurement on the current thread.
+     */
+    public void begin() {
+        start = currentThreadAllocatedBytes();
+    }
+
+    /**
+     * Ends the measurement started by begin() on the same thread and records it.
+     * @return The bytes allocated since begin()
+     */
+    public long end() {
+        long bytes = currentThreadAllocatedBytes() - start;
+        record(bytes);
+        return bytes;
+    }
+
+    /**
+     * Records a measurement.
+     * @param bytes The allocated bytes
+     */
+    public void record(long bytes) {
+        if (count == samples.length) {
+            sum -= samples[next];
+        } else {
+            count++;
+        }
+        samples[next] = bytes;
+        sum += bytes;
+        next = (next + 1) % samples.length;
+
+        last = bytes;
+        total += bytes;
+        if (bytes > max) {
+            max = bytes;
+        }
+    }
+
+    /**
+     * Forgets all measurements.
+     */
+    public void reset() {
+        count = 0;
+        next = 0;
+        sum = 0;
+        last = 0;
+        max = 0;
+        total = 0;
+    }
+
+    // Getters
+
+    /**
+     * Gets the average over the window. May be slightly stale when read while another
+     * thread records.
+     * @return The average allocated bytes per measurement, or 0 if nothing was recorded
+     */
+    public long getAverage() {
+        int n = count;
+        return n == 0 ? 0 : sum / n;
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    /**
+     * Gets the largest measurement since the last reset.
+     * @return The allocated bytes
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Gets the sum of all measurements since the last reset.
+     * @return The allocated bytes
+     */
+    public long getTotal() {
+        return total;
+    }
+}
@@ -0,0 +1,28 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for the collision pass of a simulation tick.
+ */
+@Name("com.shooter.CollisionPass")
+@Label("Collision Pass")
+@Category({"Shooter", "Gameplay"})
+@Description("Collision checks of one tick")
+@StackTrace(false)
+public class CollisionPassEvent extends Event {
+    @Label("Pairs Tested")
+    @Description("Projectile and target pairs checked")
+    int pairsTested;
+
+    @Label("Hits")
+    int hits;
+
+    @Label("Kills")
+    int kills;
+}
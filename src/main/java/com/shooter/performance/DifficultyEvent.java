@@ -0,0 +1,24 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for a difficulty step of the enemy spawner.
+ */
+@Name("com.shooter.Difficulty")
+@Label("Difficulty Step")
+@Category({"Shooter", "Gameplay"})
+@Description("The spawn interval was shortened")
+@StackTrace(false)
+public class DifficultyEvent extends Event {
+    @Label("Previous Interval")
+    float previousInterval;
+
+    @Label("Spawn Interval")
+    float spawnInterval;
+}
@@ -0,0 +1,82 @@
+package com.shooter.performance;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Flight recording class.
+ * Records the whole game session with the JDK's default settings (GC, JIT, threads,
+ * ...) plus the game events configured in the shooter.jfc file shipped in the jar, and
+ * writes the recording to a file when the game exits. The file opens in JDK Mission
+ * Control, where hitches can be lined up with garbage collections and compilations.
+ */
+public class FlightRecording {
+    // Settings of the game events, inside the jar
+    private static final String SETTINGS_RESOURCE = "/shooter.jfc";
+
+    private final Recording recording;
+
+    /**
+     * Starts recording.
+     * @param destination The file the recording is written to
+     * @throws IOException If the settings cannot be read or the file cannot be written
+     */
+    public FlightRecording(Path destination) throws IOException {
+        Map<String, String> settings;
+        try {
+            settings = new HashMap<String, String>(
+                Configuration.getConfiguration("default").getSettings());
+            settings.putAll(readGameSettings().getSettings());
+        } catch (ParseException e) {
+            throw new IOException("Invalid flight recorder settings", e);
+        }
+
+        recording = new Recording(settings);
+        recording.setName("Shooter");
+        recording.setToDisk(true);
+        recording.setDumpOnExit(true);
+        recording.setDestination(destination);
+        recording.start();
+    }
+
+    /**
+     * Reads the settings of the game events.
+     * @return The settings
+     * @throws IOException If the settings are missing or cannot be read
+     * @throws ParseException If the settings are invalid
+     */
+    private static Configuration readGameSettings() throws IOException, ParseException {
+        InputStream input = FlightRecording.class.getResourceAsStream(SETTINGS_RESOURCE);
+        if (input == null) {
+            throw new IOException("Missing " + SETTINGS_RESOURCE);
+        }
+        try (InputStreamReader reader = new InputStreamReader(input, StandardCharsets.UTF_8)) {
+            return Configuration.create(reader);
+        }
+    }
+
+    /**
+     * Stops recording and writes the recording to its destination.
+     */
+    public void stop() {
+        recording.stop();
+        recording.close();
+    }
+
+    /**
+     * Gets the file the recording is written to.
+     * @return The destination
+     */
+    public Path getDestination() {
+        return recording.getDestination();
+    }
+}
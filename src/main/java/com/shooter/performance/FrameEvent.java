@@ -0,0 +1,29 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one rendered frame, from the start of ShooterGame.render()
+ * until the frame has been handed to the GPU.
+ */
+@Name("com.shooter.Frame")
+@Label("Frame")
+@Category({"Shooter", "Frames"})
+@Description("One rendered frame")
+@StackTrace(false)
+public class FrameEvent extends Event {
+    @Label("Frame Number")
+    long frame;
+
+    @Label("Delta")
+    @Description("Frame time reported by libGDX, in seconds")
+    float delta;
+
+    @Label("Screen")
+    String screen;
+}
@@ -0,0 +1,22 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for one phase of a frame: "update" and "draw" on the render
+ * thread and "tick" for a simulation tick (on the simulation thread when pipelined).
+ */
+@Name("com.shooter.FramePhase")
+@Label("Frame Phase")
+@Category({"Shooter", "Frames"})
+@Description("Update, draw or simulation tick part of a frame")
+@StackTrace(false)
+public class FramePhaseEvent extends Event {
+    @Label("Phase")
+    String phase;
+}
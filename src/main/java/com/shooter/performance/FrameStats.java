@@ -0,0 +1,105 @@
+package com.shooter.performance;
+
+import java.util.Arrays;
+
+/**
+ * Frame statistics class.
+ * Keeps a rolling window of the most recent frame times. The average is maintained
+ * incrementally; percentiles sort a preallocated copy of the window, so neither
+ * recording nor querying allocates.
+ */
+public class FrameStats {
+    private final float[] samples;
+    private final float[] sorted;
+    private int count;
+    private int next;
+    private double sum;
+    private long totalFrames;
+
+    /**
+     * Constructor for the frame statistics.
+     * @param windowSize The number of frames in the rolling window
+     */
+    public FrameStats(int windowSize) {
+        if (windowSize <= 0) {
+            throw new IllegalArgumentException("Window size must be positive");
+        }
+        this.samples = new float[windowSize];
+        this.sorted = new float[windowSize];
+    }
+
+    /**
+     * Records the duration of a frame.
+     * @param seconds The frame time in seconds
+     */
+    public void record(float seconds) {
+        if (count == samples.length) {
+            sum -= samples[next];
+        } else {
+            count++;
+        }
+        samples[next] = seconds;
+        sum += seconds;
+        next = (next + 1) % samples.length;
+        totalFrames++;
+    }
+
+    /**
+     * Gets the average frame time over the window.
+     * @return The average frame time in seconds, or 0 if nothing was recorded
+     */
+    public float getAverage() {
+        return count == 0 ? 0 : (float) (sum / count);
+    }
+
+    /**
+     * Gets a percentile of the frame times in the window.
+     * @param percentile The percentile (0-100)
+     * @return The frame time in seconds, or 0 if nothing was recorded
+     */
+    public float getPercentile(float percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        System.arraycopy(samples, 0, sorted, 0, count);
+        Arrays.sort(sorted, 0, count);
+        int index = (int) Math.ceil(percentile / 100f * count) - 1;
+        return sorted[Math.max(0, Math.min(count - 1, index))];
+    }
+
+    /**
+     * Gets the longest frame time in the window.
+     * @return The frame time in seconds, or 0 if nothing was recorded
+     */
+    public float getMax() {
+        float max = 0;
+        for (int i = 0; i < count; i++) {
+            max = Math.max(max, samples[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Gets the number of frames in the window.
+     * @return The number of frames
+     */
+    public int getCount() {
+        return count;
+    }
+
+    /**
+     * Gets the number of frames the window holds when full.
+     * @return The window size
+     */
+    public int getWindowSize() {
+        return samples.length;
+    }
+
+    /**
+     * Gets the number of frames recorded since creation.
+     * @return The number of frames
+     */
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+}
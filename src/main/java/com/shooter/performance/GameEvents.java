@@ -0,0 +1,203 @@
+package com.shooter.performance;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Game events class.
+ * Emits the game's flight recorder events. Every method first checks whether a flight
+ * recorder exists at all: loading the first event class of a JVM without one costs
+ * several hundred milliseconds, so without a recording the event classes are never
+ * touched and each call is a single field read. With a recorder, an event is only
+ * filled in when it is enabled and passes its threshold (isEnabled/shouldCommit).
+ *
+ * Duration events are started with a begin method, which returns null when the event
+ * is not recorded, and finished with the matching end method, which accepts that null.
+ */
+public final class GameEvents {
+    private GameEvents() {
+    }
+
+    /**
+     * Starts a frame event.
+     * @return The event, or null if frames are not recorded
+     */
+    public static FrameEvent beginFrame() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        FrameEvent event = new FrameEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes a frame event.
+     * @param event The event returned by beginFrame()
+     * @param frame The frame number
+     * @param delta The frame time in seconds
+     * @param screen The current screen, or null
+     */
+    public static void endFrame(FrameEvent event, long frame, float delta, Object screen) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.frame = frame;
+            event.delta = delta;
+            event.screen = nameOf(screen);
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts a frame phase event.
+     * @return The event, or null if frame phases are not recorded
+     */
+    public static FramePhaseEvent beginPhase() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        FramePhaseEvent event = new FramePhaseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes a frame phase event.
+     * @param event The event returned by beginPhase()
+     * @param phase The name of the phase ("update", "draw" or "tick")
+     */
+    public static void endPhase(FramePhaseEvent event, String phase) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.phase = phase;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records an enemy spawn.
+     * @param y The y position of the enemy
+     * @param activeEnemies The number of enemies including the new one
+     * @param spawnInterval The current spawn interval in seconds
+     */
+    public static void spawn(float y, int activeEnemies, float spawnInterval) {
+        if (!FlightRecorder.isInitialized()) {
+            return;
+        }
+        SpawnEvent event = new SpawnEvent();
+        if (event.shouldCommit()) {
+            event.y = y;
+            event.activeEnemies = activeEnemies;
+            event.spawnInterval = spawnInterval;
+            event.commit();
+        }
+    }
+
+    /**
+     * Records a difficulty step.
+     * @param previousInterval The spawn interval before the step in seconds
+     * @param spawnInterval The spawn interval after the step in seconds
+     */
+    public static void difficulty(float previousInterval, float spawnInterval) {
+        if (!FlightRecorder.isInitialized()) {
+            return;
+        }
+        DifficultyEvent event = new DifficultyEvent();
+        if (event.shouldCommit()) {
+            event.previousInterval = previousInterval;
+            event.spawnInterval = spawnInterval;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts a collision pass event.
+     * @return The event, or null if collision passes are not recorded
+     */
+    public static CollisionPassEvent beginCollisionPass() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        CollisionPassEvent event = new CollisionPassEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes a collision pass event.
+     * @param event The event returned by beginCollisionPass()
+     * @param pairsTested The number of projectile and target pairs checked
+     * @param hits The number of hits
+     * @param kills The number of targets destroyed
+     */
+    public static void endCollisionPass(CollisionPassEvent event, int pairsTested, int hits,
+                                        int kills) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.pairsTested = pairsTested;
+            event.hits = hits;
+            event.kills = kills;
+            event.commit();
+        }
+    }
+
+    /**
+     * Starts a screen transition event.
+     * @return The event, or null if screen transitions are not recorded
+     */
+    public static ScreenTransitionEvent beginScreenTransition() {
+        if (!FlightRecorder.isInitialized()) {
+            return null;
+        }
+        ScreenTransitionEvent event = new ScreenTransitionEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Finishes a screen transition event.
+     * @param event The event returned by beginScreenTransition()
+     * @param from The previous screen, or null
+     * @param to The new screen, or null
+     */
+    public static void endScreenTransition(ScreenTransitionEvent event, Object from, Object to) {
+        if (event == null) {
+            return;
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.from = nameOf(from);
+            event.to = nameOf(to);
+            event.commit();
+        }
+    }
+
+    /**
+     * Gets the name of an object's class for an event field.
+     * @param object The object, or null
+     * @return The simple class name, or null
+     */
+    private static String nameOf(Object object) {
+        return object == null ? null : object.getClass().getSimpleName();
+    }
+}
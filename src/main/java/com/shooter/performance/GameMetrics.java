@@ -0,0 +1,512 @@
+package com.shooter.performance;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.Screen;
+import com.shooter.ShooterGame;
+import com.shooter.config.GameConfig;
+import com.shooter.debug.GlResourceTracker;
+import com.shooter.managers.AssetManager;
+import com.shooter.managers.TextureCache;
+import com.shooter.simulation.RenderSnapshot;
+import com.sun.management.GarbageCollectionNotificationInfo;
+import com.sun.management.GcInfo;
+
+import javax.management.JMException;
+import javax.management.ListenerNotFoundException;
+import javax.management.Notification;
+import javax.management.NotificationEmitter;
+import javax.management.NotificationListener;
+import javax.management.ObjectName;
+import javax.management.openmbean.CompositeData;
+import java.io.IOException;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Game metrics class.
+ * Publishes live numbers of the running game as a JMX MBean, so local tools such as
+ * jconsole can watch a session without a profiler: frame time percentiles, enemy and
+ * projectile counts with their pools, the spawn interval, hitches and whether a garbage
+ * collection pause caused them, and the memory held by textures and GL objects. The
+ * game only copies its values into the bean twice a second, so reading attributes never
+ * touches game state and costs the frame nothing; world counts travel in the render
+ * snapshot, because the world belongs to the simulation thread. Operations are handed
+ * to the rendering thread. Hitches are matched with GC pauses from the collectors'
+ * notifications once those have had time to arrive.
+ */
+public class GameMetrics implements GameMetricsMXBean {
+    private static final String TAG = "GameMetrics";
+
+    /** Name of the bean on the platform MBean server. */
+    public static final String OBJECT_NAME = "com.shooter:type=GameMetrics";
+
+    // How often the game's values are copied into the bean
+    private static final long PUBLISH_INTERVAL_NANOS = 500_000_000L;
+
+    // A frame longer than this many target frame times is a hitch
+    private static final float HITCH_FACTOR = 2;
+
+    // Frames after startup that are never hitches (loading, compiling)
+    private static final int WARMUP_FRAMES = 10;
+
+    // Time given to GC notifications to arrive before a hitch is attributed, and the
+    // slack for their millisecond timestamps
+    private static final long GC_NOTIFICATION_DELAY_NANOS = 250_000_000L;
+    private static final long GC_SLACK_NANOS = 1_000_000L;
+
+    // How long a world dump may take
+    private static final long DUMP_TIMEOUT_SECONDS = 5;
+    private static final DateTimeFormatter DUMP_TIME =
+        DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+
+    private final ShooterGame game;
+    private final RuntimeMXBean runtime;
+
+    // Registration
+    private ObjectName name;
+    private final List<NotificationEmitter> collectors;
+    private final NotificationListener gcListener;
+
+    // Rendering thread state
+    private long frames;
+    private long nextPublish;
+    private boolean worldDue;
+    private boolean hitchPending;
+    private long hitchStart;
+    private long hitchEnd;
+
+    // Last GC pause, written by the notification thread (System.nanoTime() clock); the
+    // count is also reset from the rendering thread
+    private volatile long lastGcStart;
+    private volatile long lastGcEnd;
+    private final AtomicLong gcPauseCount = new AtomicLong();
+    private volatile float lastGcPauseMillis;
+    private volatile String lastGcName = "none";
+
+    // Published values
+    private volatile float frameTimeP50;
+    private volatile float frameTimeP95;
+    private volatile float frameTimeP99;
+    private volatile float frameTimeMax;
+    private volatile long totalFrames;
+    private volatile String loadLevel = "";
+    private volatile String screen = "none";
+    private volatile int activeEnemies;
+    private volatile int pooledEnemies;
+    private volatile int activeProjectiles;
+    private volatile int pooledProjectiles;
+    private volatile long droppedBullets;
+    private volatile float spawnInterval;
+    private volatile long hitchCount;
+    private volatile long gcHitchCount;
+    private volatile float lastHitchMillis;
+    private volatile boolean lastHitchDuringGc;
+    private volatile long textureBytes;
+    private volatile long textureBudgetBytes;
+    private volatile int loadedTextures;
+    private volatile long textureEvictions;
+    private volatile long trackedGlBytes = -1;
+
+    /**
+     * Constructor for the game metrics.
+     * @param game The game to watch
+     */
+    public GameMetrics(ShooterGame game) {
+        this.game = game;
+        this.runtime = ManagementFactory.getRuntimeMXBean();
+        this.collectors = new ArrayList<NotificationEmitter>();
+        this.gcListener = this::gcFinished;
+    }
+
+    /**
+     * Registers the bean on the platform MBean server and starts listening for GC pauses.
+     */
+    public void register() {
+        if (name != null) {
+            return;
+        }
+        try {
+            ObjectName objectName = new ObjectName(OBJECT_NAME);
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, objectName);
+            name = objectName;
+        } catch (JMException e) {
+            Gdx.app.error(TAG, "Failed to register " + OBJECT_NAME, e);
+            return;
+        }
+        for (GarbageCollectorMXBean collector : ManagementFactory.getGarbageCollectorMXBeans()) {
+            if (collector instanceof NotificationEmitter emitter) {
+                emitter.addNotificationListener(gcListener, null, null);
+                collectors.add(emitter);
+            }
+        }
+        nextPublish = System.nanoTime();
+    }
+
+    /**
+     * Unregisters the bean and stops listening for GC pauses.
+     */
+    public void unregister() {
+        if (name == null) {
+            return;
+        }
+        for (NotificationEmitter emitter : collectors) {
+            try {
+                emitter.removeNotificationListener(gcListener);
+            } catch (ListenerNotFoundException e) {
+                // Already gone
+            }
+        }
+        collectors.clear();
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(name);
+        } catch (JMException e) {
+            Gdx.app.error(TAG, "Failed to unregister " + OBJECT_NAME, e);
+        }
+        name = null;
+    }
+
+    /**
+     * Records a frame: detects hitches and publishes the game's values when due. Must be
+     * called once per frame by the rendering thread, after the frame time was recorded.
+     * @param delta The frame time in seconds
+     * @param targetFrameTime The frame time aimed for, in seconds
+     */
+    public void frame(float delta, float targetFrameTime) {
+        if (name == null) {
+            return;
+        }
+        long now = System.nanoTime();
+        frames++;
+
+        // Attribute the previous hitch once its GC notification would have arrived
+        if (hitchPending && now - hitchEnd > GC_NOTIFICATION_DELAY_NANOS) {
+            attributeHitch();
+        }
+        if (frames > WARMUP_FRAMES && delta > targetFrameTime * HITCH_FACTOR) {
+            if (hitchPending) {
+                attributeHitch();
+            }
+            hitchPending = true;
+            hitchEnd = now;
+            hitchStart = now - (long) (delta * 1_000_000_000L);
+            hitchCount++;
+            lastHitchMillis = delta * 1000;
+        }
+
+        if (now - nextPublish >= 0) {
+            nextPublish = now + PUBLISH_INTERVAL_NANOS;
+            publish();
+            worldDue = true;
+        }
+    }
+
+    /**
+     * Decides whether the pending hitch overlapped the last GC pause.
+     */
+    private void attributeHitch() {
+        hitchPending = false;
+        long gcEnd = lastGcEnd;
+        boolean duringGc = gcEnd != 0 && lastGcStart <= hitchEnd + GC_SLACK_NANOS
+            && gcEnd >= hitchStart - GC_SLACK_NANOS;
+        if (duringGc) {
+            gcHitchCount++;
+        }
+        lastHitchDuringGc = duringGc;
+    }
+
+    /**
+     * Copies the frame statistics and asset memory into the bean.
+     */
+    private void publish() {
+        FrameStats stats = game.getFrameStats();
+        frameTimeP50 = stats.getPercentile(50) * 1000;
+        frameTimeP95 = stats.getPercentile(95) * 1000;
+        frameTimeP99 = stats.getPercentile(99) * 1000;
+        frameTimeMax = stats.getMax() * 1000;
+        totalFrames = stats.getTotalFrames();
+        loadLevel = game.getLoadGovernor().getLevelName();
+        Screen current = game.getScreen();
+        screen = current != null ? current.getClass().getSimpleName() : "none";
+
+        TextureCache textureCache = AssetManager.getInstance().getTextureCache();
+        textureBytes = textureCache.getUsedBytes();
+        textureBudgetBytes = textureCache.getBudgetBytes();
+        loadedTextures = textureCache.getLoadedCount();
+        textureEvictions = textureCache.getEvictionCount();
+        GlResourceTracker tracker = GlResourceTracker.getInstance();
+        trackedGlBytes = tracker.isEnabled() ? tracker.getLiveBytes() : -1;
+    }
+
+    /**
+     * Copies the world counts of a drawn snapshot into the bean, if they are due. Must be
+     * called by the rendering thread; costs a field read on most frames.
+     * @param snapshot The snapshot being drawn
+     */
+    public void recordWorld(RenderSnapshot snapshot) {
+        if (!worldDue) {
+            return;
+        }
+        worldDue = false;
+        activeEnemies = snapshot.getActiveEnemies();
+        pooledEnemies = snapshot.getPooledEnemies();
+        activeProjectiles = snapshot.getActiveProjectiles();
+        pooledProjectiles = snapshot.getPooledProjectiles();
+        droppedBullets = snapshot.getDroppedBullets();
+        spawnInterval = snapshot.getSpawnInterval();
+    }
+
+    /**
+     * Sets the world counts to zero, e.g. when a game ends.
+     */
+    public void clearWorld() {
+        activeEnemies = 0;
+        pooledEnemies = 0;
+        activeProjectiles = 0;
+        pooledProjectiles = 0;
+        droppedBullets = 0;
+        spawnInterval = 0;
+    }
+
+    /**
+     * Records a GC pause. Called on the JMX notification thread. Concurrent cycles of
+     * G1, ZGC and Shenandoah do not stop the game and are ignored.
+     * @param notification The notification of a finished collection
+     * @param handback Unused
+     */
+    private void gcFinished(Notification notification, Object handback) {
+        String type = notification.getType();
+        if (!GarbageCollectionNotificationInfo.GARBAGE_COLLECTION_NOTIFICATION.equals(type)) {
+            return;
+        }
+        GarbageCollectionNotificationInfo info =
+            GarbageCollectionNotificationInfo.from((CompositeData) notification.getUserData());
+        String collector = info.getGcName();
+        if (collector.contains("Concurrent") || collector.contains("Cycles")) {
+            return;
+        }
+
+        // GC times are milliseconds of uptime; move them to the frame clock
+        GcInfo gc = info.getGcInfo();
+        long end = System.nanoTime()
+            - Math.max(0, runtime.getUptime() - gc.getEndTime()) * 1_000_000L;
+        lastGcStart = end - gc.getDuration() * 1_000_000L;
+        lastGcEnd = end;
+        lastGcPauseMillis = gc.getDuration();
+        lastGcName = collector + " (" + info.getGcCause() + ")";
+        gcPauseCount.incrementAndGet();
+    }
+
+    // Operations
+
+    @Override
+    public void toggleDebugOverlay() {
+        Gdx.app.postRunnable(game::toggleDebugOverlay);
+    }
+
+    @Override
+    public void toggleLowResRendering() {
+        Gdx.app.postRunnable(game::toggleLowResRendering);
+    }
+
+    @Override
+    public void resetHitches() {
+        Gdx.app.postRunnable(() -> {
+            hitchPending = false;
+            hitchCount = 0;
+            gcHitchCount = 0;
+            lastHitchMillis = 0;
+            lastHitchDuringGc = false;
+            gcPauseCount.set(0);
+        });
+    }
+
+    @Override
+    public String dumpWorldSnapshot() throws IOException {
+        // Ask the running game on the rendering thread; its simulation takes the dump
+        CompletableFuture<byte[]> dump = new CompletableFuture<byte[]>();
+        Gdx.app.postRunnable(() -> {
+            CompletableFuture<byte[]> state = game.requestWorldDump();
+            if (state == null) {
+                dump.completeExceptionally(new IOException("No game is running"));
+            } else {
+                state.whenComplete((bytes, error) -> {
+                    if (error != null) {
+                        dump.completeExceptionally(error);
+                    } else {
+                        dump.complete(bytes);
+                    }
+                });
+            }
+        });
+
+        byte[] state;
+        try {
+            state = dump.get(DUMP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while waiting for the world dump");
+        } catch (ExecutionException e) {
+            // Only the message: the client may not know the exception classes of the game
+            Throwable cause = e.getCause();
+            throw new IOException(cause instanceof IOException
+                ? cause.getMessage() : "Failed to dump the world: " + cause);
+        } catch (TimeoutException e) {
+            throw new IOException("The game did not answer within " + DUMP_TIMEOUT_SECONDS + " s");
+        }
+
+        Path file = Paths.get(GameConfig.get().getDataDirectory(), "dumps",
+            "world-" + DUMP_TIME.format(LocalDateTime.now()) + ".bin");
+        Files.createDirectories(file.getParent());
+        Files.write(file, state);
+        Gdx.app.log(TAG, "Wrote " + state.length + " bytes of world state to " + file);
+        return file.toAbsolutePath().toString();
+    }
+
+    // Attributes
+
+    @Override
+    public float getFrameTimeP50Millis() {
+        return frameTimeP50;
+    }
+
+    @Override
+    public float getFrameTimeP95Millis() {
+        return frameTimeP95;
+    }
+
+    @Override
+    public float getFrameTimeP99Millis() {
+        return frameTimeP99;
+    }
+
+    @Override
+    public float getFrameTimeMaxMillis() {
+        return frameTimeMax;
+    }
+
+    @Override
+    public long getTotalFrames() {
+        return totalFrames;
+    }
+
+    @Override
+    public String getLoadLevel() {
+        return loadLevel;
+    }
+
+    @Override
+    public String getScreen() {
+        return screen;
+    }
+
+    @Override
+    public int getActiveEnemies() {
+        return activeEnemies;
+    }
+
+    @Override
+    public int getPooledEnemies() {
+        return pooledEnemies;
+    }
+
+    @Override
+    public int getActiveProjectiles() {
+        return activeProjectiles;
+    }
+
+    @Override
+    public int getPooledProjectiles() {
+        return pooledProjectiles;
+    }
+
+    @Override
+    public long getDroppedBullets() {
+        return droppedBullets;
+    }
+
+    @Override
+    public float getSpawnIntervalSeconds() {
+        return spawnInterval;
+    }
+
+    @Override
+    public long getHitchCount() {
+        return hitchCount;
+    }
+
+    @Override
+    public long getGcHitchCount() {
+        return gcHitchCount;
+    }
+
+    @Override
+    public float getLastHitchMillis() {
+        return lastHitchMillis;
+    }
+
+    @Override
+    public boolean isLastHitchDuringGc() {
+        return lastHitchDuringGc;
+    }
+
+    @Override
+    public long getGcPauseCount() {
+        return gcPauseCount.get();
+    }
+
+    @Override
+    public float getLastGcPauseMillis() {
+        return lastGcPauseMillis;
+    }
+
+    @Override
+    public String getLastGcName() {
+        return lastGcName;
+    }
+
+    @Override
+    public long getTextureBytes() {
+        return textureBytes;
+    }
+
+    @Override
+    public long getTextureBudgetBytes() {
+        return textureBudgetBytes;
+    }
+
+    @Override
+    public int getLoadedTextures() {
+        return loadedTextures;
+    }
+
+    @Override
+    public long getTextureEvictions() {
+        return textureEvictions;
+    }
+
+    @Override
+    public long getTrackedGlBytes() {
+        return trackedGlBytes;
+    }
+
+    /**
+     * Checks if the bean is registered.
+     * @return True while jconsole can see it
+     */
+    public boolean isRegistered() {
+        return name != null;
+    }
+}
@@ -0,0 +1,97 @@
+package com.shooter.performance;
+
+import java.io.IOException;
+
+/**
+ * Game metrics MXBean interface.
+ * The management interface of GameMetrics, as seen in jconsole under
+ * com.shooter:type=GameMetrics. Attributes are the values last published by the
+ * running game, at most half a second old.
+ */
+public interface GameMetricsMXBean {
+    // Frame times over the last 120 frames
+
+    float getFrameTimeP50Millis();
+
+    float getFrameTimeP95Millis();
+
+    float getFrameTimeP99Millis();
+
+    float getFrameTimeMaxMillis();
+
+    long getTotalFrames();
+
+    String getLoadLevel();
+
+    String getScreen();
+
+    // World, as of the newest drawn tick (zero outside a game)
+
+    int getActiveEnemies();
+
+    int getPooledEnemies();
+
+    int getActiveProjectiles();
+
+    int getPooledProjectiles();
+
+    long getDroppedBullets();
+
+    float getSpawnIntervalSeconds();
+
+    // Hitches: frames longer than twice the target frame time
+
+    long getHitchCount();
+
+    long getGcHitchCount();
+
+    float getLastHitchMillis();
+
+    boolean isLastHitchDuringGc();
+
+    long getGcPauseCount();
+
+    float getLastGcPauseMillis();
+
+    String getLastGcName();
+
+    // Asset memory
+
+    long getTextureBytes();
+
+    long getTextureBudgetBytes();
+
+    int getLoadedTextures();
+
+    long getTextureEvictions();
+
+    /**
+     * Gets the estimated memory of the tracked GL resources.
+     * @return The size in bytes, or -1 when resource tracking is off
+     */
+    long getTrackedGlBytes();
+
+    // Operations, carried out on the rendering thread
+
+    /**
+     * Shows or hides the debug overlay of the running game.
+     */
+    void toggleDebugOverlay();
+
+    /**
+     * Switches between drawing through the low resolution frame buffer and drawing directly.
+     */
+    void toggleLowResRendering();
+
+    /**
+     * Sets the hitch and GC pause counters back to zero.
+     */
+    void resetHitches();
+
+    /**
+     * Writes the state of the running game's world to the data directory.
+     * @return The path of the written file
+     * @throws IOException If no game is running or the file cannot be written
+     */
+    String dumpWorldSnapshot() throws IOException;
+}
@@ -0,0 +1,93 @@
+package com.shooter.performance;
+
+/**
+ * Input latency class.
+ * Measures how long a key press takes to show up on screen, split into three stages:
+ * from receiving the event to the simulation tick that applies it, to the end of the
+ * first frame that draws the result, and to the start of the following frame, i.e. after
+ * that frame's buffer swap. Must only be used by the render thread.
+ */
+public class InputLatency {
+    private final LatencyHistogram toTick;
+    private final LatencyHistogram toDraw;
+    private final LatencyHistogram toPresent;
+
+    // Input drawn by the last frame, waiting for its buffer swap (0 if none)
+    private long pendingInputTime;
+
+    // Last input that was measured, so a snapshot drawn twice is only counted once
+    private long lastInputTime;
+
+    /**
+     * Constructor for the input latency statistics.
+     */
+    public InputLatency() {
+        this.toTick = new LatencyHistogram();
+        this.toDraw = new LatencyHistogram();
+        this.toPresent = new LatencyHistogram();
+    }
+
+    /**
+     * Called at the start of a frame. Completes the measurement of the input drawn by
+     * the previous frame, whose buffers have been swapped by now.
+     * @param now The current time, from System.nanoTime()
+     */
+    public void frameStarted(long now) {
+        if (pendingInputTime != 0) {
+            toPresent.record(now - pendingInputTime);
+            pendingInputTime = 0;
+        }
+    }
+
+    /**
+     * Called when a frame has been drawn (after batch.end()).
+     * @param inputTime The receive time of the oldest input the drawn state reflects, or 0 if none
+     * @param tickTime The start time of the tick that applied that input
+     * @param now The current time, from System.nanoTime()
+     */
+    public void frameDrawn(long inputTime, long tickTime, long now) {
+        if (inputTime == 0 || inputTime == lastInputTime) {
+            return;
+        }
+        lastInputTime = inputTime;
+        toTick.record(tickTime - inputTime);
+        toDraw.record(now - inputTime);
+        pendingInputTime = inputTime;
+    }
+
+    /**
+     * Forgets all measurements.
+     */
+    public void reset() {
+        toTick.reset();
+        toDraw.reset();
+        toPresent.reset();
+        pendingInputTime = 0;
+    }
+
+    /**
+     * Formats all histograms as CSV (stage, lower bound in microseconds, upper bound, count).
+     * @return The CSV text including a header line
+     */
+    public String toCsv() {
+        StringBuilder out = new StringBuilder("stage,min_us,max_us,count\n");
+        toTick.appendCsv(out, "tick");
+        toDraw.appendCsv(out, "draw");
+        toPresent.appendCsv(out, "present");
+        return out.toString();
+    }
+
+    // Getters
+
+    public LatencyHistogram getToTick() {
+        return toTick;
+    }
+
+    public LatencyHistogram getToDraw() {
+        return toDraw;
+    }
+
+    public LatencyHistogram getToPresent() {
+        return toPresent;
+    }
+}
@@ -0,0 +1,149 @@
+package com.shooter.performance;
+
+import java.util.Arrays;
+
+/**
+ * Latency histogram class.
+ * Counts durations in logarithmic buckets: every power of two is split into four
+ * buckets, so any recorded value is known to within 25% from 1 microsecond up to
+ * minutes. Recording is a few arithmetic operations and never allocates, which makes
+ * it cheap enough to run on every frame.
+ */
+public class LatencyHistogram {
+    // Buckets per power of two (as a power of two)
+    private static final int SUB_BITS = 2;
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+    private static final int BUCKET_COUNT = 40 * SUB_COUNT;
+
+    private final long[] counts;
+    private long count;
+    private long sumMicros;
+    private long maxMicros;
+
+    /**
+     * Constructor for the latency histogram.
+     */
+    public LatencyHistogram() {
+        this.counts = new long[BUCKET_COUNT];
+    }
+
+    /**
+     * Records a duration.
+     * @param nanos The duration in nanoseconds (negative values count as 0)
+     */
+    public void record(long nanos) {
+        long micros = Math.max(0, nanos / 1000);
+        counts[bucketOf(micros)]++;
+        count++;
+        sumMicros += micros;
+        maxMicros = Math.max(maxMicros, micros);
+    }
+
+    /**
+     * Gets a percentile of the recorded durations.
+     * @param percentile The percentile (0-100)
+     * @return The upper bound of the bucket holding the percentile in milliseconds, or 0 if empty
+     */
+    public float getPercentile(float percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(percentile / 100f * count));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                // Never report more than the largest value actually recorded
+                return Math.min(upperBound(i), maxMicros) / 1000f;
+            }
+        }
+        return maxMicros / 1000f;
+    }
+
+    /**
+     * Gets the mean of the recorded durations.
+     * @return The mean in milliseconds, or 0 if empty
+     */
+    public float getMean() {
+        return count == 0 ? 0 : (float) sumMicros / count / 1000f;
+    }
+
+    /**
+     * Gets the largest recorded duration.
+     * @return The maximum in milliseconds
+     */
+    public float getMax() {
+        return maxMicros / 1000f;
+    }
+
+    /**
+     * Gets the number of recorded durations.
+     * @return The count
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Forgets all recorded durations.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        count = 0;
+        sumMicros = 0;
+        maxMicros = 0;
+    }
+
+    /**
+     * Appends the non-empty buckets as CSV lines.
+     * @param out The builder to append to
+     * @param name The name written in the first column
+     */
+    public void appendCsv(StringBuilder out, String name) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            if (counts[i] > 0) {
+                out.append(name).append(',')
+                    .append(lowerBound(i)).append(',')
+                    .append(upperBound(i)).append(',')
+                    .append(counts[i]).append('\n');
+            }
+        }
+    }
+
+    /**
+     * Gets the bucket of a value.
+     * @param micros The value in microseconds
+     * @return The bucket index
+     */
+    private static int bucketOf(long micros) {
+        if (micros < SUB_COUNT) {
+            return (int) micros;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(micros);
+        int sub = (int) (micros >>> (exponent - SUB_BITS)) & (SUB_COUNT - 1);
+        return Math.min(BUCKET_COUNT - 1, (exponent - SUB_BITS + 1) * SUB_COUNT + sub);
+    }
+
+    /**
+     * Gets the smallest value of a bucket.
+     * @param bucket The bucket index
+     * @return The value in microseconds
+     */
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_COUNT) {
+            return bucket;
+        }
+        int exponent = bucket / SUB_COUNT + SUB_BITS - 1;
+        long sub = bucket % SUB_COUNT;
+        return (SUB_COUNT + sub) << (exponent - SUB_BITS);
+    }
+
+    /**
+     * Gets the largest value of a bucket.
+     * @param bucket The bucket index
+     * @return The value in microseconds
+     */
+    private static long upperBound(int bucket) {
+        return lowerBound(bucket + 1) - 1;
+    }
+}
@@ -0,0 +1,187 @@
+package com.shooter.performance;
+
+import com.badlogic.gdx.Gdx;
+
+/**
+ * Load governor class.
+ * Watches the rolling frame time and sheds work in graded steps when frames take longer
+ * than the target, then restores it step by step once there is headroom again.
+ * After a level change, the governor waits until the rolling window holds only frames
+ * of the new level, so frames from before the change cannot trigger another step.
+ * Decisions are published through volatile fields, so the simulation thread can read
+ * them every tick without locking.
+ */
+public class LoadGovernor {
+    // Load levels
+    public static final int LEVEL_NORMAL = 0;
+    public static final int LEVEL_LIGHT = 1;
+    public static final int LEVEL_HEAVY = 2;
+    public static final int LEVEL_CRITICAL = 3;
+
+    private static final String[] LEVEL_NAMES = {"normal", "light", "heavy", "critical"};
+
+    // Rolling frame time relative to the target that counts as pressure / headroom
+    private static final float PRESSURE_RATIO = 1.15f;
+    private static final float HEADROOM_RATIO = 1.05f;
+
+    // How long pressure / headroom must last before the level changes (seconds)
+    private static final float ESCALATE_HOLD = 0.5f;
+    private static final float RECOVER_HOLD = 3.0f;
+
+    private volatile float targetFrameTime;
+
+    // Time the current condition has lasted
+    private float pressureTime;
+    private float headroomTime;
+
+    // Frames recorded since the last level change
+    private int framesSinceChange;
+
+    // Current decisions
+    private volatile int level;
+    private volatile int visibleBackgroundLayers;
+    private volatile float spawnRateScale;
+    private volatile int offscreenUpdateStride;
+
+    // Metrics
+    private volatile long escalations;
+    private volatile long recoveries;
+    private volatile float sheddingSeconds;
+
+    /**
+     * Constructor for the load governor.
+     * @param targetFrameTime The frame time to hold in seconds
+     */
+    public LoadGovernor(float targetFrameTime) {
+        this.targetFrameTime = targetFrameTime;
+        applyLevel(LEVEL_NORMAL);
+    }
+
+    /**
+     * Updates the governor with the latest frame statistics. Called once per frame.
+     * @param stats The rolling frame statistics
+     * @param delta The duration of the last frame in seconds
+     */
+    public void update(FrameStats stats, float delta) {
+        float average = stats.getAverage();
+
+        // The window still holds frames from before the last level change
+        if (framesSinceChange < stats.getWindowSize()) {
+            framesSinceChange++;
+            pressureTime = 0;
+            headroomTime = 0;
+        } else if (average > targetFrameTime * PRESSURE_RATIO) {
+            pressureTime += delta;
+            headroomTime = 0;
+        } else if (average < targetFrameTime * HEADROOM_RATIO) {
+            headroomTime += delta;
+            pressureTime = 0;
+        } else {
+            pressureTime = 0;
+            headroomTime = 0;
+        }
+
+        if (pressureTime >= ESCALATE_HOLD && level < LEVEL_CRITICAL) {
+            escalations++;
+            changeLevel(level + 1);
+        } else if (headroomTime >= RECOVER_HOLD && level > LEVEL_NORMAL) {
+            recoveries++;
+            changeLevel(level - 1);
+        }
+
+        if (level > LEVEL_NORMAL) {
+            sheddingSeconds += delta;
+        }
+    }
+
+    /**
+     * Moves to another level, restarts the hold timers and waits for the window to refill.
+     * @param newLevel The new level
+     */
+    private void changeLevel(int newLevel) {
+        Gdx.app.log("LoadGovernor",
+            "Load level " + LEVEL_NAMES[level] + " -> " + LEVEL_NAMES[newLevel]);
+        applyLevel(newLevel);
+        pressureTime = 0;
+        headroomTime = 0;
+        framesSinceChange = 0;
+    }
+
+    /**
+     * Sets the decisions for a level.
+     * @param newLevel The level
+     */
+    private void applyLevel(int newLevel) {
+        switch (newLevel) {
+            case LEVEL_LIGHT:
+                // Drop the foreground dust particles and update off-screen enemies less often
+                visibleBackgroundLayers = 2;
+                spawnRateScale = 1.0f;
+                offscreenUpdateStride = 2;
+                break;
+            case LEVEL_HEAVY:
+                // Keep only the base layer and spawn fewer enemies
+                visibleBackgroundLayers = 1;
+                spawnRateScale = 0.75f;
+                offscreenUpdateStride = 4;
+                break;
+            case LEVEL_CRITICAL:
+                visibleBackgroundLayers = 1;
+                spawnRateScale = 0.5f;
+                offscreenUpdateStride = 4;
+                break;
+            default:
+                visibleBackgroundLayers = Integer.MAX_VALUE;
+                spawnRateScale = 1.0f;
+                offscreenUpdateStride = 1;
+                break;
+        }
+        level = newLevel;
+    }
+
+    /**
+     * Gets the name of the current level.
+     * @return The level name
+     */
+    public String getLevelName() {
+        return LEVEL_NAMES[level];
+    }
+
+    // Getters
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getVisibleBackgroundLayers() {
+        return visibleBackgroundLayers;
+    }
+
+    public float getSpawnRateScale() {
+        return spawnRateScale;
+    }
+
+    public int getOffscreenUpdateStride() {
+        return offscreenUpdateStride;
+    }
+
+    public long getEscalations() {
+        return escalations;
+    }
+
+    public long getRecoveries() {
+        return recoveries;
+    }
+
+    public float getSheddingSeconds() {
+        return sheddingSeconds;
+    }
+
+    public float getTargetFrameTime() {
+        return targetFrameTime;
+    }
+
+    public void setTargetFrameTime(float targetFrameTime) {
+        this.targetFrameTime = targetFrameTime;
+    }
+}
@@ -0,0 +1,118 @@
+package com.shooter.performance;
+
+import com.shooter.physics.MotionKernels;
+import com.shooter.utils.Constants;
+
+import java.util.Random;
+
+/**
+ * Motion kernel benchmark.
+ * Compares the scalar and vector motion kernels (integrate plus cull, as a pattern
+ * weapon runs them every tick) at 1k, 10k and 100k entities and prints the time per
+ * entity and the speedup. Each measurement is warmed up first, so the JIT has compiled
+ * the kernels before timing starts. The vector kernels are only measured when the JVM
+ * was started with the Vector API module:
+ *
+ * <pre>java --add-modules jdk.incubator.vector -cp target/classes:... \
+ *     com.shooter.performance.MotionBenchmark</pre>
+ */
+public final class MotionBenchmark {
+    private static final int[] SIZES = {1_000, 10_000, 100_000};
+
+    // Entity updates per warmup and per measurement, whatever the size
+    private static final long WARMUP_UPDATES = 200_000_000L;
+    private static final long MEASURED_UPDATES = 500_000_000L;
+
+    private static final float DELTA = 1f / 60f;
+
+    // Keeps the JIT from removing the kernels as dead code
+    private static long sink;
+
+    private MotionBenchmark() {
+    }
+
+    /**
+     * Runs the benchmark.
+     * @param args Not used
+     */
+    public static void main(String[] args) {
+        MotionKernels scalar = MotionKernels.scalar();
+        MotionKernels vector = MotionKernels.vector();
+        if (vector == null) {
+            System.out.println("Vector API not available "
+                + "(start with --add-modules jdk.incubator.vector); "
+                + "measuring the scalar kernels only");
+        }
+
+        System.out.printf("%-10s %14s %14s %8s%n",
+            "entities", "scalar ns/ent", "vector ns/ent", "speedup");
+        for (int size : SIZES) {
+            double scalarNanos = measure(scalar, size);
+            if (vector == null) {
+                System.out.printf("%-10d %14.3f %14s %8s%n", size, scalarNanos, "-", "-");
+            } else {
+                double vectorNanos = measure(vector, size);
+                System.out.printf("%-10d %14.3f %14.3f %7.2fx%n",
+                    size, scalarNanos, vectorNanos, scalarNanos / vectorNanos);
+            }
+        }
+        if (vector != null) {
+            System.out.println("Vector kernels: " + vector.getName());
+        }
+        if (sink == 42) {
+            System.out.println();
+        }
+    }
+
+    /**
+     * Measures one kernel implementation at one size.
+     * @param kernels The kernels
+     * @param size The number of entities
+     * @return The time per entity update in nanoseconds
+     */
+    private static double measure(MotionKernels kernels, int size) {
+        // Entities spread over and around the screen, moving slowly so the cull result stays mixed
+        Random random = new Random(size);
+        float[] x = new float[size];
+        float[] y = new float[size];
+        float[] velocityX = new float[size];
+        float[] velocityY = new float[size];
+        long[] mask = new long[(size + 63) / 64];
+        for (int i = 0; i < size; i++) {
+            x[i] = random.nextFloat() * Constants.DEFAULT_WIDTH * 1.2f
+                - Constants.DEFAULT_WIDTH * 0.1f;
+            y[i] = random.nextFloat() * Constants.DEFAULT_HEIGHT * 1.2f
+                - Constants.DEFAULT_HEIGHT * 0.1f;
+            velocityX[i] = random.nextFloat() * 2 - 1;
+            velocityY[i] = random.nextFloat() * 2 - 1;
+        }
+
+        run(kernels, x, y, velocityX, velocityY, mask, (int) (WARMUP_UPDATES / size));
+        int iterations = (int) (MEASURED_UPDATES / size);
+        long start = System.nanoTime();
+        run(kernels, x, y, velocityX, velocityY, mask, iterations);
+        long elapsed = System.nanoTime() - start;
+        return (double) elapsed / ((long) iterations * size);
+    }
+
+    /**
+     * Runs integrate and cull repeatedly, reversing the velocities every pass so the
+     * entities oscillate in place.
+     * @param kernels The kernels
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param velocityX The x velocities
+     * @param velocityY The y velocities
+     * @param mask The cull mask
+     * @param iterations The number of passes
+     */
+    private static void run(MotionKernels kernels, float[] x, float[] y, float[] velocityX,
+                            float[] velocityY, long[] mask, int iterations) {
+        int count = x.length;
+        for (int i = 0; i < iterations; i++) {
+            kernels.integrate(x, y, velocityX, velocityY, count, (i & 1) == 0 ? DELTA : -DELTA);
+            sink += kernels.cull(x, y, count, 0, 0,
+                Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, mask);
+        }
+    }
+}
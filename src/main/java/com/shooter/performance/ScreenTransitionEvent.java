@@ -0,0 +1,23 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight recorder event for a screen change, covering hiding the old screen and showing
+ * the new one. Keeps its stack trace, which tells which code asked for the change.
+ */
+@Name("com.shooter.ScreenTransition")
+@Label("Screen Transition")
+@Category({"Shooter", "Screens"})
+@Description("The current screen was replaced")
+public class ScreenTransitionEvent extends Event {
+    @Label("From")
+    String from;
+
+    @Label("To")
+    String to;
+}
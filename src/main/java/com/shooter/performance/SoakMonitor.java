@@ -0,0 +1,275 @@
+package com.shooter.performance;
+
+import java.io.IOException;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Soak monitor class.
+ * Samples memory and object counts while the game runs for a long time, and decides at
+ * the end whether anything is leaking. Each sample collects garbage first and records
+ * the heap left in use, the memory outside the heap (direct and mapped buffers, JVM
+ * metadata and the process's resident size where the OS reports it), the number of
+ * live entities and the number of GL objects. A leak shows as a trend, not as a single
+ * high value, so the samples of a warm-up period are ignored and the rest are fitted
+ * with a straight line: the heap and the JVM's native memory fail if their line rises by
+ * more than a tolerance over the run, GL objects fail if the last part of the run holds
+ * more than the first.
+ */
+public class SoakMonitor {
+    // Share of the samples, from the start, that are warm-up and not checked
+    private static final double WARMUP_SHARE = 0.25;
+
+    // Samples needed after the warm-up for a verdict
+    private static final int MIN_SAMPLES = 6;
+
+    private static final double MB = 1024.0 * 1024.0;
+
+    // Samples (growing arrays)
+    private long[] times;
+    private long[] heapBytes;
+    private long[] nativeBytes;
+    private long[] residentBytes;
+    private long[] entities;
+    private long[] glObjects;
+    private int count;
+
+    private final long startTime;
+    private final long toleranceBytes;
+
+    /**
+     * Constructor for the soak monitor.
+     * @param toleranceBytes How much the fitted post-GC heap and native memory may rise over
+     *                       the run
+     */
+    public SoakMonitor(long toleranceBytes) {
+        this.toleranceBytes = toleranceBytes;
+        this.startTime = System.nanoTime();
+        times = new long[64];
+        heapBytes = new long[64];
+        nativeBytes = new long[64];
+        residentBytes = new long[64];
+        entities = new long[64];
+        glObjects = new long[64];
+    }
+
+    /**
+     * Takes a sample. Runs the garbage collector, so this is slow; sample every few seconds.
+     * @param liveEntities The number of live entities, or -1 if not known
+     * @param liveGlObjects The number of GL objects, or -1 if there is no GL context
+     */
+    public void sample(long liveEntities, long liveGlObjects) {
+        if (count == times.length) {
+            int capacity = count * 2;
+            times = Arrays.copyOf(times, capacity);
+            heapBytes = Arrays.copyOf(heapBytes, capacity);
+            nativeBytes = Arrays.copyOf(nativeBytes, capacity);
+            residentBytes = Arrays.copyOf(residentBytes, capacity);
+            entities = Arrays.copyOf(entities, capacity);
+            glObjects = Arrays.copyOf(glObjects, capacity);
+        }
+        times[count] = System.nanoTime() - startTime;
+        heapBytes[count] = usedHeapAfterGc();
+        nativeBytes[count] = nativeBytes();
+        residentBytes[count] = residentBytes();
+        entities[count] = liveEntities;
+        glObjects[count] = liveGlObjects;
+        count++;
+    }
+
+    /**
+     * Collects garbage and measures the heap still in use.
+     * @return The used heap in bytes
+     */
+    private static long usedHeapAfterGc() {
+        // Twice, so objects freed by finalization and reference processing are gone too
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Measures the memory the JVM itself reports outside the heap.
+     * @return Direct and mapped buffers plus committed non-heap memory, in bytes
+     */
+    private static long nativeBytes() {
+        long bytes = ManagementFactory.getMemoryMXBean().getNonHeapMemoryUsage().getCommitted();
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            bytes += Math.max(0, pool.getMemoryUsed());
+        }
+        return bytes;
+    }
+
+    /**
+     * Reads the resident size of the process, which also covers native memory of the
+     * graphics driver and libraries.
+     * @return The resident size in bytes, or -1 if the OS does not report it
+     */
+    private static long residentBytes() {
+        Path status = Paths.get("/proc/self/status");
+        if (!Files.isReadable(status)) {
+            return -1;
+        }
+        try {
+            for (String line : Files.readAllLines(status, StandardCharsets.US_ASCII)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.substring(6).replace("kB", "").trim()) * 1024;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            return -1;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks the samples for leaks.
+     * @return The problems found, empty if none
+     */
+    public List<String> check() {
+        List<String> problems = new ArrayList<String>();
+        int from = (int) (count * WARMUP_SHARE);
+        if (count - from < MIN_SAMPLES) {
+            problems.add("Only " + (count - from) + " samples after warm-up, "
+                + MIN_SAMPLES + " needed");
+            return problems;
+        }
+
+        double heapGrowth = fittedGrowth(heapBytes, from);
+        if (heapGrowth > toleranceBytes) {
+            problems.add(String.format(
+                "Post-GC heap grows: %.1f MB over the run (tolerance %.1f MB)",
+                heapGrowth / MB, toleranceBytes / MB));
+        }
+
+        double nativeGrowth = fittedGrowth(nativeBytes, from);
+        if (nativeGrowth > toleranceBytes) {
+            problems.add(String.format(
+                "Native memory grows: %.1f MB over the run (tolerance %.1f MB)",
+                nativeGrowth / MB, toleranceBytes / MB));
+        }
+
+        if (glObjects[from] >= 0) {
+            long early = max(glObjects, from, from + (count - from) / 3);
+            long late = max(glObjects, count - (count - from) / 3, count);
+            if (late > early) {
+                problems.add("GL objects grow: " + early + " early in the run, " + late + " late");
+            }
+        }
+        return problems;
+    }
+
+    /**
+     * Builds a summary of the trends, including those that are only reported.
+     * @return The summary, one line per series
+     */
+    public String report() {
+        int from = (int) (count * WARMUP_SHARE);
+        StringBuilder text = new StringBuilder();
+        text.append(String.format("Soak: %d samples over %.1f minutes%n",
+            count, count > 0 ? times[count - 1] / 60e9 : 0));
+        appendTrend(text, "Post-GC heap", heapBytes, from, true);
+        appendTrend(text, "Native (JVM)", nativeBytes, from, true);
+        appendTrend(text, "Resident", residentBytes, from, true);
+        appendTrend(text, "Entities", entities, from, false);
+        appendTrend(text, "GL objects", glObjects, from, false);
+        return text.toString();
+    }
+
+    /**
+     * Appends the first and last value and the fitted growth of a series.
+     * @param text The text to append to
+     * @param name The name of the series
+     * @param values The series
+     * @param from The first sample after the warm-up
+     * @param bytes Whether the values are bytes (shown in MB)
+     */
+    private void appendTrend(StringBuilder text, String name, long[] values, int from,
+                             boolean bytes) {
+        if (count - from < 2 || values[from] < 0) {
+            return;
+        }
+        double scale = bytes ? MB : 1;
+        String unit = bytes ? " MB" : "";
+        text.append(String.format("  %-13s %10.1f -> %10.1f%s, fitted growth %+.1f%s%n", name,
+            values[from] / scale, values[count - 1] / scale, unit,
+            fittedGrowth(values, from) / scale, unit));
+    }
+
+    /**
+     * Fits a line through a series by least squares and measures how much it rises.
+     * @param values The series
+     * @param from The first sample to fit
+     * @return The rise of the line from the first to the last fitted sample
+     */
+    private double fittedGrowth(long[] values, int from) {
+        int n = count - from;
+        double meanTime = 0;
+        double meanValue = 0;
+        for (int i = from; i < count; i++) {
+            meanTime += times[i];
+            meanValue += values[i];
+        }
+        meanTime /= n;
+        meanValue /= n;
+        double covariance = 0;
+        double variance = 0;
+        for (int i = from; i < count; i++) {
+            double dt = times[i] - meanTime;
+            covariance += dt * (values[i] - meanValue);
+            variance += dt * dt;
+        }
+        if (variance == 0) {
+            return 0;
+        }
+        return covariance / variance * (times[count - 1] - times[from]);
+    }
+
+    /**
+     * Finds the largest value in a range of a series.
+     * @param values The series
+     * @param from The first sample
+     * @param to The sample after the last
+     * @return The largest value
+     */
+    private static long max(long[] values, int from, int to) {
+        long max = Long.MIN_VALUE;
+        for (int i = from; i < to; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    /**
+     * Writes all samples to a CSV file.
+     * @param file The CSV file
+     * @throws IOException If the file cannot be written
+     */
+    public void writeCsv(Path file) throws IOException {
+        StringBuilder text = new StringBuilder(
+            "seconds,heap_bytes,native_bytes,resident_bytes,entities,gl_objects\n");
+        for (int i = 0; i < count; i++) {
+            text.append(times[i] / 1_000_000_000L).append(',')
+                .append(heapBytes[i]).append(',')
+                .append(nativeBytes[i]).append(',')
+                .append(residentBytes[i]).append(',')
+                .append(entities[i]).append(',')
+                .append(glObjects[i]).append('\n');
+        }
+        if (file.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(file.toAbsolutePath().getParent());
+        }
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public int getSampleCount() {
+        return count;
+    }
+}
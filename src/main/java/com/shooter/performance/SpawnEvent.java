@@ -0,0 +1,28 @@
+package com.shooter.performance;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Flight recorder event for an enemy spawn.
+ */
+@Name("com.shooter.Spawn")
+@Label("Enemy Spawn")
+@Category({"Shooter", "Gameplay"})
+@Description("An enemy was spawned")
+@StackTrace(false)
+public class SpawnEvent extends Event {
+    @Label("Y")
+    float y;
+
+    @Label("Active Enemies")
+    int activeEnemies;
+
+    @Label("Spawn Interval")
+    @Description("Seconds until the next spawn")
+    float spawnInterval;
+}
@@ -0,0 +1,141 @@
+package com.shooter.performance;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+
+/**
+ * Startup timeline class.
+ * Records when the milestones of a start are reached (entering main(), creating the game,
+ * loading the assets, drawing the first frame) and reports them as milliseconds since
+ * the JVM started, so time-to-first-frame can be compared across releases. Marks only
+ * take a timestamp; converting to JVM time happens in report(), after startup.
+ */
+public final class StartupTimeline {
+    // Milestones
+    public static final String MAIN = "main";
+    public static final String CREATE = "create";
+    public static final String ASSETS = "assets";
+    public static final String FIRST_FRAME = "first frame";
+
+    // Milestones in report and CSV order
+    private static final String[] MILESTONES = {MAIN, CREATE, ASSETS, FIRST_FRAME};
+
+    // Time each milestone was reached (System.nanoTime), 0 if not reached
+    private static final long[] marks = new long[MILESTONES.length];
+
+    // How the game was started, e.g. "fast-start"
+    private static String mode = "default";
+
+    private StartupTimeline() {
+    }
+
+    /**
+     * Records that a milestone was reached. Only the first mark of a milestone counts.
+     * @param milestone One of the milestone constants
+     */
+    public static synchronized void mark(String milestone) {
+        int index = indexOf(milestone);
+        if (marks[index] == 0) {
+            marks[index] = System.nanoTime();
+        }
+    }
+
+    /**
+     * Checks if a milestone was reached.
+     * @param milestone One of the milestone constants
+     * @return True if the milestone was marked
+     */
+    public static synchronized boolean isMarked(String milestone) {
+        return marks[indexOf(milestone)] != 0;
+    }
+
+    /**
+     * Sets how the game was started, reported with the timeline.
+     * @param startMode The start mode
+     */
+    public static synchronized void setMode(String startMode) {
+        mode = startMode;
+    }
+
+    /**
+     * Gets the time of each milestone since the JVM started.
+     * @return The times in milliseconds in milestone order, -1 for milestones not reached
+     */
+    public static synchronized long[] getMillisSinceJvmStart() {
+        // The uptime has millisecond resolution; relate it to the nanosecond clock once
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        long now = System.nanoTime();
+        long[] result = new long[marks.length];
+        for (int i = 0; i < marks.length; i++) {
+            result[i] = marks[i] == 0 ? -1 : uptimeMillis - (now - marks[i]) / 1_000_000L;
+        }
+        return result;
+    }
+
+    /**
+     * Builds a one line summary of the timeline.
+     * @return The summary
+     */
+    public static synchronized String report() {
+        long[] millis = getMillisSinceJvmStart();
+        StringBuilder text = new StringBuilder("Startup (").append(mode)
+            .append("): JVM start 0 ms");
+        for (int i = 0; i < MILESTONES.length; i++) {
+            text.append(", ").append(MILESTONES[i]).append(' ');
+            if (millis[i] < 0) {
+                text.append('-');
+            } else {
+                text.append(millis[i]).append(" ms");
+            }
+        }
+        return text.toString();
+    }
+
+    /**
+     * Appends the timeline as one line to a CSV file, writing the header if the file is new.
+     * @param file The CSV file
+     * @throws IOException If the file cannot be written
+     */
+    public static synchronized void appendCsv(Path file) throws IOException {
+        long[] millis = getMillisSinceJvmStart();
+        StringBuilder text = new StringBuilder();
+        if (!Files.exists(file)) {
+            text.append("time,mode");
+            for (String milestone : MILESTONES) {
+                text.append(',').append(milestone.replace(' ', '_')).append("_ms");
+            }
+            text.append('\n');
+        }
+        text.append(Instant.now()).append(',').append(mode);
+        for (long value : millis) {
+            text.append(',');
+            if (value >= 0) {
+                text.append(value);
+            }
+        }
+        text.append('\n');
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Files.write(file, text.toString().getBytes(StandardCharsets.UTF_8),
+            StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    /**
+     * Gets the index of a milestone.
+     * @param milestone The milestone
+     * @return The index
+     */
+    private static int indexOf(String milestone) {
+        for (int i = 0; i < MILESTONES.length; i++) {
+            if (MILESTONES[i].equals(milestone)) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("Unknown milestone: " + milestone);
+    }
+}
@@ -0,0 +1,123 @@
+package com.shooter.persistence;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32;
+
+/**
+ * Score record class.
+ * Immutable result of one finished game session. Records are stored as fixed-size
+ * binary entries with a checksum, so a partially written entry at the end of the
+ * log can be detected and skipped.
+ */
+public final class ScoreRecord {
+    // Size of an encoded record in bytes
+    public static final int SIZE = 32;
+
+    private final long timestamp;
+    private final int score;
+    private final int kills;
+    private final int shotsFired;
+    private final int durationMillis;
+
+    /**
+     * Constructor for the score record.
+     * @param timestamp The time the session ended (milliseconds since the epoch)
+     * @param score The final score
+     * @param kills The number of enemies destroyed
+     * @param shotsFired The number of shots fired
+     * @param durationMillis The length of the session in milliseconds
+     */
+    public ScoreRecord(long timestamp, int score, int kills, int shotsFired, int durationMillis) {
+        this.timestamp = timestamp;
+        this.score = score;
+        this.kills = kills;
+        this.shotsFired = shotsFired;
+        this.durationMillis = durationMillis;
+    }
+
+    /**
+     * Encodes the record at the buffer's position.
+     * @param buffer The buffer to write to (needs SIZE bytes remaining)
+     */
+    public void write(ByteBuffer buffer) {
+        int start = buffer.position();
+        buffer.putLong(timestamp);
+        buffer.putInt(score);
+        buffer.putInt(kills);
+        buffer.putInt(shotsFired);
+        buffer.putInt(durationMillis);
+        buffer.putInt(checksum(buffer, start));
+        buffer.putInt(0); // Reserved
+    }
+
+    /**
+     * Decodes a record at the buffer's position. The position is always advanced by SIZE.
+     * @param buffer The buffer to read from (needs SIZE bytes remaining)
+     * @return The record, or null if the checksum does not match
+     */
+    public static ScoreRecord read(ByteBuffer buffer) {
+        int start = buffer.position();
+        long timestamp = buffer.getLong();
+        int score = buffer.getInt();
+        int kills = buffer.getInt();
+        int shotsFired = buffer.getInt();
+        int durationMillis = buffer.getInt();
+        int expected = checksum(buffer, start);
+        int stored = buffer.getInt();
+        buffer.getInt(); // Reserved
+
+        if (stored != expected) {
+            return null;
+        }
+        return new ScoreRecord(timestamp, score, kills, shotsFired, durationMillis);
+    }
+
+    /**
+     * Computes the checksum of the record fields written since start.
+     * @param buffer The buffer holding the record
+     * @param start The position of the record
+     * @return The checksum
+     */
+    private static int checksum(ByteBuffer buffer, int start) {
+        CRC32 crc = new CRC32();
+        ByteBuffer fields = buffer.duplicate();
+        fields.position(start).limit(start + 24);
+        crc.update(fields);
+        return (int) crc.getValue();
+    }
+
+    /**
+     * Checks if this record ranks above another one.
+     * Higher scores rank first; equal scores keep the older record first.
+     * @param other The other record
+     * @return True if this record ranks higher
+     */
+    public boolean ranksAbove(ScoreRecord other) {
+        if (score != other.score) {
+            return score > other.score;
+        }
+        return timestamp < other.timestamp;
+    }
+
+    // Getters
+
+    public long getTimestamp() {
+        return timestamp;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public int getShotsFired() {
+        return shotsFired;
+    }
+
+    public int getDurationMillis() {
+        return durationMillis;
+    }
+}
@@ -0,0 +1,308 @@
+package com.shooter.persistence;
+
+import com.badlogic.gdx.Gdx;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Score store class.
+ * Persists finished sessions to an append-only log using a write-behind background
+ * thread: submit() only enqueues, and the writer appends records in batches with a
+ * single fsync per batch. After each batch a small index holding the top-N table is
+ * rewritten, so startup reads the index plus any unindexed log tail instead of the
+ * whole history.
+ */
+public class ScoreStore {
+    // File names inside the data directory
+    private static final String LOG_FILE = "scores.log";
+    private static final String INDEX_FILE = "scores.idx";
+
+    // File headers
+    private static final int LOG_MAGIC = 0x534C4F47; // "SLOG"
+    private static final int INDEX_MAGIC = 0x53494458; // "SIDX"
+    private static final int VERSION = 1;
+    private static final int LOG_HEADER_SIZE = 8;
+    private static final int INDEX_HEADER_SIZE = 20;
+
+    // How long the writer waits for more records before writing a batch
+    private static final long COALESCE_MILLIS = 100;
+    private static final int MAX_BATCH = 64;
+
+    // Queued by close() to tell the writer to finish
+    private static final ScoreRecord CLOSE = new ScoreRecord(0, 0, 0, 0, 0);
+
+    private final Path logFile;
+    private final Path indexFile;
+    private final int tableSize;
+
+    // Pending records and the writer thread
+    private final LinkedBlockingQueue<ScoreRecord> pending;
+    private final Thread writer;
+
+    // Top-N table, replaced as a whole so readers never need a lock
+    private volatile List<ScoreRecord> topScores;
+
+    // Owned by the writer thread after construction
+    private final List<ScoreRecord> table;
+    private FileChannel log;
+
+    /**
+     * Constructor for the score store. Loads the top-N table and starts the writer.
+     * @param directory The directory holding the store files (created if missing)
+     * @param tableSize The number of entries kept in the top-N table
+     * @throws IOException If the store cannot be opened
+     */
+    public ScoreStore(Path directory, int tableSize) throws IOException {
+        Files.createDirectories(directory);
+        this.logFile = directory.resolve(LOG_FILE);
+        this.indexFile = directory.resolve(INDEX_FILE);
+        this.tableSize = tableSize;
+        this.pending = new LinkedBlockingQueue<ScoreRecord>();
+        this.table = new ArrayList<ScoreRecord>(tableSize + 1);
+
+        openLog();
+        load();
+        topScores = Collections.unmodifiableList(new ArrayList<ScoreRecord>(table));
+
+        writer = new Thread(this::run, "score-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Queues a record for writing. Never blocks or touches the disk.
+     * @param record The record to store
+     */
+    public void submit(ScoreRecord record) {
+        pending.offer(record);
+    }
+
+    /**
+     * Gets the top-N table, best first. Submitted records appear once the writer
+     * has stored them.
+     * @return The top scores
+     */
+    public List<ScoreRecord> getTopScores() {
+        return topScores;
+    }
+
+    /**
+     * Gets the best score.
+     * @return The best score, or 0 if nothing has been stored
+     */
+    public int getBestScore() {
+        List<ScoreRecord> scores = topScores;
+        return scores.isEmpty() ? 0 : scores.get(0).getScore();
+    }
+
+    /**
+     * Writes all queued records and stops the writer.
+     */
+    public void close() {
+        // The writer is not interrupted, as that would close the log channel mid-write
+        pending.offer(CLOSE);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        try {
+            log.close();
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Failed to close the log", e);
+        }
+    }
+
+    /**
+     * Main loop of the writer thread.
+     */
+    private void run() {
+        List<ScoreRecord> batch = new ArrayList<ScoreRecord>(MAX_BATCH);
+        boolean closing = false;
+        while (!closing) {
+            try {
+                // Wait for a record, then give others a moment to join the batch
+                ScoreRecord next = pending.take();
+                while (next != null) {
+                    if (next == CLOSE) {
+                        closing = true;
+                        break;
+                    }
+                    batch.add(next);
+                    if (batch.size() == MAX_BATCH) {
+                        break;
+                    }
+                    next = pending.poll(COALESCE_MILLIS, TimeUnit.MILLISECONDS);
+                }
+            } catch (InterruptedException e) {
+                closing = true;
+            }
+
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Appends a batch to the log with one fsync and refreshes the index.
+     * @param batch The records to write
+     */
+    private void writeBatch(List<ScoreRecord> batch) {
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(batch.size() * ScoreRecord.SIZE);
+            for (ScoreRecord record : batch) {
+                record.write(buffer);
+                rank(record);
+            }
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                log.write(buffer);
+            }
+            log.force(false);
+
+            topScores = Collections.unmodifiableList(new ArrayList<ScoreRecord>(table));
+            writeIndex(log.size());
+        } catch (IOException e) {
+            Gdx.app.error("ScoreStore", "Failed to write " + batch.size() + " records", e);
+        }
+    }
+
+    /**
+     * Opens the log for appending, writing the header for a new log.
+     * @throws IOException If the log cannot be opened or is not a score log
+     */
+    private void openLog() throws IOException {
+        log = FileChannel.open(logFile,
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (log.size() < LOG_HEADER_SIZE) {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+            header.putInt(LOG_MAGIC).putInt(VERSION).flip();
+            log.truncate(0);
+            log.write(header, 0);
+            log.force(true);
+        } else {
+            ByteBuffer header = ByteBuffer.allocate(LOG_HEADER_SIZE);
+            log.read(header, 0);
+            header.flip();
+            if (header.getInt() != LOG_MAGIC || header.getInt() != VERSION) {
+                log.close();
+                throw new IOException("Not a score log: " + logFile);
+            }
+        }
+
+        // Drop a torn record at the end so new records stay aligned
+        long records = (log.size() - LOG_HEADER_SIZE) / ScoreRecord.SIZE;
+        log.truncate(LOG_HEADER_SIZE + records * ScoreRecord.SIZE);
+        log.position(log.size());
+    }
+
+    /**
+     * Loads the top-N table from the index and the log records written after it.
+     * @throws IOException If the log cannot be read
+     */
+    private void load() throws IOException {
+        long indexedLength = readIndex();
+        if (indexedLength < LOG_HEADER_SIZE || indexedLength > log.size()) {
+            // No usable index; rebuild the table from the whole log
+            table.clear();
+            indexedLength = LOG_HEADER_SIZE;
+        }
+
+        long tailLength = log.size() - indexedLength;
+        if (tailLength > 0) {
+            ByteBuffer tail = ByteBuffer.allocate((int) Math.min(tailLength, Integer.MAX_VALUE));
+            log.read(tail, indexedLength);
+            tail.flip();
+            while (tail.remaining() >= ScoreRecord.SIZE) {
+                ScoreRecord record = ScoreRecord.read(tail);
+                if (record != null) {
+                    rank(record);
+                }
+            }
+            writeIndex(log.size());
+        }
+    }
+
+    /**
+     * Reads the index into the table.
+     * @return The log length covered by the index, or -1 if there is no valid index
+     */
+    private long readIndex() {
+        if (!Files.isRegularFile(indexFile)) {
+            return -1;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(indexFile));
+            if (buffer.remaining() < INDEX_HEADER_SIZE
+                || buffer.getInt() != INDEX_MAGIC || buffer.getInt() != VERSION) {
+                return -1;
+            }
+            long logLength = buffer.getLong();
+            int count = buffer.getInt();
+            if (count < 0 || buffer.remaining() < count * ScoreRecord.SIZE) {
+                return -1;
+            }
+            for (int i = 0; i < count; i++) {
+                ScoreRecord record = ScoreRecord.read(buffer);
+                if (record == null) {
+                    table.clear();
+                    return -1;
+                }
+                rank(record);
+            }
+            return logLength;
+        } catch (IOException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Atomically replaces the index with the current table.
+     * @param logLength The log length covered by the table
+     * @throws IOException If the index cannot be written
+     */
+    private void writeIndex(long logLength) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(
+            INDEX_HEADER_SIZE + table.size() * ScoreRecord.SIZE);
+        buffer.putInt(INDEX_MAGIC).putInt(VERSION).putLong(logLength).putInt(table.size());
+        for (ScoreRecord record : table) {
+            record.write(buffer);
+        }
+
+        // The index can always be rebuilt from the log, so it is not fsynced
+        Path temp = indexFile.resolveSibling(INDEX_FILE + ".tmp");
+        Files.write(temp, buffer.array());
+        Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING,
+            StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Inserts a record into the top-N table if it ranks high enough.
+     * @param record The record
+     */
+    private void rank(ScoreRecord record) {
+        int index = table.size();
+        while (index > 0 && record.ranksAbove(table.get(index - 1))) {
+            index--;
+        }
+        if (index < tableSize) {
+            table.add(index, record);
+            if (table.size() > tableSize) {
+                table.remove(table.size() - 1);
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package com.shooter.physics;
+
+/**
+ * Motion kernels.
+ * Bulk operations over entities stored as packed coordinate arrays (one array per
+ * coordinate, entity i at index i): moving every entity by its velocity and finding the
+ * entities that left an area. Both results are bit-for-bit identical between
+ * implementations, so peers using different kernels still simulate the same world.
+ */
+public interface MotionKernels {
+    // Set to false to always use the scalar kernels
+    String VECTOR_PROPERTY = "shooter.vectorKernels";
+
+    // Module and class of the vector kernels, which are only usable with
+    // --add-modules jdk.incubator.vector
+    String VECTOR_MODULE = "jdk.incubator.vector";
+    String VECTOR_CLASS = "com.shooter.physics.VectorMotionKernels";
+
+    /**
+     * Moves every entity by its velocity: x += velocityX * delta, y += velocityY * delta.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param velocityX The x velocities
+     * @param velocityY The y velocities
+     * @param count The number of entities
+     * @param delta The time in seconds to advance
+     */
+    void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int count,
+                   float delta);
+
+    /**
+     * Finds the entities whose position is outside an area. Bit i of the mask (bit i % 64
+     * of word i / 64) is set if entity i is outside; bits of entities from count on are
+     * cleared.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param count The number of entities
+     * @param minX The smallest x inside the area
+     * @param minY The smallest y inside the area
+     * @param maxX The largest x inside the area
+     * @param maxY The largest y inside the area
+     * @param mask The cull mask to write, at least (count + 63) / 64 words
+     * @return The number of entities outside the area
+     */
+    int cull(float[] x, float[] y, int count, float minX, float minY, float maxX, float maxY,
+             long[] mask);
+
+    /**
+     * Gets the name of the implementation, for logs and benchmarks.
+     * @return The name
+     */
+    String getName();
+
+    /**
+     * Gets the fastest kernels this JVM supports: the vector kernels when the incubating
+     * Vector API module is present and not disabled, the scalar kernels otherwise.
+     * @return The kernels
+     */
+    static MotionKernels get() {
+        return MotionKernelsLoader.BEST;
+    }
+
+    /**
+     * Gets the scalar kernels, which work on every JVM.
+     * @return The scalar kernels
+     */
+    static MotionKernels scalar() {
+        return ScalarMotionKernels.INSTANCE;
+    }
+
+    /**
+     * Gets the vector kernels.
+     * @return The vector kernels, or null if the Vector API module is not present
+     */
+    static MotionKernels vector() {
+        return MotionKernelsLoader.VECTOR;
+    }
+}
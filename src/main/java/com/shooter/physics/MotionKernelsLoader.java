@@ -0,0 +1,31 @@
+package com.shooter.physics;
+
+/**
+ * Selects the motion kernels once, on first use.
+ */
+final class MotionKernelsLoader {
+    static final MotionKernels VECTOR = loadVector();
+    static final MotionKernels BEST =
+        VECTOR != null && !"false".equals(System.getProperty(MotionKernels.VECTOR_PROPERTY))
+            ? VECTOR : ScalarMotionKernels.INSTANCE;
+
+    private MotionKernelsLoader() {
+    }
+
+    /**
+     * Loads the vector kernels by name, so nothing links against the incubating module
+     * unless it is present.
+     * @return The vector kernels, or null if they cannot be used
+     */
+    private static MotionKernels loadVector() {
+        if (ModuleLayer.boot().findModule(MotionKernels.VECTOR_MODULE).isEmpty()) {
+            return null;
+        }
+        try {
+            return (MotionKernels) Class.forName(MotionKernels.VECTOR_CLASS)
+                .getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError | UnsupportedOperationException e) {
+            return null;
+        }
+    }
+}
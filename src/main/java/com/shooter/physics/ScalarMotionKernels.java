@@ -0,0 +1,98 @@
+package com.shooter.physics;
+
+import java.util.Arrays;
+
+/**
+ * Scalar motion kernels.
+ * Plain loops, one entity at a time. Used when the Vector API is not available and for
+ * the tails of arrays that do not fill a whole vector.
+ */
+final class ScalarMotionKernels implements MotionKernels {
+    static final ScalarMotionKernels INSTANCE = new ScalarMotionKernels();
+
+    private ScalarMotionKernels() {
+    }
+
+    /**
+     * Moves every entity by its velocity.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param velocityX The x velocities
+     * @param velocityY The y velocities
+     * @param count The number of entities
+     * @param delta The time in seconds to advance
+     */
+    @Override
+    public void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int count,
+                          float delta) {
+        integrate(x, y, velocityX, velocityY, 0, count, delta);
+    }
+
+    /**
+     * Moves a range of entities by their velocity.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param velocityX The x velocities
+     * @param velocityY The y velocities
+     * @param from The first entity
+     * @param to The entity after the last
+     * @param delta The time in seconds to advance
+     */
+    static void integrate(float[] x, float[] y, float[] velocityX, float[] velocityY, int from,
+                          int to, float delta) {
+        for (int i = from; i < to; i++) {
+            x[i] += velocityX[i] * delta;
+            y[i] += velocityY[i] * delta;
+        }
+    }
+
+    /**
+     * Finds the entities whose position is outside an area.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param count The number of entities
+     * @param minX The smallest x inside the area
+     * @param minY The smallest y inside the area
+     * @param maxX The largest x inside the area
+     * @param maxY The largest y inside the area
+     * @param mask The cull mask to write
+     * @return The number of entities outside the area
+     */
+    @Override
+    public int cull(float[] x, float[] y, int count, float minX, float minY, float maxX,
+                    float maxY, long[] mask) {
+        Arrays.fill(mask, 0, (count + 63) >>> 6, 0L);
+        return cull(x, y, 0, count, minX, minY, maxX, maxY, mask);
+    }
+
+    /**
+     * Sets the mask bits of the entities of a range that are outside an area. The bits
+     * must have been cleared.
+     * @param x The x coordinates
+     * @param y The y coordinates
+     * @param from The first entity
+     * @param to The entity after the last
+     * @param minX The smallest x inside the area
+     * @param minY The smallest y inside the area
+     * @param maxX The largest x inside the area
+     * @param maxY The largest y inside the area
+     * @param mask The cull mask
+     * @return The number of entities of the range outside the area
+     */
+    static int cull(float[] x, float[] y, int from, int to, float minX, float minY, float maxX,
+                    float maxY, long[] mask) {
+        int culled = 0;
+        for (int i = from; i < to; i++) {
+            if (x[i] < minX || x[i] > maxX || y[i] < minY || y[i] > maxY) {
+                mask[i >>> 6] |= 1L << i;
+                culled++;
+            }
+        }
+        return culled;
+    }
+
+    @Override
+    public String getName() {
+        return "scalar";
+    }
+}
@@ -0,0 +1,175 @@
+package com.shooter.rendering;
+
+import com.badlogic.gdx.Gdx;
+import com.badlogic.gdx.graphics.GL20;
+import com.badlogic.gdx.graphics.Pixmap;
+import com.badlogic.gdx.graphics.Texture.TextureFilter;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.glutils.FrameBuffer;
+import com.badlogic.gdx.math.Matrix4;
+import com.shooter.debug.GlResourceTracker;
+
+/**
+ * Low resolution renderer class.
+ * Draws the frame into an offscreen frame buffer at the game's own resolution and
+ * copies it to the window once, scaled up with nearest filtering. Sprites, background
+ * layers and text are then rasterized at 800x480 however large the window is, which
+ * saves fill rate on big displays, and every art pixel becomes the same whole number of
+ * screen pixels, so pixel art stays crisp. The image is scaled by the largest integer
+ * that fits and centred with black bars; a window smaller than the game is the only
+ * case scaled by a fraction. When disabled, screens draw straight to the window.
+ */
+public class LowResRenderer {
+    // Resolution of the frame buffer
+    private final int width;
+    private final int height;
+
+    // Frame buffer and its color texture, flipped upright (created when first enabled)
+    private FrameBuffer frameBuffer;
+    private TextureRegion region;
+
+    // Where the frame buffer goes in the window, in back buffer pixels
+    private final Matrix4 screenProjection;
+    private final Matrix4 savedProjection;
+    private int scale;
+    private int x;
+    private int y;
+    private int drawWidth;
+    private int drawHeight;
+
+    private boolean enabled;
+    private boolean drawing;
+
+    /**
+     * Constructor for the low resolution renderer.
+     * @param width The width of the frame buffer
+     * @param height The height of the frame buffer
+     */
+    public LowResRenderer(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.screenProjection = new Matrix4();
+        this.savedProjection = new Matrix4();
+    }
+
+    /**
+     * Starts a frame: everything drawn until end() goes to the frame buffer.
+     */
+    public void begin() {
+        if (!enabled) {
+            // Turned off since the last frame
+            if (frameBuffer != null) {
+                dispose();
+            }
+            return;
+        }
+        if (frameBuffer == null) {
+            frameBuffer = GlResourceTracker.getInstance()
+                .track(new FrameBuffer(Pixmap.Format.RGB888, width, height, false), this);
+            frameBuffer.getColorBufferTexture()
+                .setFilter(TextureFilter.Nearest, TextureFilter.Nearest);
+            region = new TextureRegion(frameBuffer.getColorBufferTexture());
+            region.flip(false, true);
+        }
+        frameBuffer.begin();
+        drawing = true;
+    }
+
+    /**
+     * Ends a frame and copies the frame buffer to the window.
+     * @param batch The batch to copy with; must not be drawing
+     */
+    public void end(SpriteBatch batch) {
+        if (!drawing) {
+            return;
+        }
+        drawing = false;
+
+        // Restores the viewport of the whole back buffer
+        frameBuffer.end();
+        Gdx.gl.glClearColor(0, 0, 0, 1);
+        Gdx.gl.glClear(GL20.GL_COLOR_BUFFER_BIT);
+
+        savedProjection.set(batch.getProjectionMatrix());
+        batch.setProjectionMatrix(screenProjection);
+        batch.disableBlending();
+        batch.begin();
+        batch.draw(region, x, y, drawWidth, drawHeight);
+        batch.end();
+        batch.enableBlending();
+        batch.setProjectionMatrix(savedProjection);
+    }
+
+    /**
+     * Sets the viewport to the frame buffer again if a frame is being drawn into it, e.g.
+     * after a new screen applied its own viewport in the middle of the frame.
+     */
+    public void restoreViewport() {
+        if (drawing) {
+            Gdx.gl.glViewport(0, 0, width, height);
+        }
+    }
+
+    /**
+     * Fits the frame buffer into the window again.
+     */
+    public void resize() {
+        int screenWidth = Gdx.graphics.getBackBufferWidth();
+        int screenHeight = Gdx.graphics.getBackBufferHeight();
+        scale = Math.min(screenWidth / width, screenHeight / height);
+        if (scale >= 1) {
+            drawWidth = width * scale;
+            drawHeight = height * scale;
+        } else {
+            // Smaller than the game: shrink to fit, there is no whole number that works
+            float fraction = Math.min((float) screenWidth / width, (float) screenHeight / height);
+            drawWidth = Math.max(1, Math.round(width * fraction));
+            drawHeight = Math.max(1, Math.round(height * fraction));
+        }
+        x = (screenWidth - drawWidth) / 2;
+        y = (screenHeight - drawHeight) / 2;
+        screenProjection.setToOrtho2D(0, 0, screenWidth, screenHeight);
+    }
+
+    /**
+     * Disposes the frame buffer. It is created again when needed. Must not be called
+     * between begin() and end().
+     */
+    public void dispose() {
+        GlResourceTracker.getInstance().dispose(frameBuffer);
+        frameBuffer = null;
+        region = null;
+    }
+
+    // Getters and setters
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Turns the frame buffer on or off, taking effect with the next begin(). Screens must
+     * be resized afterwards so their viewports match the new target.
+     * @param enabled Whether to draw through the frame buffer
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Gets how many window pixels an art pixel covers.
+     * @return The integer scale, or 0 when the window is smaller than the game
+     */
+    public int getScale() {
+        return scale;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
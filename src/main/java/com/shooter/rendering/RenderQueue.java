@@ -0,0 +1,276 @@
+package com.shooter.rendering;
+
+import com.badlogic.gdx.graphics.Camera;
+import com.badlogic.gdx.graphics.Texture;
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.Frustum;
+import com.badlogic.gdx.utils.ObjectIntMap;
+
+import java.util.Arrays;
+
+/**
+ * Render queue class.
+ * Collects draw commands during a frame, culls them against the camera frustum and
+ * submits the visible ones to the SpriteBatch sorted by layer and then by texture,
+ * so that the batch only flushes when the layer or the texture actually changes.
+ */
+public class RenderQueue {
+    // Draw layers (from back to front)
+    public static final int LAYER_BACKGROUND = 0;
+    public static final int LAYER_ENEMIES = 10;
+    public static final int LAYER_PLAYER = 20;
+    public static final int LAYER_PROJECTILES = 30;
+
+    // Sort key layout: | layer (16 bits) | texture order (24 bits) | command index (24 bits) |
+    private static final int INDEX_BITS = 24;
+    private static final int TEXTURE_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final int MAX_LAYER = (1 << 15) - 1;
+
+    // Draw commands, stored as parallel arrays to avoid a command object per draw
+    private TextureRegion[] regions;
+    private float[] x;
+    private float[] y;
+    private float[] width;
+    private float[] height;
+    private float[] rotation;
+    private int[] layers;
+    private int size;
+
+    // Sort keys of the visible commands
+    private long[] keys;
+
+    // Stable per-texture sort order, assigned the first time a texture is seen
+    private final ObjectIntMap<Texture> textureOrder;
+
+    // Statistics for the last flush
+    private int submittedCount;
+    private int culledCount;
+    private int textureSwitches;
+
+    /**
+     * Constructor for the render queue.
+     * @param initialCapacity The number of commands the queue can hold before growing
+     */
+    public RenderQueue(int initialCapacity) {
+        allocate(Math.max(initialCapacity, 16));
+        this.textureOrder = new ObjectIntMap<Texture>();
+    }
+
+    /**
+     * Removes all queued commands.
+     */
+    public void clear() {
+        // Drop region references so the queue does not keep stale regions alive
+        Arrays.fill(regions, 0, size, null);
+        size = 0;
+    }
+
+    /**
+     * Queues a draw command. The region is drawn rotated around its center.
+     * @param region The texture region to draw
+     * @param x The x position
+     * @param y The y position
+     * @param width The width
+     * @param height The height
+     * @param rotation The rotation in degrees
+     * @param layer The draw layer (lower layers are drawn first)
+     */
+    public void submit(TextureRegion region, float x, float y, float width, float height,
+                       float rotation, int layer) {
+        if (region == null) {
+            return;
+        }
+        if (layer < 0 || layer > MAX_LAYER) {
+            throw new IllegalArgumentException("Layer out of range: " + layer);
+        }
+        if (size == regions.length) {
+            grow();
+        }
+
+        regions[size] = region;
+        this.x[size] = x;
+        this.y[size] = y;
+        this.width[size] = width;
+        this.height[size] = height;
+        this.rotation[size] = rotation;
+        layers[size] = layer;
+        size++;
+    }
+
+    /**
+     * Culls, sorts and draws all queued commands. The batch must already be begun.
+     * The queued commands are kept, so the same queue can be drawn again.
+     * @param batch The sprite batch to draw with
+     * @param camera The camera whose frustum is used for culling
+     */
+    public void flush(SpriteBatch batch, Camera camera) {
+        Frustum frustum = camera.frustum;
+        int visible = 0;
+
+        // Cull and build sort keys for the remaining commands
+        for (int i = 0; i < size; i++) {
+            float halfWidth = width[i] / 2;
+            float halfHeight = height[i] / 2;
+            if (rotation[i] != 0) {
+                // Rotated sprites are tested with their bounding circle
+                float radius = (float) Math.sqrt(halfWidth * halfWidth + halfHeight * halfHeight);
+                halfWidth = radius;
+                halfHeight = radius;
+            }
+
+            float centerX = x[i] + width[i] / 2;
+            float centerY = y[i] + height[i] / 2;
+            if (!frustum.boundsInFrustum(centerX, centerY, 0, halfWidth, halfHeight, 0)) {
+                continue;
+            }
+
+            keys[visible++] = ((long) layers[i] << (TEXTURE_BITS + INDEX_BITS))
+                | ((long) orderOf(regions[i].getTexture()) << INDEX_BITS)
+                | i;
+        }
+
+        // Command indices are part of the key, so equal layer/texture keeps submission order
+        Arrays.sort(keys, 0, visible);
+
+        // Draw in sorted order
+        Texture lastTexture = null;
+        int switches = 0;
+        for (int k = 0; k < visible; k++) {
+            int i = (int) (keys[k] & INDEX_MASK);
+            TextureRegion region = regions[i];
+            if (region.getTexture() != lastTexture) {
+                lastTexture = region.getTexture();
+                switches++;
+            }
+            batch.draw(
+                region,
+                x[i], y[i],
+                width[i] / 2, height[i] / 2,
+                width[i], height[i],
+                1, 1,
+                rotation[i]
+            );
+        }
+
+        submittedCount = size;
+        culledCount = size - visible;
+        textureSwitches = switches;
+    }
+
+    /**
+     * Draws all queued commands in submission order, without culling or sorting.
+     * The batch must already be begun.
+     * @param batch The sprite batch to draw with
+     */
+    public void flushInOrder(SpriteBatch batch) {
+        for (int i = 0; i < size; i++) {
+            batch.draw(
+                regions[i],
+                x[i], y[i],
+                width[i] / 2, height[i] / 2,
+                width[i], height[i],
+                1, 1,
+                rotation[i]
+            );
+        }
+
+        submittedCount = size;
+        culledCount = 0;
+        textureSwitches = 0;
+    }
+
+    /**
+     * Gets the sort order for a texture, assigning a new one on first use.
+     * @param texture The texture
+     * @return The texture's sort order
+     */
+    private int orderOf(Texture texture) {
+        int order = textureOrder.get(texture, -1);
+        if (order < 0) {
+            order = textureOrder.size;
+            if (order >= (1 << TEXTURE_BITS)) {
+                // Practically unreachable; fall back to a shared slot rather than corrupt keys
+                return (1 << TEXTURE_BITS) - 1;
+            }
+            textureOrder.put(texture, order);
+        }
+        return order;
+    }
+
+    /**
+     * Forgets the sort order of all textures.
+     * Should be called when textures are disposed so they are not retained by the queue.
+     */
+    public void resetTextureOrder() {
+        textureOrder.clear();
+    }
+
+    /**
+     * Allocates command storage for the given capacity.
+     * @param capacity The capacity
+     */
+    private void allocate(int capacity) {
+        regions = new TextureRegion[capacity];
+        x = new float[capacity];
+        y = new float[capacity];
+        width = new float[capacity];
+        height = new float[capacity];
+        rotation = new float[capacity];
+        layers = new int[capacity];
+        keys = new long[capacity];
+    }
+
+    /**
+     * Doubles the command storage, keeping the queued commands.
+     */
+    private void grow() {
+        int capacity = regions.length * 2;
+        if (capacity > (1 << INDEX_BITS)) {
+            throw new IllegalStateException("Render queue capacity exceeded: " + regions.length);
+        }
+        regions = Arrays.copyOf(regions, capacity);
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        rotation = Arrays.copyOf(rotation, capacity);
+        layers = Arrays.copyOf(layers, capacity);
+        keys = new long[capacity];
+    }
+
+    // Statistics for the last flush
+
+    /**
+     * Gets the number of commands queued in the last flushed frame.
+     * @return The number of submitted commands
+     */
+    public int getSubmittedCount() {
+        return submittedCount;
+    }
+
+    /**
+     * Gets the number of commands culled in the last flushed frame.
+     * @return The number of culled commands
+     */
+    public int getCulledCount() {
+        return culledCount;
+    }
+
+    /**
+     * Gets the number of texture changes in the last flushed frame.
+     * @return The number of texture switches
+     */
+    public int getTextureSwitches() {
+        return textureSwitches;
+    }
+
+    /**
+     * Gets the number of currently queued commands.
+     * @return The number of queued commands
+     */
+    public int size() {
+        return size;
+    }
+}
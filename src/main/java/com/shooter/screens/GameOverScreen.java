@@ -6,6 +6,9 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.shooter.ShooterGame;
+import com.shooter.managers.FontManager;
+import com.shooter.managers.FontSize;
+import com.shooter.persistence.ScoreStore;
 
 /**
  * Game over screen displayed when the player loses all lives or completes the game.
@@ -13,10 +16,12 @@ import com.shooter.ShooterGame;
  */
 public class GameOverScreen extends BaseScreen {
     private BitmapFont font;
+    private BitmapFont smallFont;
     private GlyphLayout layout;
     private final int score;
     private final String gameOverText = "GAME OVER";
     private final String scoreText;
+    private final String bestText;
     private final String restartText = "Press ENTER to play again";
     private final String menuText = "Press ESC to return to menu";
     
@@ -29,8 +34,13 @@ public class GameOverScreen extends BaseScreen {
         super(game);
         this.score = score;
         this.scoreText = "Final Score: " + score;
-        font = new BitmapFont();
-        font.getData().setScale(2);
+
+        // The best score is read from memory; the new score is still being written
+        ScoreStore scoreStore = game.getScoreStore();
+        int best = scoreStore != null ? Math.max(scoreStore.getBestScore(), score) : score;
+        this.bestText = "Best: " + best;
+        font = FontManager.getInstance().get(FontSize.LARGE);
+        smallFont = FontManager.getInstance().get(FontSize.MEDIUM);
         layout = new GlyphLayout();
     }
     
@@ -73,18 +83,23 @@ public class GameOverScreen extends BaseScreen {
         float scoreY = viewport.getWorldHeight() * 0.5f;
         font.draw(batch, scoreText, scoreX, scoreY);
         
+        // Draw best score
+        layout.setText(font, bestText);
+        float bestX = (viewport.getWorldWidth() - layout.width) / 2;
+        float bestY = viewport.getWorldHeight() * 0.4f;
+        font.draw(batch, bestText, bestX, bestY);
+        
         // Draw restart instruction
-        font.getData().setScale(1.5f);
-        layout.setText(font, restartText);
+        layout.setText(smallFont, restartText);
         float restartX = (viewport.getWorldWidth() - layout.width) / 2;
         float restartY = viewport.getWorldHeight() * 0.3f;
-        font.draw(batch, restartText, restartX, restartY);
+        smallFont.draw(batch, restartText, restartX, restartY);
         
         // Draw menu instruction
-        layout.setText(font, menuText);
+        layout.setText(smallFont, menuText);
         float menuX = (viewport.getWorldWidth() - layout.width) / 2;
         float menuY = viewport.getWorldHeight() * 0.2f;
-        font.draw(batch, menuText, menuX, menuY);
+        smallFont.draw(batch, menuText, menuX, menuY);
         
         batch.end();
     }
@@ -103,10 +118,10 @@ public class GameOverScreen extends BaseScreen {
     }
     
     /**
-     * Called when the screen is disposed.
+     * Called when the screen is disposed. The fonts are shared and stay loaded.
      */
     @Override
     public void dispose() {
-        font.dispose();
+        // Nothing to dispose
     }
 }
\ No newline at end of file
@@ -4,36 +4,77 @@ import com.badlogic.gdx.Gdx;
 import com.badlogic.gdx.Input;
 import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
-import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.graphics.g2d.GlyphLayout;
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.shooter.config.GameConfig;
 import com.shooter.ShooterGame;
-import com.shooter.entities.Background;
-import com.shooter.entities.Enemy;
-import com.shooter.entities.EnemySpawner;
-import com.shooter.entities.Player;
+import com.shooter.debug.DebugOverlay;
+import com.shooter.debug.GlResourceTracker;
+import com.shooter.input.GameInputProcessor;
 import com.shooter.managers.AssetManager;
+import com.shooter.managers.AudioManager;
+import com.shooter.managers.FontManager;
+import com.shooter.managers.FontSize;
+import com.shooter.managers.TextureCache;
+import com.shooter.net.LoopbackTransport;
+import com.shooter.net.RollbackSession;
+import com.shooter.net.UdpTransport;
+import com.shooter.performance.AllocationTracker;
+import com.shooter.performance.FramePhaseEvent;
+import com.shooter.performance.FrameStats;
+import com.shooter.performance.GameEvents;
+import com.shooter.performance.InputLatency;
+import com.shooter.performance.LoadGovernor;
+import com.shooter.persistence.ScoreRecord;
+import com.shooter.persistence.ScoreStore;
+import com.shooter.rendering.LowResRenderer;
+import com.shooter.rendering.RenderQueue;
+import com.shooter.simulation.RenderSnapshot;
+import com.shooter.simulation.RewindBuffer;
+import com.shooter.simulation.Simulation;
+import com.shooter.simulation.World;
 import com.shooter.utils.Constants;
-import com.shooter.weapons.BasicWeapon;
-import com.shooter.weapons.Weapon;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main game screen where gameplay takes place.
  * Implements the core gameplay for Milestone 2.
+ * The gameplay state lives in a World that is advanced by a Simulation; this screen
+ * only handles screen level input and draws the latest render snapshot.
  */
 public class GameScreen extends BaseScreen {
+    // Largest world state the rewind buffer can hold per tick, in bytes
+    private static final int REWIND_SLOT_SIZE = 16 * 1024;
+
+    private static final String PAUSED_TEXT = "GAME PAUSED";
+
     // UI elements
     private BitmapFont font;
+    private GlyphLayout pausedLayout;
     private boolean gamePaused;
+    private final StringBuilder hudText = new StringBuilder(32);
+
+    // Gameplay
+    private World world;
+    private Simulation simulation;
+    private GameInputProcessor inputProcessor;
 
-    // Game entities
-    private Player player;
-    private Background background;
-    private EnemySpawner enemySpawner;
+    // Network game (null in single player games)
+    private RollbackSession session;
+    private RollbackSession loopbackPeer;
 
-    // Weapons
-    private Weapon playerWeapon;
+    // Rendering
+    private boolean useRenderQueue;
+    private int lastRenderCalls;
 
-    // Asset manager
-    private AssetManager assetManager;
+    // Debug
+    private BitmapFont debugFont;
+    private DebugOverlay debugOverlay;
+    private final AllocationTracker updateAllocations = new AllocationTracker(120);
+    private final AllocationTracker renderAllocations = new AllocationTracker(120);
 
     /**
      * Constructor for the game screen.
@@ -41,47 +82,70 @@ public class GameScreen extends BaseScreen {
      */
     public GameScreen(ShooterGame game) {
         super(game);
-        font = new BitmapFont();
-        font.getData().setScale(1.5f);
+        font = FontManager.getInstance().get(FontSize.MEDIUM);
+        pausedLayout = new GlyphLayout(font, PAUSED_TEXT);
         gamePaused = false;
 
-        // Get the asset manager
-        assetManager = AssetManager.getInstance();
-
-        // Initialize game entities
-        initializeEntities();
+        // Set up rendering
+        useRenderQueue = true;
+        debugFont = FontManager.getInstance().get(FontSize.SMALL);
+        debugOverlay = new DebugOverlay(debugFont);
+
+        // Initialize the game world
+        GameConfig config = GameConfig.get();
+        boolean networked = !config.getNetMode().equals("off");
+        world = new World(AssetManager.getInstance(), networked ? 2 : 1);
+        simulation = new Simulation(world, config.isPipelinedSimulation());
+        if (networked) {
+            startNetworkSession(config);
+        } else {
+            world.setLoadGovernor(game.getLoadGovernor());
+            if (config.getRewindSeconds() > 0) {
+                int ticks = Math.round(config.getRewindSeconds() / Constants.SIMULATION_TICK);
+                simulation.setRewindBuffer(new RewindBuffer(ticks, REWIND_SLOT_SIZE));
+            }
+        }
+        inputProcessor = new GameInputProcessor(game.getInputBindings(), world.getInputQueue());
     }
 
     /**
-     * Initializes game entities.
+     * Connects to the other player and lets the network session advance the world.
+     * In loopback mode the other player is a scripted peer in this process.
+     * @param config The configuration
      */
-    private void initializeEntities() {
-        // Create player
-        player = new Player(50, Constants.DEFAULT_HEIGHT / 2 - 16, 32, 32);
-        player.setTextureRegion(assetManager.getPlayerRegion());
-
-        // Create player weapon
-        playerWeapon = new BasicWeapon(
-            Constants.BASIC_WEAPON_COOLDOWN,
-            1, // Damage
-            true, // Player owned
-            assetManager.getProjectileRegion(),
-            16, 16 // Projectile dimensions
-        );
-
-        // Create background
-        TextureRegion[] backgroundTextures = assetManager.getBackgroundRegions();
-        float[] parallaxFactors = {0.2f, 0.5f, 0.8f}; // Different speeds for each layer
-        background = new Background(backgroundTextures, parallaxFactors);
-
-        // Create enemy spawner
-        enemySpawner = new EnemySpawner(
-            2.0f, // Initial spawn interval
-            10.0f, // Difficulty increase interval
-            0.5f, // Minimum spawn interval
-            assetManager.getEnemyRegion(),
-            32, 32 // Enemy dimensions
-        );
+    private void startNetworkSession(GameConfig config) {
+        int inputDelay = config.getNetInputDelay();
+        long seed = config.getNetSeed();
+        if (config.getNetMode().equals("loopback")) {
+            LoopbackTransport[] ends = LoopbackTransport.createPair(config.getLoopbackLatency(),
+                config.getLoopbackJitter(), config.getLoopbackLoss(), seed);
+            session = new RollbackSession(world, ends[0], 0, inputDelay, seed,
+                Constants.SIMULATION_TICK);
+            // The peer's world needs the same collision masks, but its sounds would play twice
+            World peerWorld = new World(AssetManager.getInstance(), 2);
+            peerWorld.setEffectsEnabled(false);
+            loopbackPeer = new RollbackSession(peerWorld, ends[1], 1, inputDelay, seed,
+                Constants.SIMULATION_TICK);
+            loopbackPeer.setBotInput(true);
+        } else {
+            int localPlayer = config.getNetMode().equals("host") ? 0 : 1;
+            UdpTransport transport;
+            try {
+                transport = new UdpTransport(config.getNetLocalPort(),
+                    new InetSocketAddress(config.getNetRemoteHost(), config.getNetRemotePort()));
+            } catch (IOException e) {
+                throw new GdxRuntimeException("Cannot open network connection", e);
+            }
+            session = new RollbackSession(world, transport, localPlayer, inputDelay, seed,
+                Constants.SIMULATION_TICK);
+        }
+
+        simulation.setTickDriver(() -> {
+            session.tick();
+            if (loopbackPeer != null) {
+                loopbackPeer.tick();
+            }
+        });
     }
 
     /**
@@ -89,7 +153,10 @@ public class GameScreen extends BaseScreen {
      */
     @Override
     public void show() {
-        // Nothing special to do here
+        // Receive gameplay keys as events instead of polling them once per frame
+        Gdx.input.setInputProcessor(inputProcessor);
+        simulation.start();
+        AudioManager.getInstance().playMusic("music.ogg", 0.5f);
     }
 
     /**
@@ -106,95 +173,150 @@ public class GameScreen extends BaseScreen {
         super.render(delta);
 
         // Handle input
+        FramePhaseEvent phase = GameEvents.beginPhase();
+        updateAllocations.begin();
         handleInput();
 
-        // Update game state if not paused
-        if (!gamePaused) {
-            update(delta);
-        }
+        // Advance the game state (no-op when the simulation runs on its own thread)
+        simulation.setPaused(gamePaused);
+        simulation.advance(delta);
+        updateAllocations.end();
+        GameEvents.endPhase(phase, "update");
+        phase = GameEvents.beginPhase();
+        renderAllocations.begin();
+
+        // Draw the newest simulated state
+        RenderSnapshot snapshot = simulation.acquireSnapshot();
+        RenderQueue queue = snapshot.getQueue();
+        game.getMetrics().recordWorld(snapshot);
 
-        // Draw the game
         batch.begin();
 
-        // Draw background
-        background.render(batch);
+        if (useRenderQueue) {
+            // Cull and draw the world sorted by layer and texture
+            queue.flush(batch, camera);
+        } else {
+            // Draw the world in submission order
+            queue.flushInOrder(batch);
+        }
 
-        // Draw enemies
-        enemySpawner.render(batch);
+        // Draw UI
+        drawUI(snapshot);
 
-        // Draw player
-        player.render(batch);
+        batch.end();
+        renderAllocations.end();
+        GameEvents.endPhase(phase, "draw");
 
-        // Draw projectiles
-        playerWeapon.render(batch);
+        // Measure how long the newest input drawn took to get here
+        game.getInputLatency().frameDrawn(snapshot.getInputTime(), snapshot.getInputTickTime(),
+            System.nanoTime());
 
-        // Draw UI
-        drawUI();
+        // Render calls are counted from begin() to end(), so this is the whole frame
+        lastRenderCalls = batch.renderCalls;
 
-        batch.end();
+        // Check for game over
+        if (snapshot.isGameOver()) {
+            saveSession(snapshot);
+            transitionTo(new GameOverScreen(game, snapshot.getScore()));
+        }
     }
 
     /**
      * Draws the UI elements.
+     * @param snapshot The snapshot being drawn
      */
-    private void drawUI() {
-        // Draw score and lives
-        font.draw(batch, "Score: " + player.getScore(), 10, Constants.DEFAULT_HEIGHT - 10);
-        font.draw(batch, "Lives: " + player.getLives(), 10, Constants.DEFAULT_HEIGHT - 30);
+    private void drawUI(RenderSnapshot snapshot) {
+        // Draw score and lives (built in a reused builder so the HUD does not allocate)
+        hudText.setLength(0);
+        hudText.append("Score: ").append(snapshot.getScore());
+        font.draw(batch, hudText, 10, Constants.DEFAULT_HEIGHT - 10);
+        hudText.setLength(0);
+        hudText.append("Lives: ").append(snapshot.getLives());
+        font.draw(batch, hudText, 10, Constants.DEFAULT_HEIGHT - 30);
 
         // Draw pause text if paused
         if (gamePaused) {
-            String pausedText = "GAME PAUSED";
-            font.draw(batch, pausedText, 
-                      (viewport.getWorldWidth() - font.getScaleX() * pausedText.length() * 8) / 2, 
+            font.draw(batch, pausedLayout, (viewport.getWorldWidth() - pausedLayout.width) / 2,
                       viewport.getWorldHeight() * 0.75f);
         }
-    }
-
-    /**
-     * Updates the game state.
-     * @param delta The time in seconds since the last update
-     */
-    private void update(float delta) {
-        // Update background
-        background.update(delta);
-
-        // Update player
-        player.update(delta);
 
-        // Update player weapon
-        playerWeapon.update(delta);
-
-        // Update enemies
-        enemySpawner.update(delta);
-
-        // Check for player shooting
-        if (Gdx.input.isKeyPressed(Input.Keys.SPACE)) {
-            playerWeapon.fire(player.getPosition().x + player.getWidth(), player.getPosition().y + player.getHeight() / 2);
+        // Draw debug information (render calls are from the previous frame)
+        RenderQueue queue = snapshot.getQueue();
+        debugOverlay.begin();
+        LowResRenderer lowRes = game.getLowResRenderer();
+        debugOverlay.line("Render calls", lastRenderCalls)
+            .line("Render queue", useRenderQueue ? "on" : "off")
+            .line("Low res", lowRes.isEnabled() ? "on" : "off")
+            .line("Pixel scale", lowRes.getScale());
+        if (useRenderQueue) {
+            debugOverlay.line("Sprites", queue.getSubmittedCount())
+                .line("Culled", queue.getCulledCount())
+                .line("Texture switches", queue.getTextureSwitches());
         }
-
-        // Check for collisions
-        checkCollisions();
-
-        // Check for game over
-        if (!player.isActive()) {
-            transitionTo(new GameOverScreen(game, player.getScore()));
+        debugOverlay.line("Simulation", simulation.isPipelined() ? "threaded" : "inline")
+            .line("Tick ms", simulation.getLastTickNanos() / 1_000_000f);
+        FrameStats frameStats = game.getFrameStats();
+        LoadGovernor governor = game.getLoadGovernor();
+        debugOverlay.line("Frame ms", frameStats.getAverage() * 1000)
+            .line("Load level", governor.getLevelName())
+            .line("Load changes", governor.getEscalations() + governor.getRecoveries());
+        InputLatency latency = game.getInputLatency();
+        debugOverlay.line("Input to tick ms", latency.getToTick().getPercentile(50))
+            .line("Input to draw ms", latency.getToDraw().getPercentile(50))
+            .line("Input p50 ms", latency.getToPresent().getPercentile(50))
+            .line("Input p99 ms", latency.getToPresent().getPercentile(99));
+        if (AllocationTracker.isSupported()) {
+            // Update and render are of the previous frame, like render calls
+            debugOverlay.line("Alloc update B", updateAllocations.getAverage())
+                .line("Alloc render B", renderAllocations.getAverage())
+                .line("Alloc tick B", simulation.getTickAllocations().getAverage());
+        }
+        RewindBuffer rewindBuffer = simulation.getRewindBuffer();
+        if (rewindBuffer != null) {
+            debugOverlay.line("Rewind s",
+                rewindBuffer.getAvailableTicks() * Constants.SIMULATION_TICK);
+        }
+        if (session != null) {
+            debugOverlay.line("Net tick", session.getCurrentTick())
+                .line("Rollbacks", session.getRollbackCount())
+                .line("Resimulated", session.getResimulatedTicks())
+                .line("Stalls", session.getStallCount())
+                .line("Checksums ok", session.getVerifiedChecksums())
+                .line("Desyncs", session.getDesyncCount());
         }
+        TextureCache textureCache = AssetManager.getInstance().getTextureCache();
+        debugOverlay.line("Texture MB", textureCache.getUsedBytes() / (1024f * 1024f))
+            .line("Texture budget MB", textureCache.getBudgetBytes() / (1024f * 1024f))
+            .line("Textures", textureCache.getLoadedCount())
+            .line("Texture evictions", textureCache.getEvictionCount())
+            .line("Texture reloads", textureCache.getReloadCount());
+        GlResourceTracker resources = GlResourceTracker.getInstance();
+        if (resources.isEnabled()) {
+            debugOverlay.line("GL objects", resources.getLiveCount())
+                .line("GL objects MB", resources.getLiveBytes() / (1024f * 1024f))
+                .line("GL leaks", resources.getLeakCount());
+        }
+        AudioManager audio = AudioManager.getInstance();
+        debugOverlay.line("Voices", audio.getActiveVoices())
+            .line("Voices stolen", audio.getStolenCount())
+            .line("Sounds coalesced", audio.getCoalescedCount());
+        debugOverlay.render(batch, viewport.getWorldWidth() - 160, Constants.DEFAULT_HEIGHT - 10);
     }
 
     /**
-     * Checks for collisions between entities.
+     * Queues the finished session for storage. The write happens in the background.
+     * @param snapshot The final snapshot of the session
      */
-    private void checkCollisions() {
-        // Check for collisions between player projectiles and enemies
-        for (Enemy enemy : enemySpawner.getEnemies()) {
-            if (playerWeapon.checkCollision(enemy)) {
-                // Enemy hit by player projectile
-                if (enemy.damage(1)) {
-                    // Enemy destroyed
-                    player.addScore(enemy.getScoreValue());
-                }
-            }
+    private void saveSession(RenderSnapshot snapshot) {
+        ScoreStore scoreStore = game.getScoreStore();
+        if (scoreStore != null) {
+            scoreStore.submit(new ScoreRecord(
+                System.currentTimeMillis(),
+                snapshot.getScore(),
+                snapshot.getKills(),
+                snapshot.getShotsFired(),
+                (int) (snapshot.getElapsedTime() * 1000)
+            ));
         }
     }
 
@@ -210,15 +332,62 @@ public class GameScreen extends BaseScreen {
             gamePaused = !gamePaused;
         } else if (Gdx.input.isKeyJustPressed(Input.Keys.G)) {
             // For testing: transition to game over screen
-            transitionTo(new GameOverScreen(game, player.getScore()));
+            transitionTo(new GameOverScreen(game, simulation.acquireSnapshot().getScore()));
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.F2)) {
+            // Toggle between the render queue and drawing in submission order
+            useRenderQueue = !useRenderQueue;
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.F3)) {
+            // Toggle the debug overlay
+            toggleDebugOverlay();
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.F4)) {
+            // Toggle between the low resolution frame buffer and drawing directly
+            game.toggleLowResRendering();
+        } else if (Gdx.input.isKeyJustPressed(Input.Keys.BACKSPACE)) {
+            // Go back one second
+            simulation.requestRewind(Math.round(1f / Constants.SIMULATION_TICK));
         }
     }
 
     /**
-     * Called when the screen is disposed.
+     * Shows or hides the debug overlay.
+     */
+    public void toggleDebugOverlay() {
+        debugOverlay.toggle();
+    }
+
+    /**
+     * Asks the simulation for a copy of the world state, e.g. for a JMX tool.
+     * @return Completes with the state as written by World.save()
+     */
+    public CompletableFuture<byte[]> requestWorldDump() {
+        return simulation.requestStateDump();
+    }
+
+    /**
+     * Called when the screen is hidden.
+     */
+    @Override
+    public void hide() {
+        inputProcessor.releaseAll();
+        if (Gdx.input.getInputProcessor() == inputProcessor) {
+            Gdx.input.setInputProcessor(null);
+        }
+        simulation.stop();
+        AudioManager.getInstance().stopMusic();
+    }
+
+    /**
+     * Called when the screen is disposed. The fonts are shared and stay loaded.
      */
     @Override
     public void dispose() {
-        font.dispose();
+        simulation.stop();
+        game.getMetrics().clearWorld();
+        if (session != null) {
+            session.close();
+        }
+        if (loopbackPeer != null) {
+            loopbackPeer.close();
+        }
     }
 }
@@ -6,6 +6,8 @@ import com.badlogic.gdx.graphics.GL20;
 import com.badlogic.gdx.graphics.g2d.BitmapFont;
 import com.badlogic.gdx.graphics.g2d.GlyphLayout;
 import com.shooter.ShooterGame;
+import com.shooter.managers.FontManager;
+import com.shooter.managers.FontSize;
 import com.shooter.utils.Constants;
 
 /**
@@ -25,8 +27,7 @@ public class MenuScreen extends BaseScreen {
      */
     public MenuScreen(ShooterGame game) {
         super(game);
-        font = new BitmapFont();
-        font.getData().setScale(2);
+        font = FontManager.getInstance().get(FontSize.LARGE);
         layout = new GlyphLayout();
     }
     
@@ -92,10 +93,10 @@ public class MenuScreen extends BaseScreen {
     }
     
     /**
-     * Called when the screen is disposed.
+     * Called when the screen is disposed. The font is shared and stays loaded.
      */
     @Override
     public void dispose() {
-        font.dispose();
+        // Nothing to dispose
     }
 }
\ No newline at end of file
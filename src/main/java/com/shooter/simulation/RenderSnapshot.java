@@ -0,0 +1,195 @@
+package com.shooter.simulation;
+
+import com.shooter.rendering.RenderQueue;
+
+/**
+ * Render snapshot class.
+ * Everything the render thread needs to draw one simulated frame: the recorded draw
+ * commands and the values shown in the HUD. A snapshot is written by the simulation,
+ * published through a SnapshotBuffer and must not be modified once published.
+ */
+public class RenderSnapshot {
+    // Draw commands for the world
+    private final RenderQueue queue;
+
+    // HUD values
+    private int score;
+    private int lives;
+    private boolean gameOver;
+
+    // Session statistics
+    private int kills;
+    private int shotsFired;
+    private float elapsedTime;
+
+    // Simulation tick this snapshot was taken at
+    private long tick;
+
+    // Receive time of the oldest key press first reflected by this snapshot and the
+    // start time of the tick that applied it (0 if there is none)
+    private long inputTime;
+    private long inputTickTime;
+
+    // Object counts of the world, for monitoring
+    private int activeEnemies;
+    private int pooledEnemies;
+    private int activeProjectiles;
+    private int pooledProjectiles;
+    private long droppedBullets;
+    private float spawnInterval;
+
+    /**
+     * Constructor for the render snapshot.
+     */
+    public RenderSnapshot() {
+        this.queue = new RenderQueue(256);
+    }
+
+    /**
+     * Resets the snapshot so it can be written again.
+     */
+    public void clear() {
+        queue.clear();
+        score = 0;
+        lives = 0;
+        gameOver = false;
+        kills = 0;
+        shotsFired = 0;
+        elapsedTime = 0;
+        tick = 0;
+        inputTime = 0;
+        inputTickTime = 0;
+        activeEnemies = 0;
+        pooledEnemies = 0;
+        activeProjectiles = 0;
+        pooledProjectiles = 0;
+        droppedBullets = 0;
+        spawnInterval = 0;
+    }
+
+    // Getters and setters
+
+    public RenderQueue getQueue() {
+        return queue;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    public void setScore(int score) {
+        this.score = score;
+    }
+
+    public int getLives() {
+        return lives;
+    }
+
+    public void setLives(int lives) {
+        this.lives = lives;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public void setGameOver(boolean gameOver) {
+        this.gameOver = gameOver;
+    }
+
+    public int getKills() {
+        return kills;
+    }
+
+    public void setKills(int kills) {
+        this.kills = kills;
+    }
+
+    public int getShotsFired() {
+        return shotsFired;
+    }
+
+    public void setShotsFired(int shotsFired) {
+        this.shotsFired = shotsFired;
+    }
+
+    public float getElapsedTime() {
+        return elapsedTime;
+    }
+
+    public void setElapsedTime(float elapsedTime) {
+        this.elapsedTime = elapsedTime;
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public void setTick(long tick) {
+        this.tick = tick;
+    }
+
+    public long getInputTime() {
+        return inputTime;
+    }
+
+    public void setInputTime(long inputTime) {
+        this.inputTime = inputTime;
+    }
+
+    public long getInputTickTime() {
+        return inputTickTime;
+    }
+
+    public void setInputTickTime(long inputTickTime) {
+        this.inputTickTime = inputTickTime;
+    }
+
+    public int getActiveEnemies() {
+        return activeEnemies;
+    }
+
+    public void setActiveEnemies(int activeEnemies) {
+        this.activeEnemies = activeEnemies;
+    }
+
+    public int getPooledEnemies() {
+        return pooledEnemies;
+    }
+
+    public void setPooledEnemies(int pooledEnemies) {
+        this.pooledEnemies = pooledEnemies;
+    }
+
+    public int getActiveProjectiles() {
+        return activeProjectiles;
+    }
+
+    public void setActiveProjectiles(int activeProjectiles) {
+        this.activeProjectiles = activeProjectiles;
+    }
+
+    public int getPooledProjectiles() {
+        return pooledProjectiles;
+    }
+
+    public void setPooledProjectiles(int pooledProjectiles) {
+        this.pooledProjectiles = pooledProjectiles;
+    }
+
+    public long getDroppedBullets() {
+        return droppedBullets;
+    }
+
+    public void setDroppedBullets(long droppedBullets) {
+        this.droppedBullets = droppedBullets;
+    }
+
+    public float getSpawnInterval() {
+        return spawnInterval;
+    }
+
+    public void setSpawnInterval(float spawnInterval) {
+        this.spawnInterval = spawnInterval;
+    }
+}
@@ -0,0 +1,124 @@
+package com.shooter.simulation;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Rewind buffer class.
+ * Keeps the world state of the most recent ticks in a ring of fixed-size slots inside one
+ * direct (off-heap) buffer. Recording reuses the same slots forever, so it produces no
+ * garbage, and rewinding restores a single slot, so going back any number of ticks costs
+ * the same as restoring one tick.
+ */
+public class RewindBuffer {
+    // Ring storage, one view per slot
+    private final ByteBuffer storage;
+    private final ByteBuffer[] slots;
+    private final long[] ticks;
+    private final int slotSize;
+
+    // Number of valid slots and the slot written last
+    private int count;
+    private int newest;
+
+    // Statistics
+    private long overflows;
+
+    /**
+     * Constructor for the rewind buffer.
+     * @param capacity The number of ticks kept
+     * @param slotSize The largest state in bytes that can be recorded
+     */
+    public RewindBuffer(int capacity, int slotSize) {
+        if (capacity <= 0 || slotSize <= 0) {
+            throw new IllegalArgumentException("Capacity and slot size must be positive");
+        }
+        this.slotSize = slotSize;
+        this.storage = ByteBuffer.allocateDirect(Math.multiplyExact(capacity, slotSize));
+        this.slots = new ByteBuffer[capacity];
+        this.ticks = new long[capacity];
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = storage.slice(i * slotSize, slotSize);
+        }
+        this.newest = capacity - 1;
+    }
+
+    /**
+     * Records the state of the world after a tick, replacing the oldest recorded tick
+     * once the buffer is full.
+     * @param world The world
+     * @param tick The tick number
+     */
+    public void record(World world, long tick) {
+        int index = (newest + 1) % slots.length;
+        ByteBuffer slot = slots[index];
+        slot.clear();
+        try {
+            world.save(slot);
+        } catch (BufferOverflowException e) {
+            // Too many entities for a slot; history before this tick is no longer continuous
+            overflows++;
+            count = 0;
+            return;
+        }
+        slot.flip();
+        ticks[index] = tick;
+        newest = index;
+        count = Math.min(count + 1, slots.length);
+    }
+
+    /**
+     * Restores the world to a recorded tick and forgets all ticks after it, so recording
+     * continues from there.
+     * @param world The world
+     * @param ticksBack How many ticks to go back (clamped to the recorded history)
+     * @return The tick number that was restored, or -1 if nothing is recorded
+     */
+    public long rewind(World world, int ticksBack) {
+        if (count == 0) {
+            return -1;
+        }
+        int back = Math.max(0, Math.min(ticksBack, count - 1));
+        int index = Math.floorMod(newest - back, slots.length);
+        ByteBuffer slot = slots[index];
+        slot.rewind();
+        world.restore(slot);
+
+        newest = index;
+        count -= back;
+        return ticks[index];
+    }
+
+    /**
+     * Forgets all recorded ticks.
+     */
+    public void clear() {
+        count = 0;
+    }
+
+    // Getters
+
+    /**
+     * Gets the number of ticks that can be rewound.
+     * @return The recorded history in ticks (the newest tick is the current state)
+     */
+    public int getAvailableTicks() {
+        return Math.max(0, count - 1);
+    }
+
+    public int getCapacity() {
+        return slots.length;
+    }
+
+    public int getSlotSize() {
+        return slotSize;
+    }
+
+    /**
+     * Gets how often a state did not fit in a slot.
+     * @return The number of overflows
+     */
+    public long getOverflowCount() {
+        return overflows;
+    }
+}
@@ -0,0 +1,343 @@
+package com.shooter.simulation;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import com.shooter.performance.AllocationTracker;
+import com.shooter.performance.FramePhaseEvent;
+import com.shooter.performance.GameEvents;
+import com.shooter.utils.Constants;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Simulation class.
+ * Advances a World at a fixed tick rate and publishes a render snapshot after every tick.
+ * In pipelined mode the ticks run on a dedicated thread, so the render thread only has to
+ * draw the latest snapshot and frame time approaches max(update, render) instead of their
+ * sum. Otherwise the ticks run on the render thread inside advance().
+ */
+public class Simulation {
+    // Maximum number of ticks run in one frame before the simulation drops time
+    private static final int MAX_TICKS_PER_FRAME = 5;
+
+    // First and largest buffer tried for a state dump
+    private static final int DUMP_SIZE = 16 * 1024;
+    private static final int MAX_DUMP_SIZE = 16 * 1024 * 1024;
+
+    private final World world;
+    private final SnapshotBuffer buffer;
+
+    // Replaces world.update() when set, e.g. by a network session
+    private Runnable tickDriver;
+
+    // Recent world states (optional) and ticks to go back on the next step
+    private RewindBuffer rewindBuffer;
+    private final AtomicInteger pendingRewind = new AtomicInteger();
+
+    // State dump asked for by another thread, taken by the thread that owns the world
+    private final AtomicReference<CompletableFuture<byte[]>> pendingDump =
+        new AtomicReference<CompletableFuture<byte[]>>();
+    private final boolean pipelined;
+    private final float tickSeconds;
+    private final long tickNanos;
+
+    // Simulation thread (pipelined mode only)
+    private Thread thread;
+    private volatile boolean running;
+    private volatile boolean paused;
+    private volatile Throwable failure;
+
+    // Accumulated frame time (single threaded mode only)
+    private float accumulator;
+
+    // Input of a snapshot that was replaced before the render thread saw it
+    private long carriedInputTime;
+    private long carriedInputTickTime;
+
+    // Statistics
+    private long tick;
+    private volatile long lastTickNanos;
+    private final AllocationTracker tickAllocations = new AllocationTracker(120);
+
+    /**
+     * Constructor for the simulation.
+     * @param world The world to simulate
+     * @param pipelined Whether to run the simulation on its own thread
+     */
+    public Simulation(World world, boolean pipelined) {
+        this.world = world;
+        this.buffer = new SnapshotBuffer();
+        this.pipelined = pipelined;
+        this.tickSeconds = Constants.SIMULATION_TICK;
+        this.tickNanos = (long) (Constants.SIMULATION_TICK * 1_000_000_000L);
+    }
+
+    /**
+     * Starts the simulation thread. Does nothing in single threaded mode.
+     */
+    public void start() {
+        if (!pipelined || running) {
+            return;
+        }
+        running = true;
+        thread = new Thread(this::run, "simulation");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Stops the simulation thread and waits for it to finish.
+     */
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        thread = null;
+    }
+
+    /**
+     * Advances the simulation by the frame time. Must be called once per frame by the
+     * render thread. In pipelined mode the simulation runs on its own clock and this only
+     * reports failures of the simulation thread.
+     * @param delta The time in seconds since the last frame
+     */
+    public void advance(float delta) {
+        if (failure != null) {
+            throw new GdxRuntimeException("Simulation thread failed", failure);
+        }
+        if (pipelined) {
+            return;
+        }
+        if (paused) {
+            // The world stands still, but may still be dumped
+            takeDump();
+            return;
+        }
+
+        accumulator += delta;
+        int ticks = 0;
+        while (accumulator >= tickSeconds && ticks < MAX_TICKS_PER_FRAME) {
+            step();
+            accumulator -= tickSeconds;
+            ticks++;
+        }
+        if (ticks == MAX_TICKS_PER_FRAME) {
+            // Too far behind; drop the remaining time instead of spiralling
+            accumulator = 0;
+        }
+    }
+
+    /**
+     * Gets the newest render snapshot. Must only be called by the render thread.
+     * @return The newest published snapshot
+     */
+    public RenderSnapshot acquireSnapshot() {
+        return buffer.acquire();
+    }
+
+    /**
+     * Main loop of the simulation thread.
+     */
+    private void run() {
+        try {
+            long nextTick = System.nanoTime();
+            while (running) {
+                if (!paused) {
+                    step();
+                } else {
+                    takeDump();
+                }
+
+                nextTick += tickNanos;
+                long wait = nextTick - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                } else if (-wait > tickNanos * MAX_TICKS_PER_FRAME) {
+                    // Too far behind; drop the time instead of spiralling
+                    nextTick = System.nanoTime();
+                }
+            }
+        } catch (Throwable t) {
+            failure = t;
+            running = false;
+        }
+    }
+
+    /**
+     * Runs one tick and publishes its snapshot.
+     */
+    private void step() {
+        long start = System.nanoTime();
+        FramePhaseEvent phase = GameEvents.beginPhase();
+        tickAllocations.begin();
+
+        // Go back in time if requested
+        int rewindTicks = pendingRewind.getAndSet(0);
+        if (rewindTicks > 0 && rewindBuffer != null) {
+            rewindBuffer.rewind(world, rewindTicks);
+        }
+
+        if (tickDriver != null) {
+            tickDriver.run();
+        } else {
+            world.update(tickSeconds);
+        }
+        tick++;
+        if (rewindBuffer != null) {
+            rewindBuffer.record(world, tick);
+        }
+
+        RenderSnapshot snapshot = buffer.getBack();
+        snapshot.clear();
+        world.writeSnapshot(snapshot);
+        snapshot.setTick(tick);
+        if (carriedInputTime != 0) {
+            // The input of a skipped snapshot is first drawn with this one
+            snapshot.setInputTime(carriedInputTime);
+            snapshot.setInputTickTime(carriedInputTickTime);
+        } else if (snapshot.getInputTime() != 0) {
+            snapshot.setInputTickTime(start);
+        }
+
+        if (buffer.publish()) {
+            RenderSnapshot skipped = buffer.getBack();
+            carriedInputTime = skipped.getInputTime();
+            carriedInputTickTime = skipped.getInputTickTime();
+        } else {
+            carriedInputTime = 0;
+        }
+
+        // Between ticks the world is consistent; only a pending request costs more than a read
+        if (pendingDump.get() != null) {
+            takeDump();
+        }
+
+        tickAllocations.end();
+        GameEvents.endPhase(phase, "tick");
+        lastTickNanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Writes the world state for a pending dump request, if there is one. Must be called
+     * by the thread that owns the world, between ticks.
+     */
+    private void takeDump() {
+        CompletableFuture<byte[]> dump = pendingDump.getAndSet(null);
+        if (dump == null) {
+            return;
+        }
+        try {
+            ByteBuffer buffer = ByteBuffer.allocate(DUMP_SIZE);
+            while (true) {
+                try {
+                    world.save(buffer);
+                    break;
+                } catch (BufferOverflowException e) {
+                    if (buffer.capacity() >= MAX_DUMP_SIZE) {
+                        throw e;
+                    }
+                    buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+                }
+            }
+            dump.complete(Arrays.copyOf(buffer.array(), buffer.position()));
+        } catch (RuntimeException e) {
+            dump.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * Asks for a copy of the world state as written by World.save(). It is taken after the
+     * next tick, or soon while paused, by the thread that owns the world. Can be called
+     * from any thread; requests made before the dump is taken share it.
+     * @return Completes with the state, once taken
+     */
+    public CompletableFuture<byte[]> requestStateDump() {
+        CompletableFuture<byte[]> dump = new CompletableFuture<byte[]>();
+        while (!pendingDump.compareAndSet(null, dump)) {
+            CompletableFuture<byte[]> pending = pendingDump.get();
+            if (pending != null) {
+                return pending;
+            }
+        }
+        return dump;
+    }
+
+    // Getters and setters
+
+    /**
+     * Replaces how the world is advanced every tick, e.g. by a network session that
+     * feeds in remote input. Must be set before the simulation is started.
+     * @param tickDriver Advances the world by one tick, or null to call world.update()
+     */
+    public void setTickDriver(Runnable tickDriver) {
+        this.tickDriver = tickDriver;
+    }
+
+    /**
+     * Sets the buffer the world state is recorded into after every tick.
+     * Must be set before the simulation is started.
+     * @param rewindBuffer The rewind buffer, or null to not record
+     */
+    public void setRewindBuffer(RewindBuffer rewindBuffer) {
+        this.rewindBuffer = rewindBuffer;
+    }
+
+    public RewindBuffer getRewindBuffer() {
+        return rewindBuffer;
+    }
+
+    /**
+     * Asks the simulation to restore an earlier state before its next tick. Can be called
+     * from any thread; requests made before the next tick add up.
+     * @param ticks The number of ticks to go back
+     */
+    public void requestRewind(int ticks) {
+        if (ticks > 0) {
+            pendingRewind.addAndGet(ticks);
+        }
+    }
+
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public void setPaused(boolean paused) {
+        this.paused = paused;
+    }
+
+    /**
+     * Gets the duration of the last tick, including writing its snapshot.
+     * @return The duration in nanoseconds
+     */
+    public long getLastTickNanos() {
+        return lastTickNanos;
+    }
+
+    /**
+     * Gets the bytes allocated by ticks, including writing their snapshots.
+     * @return The tick allocation tracker
+     */
+    public AllocationTracker getTickAllocations() {
+        return tickAllocations;
+    }
+
+    public World getWorld() {
+        return world;
+    }
+}
@@ -0,0 +1,72 @@
+package com.shooter.simulation;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Snapshot buffer class.
+ * Lock-free triple buffer between one writer (the simulation) and one reader (the render
+ * thread). The writer always has a private back snapshot, the reader a private front
+ * snapshot, and the third one holds the most recently published state. Neither side
+ * ever waits for the other; the reader simply gets the newest complete snapshot.
+ */
+public class SnapshotBuffer {
+    // Flag set in the state when the middle snapshot has not been read yet
+    private static final int FRESH = 4;
+    private static final int INDEX_MASK = 3;
+
+    private final RenderSnapshot[] snapshots;
+
+    // Index of the middle snapshot plus the FRESH flag
+    private final AtomicInteger state;
+
+    // Owned by the writer
+    private int backIndex;
+
+    // Owned by the reader
+    private int frontIndex;
+
+    /**
+     * Constructor for the snapshot buffer.
+     */
+    public SnapshotBuffer() {
+        snapshots = new RenderSnapshot[] {
+            new RenderSnapshot(), new RenderSnapshot(), new RenderSnapshot()
+        };
+        frontIndex = 0;
+        state = new AtomicInteger(1);
+        backIndex = 2;
+    }
+
+    /**
+     * Gets the snapshot the writer should fill next.
+     * Only the writer thread may call this.
+     * @return The back snapshot
+     */
+    public RenderSnapshot getBack() {
+        return snapshots[backIndex];
+    }
+
+    /**
+     * Publishes the back snapshot and hands the writer a new one.
+     * Only the writer thread may call this.
+     * @return True if the previously published snapshot was never read; it is the new back snapshot
+     */
+    public boolean publish() {
+        int previous = state.getAndSet(backIndex | FRESH);
+        backIndex = previous & INDEX_MASK;
+        return (previous & FRESH) != 0;
+    }
+
+    /**
+     * Gets the newest published snapshot.
+     * Only the reader thread may call this. The returned snapshot stays valid
+     * until the next call.
+     * @return The front snapshot
+     */
+    public RenderSnapshot acquire() {
+        if ((state.get() & FRESH) != 0) {
+            frontIndex = state.getAndSet(frontIndex) & INDEX_MASK;
+        }
+        return snapshots[frontIndex];
+    }
+}
@@ -0,0 +1,694 @@
+package com.shooter.simulation;
+
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.shooter.audio.SoundEffect;
+import com.shooter.config.GameConfig;
+import com.shooter.entities.Background;
+import com.shooter.entities.CollisionMask;
+import com.shooter.entities.CompoundHitbox;
+import com.shooter.entities.Enemy;
+import com.shooter.entities.EnemySpawner;
+import com.shooter.entities.Player;
+import com.shooter.events.EventBatch;
+import com.shooter.events.GameEventBus;
+import com.shooter.events.GameEventType;
+import com.shooter.input.InputAction;
+import com.shooter.input.InputQueue;
+import com.shooter.input.InputState;
+import com.shooter.managers.AssetManager;
+import com.shooter.managers.AudioManager;
+import com.shooter.performance.CollisionPassEvent;
+import com.shooter.performance.GameEvents;
+import com.shooter.performance.LoadGovernor;
+import com.shooter.rendering.RenderQueue;
+import com.shooter.spatial.SpatialGrid;
+import com.shooter.utils.Constants;
+import com.shooter.weapons.BasicWeapon;
+import com.shooter.weapons.BulletPattern;
+import com.shooter.weapons.PatternWeapon;
+import com.shooter.weapons.Weapon;
+
+import java.nio.ByteBuffer;
+
+/**
+ * World class.
+ * Holds the complete gameplay state (players, background, enemies and weapons) and
+ * advances it. The world does not draw itself; it records its draw commands into a
+ * render snapshot, so it can be updated on a different thread than the one rendering.
+ * The state can be saved to and restored from a buffer, and given the same seed and
+ * inputs the world always advances the same way, which is what network rollback and
+ * replays rely on.
+ */
+public class World {
+    // Game entities
+    private final Player[] players;
+    private Background background;
+    private EnemySpawner enemySpawner;
+
+    // Enemy positions for proximity queries, rebuilt every tick
+    private final SpatialGrid<Enemy> enemyGrid;
+
+    // Weapons, one per player
+    private final Weapon[] playerWeapons;
+
+    // Bullets of all enemies (null if enemies do not shoot)
+    private final PatternWeapon enemyWeapon;
+
+    // Input events from the render thread and the input of each player for the current tick
+    private final InputQueue inputQueue;
+    private final InputState[] inputs;
+
+    // Player controlled from this machine
+    private int localPlayer;
+
+    // Session statistics
+    private int kills;
+    private int shotsFired;
+    private float elapsedTime;
+
+    // Load shedding (optional)
+    private LoadGovernor loadGovernor;
+
+    // Bullets alive at once per pattern weapon; keeps a saved state within a rewind slot
+    private static final int PATTERN_BULLET_CAPACITY = 256;
+
+    // Gameplay events of a tick, dispatched at the end of the tick
+    private static final int EVENT_CAPACITY = 1024;
+    private final GameEventBus eventBus;
+
+    // Whether sounds are triggered (off while replaying ticks that were already heard)
+    private boolean effectsEnabled;
+
+    /**
+     * Constructor for a single player world using the textures of the asset manager.
+     * @param assetManager The asset manager to take the textures from
+     */
+    public World(AssetManager assetManager) {
+        this(assetManager, 1);
+    }
+
+    /**
+     * Constructor for the world using the textures of the asset manager.
+     * @param assetManager The asset manager to take the textures from
+     * @param playerCount The number of players
+     */
+    public World(AssetManager assetManager, int playerCount) {
+        this(
+            assetManager.getPlayerRegion(),
+            assetManager.getEnemyRegion(),
+            assetManager.getProjectileRegion(),
+            assetManager.getBackgroundRegions(),
+            playerCount
+        );
+        setCollisionMasks(assetManager.getPlayerMask(), assetManager.getEnemyMask(),
+            assetManager.getProjectileMask());
+    }
+
+    /**
+     * Constructor for a single player world.
+     * Texture regions may be null, in which case the affected entities are not drawn.
+     * @param playerRegion The texture region for the player
+     * @param enemyRegion The texture region for enemies
+     * @param projectileRegion The texture region for projectiles
+     * @param backgroundRegions The texture regions for the background layers (from back to front)
+     */
+    public World(TextureRegion playerRegion, TextureRegion enemyRegion,
+                 TextureRegion projectileRegion, TextureRegion[] backgroundRegions) {
+        this(playerRegion, enemyRegion, projectileRegion, backgroundRegions, 1);
+    }
+
+    /**
+     * Constructor for the world.
+     * Texture regions may be null, in which case the affected entities are not drawn.
+     * @param playerRegion The texture region for the players
+     * @param enemyRegion The texture region for enemies
+     * @param projectileRegion The texture region for projectiles
+     * @param backgroundRegions The texture regions for the background layers (from back to front)
+     * @param playerCount The number of players
+     */
+    public World(TextureRegion playerRegion, TextureRegion enemyRegion,
+                 TextureRegion projectileRegion, TextureRegion[] backgroundRegions,
+                 int playerCount) {
+        if (playerCount < 1) {
+            throw new IllegalArgumentException("A world needs at least one player");
+        }
+        GameConfig config = GameConfig.get();
+
+        // Create input
+        inputQueue = new InputQueue();
+        inputs = new InputState[playerCount];
+
+        // Create players, spread evenly over the height of the screen, and their weapons
+        players = new Player[playerCount];
+        playerWeapons = new Weapon[playerCount];
+        for (int i = 0; i < playerCount; i++) {
+            inputs[i] = new InputState();
+
+            float y = Constants.DEFAULT_HEIGHT * (i + 1) / (playerCount + 1) - 16;
+            players[i] = new Player(50, y, 32, 32);
+            players[i].setTextureRegion(playerRegion);
+            players[i].setInput(inputs[i]);
+
+            BulletPattern playerPattern = config.getPlayerPattern();
+            if (playerPattern == null) {
+                playerWeapons[i] = new BasicWeapon(
+                    config.getBasicWeaponCooldown(),
+                    1, // Damage
+                    true, // Player owned
+                    projectileRegion,
+                    16, 16 // Projectile dimensions
+                );
+            } else {
+                playerWeapons[i] = new PatternWeapon(
+                    playerPattern,
+                    config.getPatternWeaponCooldown(),
+                    1, // Damage
+                    true, // Player owned
+                    projectileRegion,
+                    16, 16, // Bullet dimensions
+                    PATTERN_BULLET_CAPACITY
+                );
+            }
+        }
+
+        // Create the enemy bullets; every enemy fires on its own timer, so the weapon has no
+        // cooldown
+        BulletPattern enemyPattern = config.getEnemyPattern();
+        if (enemyPattern != null) {
+            enemyWeapon = new PatternWeapon(enemyPattern, 0, 1, false, projectileRegion, 12, 12,
+                PATTERN_BULLET_CAPACITY);
+        } else {
+            enemyWeapon = null;
+        }
+        localPlayer = 0;
+
+        // Create background
+        float[] parallaxFactors = {0.2f, 0.5f, 0.8f}; // Different speeds for each layer
+        background = new Background(backgroundRegions, parallaxFactors);
+
+        // Create enemy spawner
+        enemySpawner = new EnemySpawner(
+            config.getSpawnInterval(),
+            config.getDifficultyInterval(),
+            config.getMinSpawnInterval(),
+            enemyRegion,
+            32, 32 // Enemy dimensions
+        );
+
+        // Cover the screen plus the spawn area to its right
+        enemyGrid = new SpatialGrid<Enemy>(0, 0, Constants.DEFAULT_WIDTH + 64,
+            Constants.DEFAULT_HEIGHT, 64);
+
+        // Scoring and sounds are the first listeners of the gameplay events
+        eventBus = new GameEventBus(EVENT_CAPACITY);
+        eventBus.addListener(this::applyEvents);
+
+        effectsEnabled = true;
+    }
+
+    /**
+     * Advances the world by one step using the input received since the previous step.
+     * @param delta The time in seconds to advance
+     */
+    public void update(float delta) {
+        drainLocalInput();
+        step(delta);
+    }
+
+    /**
+     * Applies the input events received since the previous tick to the local player's input.
+     */
+    public void drainLocalInput() {
+        InputState input = inputs[localPlayer];
+        input.beginTick();
+        inputQueue.drainTo(input);
+    }
+
+    /**
+     * Advances the world by one step with the inputs as they are currently set.
+     * @param delta The time in seconds to advance
+     */
+    public void step(float delta) {
+        // Apply tuning values that may have been reloaded
+        GameConfig config = GameConfig.get();
+        for (Weapon weapon : playerWeapons) {
+            weapon.setCooldown(weapon instanceof PatternWeapon
+                ? config.getPatternWeaponCooldown() : config.getBasicWeaponCooldown());
+        }
+        enemySpawner.setDifficultyInterval(config.getDifficultyInterval());
+        enemySpawner.setMinSpawnInterval(config.getMinSpawnInterval());
+
+        // Apply the current load shedding decisions
+        if (loadGovernor != null) {
+            background.setVisibleLayers(loadGovernor.getVisibleBackgroundLayers());
+            enemySpawner.setSpawnRateScale(loadGovernor.getSpawnRateScale());
+            enemySpawner.setOffscreenUpdateStride(loadGovernor.getOffscreenUpdateStride());
+        }
+
+        elapsedTime += delta;
+        eventBus.beginTick(!effectsEnabled);
+
+        // Update background
+        background.update(delta);
+
+        // Update players and their weapons
+        for (int i = 0; i < players.length; i++) {
+            if (players[i].isActive()) {
+                players[i].update(delta);
+            }
+            playerWeapons[i].update(delta);
+        }
+
+        // Update enemies
+        enemySpawner.update(delta);
+        enemyGrid.rebuild(enemySpawner.getEnemies());
+
+        // Update enemy bullets and let enemies shoot
+        if (enemyWeapon != null) {
+            enemyWeapon.update(delta);
+            fireEnemyWeapon();
+        }
+
+        // Check for player shooting (a tap between two ticks still fires)
+        for (int i = 0; i < players.length; i++) {
+            Player player = players[i];
+            if (player.isActive() && inputs[i].isActive(InputAction.FIRE)) {
+                float x = player.getPosition().x + player.getWidth();
+                float y = player.getPosition().y + player.getHeight() / 2;
+                aimAtNearestEnemy(playerWeapons[i], x, y);
+                if (playerWeapons[i].fire(x, y)) {
+                    eventBus.publish(GameEventType.SHOT, i, x, y, 0);
+                }
+            }
+        }
+
+        // Check for collisions
+        checkCollisions();
+
+        // Hand the events of this tick to the listeners
+        eventBus.dispatch();
+    }
+
+    /**
+     * Applies the gameplay events of a tick to the world: scores, statistics and sounds.
+     * @param events The events of the tick
+     */
+    private void applyEvents(EventBatch events) {
+        for (int i = 0; i < events.size(); i++) {
+            switch (events.getType(i)) {
+                case SHOT:
+                    shotsFired++;
+                    if (!events.isReplay()) {
+                        AudioManager.getInstance().trigger(SoundEffect.SHOT);
+                    }
+                    break;
+                case KILL:
+                    // The shooter gets the score
+                    players[events.getSource(i)].addScore(events.getValue(i));
+                    kills++;
+                    if (!events.isReplay()) {
+                        AudioManager.getInstance().trigger(SoundEffect.EXPLOSION);
+                    }
+                    break;
+                default:
+                    break;
+            }
+        }
+    }
+
+    /**
+     * Fires a volley from every enemy on screen whose shoot timer has run out, aimed at the
+     * nearest player.
+     */
+    private void fireEnemyWeapon() {
+        for (int i = 0; i < enemySpawner.getEnemies().size; i++) {
+            Enemy enemy = enemySpawner.getEnemies().get(i);
+            float x = enemy.getPosition().x;
+            if (!enemy.isActive() || !enemy.canShoot() || x > Constants.DEFAULT_WIDTH) {
+                continue;
+            }
+            float y = enemy.getPosition().y + enemy.getHeight() / 2;
+
+            // Few players, so a linear search is enough
+            Player target = null;
+            float targetDistanceSq = Float.MAX_VALUE;
+            for (Player player : players) {
+                if (!player.isActive()) {
+                    continue;
+                }
+                float dx = player.getPosition().x + player.getWidth() / 2 - x;
+                float dy = player.getPosition().y + player.getHeight() / 2 - y;
+                if (dx * dx + dy * dy < targetDistanceSq) {
+                    targetDistanceSq = dx * dx + dy * dy;
+                    target = player;
+                }
+            }
+            if (target == null) {
+                return;
+            }
+
+            enemyWeapon.aimAt(target.getPosition().x + target.getWidth() / 2,
+                target.getPosition().y + target.getHeight() / 2);
+            enemyWeapon.fire(x, y);
+            enemy.resetShootTimer();
+        }
+    }
+
+    /**
+     * Aims a weapon with an aimed pattern at the enemy closest to the firing position.
+     * @param weapon The weapon
+     * @param x The x position the weapon fires from
+     * @param y The y position the weapon fires from
+     */
+    private void aimAtNearestEnemy(Weapon weapon, float x, float y) {
+        if (!(weapon instanceof PatternWeapon)) {
+            return;
+        }
+        PatternWeapon patternWeapon = (PatternWeapon) weapon;
+        if (patternWeapon.getPattern().getType() != BulletPattern.Type.AIMED) {
+            return;
+        }
+        int nearest = enemyGrid.nearest(x, y, Constants.DEFAULT_WIDTH);
+        if (nearest >= 0) {
+            Enemy enemy = enemyGrid.get(nearest);
+            patternWeapon.aimAt(enemy.getPosition().x + enemy.getWidth() / 2,
+                enemy.getPosition().y + enemy.getHeight() / 2);
+        }
+    }
+
+    /**
+     * Checks for collisions between entities.
+     */
+    private void checkCollisions() {
+        CollisionPassEvent event = GameEvents.beginCollisionPass();
+        int pairsTested = 0;
+        int hits = 0;
+        int killed = 0;
+
+        // Check for collisions between player projectiles and enemies
+        for (int i = 0; i < enemySpawner.getEnemies().size; i++) {
+            Enemy enemy = enemySpawner.getEnemies().get(i);
+            for (int p = 0; p < players.length; p++) {
+                pairsTested += playerWeapons[p].getActiveProjectileCount();
+                if (playerWeapons[p].checkCollision(enemy)) {
+                    // Enemy hit by player projectile
+                    hits++;
+                    float x = enemy.getPosition().x + enemy.getWidth() / 2;
+                    float y = enemy.getPosition().y + enemy.getHeight() / 2;
+                    eventBus.publish(GameEventType.HIT, p, x, y, 1);
+                    int part = enemy.getHitPart();
+                    boolean destroyed = enemy.damage(1);
+                    if (part != CompoundHitbox.MISS && enemy.getHitbox().isPartDestroyed(part)) {
+                        CompoundHitbox hitbox = enemy.getHitbox();
+                        float partX = hitbox.getPartX(part) + hitbox.getPartWidth(part) / 2;
+                        float partY = hitbox.getPartY(part) + hitbox.getPartHeight(part) / 2;
+                        eventBus.publish(GameEventType.PART_DESTROYED, p,
+                            enemy.getPosition().x + partX, enemy.getPosition().y + partY, part);
+                    }
+                    if (destroyed) {
+                        // Enemy destroyed
+                        killed++;
+                        eventBus.publish(GameEventType.KILL, p, x, y, enemy.getScoreValue());
+                        break;
+                    }
+                }
+            }
+        }
+
+        // Check for collisions between enemy bullets and players
+        if (enemyWeapon != null) {
+            for (int p = 0; p < players.length; p++) {
+                Player player = players[p];
+                pairsTested += enemyWeapon.getActiveProjectileCount();
+                if (enemyWeapon.checkCollision(player)) {
+                    hits++;
+                    player.damage();
+                    eventBus.publish(GameEventType.PLAYER_HIT, p,
+                        player.getPosition().x + player.getWidth() / 2,
+                        player.getPosition().y + player.getHeight() / 2,
+                        player.getLives());
+                }
+            }
+        }
+
+        GameEvents.endCollisionPass(event, pairsTested, hits, killed);
+    }
+
+    /**
+     * Records the current state of the world into a render snapshot.
+     * @param snapshot The snapshot to write to (cleared by the caller)
+     */
+    public void writeSnapshot(RenderSnapshot snapshot) {
+        RenderQueue queue = snapshot.getQueue();
+        background.submit(queue);
+        enemySpawner.submit(queue);
+        int score = 0;
+        for (int i = 0; i < players.length; i++) {
+            players[i].submit(queue, RenderQueue.LAYER_PLAYER);
+            playerWeapons[i].submit(queue);
+            score += players[i].getScore();
+        }
+        if (enemyWeapon != null) {
+            enemyWeapon.submit(queue);
+        }
+
+        snapshot.setScore(score);
+        snapshot.setLives(players[localPlayer].getLives());
+        snapshot.setGameOver(isGameOver());
+        snapshot.setKills(kills);
+        snapshot.setShotsFired(shotsFired);
+        snapshot.setElapsedTime(elapsedTime);
+        snapshot.setInputTime(inputs[localPlayer].getOldestPressTime());
+
+        // Object counts, for monitoring
+        int projectiles = 0;
+        int pooledProjectiles = 0;
+        for (int i = 0; i < playerWeapons.length; i++) {
+            projectiles += playerWeapons[i].getActiveProjectileCount();
+            if (playerWeapons[i] instanceof BasicWeapon) {
+                pooledProjectiles += ((BasicWeapon) playerWeapons[i]).getPooledProjectileCount();
+            }
+        }
+        if (enemyWeapon != null) {
+            projectiles += enemyWeapon.getActiveProjectileCount();
+            snapshot.setDroppedBullets(enemyWeapon.getDroppedBulletCount());
+        }
+        snapshot.setActiveEnemies(enemySpawner.getActiveEnemyCount());
+        snapshot.setPooledEnemies(enemySpawner.getPooledEnemyCount());
+        snapshot.setActiveProjectiles(projectiles);
+        snapshot.setPooledProjectiles(pooledProjectiles);
+        snapshot.setSpawnInterval(enemySpawner.getSpawnInterval());
+    }
+
+    /**
+     * Writes the complete gameplay state. Textures, tuning values and load shedding
+     * settings are not part of the state.
+     * @param buffer The buffer to write to
+     */
+    public void save(ByteBuffer buffer) {
+        buffer.putInt(kills).putInt(shotsFired).putFloat(elapsedTime);
+        background.save(buffer);
+        enemySpawner.save(buffer);
+        for (int i = 0; i < players.length; i++) {
+            players[i].save(buffer);
+            playerWeapons[i].save(buffer);
+        }
+        if (enemyWeapon != null) {
+            enemyWeapon.save(buffer);
+        }
+    }
+
+    /**
+     * Reads a state written by save() of a world with the same number of players.
+     * @param buffer The buffer to read from
+     */
+    public void restore(ByteBuffer buffer) {
+        eventBus.clear();
+        kills = buffer.getInt();
+        shotsFired = buffer.getInt();
+        elapsedTime = buffer.getFloat();
+        background.restore(buffer);
+        enemySpawner.restore(buffer);
+        for (int i = 0; i < players.length; i++) {
+            players[i].restore(buffer);
+            playerWeapons[i].restore(buffer);
+        }
+        if (enemyWeapon != null) {
+            enemyWeapon.restore(buffer);
+        }
+    }
+
+    /**
+     * Sets the solid pixels of the art of every entity, for pixel-accurate collisions.
+     * Masks are scaled to the size each entity is drawn at. Must be the same on every
+     * network peer.
+     * @param playerMask The mask of the players, or null
+     * @param enemyMask The mask of the enemies, or null
+     * @param projectileMask The mask of projectiles and bullets, or null
+     */
+    public void setCollisionMasks(CollisionMask playerMask, CollisionMask enemyMask,
+                                  CollisionMask projectileMask) {
+        for (int i = 0; i < players.length; i++) {
+            players[i].setCollisionMask(playerMask);
+            playerWeapons[i].setCollisionMask(projectileMask);
+        }
+        if (enemyWeapon != null) {
+            enemyWeapon.setCollisionMask(projectileMask);
+        }
+        enemySpawner.setEnemyMask(enemyMask);
+    }
+
+    /**
+     * Seeds the random number generator of the world.
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        enemySpawner.setSeed(seed);
+    }
+
+    /**
+     * Checks if the game is over.
+     * @return True if no player has lives left, false otherwise
+     */
+    public boolean isGameOver() {
+        for (Player player : players) {
+            if (player.isActive()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the governor whose decisions are applied every update.
+     * Must stay null in network games, where every peer has to simulate the same world.
+     * @param loadGovernor The load governor, or null to never shed load
+     */
+    public void setLoadGovernor(LoadGovernor loadGovernor) {
+        this.loadGovernor = loadGovernor;
+    }
+
+    /**
+     * Enables or disables sound effects, e.g. while replaying ticks.
+     * @param effectsEnabled Whether sounds are triggered
+     */
+    public void setEffectsEnabled(boolean effectsEnabled) {
+        this.effectsEnabled = effectsEnabled;
+    }
+
+    public boolean isEffectsEnabled() {
+        return effectsEnabled;
+    }
+
+    /**
+     * Sets the player controlled from this machine.
+     * @param localPlayer The player index
+     */
+    public void setLocalPlayer(int localPlayer) {
+        if (localPlayer < 0 || localPlayer >= players.length) {
+            throw new IllegalArgumentException("Invalid player: " + localPlayer);
+        }
+        this.localPlayer = localPlayer;
+    }
+
+    // Getters
+
+    /**
+     * Gets the queue the world reads its input events from.
+     * @return The input queue
+     */
+    public InputQueue getInputQueue() {
+        return inputQueue;
+    }
+
+    /**
+     * Gets the input of a player for the current tick.
+     * @param index The player index
+     * @return The input state
+     */
+    public InputState getInput(int index) {
+        return inputs[index];
+    }
+
+    /**
+     * Gets the local player.
+     * @return The local player
+     */
+    public Player getPlayer() {
+        return players[localPlayer];
+    }
+
+    public Player getPlayer(int index) {
+        return players[index];
+    }
+
+    public int getPlayerCount() {
+        return players.length;
+    }
+
+    public int getLocalPlayer() {
+        return localPlayer;
+    }
+
+    public Background getBackground() {
+        return background;
+    }
+
+    /**
+     * Gets the grid of active enemies for nearest, k-nearest and radius queries.
+     * Rebuilt once per tick after the enemies have moved.
+     * @return The enemy grid
+     */
+    public SpatialGrid<Enemy> getEnemyGrid() {
+        return enemyGrid;
+    }
+
+    public EnemySpawner getEnemySpawner() {
+        return enemySpawner;
+    }
+
+    /**
+     * Gets the weapon of the local player.
+     * @return The weapon
+     */
+    public Weapon getPlayerWeapon() {
+        return playerWeapons[localPlayer];
+    }
+
+    /**
+     * Counts the entity objects the world holds on to: players, active and pooled
+     * enemies and projectiles, and pattern bullets. Used to spot pools that keep growing.
+     * @return The number of entities
+     */
+    public int getEntityCount() {
+        int count = players.length + enemySpawner.getActiveEnemyCount()
+            + enemySpawner.getPooledEnemyCount();
+        for (Weapon weapon : playerWeapons) {
+            count += weapon.getActiveProjectileCount();
+            if (weapon instanceof BasicWeapon) {
+                count += ((BasicWeapon) weapon).getPooledProjectileCount();
+            }
+        }
+        if (enemyWeapon != null) {
+            count += enemyWeapon.getActiveProjectileCount();
+        }
+        return count;
+    }
+
+    /**
+     * Gets the bus of the gameplay events (shots, hits, kills). Listeners are called once
+     * at the end of every tick, also for ticks replayed after a rollback.
+     * @return The event bus
+     */
+    public GameEventBus getEventBus() {
+        return eventBus;
+    }
+
+    /**
+     * Gets the weapon holding the bullets of all enemies.
+     * @return The enemy weapon, or null if enemies do not shoot
+     */
+    public PatternWeapon getEnemyWeapon() {
+        return enemyWeapon;
+    }
+}
@@ -0,0 +1,319 @@
+package com.shooter.spatial;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.shooter.entities.Entity;
+
+import java.util.Arrays;
+
+/**
+ * Spatial grid class.
+ * Answers "which entities are near this point" queries without scanning every entity.
+ * The grid is rebuilt from scratch once per tick: entities are bucketed into uniform
+ * cells by their center with a counting sort, so the cells are stored contiguously and a
+ * rebuild is two linear passes with no allocation once the arrays have grown. Nearest
+ * and k-nearest queries search rings of cells around the query point and stop as soon
+ * as no unvisited cell can hold anything closer. Entities outside the grid area are kept
+ * in the border cells, so they can still be found.
+ */
+public class SpatialGrid<T extends Entity> {
+    // Largest k supported by kNearest
+    public static final int MAX_K = 32;
+
+    // Grid layout
+    private final float originX;
+    private final float originY;
+    private final float cellSize;
+    private final int columns;
+    private final int rows;
+
+    // Entities and their centers, in insertion order
+    private Entity[] items;
+    private float[] centerX;
+    private float[] centerY;
+    private int size;
+
+    // Entity indices sorted by cell, and the start of each cell in that array (plus an end marker)
+    private int[] cellItems;
+    private final int[] cellStart;
+
+    // Scratch space for kNearest
+    private final int[] bestIndex;
+    private final float[] bestDistance;
+
+    /**
+     * Constructor for the spatial grid.
+     * @param originX The left edge of the grid area
+     * @param originY The bottom edge of the grid area
+     * @param width The width of the grid area
+     * @param height The height of the grid area
+     * @param cellSize The size of a cell (about the typical query radius works well)
+     */
+    public SpatialGrid(float originX, float originY, float width, float height, float cellSize) {
+        if (width <= 0 || height <= 0 || cellSize <= 0) {
+            throw new IllegalArgumentException("Grid size and cell size must be positive");
+        }
+        this.originX = originX;
+        this.originY = originY;
+        this.cellSize = cellSize;
+        this.columns = Math.max(1, (int) Math.ceil(width / cellSize));
+        this.rows = Math.max(1, (int) Math.ceil(height / cellSize));
+        this.cellStart = new int[columns * rows + 1];
+        this.items = new Entity[64];
+        this.centerX = new float[64];
+        this.centerY = new float[64];
+        this.cellItems = new int[64];
+        this.bestIndex = new int[MAX_K];
+        this.bestDistance = new float[MAX_K];
+    }
+
+    /**
+     * Rebuilds the grid from the active entities of a list.
+     * @param entities The entities
+     */
+    public void rebuild(Array<T> entities) {
+        // Collect the active entities and their centers
+        size = 0;
+        ensureCapacity(entities.size);
+        for (int i = 0; i < entities.size; i++) {
+            T entity = entities.get(i);
+            if (!entity.isActive()) {
+                continue;
+            }
+            items[size] = entity;
+            centerX[size] = entity.getPosition().x + entity.getWidth() / 2;
+            centerY[size] = entity.getPosition().y + entity.getHeight() / 2;
+            size++;
+        }
+        for (int i = size; i < items.length && items[i] != null; i++) {
+            // Do not keep removed entities alive
+            items[i] = null;
+        }
+
+        // Counting sort by cell
+        Arrays.fill(cellStart, 0);
+        for (int i = 0; i < size; i++) {
+            cellStart[cellOf(centerX[i], centerY[i]) + 1]++;
+        }
+        for (int c = 0; c < columns * rows; c++) {
+            cellStart[c + 1] += cellStart[c];
+        }
+        for (int i = 0; i < size; i++) {
+            // Uses cellStart[cell] as the insertion cursor, then restores it below
+            int cell = cellOf(centerX[i], centerY[i]);
+            cellItems[cellStart[cell]++] = i;
+        }
+        for (int c = columns * rows; c > 0; c--) {
+            cellStart[c] = cellStart[c - 1];
+        }
+        cellStart[0] = 0;
+    }
+
+    /**
+     * Finds the entity closest to a point.
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param maxDistance Entities farther away than this are ignored
+     * @return The index of the closest entity (see get()), or -1 if there is none
+     */
+    public int nearest(float x, float y, float maxDistance) {
+        int column = clampColumn(x);
+        int row = clampRow(y);
+        float maxDistanceSq = maxDistance * maxDistance;
+        int best = -1;
+        float bestDistanceSq = maxDistanceSq;
+
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            if (ring > 1 && square((ring - 1) * cellSize) > bestDistanceSq) {
+                // Every cell of this ring is farther than the best match
+                break;
+            }
+            int minColumn = column - ring;
+            int maxColumn = column + ring;
+            int minRow = row - ring;
+            int maxRow = row + ring;
+            for (int r = Math.max(0, minRow); r <= Math.min(rows - 1, maxRow); r++) {
+                boolean edgeRow = r == minRow || r == maxRow;
+                int step = edgeRow ? 1 : maxColumn - minColumn;
+                for (int c = minColumn; c <= maxColumn; c += Math.max(1, step)) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int cell = r * columns + c;
+                    for (int k = cellStart[cell]; k < cellStart[cell + 1]; k++) {
+                        int i = cellItems[k];
+                        float distanceSq = square(centerX[i] - x) + square(centerY[i] - y);
+                        if (distanceSq <= bestDistanceSq) {
+                            bestDistanceSq = distanceSq;
+                            best = i;
+                        }
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Finds the entities closest to a point, closest first.
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param k The number of entities wanted (at most MAX_K)
+     * @param maxDistance Entities farther away than this are ignored
+     * @param out Receives the indices of the entities (cleared first)
+     * @return The number of entities found
+     */
+    public int kNearest(float x, float y, int k, float maxDistance, IntArray out) {
+        if (k <= 0 || k > MAX_K) {
+            throw new IllegalArgumentException("k must be between 1 and " + MAX_K);
+        }
+        out.clear();
+        int column = clampColumn(x);
+        int row = clampRow(y);
+        float maxDistanceSq = maxDistance * maxDistance;
+        int found = 0;
+
+        int maxRing = Math.max(columns, rows);
+        for (int ring = 0; ring <= maxRing; ring++) {
+            float limitSq = found == k ? bestDistance[k - 1] : maxDistanceSq;
+            if (ring > 1 && square((ring - 1) * cellSize) > limitSq) {
+                break;
+            }
+            int minColumn = column - ring;
+            int maxColumn = column + ring;
+            int minRow = row - ring;
+            int maxRow = row + ring;
+            for (int r = Math.max(0, minRow); r <= Math.min(rows - 1, maxRow); r++) {
+                boolean edgeRow = r == minRow || r == maxRow;
+                int step = edgeRow ? 1 : maxColumn - minColumn;
+                for (int c = minColumn; c <= maxColumn; c += Math.max(1, step)) {
+                    if (c < 0 || c >= columns) {
+                        continue;
+                    }
+                    int cell = r * columns + c;
+                    for (int n = cellStart[cell]; n < cellStart[cell + 1]; n++) {
+                        int i = cellItems[n];
+                        float distanceSq = square(centerX[i] - x) + square(centerY[i] - y);
+                        if (distanceSq > maxDistanceSq
+                            || (found == k && distanceSq >= bestDistance[k - 1])) {
+                            continue;
+                        }
+                        // Insert into the sorted list of the best matches
+                        int position = found == k ? k - 1 : found++;
+                        while (position > 0 && bestDistance[position - 1] > distanceSq) {
+                            bestDistance[position] = bestDistance[position - 1];
+                            bestIndex[position] = bestIndex[position - 1];
+                            position--;
+                        }
+                        bestDistance[position] = distanceSq;
+                        bestIndex[position] = i;
+                    }
+                }
+            }
+        }
+
+        for (int i = 0; i < found; i++) {
+            out.add(bestIndex[i]);
+        }
+        return found;
+    }
+
+    /**
+     * Finds all entities within a radius of a point.
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param radius The radius
+     * @param out Receives the indices of the entities, in no particular order (cleared first)
+     * @return The number of entities found
+     */
+    public int inRadius(float x, float y, float radius, IntArray out) {
+        out.clear();
+        float radiusSq = radius * radius;
+        int minColumn = clampColumn(x - radius);
+        int maxColumn = clampColumn(x + radius);
+        int minRow = clampRow(y - radius);
+        int maxRow = clampRow(y + radius);
+        for (int r = minRow; r <= maxRow; r++) {
+            for (int c = minColumn; c <= maxColumn; c++) {
+                int cell = r * columns + c;
+                for (int n = cellStart[cell]; n < cellStart[cell + 1]; n++) {
+                    int i = cellItems[n];
+                    if (square(centerX[i] - x) + square(centerY[i] - y) <= radiusSq) {
+                        out.add(i);
+                    }
+                }
+            }
+        }
+        return out.size;
+    }
+
+    /**
+     * Gets an entity returned by a query. Valid until the next rebuild.
+     * @param index The index returned by a query
+     * @return The entity
+     */
+    @SuppressWarnings("unchecked")
+    public T get(int index) {
+        return (T) items[index];
+    }
+
+    /**
+     * Gets the number of entities in the grid.
+     * @return The number of entities
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Gets the cell of a point, clamped to the grid.
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The cell index
+     */
+    private int cellOf(float x, float y) {
+        return clampRow(y) * columns + clampColumn(x);
+    }
+
+    /**
+     * Gets the column of an x coordinate, clamped to the grid.
+     * @param x The x coordinate
+     * @return The column
+     */
+    private int clampColumn(float x) {
+        int column = (int) Math.floor((x - originX) / cellSize);
+        return Math.max(0, Math.min(columns - 1, column));
+    }
+
+    /**
+     * Gets the row of a y coordinate, clamped to the grid.
+     * @param y The y coordinate
+     * @return The row
+     */
+    private int clampRow(float y) {
+        int row = (int) Math.floor((y - originY) / cellSize);
+        return Math.max(0, Math.min(rows - 1, row));
+    }
+
+    /**
+     * Grows the per-entity arrays.
+     * @param capacity The number of entities to fit
+     */
+    private void ensureCapacity(int capacity) {
+        if (capacity <= items.length) {
+            return;
+        }
+        int newCapacity = Math.max(capacity, items.length * 2);
+        Entity[] newItems = new Entity[newCapacity];
+        System.arraycopy(items, 0, newItems, 0, items.length);
+        items = newItems;
+        centerX = new float[newCapacity];
+        centerY = new float[newCapacity];
+        cellItems = new int[newCapacity];
+    }
+
+    private static float square(float value) {
+        return value * value;
+    }
+}
@@ -2,7 +2,8 @@ package com.shooter.utils;
 
 /**
  * Constants used throughout the game.
- * This class contains static final variables for game settings, entity properties, etc.
+ * This class contains static final variables for fixed game settings, asset paths, etc.
+ * Tuning values that can change at runtime live in GameConfig.
  */
 public class Constants {
     // Game settings
@@ -12,22 +13,10 @@ public class Constants {
     public static final boolean FULLSCREEN = false;
     
     // Player settings
-    public static final float PLAYER_SPEED = 200f; // pixels per second
-    public static final int PLAYER_INITIAL_LIVES = 3;
     public static final float PLAYER_RESPAWN_TIME = 2f; // seconds
-    public static final float PLAYER_INVULNERABILITY_TIME = 3f; // seconds after respawn
     
-    // Weapon settings
-    public static final float BASIC_WEAPON_COOLDOWN = 0.25f; // seconds
-    public static final float PROJECTILE_SPEED = 400f; // pixels per second
-    
-    // Enemy settings
-    public static final float BASIC_ENEMY_SPEED = 100f; // pixels per second
-    public static final int BASIC_ENEMY_HEALTH = 1;
-    public static final int BASIC_ENEMY_SCORE = 100;
-    
-    // Game world settings
-    public static final float WORLD_SCROLL_SPEED = 60f; // pixels per second
+    // Simulation settings
+    public static final float SIMULATION_TICK = 1f / 60f; // seconds per fixed update
     
     // Screen transition time
     public static final float SCREEN_TRANSITION_TIME = 0.5f; // seconds
@@ -0,0 +1,83 @@
+package com.shooter.utils;
+
+/**
+ * Game random number generator.
+ * A small xorshift generator whose whole state is one long, so the gameplay can be
+ * saved, restored and replayed exactly. Every peer of a network game produces the same
+ * sequence from the same seed, which java.util.Random does not guarantee to expose.
+ */
+public class GameRandom {
+    private long state;
+
+    /**
+     * Constructor for the random number generator.
+     * @param seed The seed (any value, 0 included)
+     */
+    public GameRandom(long seed) {
+        setSeed(seed);
+    }
+
+    /**
+     * Restarts the sequence from a seed.
+     * @param seed The seed
+     */
+    public void setSeed(long seed) {
+        // Scramble the seed so that nearby seeds give unrelated sequences; state must not be 0
+        long z = seed + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        state = z == 0 ? 0x9E3779B97F4A7C15L : z;
+    }
+
+    /**
+     * Returns the next random long.
+     * @return A random long
+     */
+    public long nextLong() {
+        long x = state;
+        x ^= x << 13;
+        x ^= x >>> 7;
+        x ^= x << 17;
+        state = x;
+        return x * 0x2545F4914F6CDD1DL;
+    }
+
+    /**
+     * Returns the next random float.
+     * @return A random float between 0 (inclusive) and 1 (exclusive)
+     */
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    /**
+     * Returns the next random integer below a bound.
+     * @param bound The exclusive upper bound (must be positive)
+     * @return A random integer between 0 (inclusive) and bound (exclusive)
+     */
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("Bound must be positive");
+        }
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    // Getters and setters
+
+    /**
+     * Gets the internal state, e.g. to save it with the game state.
+     * @return The state
+     */
+    public long getState() {
+        return state;
+    }
+
+    /**
+     * Sets the internal state to one returned by getState().
+     * @param state The state
+     */
+    public void setState(long state) {
+        this.state = state == 0 ? 0x9E3779B97F4A7C15L : state;
+    }
+}
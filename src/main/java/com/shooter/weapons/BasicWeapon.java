@@ -3,10 +3,14 @@ package com.shooter.weapons;
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
 import com.badlogic.gdx.graphics.g2d.TextureRegion;
 import com.badlogic.gdx.utils.Array;
+import com.shooter.entities.CollisionMask;
 import com.shooter.entities.Entity;
 import com.shooter.entities.Projectile;
+import com.shooter.rendering.RenderQueue;
 import com.shooter.utils.Constants;
 
+import java.nio.ByteBuffer;
+
 /**
  * Basic weapon implementation.
  * Fires single projectiles at a fixed rate.
@@ -20,12 +24,16 @@ public class BasicWeapon implements Weapon {
     
     // Projectile properties
     private TextureRegion projectileTexture;
+    private CollisionMask projectileMask;
     private float projectileWidth;
     private float projectileHeight;
     
     // Active projectiles
     private Array<Projectile> projectiles;
     
+    // Projectiles that left play, reused by fire() so firing does not allocate
+    private Array<Projectile> freeProjectiles;
+    
     /**
      * Constructor for the basic weapon.
      * @param cooldown The cooldown time in seconds
@@ -45,6 +53,7 @@ public class BasicWeapon implements Weapon {
         this.projectileWidth = projectileWidth;
         this.projectileHeight = projectileHeight;
         this.projectiles = new Array<Projectile>();
+        this.freeProjectiles = new Array<Projectile>();
     }
     
     /**
@@ -56,18 +65,8 @@ public class BasicWeapon implements Weapon {
     @Override
     public boolean fire(float x, float y) {
         if (cooldownTimer <= 0) {
-            // Create a new projectile
-            Projectile projectile = new Projectile(
-                x, y, 
-                projectileWidth, projectileHeight, 
-                damage, playerOwned
-            );
-            
-            // Set the projectile texture
-            projectile.setTextureRegion(projectileTexture);
-            
-            // Add the projectile to the active projectiles
-            projectiles.add(projectile);
+            // Add a new or reused projectile to the active projectiles
+            projectiles.add(obtainProjectile(x, y));
             
             // Reset the cooldown timer
             cooldownTimer = cooldown;
@@ -95,7 +94,7 @@ public class BasicWeapon implements Weapon {
             
             // Remove inactive projectiles
             if (!projectile.isActive()) {
-                projectiles.removeIndex(i);
+                freeProjectiles.add(projectiles.removeIndex(i));
                 i--;
             }
         }
@@ -107,8 +106,19 @@ public class BasicWeapon implements Weapon {
      */
     @Override
     public void render(SpriteBatch batch) {
-        for (Projectile projectile : projectiles) {
-            projectile.render(batch);
+        for (int i = 0; i < projectiles.size; i++) {
+            projectiles.get(i).render(batch);
+        }
+    }
+    
+    /**
+     * Submits all active projectiles from this weapon to a render queue.
+     * @param queue The render queue to submit to
+     */
+    @Override
+    public void submit(RenderQueue queue) {
+        for (int i = 0; i < projectiles.size; i++) {
+            projectiles.get(i).submit(queue, RenderQueue.LAYER_PROJECTILES);
         }
     }
     
@@ -124,7 +134,7 @@ public class BasicWeapon implements Weapon {
             if (projectile.isActive() && projectile.collidesWith(entity)) {
                 if (projectile.handleCollision(entity)) {
                     projectile.setActive(false);
-                    projectiles.removeIndex(i);
+                    freeProjectiles.add(projectiles.removeIndex(i));
                     return true;
                 }
             }
@@ -132,6 +142,61 @@ public class BasicWeapon implements Weapon {
         return false;
     }
     
+    /**
+     * Writes the state of the weapon and its active projectiles.
+     * @param buffer The buffer to write to
+     */
+    @Override
+    public void save(ByteBuffer buffer) {
+        buffer.putFloat(cooldownTimer).putInt(projectiles.size);
+        for (int i = 0; i < projectiles.size; i++) {
+            projectiles.get(i).save(buffer);
+        }
+    }
+    
+    /**
+     * Reads a state written by save(). Existing projectile objects are reused.
+     * @param buffer The buffer to read from
+     */
+    @Override
+    public void restore(ByteBuffer buffer) {
+        cooldownTimer = buffer.getFloat();
+        int count = buffer.getInt();
+        while (projectiles.size > count) {
+            freeProjectiles.add(projectiles.pop());
+        }
+        for (int i = 0; i < count; i++) {
+            if (i == projectiles.size) {
+                projectiles.add(obtainProjectile(0, 0));
+            }
+            projectiles.get(i).restore(buffer);
+        }
+    }
+    
+    /**
+     * Gets a projectile at a position, reusing a projectile that left play if there is one.
+     * @param x The x position
+     * @param y The y position
+     * @return The projectile
+     */
+    private Projectile obtainProjectile(float x, float y) {
+        if (freeProjectiles.size > 0) {
+            Projectile projectile = freeProjectiles.pop();
+            projectile.reset(x, y);
+            return projectile;
+        }
+        Projectile projectile = new Projectile(
+            x, y, 
+            projectileWidth, projectileHeight, 
+            damage, playerOwned
+        );
+        
+        // Set the projectile texture and its solid pixels
+        projectile.setTextureRegion(projectileTexture);
+        projectile.setCollisionMask(projectileMask);
+        return projectile;
+    }
+    
     /**
      * Gets the cooldown time of the weapon.
      * @return The cooldown time in seconds
@@ -154,7 +219,32 @@ public class BasicWeapon implements Weapon {
      * Gets the number of active projectiles.
      * @return The number of active projectiles
      */
+    @Override
     public int getActiveProjectileCount() {
         return projectiles.size;
     }
+
+    /**
+     * Gets the number of projectiles kept for reuse.
+     * @return The number of pooled projectiles
+     */
+    public int getPooledProjectileCount() {
+        return freeProjectiles.size;
+    }
+
+    /**
+     * Sets the solid pixels of the projectile art, for pixel-accurate collisions.
+     * @param mask The mask, or null to collide anywhere within the projectile bounds
+     */
+    @Override
+    public void setCollisionMask(CollisionMask mask) {
+        projectileMask = mask != null
+            ? mask.scaledTo((int) projectileWidth, (int) projectileHeight) : null;
+        for (int i = 0; i < projectiles.size; i++) {
+            projectiles.get(i).setCollisionMask(projectileMask);
+        }
+        for (int i = 0; i < freeProjectiles.size; i++) {
+            freeProjectiles.get(i).setCollisionMask(projectileMask);
+        }
+    }
 }
\ No newline at end of file
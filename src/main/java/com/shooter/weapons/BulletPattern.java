@@ -0,0 +1,167 @@
+package com.shooter.weapons;
+
+import com.badlogic.gdx.math.MathUtils;
+
+/**
+ * Bullet pattern class.
+ * Immutable description of one volley: how many bullets, in which directions and how
+ * fast. The directions are computed once, relative to the firing direction, so firing
+ * a volley only rotates the table by the volley's angle instead of evaluating trig
+ * functions per bullet.
+ *
+ * Patterns are written as {@code type:count:angle:speed}, for example
+ * {@code spread:5:40:350}. The angle is the total arc for spread and aimed patterns and
+ * the rotation per volley for spirals; rings ignore it. Missing fields use the defaults
+ * of the type, so a plain type name like {@code ring} is a valid pattern.
+ */
+public final class BulletPattern {
+    /**
+     * Pattern types.
+     */
+    public enum Type {
+        // Fan of bullets around the firing direction
+        SPREAD(5, 40f, 350f),
+        // Bullets in all directions
+        RING(16, 0f, 200f),
+        // Ring-like volleys that rotate a little every volley
+        SPIRAL(4, 12f, 220f),
+        // Fan of bullets towards a target
+        AIMED(3, 10f, 300f);
+
+        private final int defaultCount;
+        private final float defaultAngle;
+        private final float defaultSpeed;
+
+        Type(int defaultCount, float defaultAngle, float defaultSpeed) {
+            this.defaultCount = defaultCount;
+            this.defaultAngle = defaultAngle;
+            this.defaultSpeed = defaultSpeed;
+        }
+    }
+
+    // Largest volley allowed
+    public static final int MAX_COUNT = 64;
+
+    private final Type type;
+    private final int count;
+    private final float angle;
+    private final float speed;
+
+    // Unit directions of the bullets relative to the firing direction (0 degrees)
+    private final float[] directionX;
+    private final float[] directionY;
+
+    /**
+     * Constructor for a bullet pattern.
+     * @param type The pattern type
+     * @param count The number of bullets per volley
+     * @param angle The arc in degrees (spread, aimed) or the rotation per volley (spiral)
+     * @param speed The bullet speed in pixels per second
+     */
+    public BulletPattern(Type type, int count, float angle, float speed) {
+        if (count < 1 || count > MAX_COUNT) {
+            throw new IllegalArgumentException("Bullet count must be between 1 and " + MAX_COUNT);
+        }
+        if (speed <= 0) {
+            throw new IllegalArgumentException("Bullet speed must be positive");
+        }
+        this.type = type;
+        this.count = count;
+        this.angle = angle;
+        this.speed = speed;
+        this.directionX = new float[count];
+        this.directionY = new float[count];
+
+        for (int i = 0; i < count; i++) {
+            float degrees;
+            if (type == Type.RING || type == Type.SPIRAL) {
+                // Evenly around the full circle
+                degrees = 360f * i / count;
+            } else if (count == 1) {
+                degrees = 0;
+            } else {
+                // Evenly across the arc, centered on the firing direction
+                degrees = -angle / 2 + angle * i / (count - 1);
+            }
+            directionX[i] = MathUtils.cosDeg(degrees);
+            directionY[i] = MathUtils.sinDeg(degrees);
+        }
+    }
+
+    /**
+     * Parses a pattern definition of the form {@code type:count:angle:speed}.
+     * @param definition The definition
+     * @return The pattern
+     * @throws IllegalArgumentException If the definition is invalid
+     */
+    public static BulletPattern parse(String definition) {
+        String[] parts = definition.trim().split(":");
+        Type type;
+        try {
+            type = Type.valueOf(parts[0].trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown bullet pattern: " + parts[0], e);
+        }
+        if (parts.length > 4) {
+            throw new IllegalArgumentException("Invalid bullet pattern: " + definition);
+        }
+        try {
+            int count = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : type.defaultCount;
+            float angle = parts.length > 2 ? Float.parseFloat(parts[2].trim()) : type.defaultAngle;
+            float speed = parts.length > 3 ? Float.parseFloat(parts[3].trim()) : type.defaultSpeed;
+            return new BulletPattern(type, count, angle, speed);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid bullet pattern: " + definition, e);
+        }
+    }
+
+    /**
+     * Gets the rotation of a volley for spiral patterns.
+     * @param volley The number of the volley
+     * @return The extra rotation in degrees
+     */
+    float getVolleyRotation(long volley) {
+        return type == Type.SPIRAL ? (angle * volley) % 360f : 0;
+    }
+
+    // Getters
+
+    public Type getType() {
+        return type;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public float getAngle() {
+        return angle;
+    }
+
+    public float getSpeed() {
+        return speed;
+    }
+
+    /**
+     * Gets the x component of a bullet direction relative to the firing direction.
+     * @param index The bullet index
+     * @return The x component of the unit direction
+     */
+    float getDirectionX(int index) {
+        return directionX[index];
+    }
+
+    /**
+     * Gets the y component of a bullet direction relative to the firing direction.
+     * @param index The bullet index
+     * @return The y component of the unit direction
+     */
+    float getDirectionY(int index) {
+        return directionY[index];
+    }
+
+    @Override
+    public String toString() {
+        return type.name().toLowerCase() + ":" + count + ":" + angle + ":" + speed;
+    }
+}
@@ -0,0 +1,319 @@
+package com.shooter.weapons;
+
+import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.badlogic.gdx.graphics.g2d.TextureRegion;
+import com.badlogic.gdx.math.MathUtils;
+import com.shooter.entities.CollisionMask;
+import com.shooter.entities.Enemy;
+import com.shooter.entities.Entity;
+import com.shooter.entities.Player;
+import com.shooter.physics.MotionKernels;
+import com.shooter.rendering.RenderQueue;
+import com.shooter.utils.Constants;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Pattern weapon implementation.
+ * Fires whole volleys described by a BulletPattern (spreads, rings, spirals, aimed
+ * bursts). Bullets are not objects: their positions and velocities live in parallel
+ * arrays allocated once, so firing a volley is a loop over the pattern's direction
+ * table and a destroyed bullet is removed by moving the last bullet into its slot.
+ * Bullets are moved and culled in bulk by the motion kernels, which use SIMD
+ * instructions when the Vector API is available.
+ */
+public class PatternWeapon implements Weapon {
+    // Weapon properties
+    private final BulletPattern pattern;
+    private float cooldown;
+    private float cooldownTimer;
+    private final int damage;
+    private final boolean playerOwned;
+
+    // Bullet appearance
+    private final TextureRegion bulletTexture;
+    private final float bulletWidth;
+    private final float bulletHeight;
+    private CollisionMask bulletMask;
+
+    // Bullet storage
+    private final float[] x;
+    private final float[] y;
+    private final float[] velocityX;
+    private final float[] velocityY;
+    private int count;
+
+    // Bullets that left the screen this update, one bit per bullet
+    private final long[] cullMask;
+    private final MotionKernels kernels;
+
+    // Direction of the next volley, set by aimAt() (aimed patterns only)
+    private boolean aimed;
+    private float aimX;
+    private float aimY;
+
+    // Number of volleys fired, drives spiral rotation
+    private long volleys;
+
+    // Statistics
+    private long droppedBullets;
+
+    /**
+     * Constructor for the pattern weapon.
+     * @param pattern The bullet pattern of every volley
+     * @param cooldown The cooldown time in seconds
+     * @param damage The damage each bullet deals
+     * @param playerOwned Whether the weapon is owned by the player (fires right) or an enemy
+     *                    (fires left)
+     * @param bulletTexture The texture for bullets
+     * @param bulletWidth The width of bullets
+     * @param bulletHeight The height of bullets
+     * @param capacity The maximum number of bullets alive at once
+     */
+    public PatternWeapon(BulletPattern pattern, float cooldown, int damage, boolean playerOwned,
+                         TextureRegion bulletTexture, float bulletWidth, float bulletHeight,
+                         int capacity) {
+        this.pattern = pattern;
+        this.cooldown = cooldown;
+        this.damage = damage;
+        this.playerOwned = playerOwned;
+        this.bulletTexture = bulletTexture;
+        this.bulletWidth = bulletWidth;
+        this.bulletHeight = bulletHeight;
+        this.x = new float[capacity];
+        this.y = new float[capacity];
+        this.velocityX = new float[capacity];
+        this.velocityY = new float[capacity];
+        this.cullMask = new long[(capacity + 63) / 64];
+        this.kernels = MotionKernels.get();
+    }
+
+    /**
+     * Aims the next volley at a point. Only used by aimed patterns; other patterns fire
+     * in the owner's facing direction.
+     * @param targetX The x coordinate of the target
+     * @param targetY The y coordinate of the target
+     */
+    public void aimAt(float targetX, float targetY) {
+        aimed = true;
+        aimX = targetX;
+        aimY = targetY;
+    }
+
+    /**
+     * Fires a volley from the specified position.
+     * @param fromX The x position to fire from
+     * @param fromY The y position to fire from
+     * @return True if the weapon fired, false if it's on cooldown
+     */
+    @Override
+    public boolean fire(float fromX, float fromY) {
+        if (cooldownTimer > 0) {
+            return false;
+        }
+
+        // Direction of the volley: one trig evaluation per volley, none per bullet
+        float degrees = playerOwned ? 0 : 180;
+        if (pattern.getType() == BulletPattern.Type.AIMED && aimed) {
+            degrees = MathUtils.atan2(aimY - fromY, aimX - fromX) * MathUtils.radiansToDegrees;
+        }
+        degrees += pattern.getVolleyRotation(volleys);
+        float cos = MathUtils.cosDeg(degrees);
+        float sin = MathUtils.sinDeg(degrees);
+        float speed = pattern.getSpeed();
+
+        // Bullets are centered on the firing position
+        float startX = fromX - bulletWidth / 2;
+        float startY = fromY - bulletHeight / 2;
+        for (int i = 0; i < pattern.getCount(); i++) {
+            if (count == x.length) {
+                droppedBullets += pattern.getCount() - i;
+                break;
+            }
+            float dx = pattern.getDirectionX(i);
+            float dy = pattern.getDirectionY(i);
+            x[count] = startX;
+            y[count] = startY;
+            velocityX[count] = (dx * cos - dy * sin) * speed;
+            velocityY[count] = (dx * sin + dy * cos) * speed;
+            count++;
+        }
+
+        volleys++;
+        aimed = false;
+        cooldownTimer = cooldown;
+        return true;
+    }
+
+    /**
+     * Moves all bullets and removes those that left the screen.
+     * @param delta The time in seconds since the last update
+     */
+    @Override
+    public void update(float delta) {
+        // Update cooldown timer
+        if (cooldownTimer > 0) {
+            cooldownTimer -= delta;
+        }
+
+        kernels.integrate(x, y, velocityX, velocityY, count, delta);
+        int culled = kernels.cull(x, y, count, -bulletWidth, -bulletHeight,
+            Constants.DEFAULT_WIDTH, Constants.DEFAULT_HEIGHT, cullMask);
+        if (culled == 0) {
+            return;
+        }
+
+        // Highest first: every bullet moved into a freed slot is then one that stays
+        for (int word = (count - 1) >>> 6; word >= 0; word--) {
+            long bits = cullMask[word];
+            while (bits != 0) {
+                int bit = 63 - Long.numberOfLeadingZeros(bits);
+                remove((word << 6) + bit);
+                bits &= ~(1L << bit);
+            }
+        }
+    }
+
+    /**
+     * Renders all bullets.
+     * @param batch The sprite batch to render with
+     */
+    @Override
+    public void render(SpriteBatch batch) {
+        if (bulletTexture == null) {
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            batch.draw(bulletTexture, x[i], y[i], bulletWidth, bulletHeight);
+        }
+    }
+
+    /**
+     * Submits all bullets to a render queue.
+     * @param queue The render queue to submit to
+     */
+    @Override
+    public void submit(RenderQueue queue) {
+        for (int i = 0; i < count; i++) {
+            queue.submit(bulletTexture, x[i], y[i], bulletWidth, bulletHeight, 0,
+                RenderQueue.LAYER_PROJECTILES);
+        }
+    }
+
+    /**
+     * Checks if a bullet hits the specified entity and removes the first one that does.
+     * Player bullets only hit enemies and enemy bullets only hit players.
+     * @param entity The entity to check collision with
+     * @return True if a collision occurred, false otherwise
+     */
+    @Override
+    public boolean checkCollision(Entity entity) {
+        if (!entity.isActive()
+            || (playerOwned ? !(entity instanceof Enemy) : !(entity instanceof Player))) {
+            return false;
+        }
+        for (int i = 0; i < count; i++) {
+            if (entity.isHitBy(x[i], y[i], bulletWidth, bulletHeight, bulletMask)) {
+                remove(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes a bullet by moving the last bullet into its slot.
+     * @param index The bullet index
+     */
+    private void remove(int index) {
+        count--;
+        x[index] = x[count];
+        y[index] = y[count];
+        velocityX[index] = velocityX[count];
+        velocityY[index] = velocityY[count];
+    }
+
+    /**
+     * Writes the state of the weapon and its bullets.
+     * @param buffer The buffer to write to
+     */
+    @Override
+    public void save(ByteBuffer buffer) {
+        buffer.putFloat(cooldownTimer).putLong(volleys).putInt(count);
+        for (int i = 0; i < count; i++) {
+            buffer.putFloat(x[i]).putFloat(y[i]).putFloat(velocityX[i]).putFloat(velocityY[i]);
+        }
+    }
+
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    @Override
+    public void restore(ByteBuffer buffer) {
+        cooldownTimer = buffer.getFloat();
+        volleys = buffer.getLong();
+        count = buffer.getInt();
+        for (int i = 0; i < count; i++) {
+            x[i] = buffer.getFloat();
+            y[i] = buffer.getFloat();
+            velocityX[i] = buffer.getFloat();
+            velocityY[i] = buffer.getFloat();
+        }
+        aimed = false;
+    }
+
+    /**
+     * Gets the cooldown time of the weapon.
+     * @return The cooldown time in seconds
+     */
+    @Override
+    public float getCooldown() {
+        return cooldown;
+    }
+
+    /**
+     * Sets the cooldown time of the weapon.
+     * @param cooldown The cooldown time in seconds
+     */
+    @Override
+    public void setCooldown(float cooldown) {
+        this.cooldown = cooldown;
+    }
+
+    // Getters
+
+    public BulletPattern getPattern() {
+        return pattern;
+    }
+
+    public int getDamage() {
+        return damage;
+    }
+
+    /**
+     * Gets the number of active bullets.
+     * @return The number of active bullets
+     */
+    @Override
+    public int getActiveProjectileCount() {
+        return count;
+    }
+
+    /**
+     * Sets the solid pixels of the bullet art, for pixel-accurate collisions.
+     * @param mask The mask, or null to collide anywhere within the bullet bounds
+     */
+    @Override
+    public void setCollisionMask(CollisionMask mask) {
+        bulletMask = mask != null ? mask.scaledTo((int) bulletWidth, (int) bulletHeight) : null;
+    }
+
+    /**
+     * Gets the number of bullets that were not fired because the storage was full.
+     * @return The number of dropped bullets
+     */
+    public long getDroppedBulletCount() {
+        return droppedBullets;
+    }
+}
@@ -1,7 +1,11 @@
 package com.shooter.weapons;
 
 import com.badlogic.gdx.graphics.g2d.SpriteBatch;
+import com.shooter.entities.CollisionMask;
 import com.shooter.entities.Entity;
+import com.shooter.rendering.RenderQueue;
+
+import java.nio.ByteBuffer;
 
 /**
  * Interface for all weapons in the game.
@@ -27,6 +31,12 @@ public interface Weapon {
      */
     void render(SpriteBatch batch);
     
+    /**
+     * Submits all active projectiles from this weapon to a render queue.
+     * @param queue The render queue to submit to
+     */
+    void submit(RenderQueue queue);
+    
     /**
      * Checks if any projectiles from this weapon collide with the specified entity.
      * @param entity The entity to check collision with
@@ -34,6 +44,18 @@ public interface Weapon {
      */
     boolean checkCollision(Entity entity);
     
+    /**
+     * Writes the state of the weapon and its active projectiles.
+     * @param buffer The buffer to write to
+     */
+    void save(ByteBuffer buffer);
+    
+    /**
+     * Reads a state written by save().
+     * @param buffer The buffer to read from
+     */
+    void restore(ByteBuffer buffer);
+    
     /**
      * Gets the cooldown time of the weapon.
      * @return The cooldown time in seconds
@@ -45,4 +67,16 @@ public interface Weapon {
      * @param cooldown The cooldown time in seconds
      */
     void setCooldown(float cooldown);
+    
+    /**
+     * Gets the number of active projectiles.
+     * @return The number of active projectiles
+     */
+    int getActiveProjectileCount();
+
+    /**
+     * Sets the solid pixels of the projectile art, for pixel-accurate collisions.
+     * @param mask The mask, or null to collide anywhere within the projectile bounds
+     */
+    void setCollisionMask(CollisionMask mask);
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package com.shooter.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the word-wise mask overlap test against a pixel by pixel reference.
+ */
+class CollisionMaskTest {
+    private static final int TRIALS = 20_000;
+
+    @Test
+    void maskAgainstMaskMatchesReference() {
+        Random random = new Random(1);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            CollisionMask a = randomMask(random);
+            CollisionMask b = randomMask(random);
+            check(random, a, a.getWidth(), a.getHeight(), b, b.getWidth(), b.getHeight());
+        }
+    }
+
+    @Test
+    void boxAgainstMaskMatchesReference() {
+        Random random = new Random(2);
+        for (int trial = 0; trial < TRIALS; trial++) {
+            CollisionMask mask = randomMask(random);
+            int boxWidth = 1 + random.nextInt(150);
+            int boxHeight = 1 + random.nextInt(20);
+            if (random.nextBoolean()) {
+                check(random, mask, mask.getWidth(), mask.getHeight(), null, boxWidth, boxHeight);
+            } else {
+                check(random, null, boxWidth, boxHeight, mask, mask.getWidth(), mask.getHeight());
+            }
+        }
+    }
+
+    @Test
+    void wideMasksAtNegativeOffsets() {
+        // Solid only in the last column of a 130 pixel wide mask, in its third word
+        boolean[][] solid = new boolean[2][130];
+        solid[1][129] = true;
+        CollisionMask wide = CollisionMask.fromSolid(solid);
+        CollisionMask dot = CollisionMask.fromSolid(new boolean[][] {{true}});
+
+        assertTrue(CollisionMask.overlaps(dot, 129, 1, 1, 1, wide, 0, 0, 130, 2));
+        assertFalse(CollisionMask.overlaps(dot, 128, 1, 1, 1, wide, 0, 0, 130, 2));
+        assertFalse(CollisionMask.overlaps(dot, 129, 0, 1, 1, wide, 0, 0, 130, 2));
+
+        // The wide mask starts left of the dot, so its rows are read from a negative start
+        assertTrue(CollisionMask.overlaps(dot, 0, 0, 1, 1, wide, -129, -1, 130, 2));
+        assertFalse(CollisionMask.overlaps(dot, 0, 0, 1, 1, wide, -128, -1, 130, 2));
+
+        // A solid box reaching into the last column from the right
+        assertTrue(CollisionMask.overlaps(wide, 0, 0, 130, 2, null, 129, 1, 70, 1));
+        assertFalse(CollisionMask.overlaps(wide, 0, 0, 130, 2, null, 130, 1, 70, 1));
+        assertTrue(CollisionMask.overlaps(null, 129, 1, 70, 1, wide, 0, 0, 130, 2));
+        assertEquals(1, wide.getSolidPixelCount());
+    }
+
+    /**
+     * Places the second box at a random offset around the first and compares overlaps()
+     * with the reference, swapping the boxes too.
+     */
+    private static void check(Random random, CollisionMask a, int aWidth, int aHeight,
+                              CollisionMask b, int bWidth, int bHeight) {
+        int ax = random.nextInt(41) - 20;
+        int ay = random.nextInt(41) - 20;
+        int bx = ax - bWidth + random.nextInt(aWidth + bWidth + 1);
+        int by = ay - bHeight + random.nextInt(aHeight + bHeight + 1);
+
+        boolean expected = reference(a, ax, ay, aWidth, aHeight, b, bx, by, bWidth, bHeight);
+        String message = "boxes " + aWidth + "x" + aHeight + " at " + ax + "," + ay
+            + " and " + bWidth + "x" + bHeight + " at " + bx + "," + by;
+        assertEquals(expected,
+            CollisionMask.overlaps(a, ax, ay, aWidth, aHeight, b, bx, by, bWidth, bHeight),
+            message);
+        assertEquals(expected,
+            CollisionMask.overlaps(b, bx, by, bWidth, bHeight, a, ax, ay, aWidth, aHeight),
+            "swapped " + message);
+    }
+
+    /**
+     * Checks every pixel the boxes share.
+     */
+    private static boolean reference(CollisionMask a, int ax, int ay, int aWidth, int aHeight,
+                                     CollisionMask b, int bx, int by, int bWidth, int bHeight) {
+        for (int y = Math.max(ay, by); y < Math.min(ay + aHeight, by + bHeight); y++) {
+            for (int x = Math.max(ax, bx); x < Math.min(ax + aWidth, bx + bWidth); x++) {
+                boolean solidA = a == null || a.isSolid(x - ax, y - ay);
+                boolean solidB = b == null || b.isSolid(x - bx, y - by);
+                if (solidA && solidB) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Creates a sparse mask up to 150 pixels wide, so masks span up to three words per row
+     * and a good share of the overlapping pairs still miss.
+     */
+    private static CollisionMask randomMask(Random random) {
+        int width = 1 + random.nextInt(150);
+        int height = 1 + random.nextInt(20);
+        float density = random.nextFloat() * 0.05f;
+        boolean[][] solid = new boolean[height][width];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                solid[y][x] = random.nextFloat() < density;
+            }
+        }
+        return CollisionMask.fromSolid(solid);
+    }
+}
@@ -0,0 +1,154 @@
+package com.shooter.entities;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the compound hitbox, on its own and on a heavy enemy.
+ */
+class CompoundHitboxTest {
+    // Heavy enemy layout for a 32x32 enemy at (100, 100): pods up to y 9.6 and from 22.4
+    private static final float ENEMY_X = 100;
+    private static final float ENEMY_Y = 100;
+    private static final float TOP_POD_Y = ENEMY_Y + 26;
+    private static final float CORE_Y = ENEMY_Y + 14;
+
+    @Test
+    void hitTestReturnsFirstStandingPart() {
+        CompoundHitbox hitbox = new CompoundHitbox();
+        int armor = hitbox.addPart(0, 0, 10, 20, CompoundHitbox.INDESTRUCTIBLE, false);
+        int core = hitbox.addPart(5, 5, 10, 10, 3, true);
+
+        assertEquals(armor, hitbox.hitTest(50, 50, 57, 60, 4, 4));
+        assertEquals(core, hitbox.hitTest(50, 50, 61, 60, 4, 4));
+        assertEquals(CompoundHitbox.MISS, hitbox.hitTest(50, 50, 66, 60, 4, 4));
+        assertEquals(CompoundHitbox.MISS, hitbox.hitTest(50, 50, 57, 71, 4, 4));
+    }
+
+    @Test
+    void destroyedPartsNoLongerCollide() {
+        CompoundHitbox hitbox = new CompoundHitbox();
+        int left = hitbox.addPart(0, 0, 10, 10, 2, false);
+        int right = hitbox.addPart(20, 0, 10, 10, 1, true);
+
+        assertEquals(0, hitbox.damagePart(left, 1));
+        assertFalse(hitbox.isPartDestroyed(left));
+        assertEquals(1, hitbox.damagePart(right, 1));
+        assertTrue(hitbox.isPartDestroyed(right));
+        assertEquals(1, hitbox.getLivePartCount());
+        assertEquals(CompoundHitbox.MISS, hitbox.hitTest(0, 0, 22, 2, 4, 4));
+        assertEquals(left, hitbox.hitTest(0, 0, 2, 2, 4, 4));
+
+        hitbox.reset();
+        assertEquals(2, hitbox.getLivePartCount());
+        assertEquals(right, hitbox.hitTest(0, 0, 22, 2, 4, 4));
+    }
+
+    @Test
+    void indestructiblePartsStayStanding() {
+        CompoundHitbox hitbox = new CompoundHitbox();
+        int armor = hitbox.addPart(0, 0, 10, 10, CompoundHitbox.INDESTRUCTIBLE, false);
+
+        assertEquals(0, hitbox.damagePart(armor, 100));
+        assertFalse(hitbox.isPartDestroyed(armor));
+        assertThrows(IllegalArgumentException.class, () -> hitbox.addPart(0, 0, 10, 10, 0, false));
+        assertThrows(IllegalArgumentException.class, () -> hitbox.addPart(0, 0, 0, 10, 1, false));
+    }
+
+    @Test
+    void saveAndRestoreKeepPartsAndHealth() {
+        CompoundHitbox hitbox = new CompoundHitbox();
+        for (int i = 0; i < 6; i++) {
+            hitbox.addPart(i * 10, 0, 8, 8, 2, i == 0);
+        }
+        hitbox.damagePart(3, 2);
+        ByteBuffer buffer = ByteBuffer.allocate(256);
+        hitbox.save(buffer);
+        buffer.flip();
+
+        CompoundHitbox restored = new CompoundHitbox();
+        restored.restore(buffer);
+        assertEquals(6, restored.getPartCount());
+        assertEquals(5, restored.getLivePartCount());
+        assertTrue(restored.isPartDestroyed(3));
+        assertTrue(restored.isPartVital(0));
+        assertEquals(40, restored.getPartX(4));
+        assertEquals(CompoundHitbox.MISS, restored.hitTest(0, 0, 31, 2, 2, 2));
+    }
+
+    @Test
+    void heavyEnemyTakesDamageOnlyThroughItsCore() {
+        Enemy enemy = createHeavyEnemy();
+
+        // The pod soaks up shots until shot off, then shots pass through
+        assertTrue(enemy.isHitBy(ENEMY_X, TOP_POD_Y, 8, 4));
+        assertEquals(0, enemy.getHitPart());
+        assertFalse(enemy.damage(1));
+        assertTrue(enemy.isHitBy(ENEMY_X, TOP_POD_Y, 8, 4));
+        assertFalse(enemy.damage(1));
+        assertTrue(enemy.getHitbox().isPartDestroyed(0));
+        assertEquals(3, enemy.getHealth());
+        assertFalse(enemy.isHitBy(ENEMY_X, TOP_POD_Y, 8, 4));
+
+        // Hits on the core are dealt to the enemy
+        for (int i = 0; i < 2; i++) {
+            assertTrue(enemy.isHitBy(ENEMY_X, CORE_Y, 8, 4));
+            assertFalse(enemy.damage(1));
+        }
+        assertTrue(enemy.isHitBy(ENEMY_X, CORE_Y, 8, 4));
+        assertTrue(enemy.damage(1));
+        assertFalse(enemy.isActive());
+    }
+
+    @Test
+    void restoreReusesTheHitbox() {
+        Enemy enemy = createHeavyEnemy();
+        CompoundHitbox hitbox = enemy.getHitbox();
+        ByteBuffer heavy = ByteBuffer.allocate(256);
+        enemy.save(heavy);
+        heavy.flip();
+
+        // Shoot off a pod, then go back to the saved state
+        for (int i = 0; i < 2; i++) {
+            enemy.isHitBy(ENEMY_X, TOP_POD_Y, 8, 4);
+            enemy.damage(1);
+        }
+        enemy.restore(heavy);
+        assertSame(hitbox, enemy.getHitbox());
+        assertFalse(hitbox.isPartDestroyed(0));
+        assertEquals(3, hitbox.getLivePartCount());
+
+        // A state without parts detaches the hitbox, a state with parts attaches it again
+        Enemy basic = new Enemy(ENEMY_X, ENEMY_Y, 32, 32, 1, 100);
+        ByteBuffer plain = ByteBuffer.allocate(256);
+        basic.save(plain);
+        plain.flip();
+        enemy.restore(plain);
+        assertNull(enemy.getHitbox());
+        assertFalse(enemy.isHeavy());
+        heavy.rewind();
+        enemy.restore(heavy);
+        assertSame(hitbox, enemy.getHitbox());
+
+        // Pooled enemies reuse it as well
+        enemy.reset(ENEMY_X, ENEMY_Y, 3, 500);
+        assertNull(enemy.getHitbox());
+        enemy.makeHeavy(2);
+        assertSame(hitbox, enemy.getHitbox());
+    }
+
+    private static Enemy createHeavyEnemy() {
+        Enemy enemy = new Enemy(ENEMY_X, ENEMY_Y, 32, 32, 3, 500);
+        enemy.makeHeavy(2);
+        assertEquals(3, enemy.getHitbox().getPartCount());
+        return enemy;
+    }
+}
@@ -0,0 +1,54 @@
+package com.shooter.events;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests for the game event bus.
+ */
+class GameEventBusTest {
+    @Test
+    void earlyDispatchKeepsTheReplayFlagOfTheTick() {
+        GameEventBus bus = new GameEventBus(4);
+        int[] batches = new int[1];
+        int[] events = new int[1];
+        bus.addListener(batch -> {
+            assertTrue(batch.isReplay());
+            batches[0]++;
+            events[0] += batch.size();
+        });
+
+        // Ten events overflow a ring of four twice before the end of the tick
+        bus.beginTick(true);
+        for (int i = 0; i < 10; i++) {
+            bus.publish(GameEventType.SHOT, 0, i, 0, 0);
+        }
+        bus.dispatch();
+
+        assertEquals(3, batches[0]);
+        assertEquals(10, events[0]);
+        assertEquals(2, bus.getEarlyDispatchCount());
+    }
+
+    @Test
+    void newTicksAreNotReplayed() {
+        GameEventBus bus = new GameEventBus(2);
+        boolean[] replayed = new boolean[1];
+        bus.addListener(batch -> replayed[0] |= batch.isReplay());
+
+        bus.beginTick(true);
+        bus.publish(GameEventType.HIT, 0, 0, 0, 1);
+        bus.dispatch();
+        replayed[0] = false;
+        bus.beginTick(false);
+        for (int i = 0; i < 5; i++) {
+            bus.publish(GameEventType.HIT, 0, 0, 0, 1);
+        }
+        bus.dispatch();
+
+        assertFalse(replayed[0]);
+    }
+}
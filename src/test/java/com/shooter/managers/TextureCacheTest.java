@@ -0,0 +1,34 @@
+package com.shooter.managers;
+
+import com.badlogic.gdx.utils.GdxRuntimeException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Tests for the texture cache that do not need a GL context.
+ */
+class TextureCacheTest {
+    @Test
+    void failedLoadLeavesNoHandleBehind() {
+        TextureCache cache = new TextureCache(1024);
+
+        GdxRuntimeException first = assertThrows(GdxRuntimeException.class,
+            () -> cache.acquire("missing", () -> {
+                throw new GdxRuntimeException("first loader");
+            }));
+        assertEquals("first loader", first.getMessage());
+
+        // The failed handle is gone, so the next acquire uses its own loader
+        GdxRuntimeException second = assertThrows(GdxRuntimeException.class,
+            () -> cache.acquire("missing", () -> {
+                throw new GdxRuntimeException("second loader");
+            }));
+        assertEquals("second loader", second.getMessage());
+
+        assertEquals(0, cache.getLoadedCount());
+        assertEquals(0, cache.getLoadCount());
+        assertEquals(0, cache.getUsedBytes());
+    }
+}
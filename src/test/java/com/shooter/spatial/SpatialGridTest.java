@@ -0,0 +1,200 @@
+package com.shooter.spatial;
+
+import com.badlogic.gdx.utils.Array;
+import com.badlogic.gdx.utils.IntArray;
+import com.shooter.entities.Entity;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Tests the spatial grid queries against a brute force search over the same entities.
+ * A third of the entities and queries lie outside the grid area.
+ */
+class SpatialGridTest {
+    // The grid of the world: the screen plus the spawn area, 64 pixel cells
+    private static final float GRID_WIDTH = 864;
+    private static final float GRID_HEIGHT = 480;
+    private static final float CELL_SIZE = 64;
+
+    private static final int ENTITIES = 400;
+    private static final int QUERIES = 300;
+    private static final float[] DISTANCES = {10, 64, 150, 400, 100_000};
+
+    /**
+     * Entity of zero size, so its center is its position.
+     */
+    private static class Point extends Entity {
+        Point(float x, float y) {
+            super(x, y, 0, 0);
+        }
+    }
+
+    @Test
+    void nearestMatchesBruteForce() {
+        Random random = new Random(1);
+        Array<Point> points = createPoints(random);
+        SpatialGrid<Point> grid = createGrid(points);
+
+        for (int q = 0; q < QUERIES; q++) {
+            float x = coordinate(random, GRID_WIDTH);
+            float y = coordinate(random, GRID_HEIGHT);
+            for (float maxDistance : DISTANCES) {
+                float[] all = sorted(distances(points, x, y, maxDistance * maxDistance));
+                float expected = all.length > 0 ? all[0] : -1;
+
+                int index = grid.nearest(x, y, maxDistance);
+                float actual = index < 0 ? -1 : distanceSq(grid.get(index), x, y);
+                assertEquals(expected, actual,
+                    "nearest to " + x + ", " + y + " within " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void kNearestMatchesBruteForce() {
+        Random random = new Random(2);
+        Array<Point> points = createPoints(random);
+        SpatialGrid<Point> grid = createGrid(points);
+        IntArray out = new IntArray();
+
+        for (int q = 0; q < QUERIES; q++) {
+            float x = coordinate(random, GRID_WIDTH);
+            float y = coordinate(random, GRID_HEIGHT);
+            int k = 1 + random.nextInt(SpatialGrid.MAX_K);
+            for (float maxDistance : DISTANCES) {
+                float[] all = sorted(distances(points, x, y, maxDistance * maxDistance));
+                float[] expected = Arrays.copyOf(all, Math.min(k, all.length));
+
+                int found = grid.kNearest(x, y, k, maxDistance, out);
+                float[] actual = new float[found];
+                for (int i = 0; i < found; i++) {
+                    actual[i] = distanceSq(grid.get(out.get(i)), x, y);
+                }
+                assertEquals(found, out.size);
+                assertArrayEquals(expected, actual,
+                    k + " nearest to " + x + ", " + y + " within " + maxDistance);
+            }
+        }
+    }
+
+    @Test
+    void inRadiusMatchesBruteForce() {
+        Random random = new Random(3);
+        Array<Point> points = createPoints(random);
+        SpatialGrid<Point> grid = createGrid(points);
+        IntArray out = new IntArray();
+
+        for (int q = 0; q < QUERIES; q++) {
+            float x = coordinate(random, GRID_WIDTH);
+            float y = coordinate(random, GRID_HEIGHT);
+            for (float radius : DISTANCES) {
+                Array<Point> expected = new Array<Point>();
+                for (Point point : points) {
+                    if (point.isActive() && distanceSq(point, x, y) <= radius * radius) {
+                        expected.add(point);
+                    }
+                }
+
+                // Same count, and each expected entity found once, so the same entities
+                int found = grid.inRadius(x, y, radius, out);
+                assertEquals(expected.size, found, "within " + radius + " of " + x + ", " + y);
+                for (int i = 0; i < found; i++) {
+                    assertTrue(expected.removeValue(grid.get(out.get(i)), true));
+                }
+            }
+        }
+    }
+
+    @Test
+    void emptyGridFindsNothing() {
+        SpatialGrid<Point> grid = createGrid(new Array<Point>());
+        IntArray out = new IntArray();
+
+        assertEquals(-1, grid.nearest(100, 100, 100_000));
+        assertEquals(0, grid.kNearest(-500, 100, 5, 100_000, out));
+        assertEquals(0, grid.inRadius(2000, -300, 100_000, out));
+    }
+
+    /**
+     * Creates entities spread over the grid area and around it, every tenth inactive.
+     * @param random The random number generator
+     * @return The entities
+     */
+    private static Array<Point> createPoints(Random random) {
+        Array<Point> points = new Array<Point>();
+        for (int i = 0; i < ENTITIES; i++) {
+            float x = coordinate(random, GRID_WIDTH);
+            float y = coordinate(random, GRID_HEIGHT);
+            Point point = new Point(x, y);
+            point.setActive(i % 10 != 0);
+            points.add(point);
+        }
+
+        // A few on the edges and far away
+        points.add(new Point(0, 0));
+        points.add(new Point(GRID_WIDTH, GRID_HEIGHT));
+        points.add(new Point(-10_000, 200));
+        points.add(new Point(400, 10_000));
+        return points;
+    }
+
+    private static SpatialGrid<Point> createGrid(Array<Point> points) {
+        SpatialGrid<Point> grid = new SpatialGrid<Point>(0, 0, GRID_WIDTH, GRID_HEIGHT, CELL_SIZE);
+        grid.rebuild(points);
+        return grid;
+    }
+
+    /**
+     * Picks a coordinate from half the extent before the grid to half the extent after it.
+     * @param random The random number generator
+     * @param extent The width or height of the grid
+     * @return The coordinate
+     */
+    private static float coordinate(Random random, float extent) {
+        return (random.nextFloat() * 2 - 0.5f) * extent;
+    }
+
+    /**
+     * Gets the squared distances of the active entities within a squared distance.
+     * @param points The entities
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @param maxDistanceSq The squared maximum distance
+     * @return The squared distances, in entity order
+     */
+    private static float[] distances(Array<Point> points, float x, float y, float maxDistanceSq) {
+        float[] distances = new float[points.size];
+        int count = 0;
+        for (Point point : points) {
+            float distanceSq = distanceSq(point, x, y);
+            if (point.isActive() && distanceSq <= maxDistanceSq) {
+                distances[count++] = distanceSq;
+            }
+        }
+        return Arrays.copyOf(distances, count);
+    }
+
+    private static float[] sorted(float[] values) {
+        Arrays.sort(values);
+        return values;
+    }
+
+    /**
+     * Gets the squared distance of an entity's center, computed like the grid does.
+     * @param point The entity
+     * @param x The x coordinate
+     * @param y The y coordinate
+     * @return The squared distance
+     */
+    private static float distanceSq(Point point, float x, float y) {
+        float dx = point.getPosition().x + point.getWidth() / 2 - x;
+        float dy = point.getPosition().y + point.getHeight() / 2 - y;
+        return dx * dx + dy * dy;
+    }
+}